@@ -0,0 +1,109 @@
+package com.trabalho.crud.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara dois resultados do JMH no formato JSON (-rf json) benchmark a benchmark, e cada
+ * combinação de @Param em separado.
+ * * Uma medida piorou quando passou da tolerância relativa (mais tempo por operação, ou menos
+ * operações por segundo no modo thrpt) e ficou fora do intervalo de erro (99,9%) da baseline;
+ * assim a variação que a baseline já tinha entre iterações não é tomada por regressão. O erro
+ * da execução atual não entra: com poucas iterações ele é largo o bastante para esconder
+ * qualquer piora.
+ */
+final class ComparacaoBaseline {
+
+    enum Situacao { REGRESSAO, MELHORA, ESTAVEL, NOVO, AUSENTE, INCOMPARAVEL }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private ComparacaoBaseline() {
+    }
+
+    static Map<String, Medida> ler(Path arquivo) throws IOException {
+        Map<String, Medida> medidas = new LinkedHashMap<>();
+        for (JsonNode resultado : JSON.readTree(arquivo.toFile())) {
+            Map<String, String> parametros = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> campos = resultado.path("params").fields();
+            while (campos.hasNext()) {
+                Map.Entry<String, JsonNode> campo = campos.next();
+                parametros.put(campo.getKey(), campo.getValue().asText());
+            }
+            JsonNode metrica = resultado.path("primaryMetric");
+            Medida medida = new Medida(resultado.path("benchmark").asText(), parametros,
+                resultado.path("mode").asText(), metrica.path("score").asDouble(),
+                erro(metrica.path("scoreError")), metrica.path("scoreUnit").asText());
+            medidas.put(medida.chave(), medida);
+        }
+        return medidas;
+    }
+
+    static List<Linha> comparar(Map<String, Medida> baseline, Map<String, Medida> atuais, double tolerancia) {
+        List<Linha> linhas = new ArrayList<>();
+        for (Medida atual : atuais.values()) {
+            Medida anterior = baseline.get(atual.chave());
+            linhas.add(new Linha(atual.chave(), anterior, atual, situacao(anterior, atual, tolerancia)));
+        }
+        for (Medida anterior : baseline.values()) {
+            if (!atuais.containsKey(anterior.chave())) {
+                linhas.add(new Linha(anterior.chave(), anterior, null, Situacao.AUSENTE));
+            }
+        }
+        return linhas;
+    }
+
+    static Situacao situacao(Medida anterior, Medida atual, double tolerancia) {
+        if (anterior == null) {
+            return Situacao.NOVO;
+        }
+        if (!anterior.modo().equals(atual.modo()) || !anterior.unidade().equals(atual.unidade())
+                || anterior.valor() <= 0) {
+            return Situacao.INCOMPARAVEL;
+        }
+        double piora = piora(anterior, atual);
+        boolean foraDoIntervalo = Math.abs(atual.valor() - anterior.valor()) > anterior.erro();
+        if (!foraDoIntervalo || Math.abs(piora) <= tolerancia) {
+            return Situacao.ESTAVEL;
+        }
+        return piora > 0 ? Situacao.REGRESSAO : Situacao.MELHORA;
+    }
+
+    // Fração de piora em relação à baseline: positiva quando o resultado atual é pior
+    static double piora(Medida anterior, Medida atual) {
+        double variacao = (atual.valor() - anterior.valor()) / anterior.valor();
+        return "thrpt".equals(atual.modo()) ? -variacao : variacao;
+    }
+
+    // O JMH grava NaN quando há iterações de menos para calcular o intervalo
+    private static double erro(JsonNode erro) {
+        double valor = erro.asDouble(0);
+        return Double.isNaN(valor) ? 0 : valor;
+    }
+
+    record Medida(String benchmark, Map<String, String> parametros, String modo, double valor, double erro,
+                  String unidade) {
+
+        String chave() {
+            String nome = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            return parametros.isEmpty() ? nome : nome + parametros;
+        }
+    }
+
+    record Linha(String chave, Medida baseline, Medida atual, Situacao situacao) {
+
+        Double variacao() {
+            return baseline == null || atual == null || baseline.valor() <= 0 ? null
+                : (atual.valor() - baseline.valor()) / baseline.valor();
+        }
+    }
+}
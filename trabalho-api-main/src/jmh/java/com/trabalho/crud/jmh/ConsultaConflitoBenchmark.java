@@ -0,0 +1,112 @@
+package com.trabalho.crud.jmh;
+
+import com.trabalho.crud.CrudApplication;
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.ReservaRepository;
+import com.trabalho.crud.core.validacao.CustoRegra;
+import com.trabalho.crud.core.validacao.ValidadorReserva;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checagem de conflito de período no H2 embutido, com a aplicação inteira (repositório, proxies
+ * e pool de conexões): a consulta de um quarto, a de um grupo de quartos e a regra de
+ * disponibilidade do {@link ValidadorReserva} sem o índice em memória, que é o caminho de
+ * toda criação quando o índice está desligado ou ainda carregando.
+ * * A massa segue a do PlanosConsultaReservaTest: 1.000 quartos, estadias de 2 noites a cada 3
+ * dias, IDs crescendo com as datas. As consultas olham os dias logo depois das últimas reservas.
+ * * O caminho do Spring Data e do Hibernate leva dezenas de milhares de chamadas para ser
+ * compilado pelo JIT, daí o aquecimento mais longo que o dos outros benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ConsultaConflitoBenchmark {
+
+    private static final int QUARTOS = 1_000;
+    private static final LocalDate INICIO_MASSA = LocalDate.of(2020, 1, 1);
+
+    @Param({"100000", "1000000"})
+    private int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private ReservaRepository repositorio;
+    private ValidadorReserva validador;
+
+    private LocalDate inicio;
+    private LocalDate fim;
+    private Reserva semConflito;
+
+    @Setup
+    public void preparar() {
+        SpringApplication aplicacao = new SpringApplication(CrudApplication.class);
+        aplicacao.setWebApplicationType(WebApplicationType.NONE);
+        aplicacao.setAdditionalProfiles("test");
+        contexto = aplicacao.run(
+            "--spring.datasource.url=jdbc:h2:mem:jmh" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+            // Sem o índice em memória a regra de disponibilidade vai ao banco
+            "--reservas.indice.habilitado=false",
+            "--logging.level.root=WARN",
+            "--spring.main.banner-mode=off");
+        repositorio = contexto.getBean(ReservaRepository.class);
+        validador = contexto.getBean(ValidadorReserva.class);
+
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        jdbc.update("insert into \"reserva\" (id, numero_do_quarto, data_inicio_reserva, data_final_reserva,"
+            + " hospede_id, versao, sequencia_alteracao)"
+            + " select x + 1, 'Q' || mod(x, cast(?1 as int)), dateadd(day, (x / ?1) * 3, cast(?2 as date)),"
+            + " dateadd(day, (x / ?1) * 3 + 2, cast(?2 as date)), mod(x, 5000) + 1, 0, x + 1"
+            + " from system_range(0, cast(?3 as int) - 1)",
+            QUARTOS, INICIO_MASSA, linhas);
+        jdbc.execute("analyze");
+
+        // Pega a última estadia de cada quarto
+        inicio = INICIO_MASSA.plusDays((linhas / QUARTOS) * 3L - 2);
+        fim = inicio.plusDays(5);
+        LocalDate livre = INICIO_MASSA.plusDays((linhas / QUARTOS) * 3L + 10);
+        semConflito = new Reserva(null, "Q7", livre, livre.plusDays(2), 1L);
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Reserva> conflitoQuarto() {
+        return repositorio.findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore("Q7", inicio, fim);
+    }
+
+    @Benchmark
+    public List<Reserva> conflitoGrupo() {
+        return repositorio.findByNumeroDoQuartoInAndDataFinalReservaAfterAndDataInicioReservaBefore(
+            List.of("Q7", "Q8", "Q9"), inicio, fim);
+    }
+
+    @Benchmark
+    public Reserva regraDisponibilidade() {
+        validador.validar(semConflito, null, CustoRegra.CONSULTA);
+        return semConflito;
+    }
+}
@@ -0,0 +1,107 @@
+package com.trabalho.crud.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roda os benchmarks JMH do perfil jmh ("mvn -Pjmh verify"), grava o resultado em JSON e o
+ * compara com a baseline guardada no repositório (src/jmh/baseline.json). Termina com código 1
+ * se alguma medida regrediu (ver {@link ComparacaoBaseline}).
+ * * Argumentos: resultado, baseline, tolerância, gravar-baseline e, depois deles, opções do
+ * próprio JMH (filtro de benchmarks, -wi, -i, -f, -p ...). Com gravar-baseline=true o
+ * resultado passa a ser a nova baseline, sem comparação.
+ */
+public final class ExecucaoJmh {
+
+    private ExecucaoJmh() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path resultado = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double tolerancia = Double.parseDouble(args[2]);
+        boolean gravarBaseline = Boolean.parseBoolean(args[3]);
+        String[] opcoesJmh = Arrays.copyOfRange(args, 4, args.length);
+
+        Files.createDirectories(resultado.toAbsolutePath().getParent());
+        new Runner(new OptionsBuilder()
+            .parent(new CommandLineOptions(opcoesJmh))
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultado.toString())
+            .build()).run();
+
+        if (gravarBaseline) {
+            Files.copy(resultado, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline gravada em " + baseline + ".");
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("Sem baseline em " + baseline + ": rode com -Djmh.gravarBaseline=true para criar.");
+            return;
+        }
+
+        List<ComparacaoBaseline.Linha> linhas = ComparacaoBaseline.comparar(ComparacaoBaseline.ler(baseline),
+            ComparacaoBaseline.ler(resultado), tolerancia);
+        imprimir(linhas, tolerancia);
+        Path comparacao = resultado.resolveSibling("comparacao.json");
+        gravar(linhas, comparacao);
+        System.out.println("Comparação gravada em " + comparacao + ".");
+
+        long regressoes = linhas.stream().filter(linha -> linha.situacao() == ComparacaoBaseline.Situacao.REGRESSAO).count();
+        if (regressoes > 0) {
+            System.out.printf("%d medida(s) piorou(aram) mais de %.0f%% em relação à baseline.%n",
+                regressoes, tolerancia * 100);
+            System.exit(1);
+        }
+    }
+
+    private static void imprimir(List<ComparacaoBaseline.Linha> linhas, double tolerancia) {
+        System.out.printf("%nComparação com a baseline (tolerância de %.0f%%):%n", tolerancia * 100);
+        System.out.printf("%-64s %22s %22s %-7s %9s  %s%n", "benchmark", "baseline", "atual", "unidade", "variação",
+            "situação");
+        long ausentes = 0;
+        for (ComparacaoBaseline.Linha linha : linhas) {
+            if (linha.situacao() == ComparacaoBaseline.Situacao.AUSENTE) {
+                // Comum ao rodar só parte dos benchmarks; ficam listados no comparacao.json
+                ausentes++;
+                continue;
+            }
+            System.out.printf("%-64s %22s %22s %-7s %9s  %s%n", linha.chave(), valor(linha.baseline()),
+                valor(linha.atual()), linha.atual().unidade(),
+                linha.variacao() == null ? "-" : String.format("%+.1f%%", linha.variacao() * 100), linha.situacao());
+        }
+        if (ausentes > 0) {
+            System.out.println(ausentes + " medida(s) da baseline não rodaram nesta execução.");
+        }
+    }
+
+    private static String valor(ComparacaoBaseline.Medida medida) {
+        return medida == null ? "-" : String.format("%.3f ± %.3f", medida.valor(), medida.erro());
+    }
+
+    private static void gravar(List<ComparacaoBaseline.Linha> linhas, Path arquivo) throws Exception {
+        List<Map<String, Object>> saida = linhas.stream().map(linha -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("benchmark", linha.chave());
+            item.put("baseline", linha.baseline() == null ? null : linha.baseline().valor());
+            item.put("atual", linha.atual() == null ? null : linha.atual().valor());
+            item.put("unidade", (linha.atual() != null ? linha.atual() : linha.baseline()).unidade());
+            item.put("variacao", linha.variacao());
+            item.put("situacao", linha.situacao());
+            return item;
+        }).toList();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(arquivo.toFile(), saida);
+    }
+}
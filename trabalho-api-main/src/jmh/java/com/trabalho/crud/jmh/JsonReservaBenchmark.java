@@ -0,0 +1,99 @@
+package com.trabalho.crud.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.trabalho.crud.core.dto.ReservaDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização e desserialização do {@link ReservaDto} com um ObjectMapper configurado como o
+ * do Spring MVC (datas ISO, propriedades desconhecidas ignoradas): o corpo de um POST/GET e o
+ * de uma página da listagem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonReservaBenchmark {
+
+    // Limite padrão de uma página da listagem
+    private static final int RESERVAS_PAGINA = 50;
+
+    private ObjectWriter escritor;
+    private ObjectWriter escritorLista;
+    private ObjectReader leitor;
+    private ObjectReader leitorLista;
+
+    private ReservaDto reserva;
+    private List<ReservaDto> pagina;
+    private String json;
+    private String jsonPagina;
+
+    @Setup
+    public void preparar() throws JsonProcessingException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        escritor = mapper.writerFor(ReservaDto.class);
+        leitor = mapper.readerFor(ReservaDto.class);
+        escritorLista = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, ReservaDto.class));
+        leitorLista = mapper.readerForListOf(ReservaDto.class);
+
+        pagina = new ArrayList<>(RESERVAS_PAGINA);
+        for (int i = 0; i < RESERVAS_PAGINA; i++) {
+            pagina.add(dto(i));
+        }
+        reserva = pagina.get(0);
+        json = escritor.writeValueAsString(reserva);
+        jsonPagina = escritorLista.writeValueAsString(pagina);
+    }
+
+    @Benchmark
+    public String serializar() throws JsonProcessingException {
+        return escritor.writeValueAsString(reserva);
+    }
+
+    @Benchmark
+    public ReservaDto desserializar() throws JsonProcessingException {
+        return leitor.readValue(json);
+    }
+
+    @Benchmark
+    public String serializarPagina() throws JsonProcessingException {
+        return escritorLista.writeValueAsString(pagina);
+    }
+
+    @Benchmark
+    public List<ReservaDto> desserializarPagina() throws JsonProcessingException {
+        return leitorLista.readValue(jsonPagina);
+    }
+
+    private static ReservaDto dto(int i) {
+        LocalDate checkIn = LocalDate.of(2025, 1, 1).plusDays(i * 3L);
+        ReservaDto dto = new ReservaDto();
+        dto.setId(1_000_000L + i);
+        dto.setNumeroDoQuarto("Q" + (100 + i));
+        dto.setDataInicioReserva(checkIn);
+        dto.setDataFinalReserva(checkIn.plusDays(2));
+        dto.setHospedeId(4_000L + i);
+        dto.setVersao(3L);
+        return dto;
+    }
+}
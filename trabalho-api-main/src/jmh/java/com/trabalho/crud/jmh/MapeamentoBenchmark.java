@@ -0,0 +1,74 @@
+package com.trabalho.crud.jmh;
+
+import com.trabalho.crud.core.dto.ReservaDto;
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.mapper.ReservaMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversões do {@link ReservaMapper} sobre listas inteiras (uma operação = a lista toda), como
+ * na listagem e na exportação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MapeamentoBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int tamanho;
+
+    private final ReservaMapper mapper = new ReservaMapper();
+    private List<Reserva> reservas;
+    private List<ReservaDto> dtos;
+
+    @Setup
+    public void preparar() {
+        LocalDate base = LocalDate.of(2025, 1, 1);
+        reservas = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            LocalDate checkIn = base.plusDays((i / 1_000) * 3L);
+            Reserva reserva = new Reserva((long) i + 1, "Q" + (i % 1_000), checkIn, checkIn.plusDays(2), 1L + i % 5_000);
+            reserva.setVersao(0L);
+            reservas.add(reserva);
+        }
+        dtos = mapper.toDtoList(reservas);
+    }
+
+    @Benchmark
+    public List<ReservaDto> toDtoList() {
+        return mapper.toDtoList(reservas);
+    }
+
+    @Benchmark
+    public void toDto(Blackhole saida) {
+        for (Reserva reserva : reservas) {
+            saida.consume(mapper.toDto(reserva));
+        }
+    }
+
+    @Benchmark
+    public void toEntity(Blackhole saida) {
+        for (ReservaDto dto : dtos) {
+            saida.consume(mapper.toEntity(dto));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.trabalho.crud.jmh;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import com.trabalho.crud.core.validacao.CustoRegra;
+import com.trabalho.crud.core.validacao.RegraCamposObrigatorios;
+import com.trabalho.crud.core.validacao.RegraDatas;
+import com.trabalho.crud.core.validacao.RegraHospede;
+import com.trabalho.crud.core.validacao.ValidadorReserva;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regras em memória do {@link ValidadorReserva} (campos obrigatórios, datas e ID do hóspede,
+ * sem a verificação no cadastro), que o ReservaService roda em toda criação e atualização antes
+ * de pegar a trava do quarto: reserva válida e reserva recusada (a exceção faz parte do custo).
+ * A regra de disponibilidade, que consulta o banco, está em ConsultaConflitoBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoBenchmark {
+
+    private ValidadorReserva validador;
+    private Reserva valida;
+    private Reserva datasInvertidas;
+    private Reserva semHospede;
+
+    @Setup
+    public void preparar() {
+        validador = new ValidadorReserva(List.of(
+            new RegraCamposObrigatorios(), new RegraDatas(), new RegraHospede()));
+
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        valida = new Reserva(null, "Q101", checkIn, checkIn.plusDays(2), 42L);
+        datasInvertidas = new Reserva(null, "Q101", checkIn.plusDays(2), checkIn, 42L);
+        semHospede = new Reserva(null, "Q101", checkIn, checkIn.plusDays(2), null);
+    }
+
+    @Benchmark
+    public Reserva reservaValida() {
+        validador.validar(valida, null, CustoRegra.MEMORIA);
+        return valida;
+    }
+
+    @Benchmark
+    public Object datasInvertidas() {
+        return recusa(datasInvertidas);
+    }
+
+    @Benchmark
+    public Object semHospede() {
+        return recusa(semHospede);
+    }
+
+    private Object recusa(Reserva reserva) {
+        try {
+            validador.validar(reserva, null, CustoRegra.MEMORIA);
+            throw new IllegalStateException("A reserva deveria ter sido recusada.");
+        } catch (ValidacaoReservaException e) {
+            return e;
+        }
+    }
+}
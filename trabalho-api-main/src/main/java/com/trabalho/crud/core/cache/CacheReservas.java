@@ -0,0 +1,162 @@
+package com.trabalho.crud.core.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.trabalho.crud.core.entity.Reserva;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache de leitura (read-through) das reservas buscadas por ID.
+ * * Usa o Caffeine (política W-TinyLFU) com limite de tamanho e expiração por tempo. IDs
+ * inexistentes também são guardados (cache negativo), com uma expiração bem menor, para
+ * que um ID recém-criado apareça rápido mesmo se algum 404 escapar da invalidação.
+ * * O cache guarda cópias desanexadas das entidades e devolve uma nova cópia a cada acesso,
+ * então quem chama pode alterar o objeto retornado sem afetar o cache. Pode ser desligado
+ * em tempo de execução; ao religar, começa vazio.
+ * * A carga do banco roda fora das travas do mapa do Caffeine: o mapa guarda um futuro, que a
+ * primeira requisição completa e as demais aguardam. Carregando dentro do computeIfAbsent, uma
+ * carga esperando conexão do pool segurava a trava do mapa (do bin, ou de todos durante um
+ * redimensionamento), enquanto as escritas que tinham as conexões esperavam essa trava para
+ * invalidar o cache, e tudo parava até o timeout do pool.
+ */
+@Component
+public class CacheReservas {
+
+    private final AsyncCache<Long, Optional<Reserva>> cache;
+    private volatile boolean habilitado;
+
+    @Autowired
+    public CacheReservas(@Value("${reservas.cache.habilitado:true}") boolean habilitado,
+                         @Value("${reservas.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                         @Value("${reservas.cache.ttl-segundos:60}") long ttlSegundos,
+                         @Value("${reservas.cache.ttl-negativo-segundos:5}") long ttlNegativoSegundos) {
+        this.habilitado = habilitado;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(tamanhoMaximo)
+            .expireAfter(new ExpiracaoPorResultado(Duration.ofSeconds(ttlSegundos), Duration.ofSeconds(ttlNegativoSegundos)))
+            .recordStats()
+            .buildAsync();
+    }
+
+    /**
+     * Busca a reserva no cache ou, se não estiver lá, no carregador (e guarda o resultado).
+     * * @param id O ID da reserva.
+     * @param carregador Busca no banco, chamado apenas em caso de miss (ou com o cache desligado).
+     * @return Uma cópia da reserva, ou vazio se ela não existir.
+     */
+    public Optional<Reserva> buscar(Long id, Function<Long, Optional<Reserva>> carregador) {
+        if (!habilitado || id == null) {
+            return carregador.apply(id);
+        }
+        // Uma única carga por ID, mesmo com várias requisições simultâneas: só a que inseriu o
+        // futuro consulta o banco
+        CompletableFuture<Optional<Reserva>> carga = new CompletableFuture<>();
+        CompletableFuture<Optional<Reserva>> valor = cache.get(id, (chave, executor) -> carga);
+        if (valor == carga) {
+            try {
+                carga.complete(carregador.apply(id).map(CacheReservas::copiar));
+            } catch (RuntimeException | Error e) {
+                // O Caffeine descarta o futuro que falhou; quem aguardava recebe a mesma exceção
+                carga.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return valor.join().map(CacheReservas::copiar);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Remove a reserva do cache. Se houver uma transação ativa, remove de novo após o commit,
+     * descartando o que outra requisição tenha lido do banco antes da escrita ser confirmada.
+     */
+    public void invalidar(Long id) {
+        if (id == null) {
+            return;
+        }
+        cache.synchronous().invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.synchronous().invalidate(id);
+                }
+            });
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Liga ou desliga o cache. As escritas feitas com o cache desligado não o invalidam
+     * com garantia, então ele é esvaziado nas duas transições.
+     */
+    public void setHabilitado(boolean habilitado) {
+        cache.synchronous().invalidateAll();
+        this.habilitado = habilitado;
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * @return Contadores de acertos, faltas e remoções desde a subida da aplicação.
+     */
+    public EstatisticaCache estatisticas() {
+        CacheStats stats = cache.synchronous().stats();
+        return new EstatisticaCache(habilitado, cache.synchronous().estimatedSize(), stats.hitCount(), stats.missCount(),
+            stats.evictionCount(), stats.hitRate());
+    }
+
+    private static Reserva copiar(Reserva reserva) {
+        Reserva copia = new Reserva(reserva.getId(), reserva.getNumeroDoQuarto(), reserva.getDataInicioReserva(),
+            reserva.getDataFinalReserva(), reserva.getHospedeId());
+        copia.setVersao(reserva.getVersao());
+        copia.setSequenciaAlteracao(reserva.getSequenciaAlteracao());
+        return copia;
+    }
+
+    // Reservas encontradas vivem ttl; IDs inexistentes (Optional vazio) vivem ttlNegativo
+    private static class ExpiracaoPorResultado implements Expiry<Long, Optional<Reserva>> {
+
+        private final long ttlNanos;
+        private final long ttlNegativoNanos;
+
+        ExpiracaoPorResultado(Duration ttl, Duration ttlNegativo) {
+            this.ttlNanos = ttl.toNanos();
+            this.ttlNegativoNanos = ttlNegativo.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long id, Optional<Reserva> valor, long agora) {
+            return valor.isPresent() ? ttlNanos : ttlNegativoNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, Optional<Reserva> valor, long agora, long duracaoAtual) {
+            return expireAfterCreate(id, valor, agora);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, Optional<Reserva> valor, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
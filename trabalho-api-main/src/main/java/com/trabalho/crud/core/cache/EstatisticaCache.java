@@ -0,0 +1,54 @@
+package com.trabalho.crud.core.cache;
+
+/**
+ * Fotografia dos contadores do cache de reservas.
+ */
+public class EstatisticaCache {
+
+    private final boolean habilitado;
+    private final long tamanho;
+    private final long acertos;
+    private final long faltas;
+    private final long remocoes;
+    private final double taxaDeAcerto;
+
+    public EstatisticaCache(boolean habilitado, long tamanho, long acertos, long faltas, long remocoes,
+                            double taxaDeAcerto) {
+        this.habilitado = habilitado;
+        this.tamanho = tamanho;
+        this.acertos = acertos;
+        this.faltas = faltas;
+        this.remocoes = remocoes;
+        this.taxaDeAcerto = taxaDeAcerto;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * @return Quantidade aproximada de entradas no cache (incluindo IDs inexistentes).
+     */
+    public long getTamanho() {
+        return tamanho;
+    }
+
+    public long getAcertos() {
+        return acertos;
+    }
+
+    public long getFaltas() {
+        return faltas;
+    }
+
+    /**
+     * @return Entradas removidas por tamanho ou expiração (não conta as invalidações por escrita).
+     */
+    public long getRemocoes() {
+        return remocoes;
+    }
+
+    public double getTaxaDeAcerto() {
+        return taxaDeAcerto;
+    }
+}
@@ -0,0 +1,60 @@
+package com.trabalho.crud.core.concorrencia;
+
+/**
+ * Fotografia das métricas de contenção de uma faixa (stripe) de travas.
+ */
+public class EstatisticaTrava {
+
+    private final int faixa;
+    private final long aquisicoes;
+    private final long contencoes;
+    private final long timeouts;
+    private final double esperaMediaMs;
+    private final double esperaMaximaMs;
+    private final int aguardandoAgora;
+
+    public EstatisticaTrava(int faixa, long aquisicoes, long contencoes, long timeouts,
+                            double esperaMediaMs, double esperaMaximaMs, int aguardandoAgora) {
+        this.faixa = faixa;
+        this.aquisicoes = aquisicoes;
+        this.contencoes = contencoes;
+        this.timeouts = timeouts;
+        this.esperaMediaMs = esperaMediaMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.aguardandoAgora = aguardandoAgora;
+    }
+
+    public int getFaixa() {
+        return faixa;
+    }
+
+    public long getAquisicoes() {
+        return aquisicoes;
+    }
+
+    /**
+     * @return Quantas aquisições encontraram a trava ocupada e precisaram esperar.
+     */
+    public long getContencoes() {
+        return contencoes;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * @return O tempo médio de espera entre as aquisições que sofreram contenção.
+     */
+    public double getEsperaMediaMs() {
+        return esperaMediaMs;
+    }
+
+    public double getEsperaMaximaMs() {
+        return esperaMaximaMs;
+    }
+
+    public int getAguardandoAgora() {
+        return aguardandoAgora;
+    }
+}
@@ -0,0 +1,237 @@
+package com.trabalho.crud.core.concorrencia;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.service.ConflitoConcorrenciaException;
+import com.trabalho.crud.core.service.ResultadoItemLote;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Modo de escrita "grupo" (group commit) para a criação de reservas.
+ * * Em vez de cada criação abrir e confirmar a própria transação, as reservas já validadas
+ * entram numa fila limitada e uma única thread gravadora as retira em lotes (até
+ * reservas.escrita.grupo.tamanho-lote itens ou reservas.escrita.grupo.espera-maxima-ms após
+ * o primeiro item). Cada lote é gravado pelo processador do ReservaService, com uma única
+ * transação e um único commit, e só então as requisições do lote são liberadas.
+ * * Ativado com reservas.escrita.modo=grupo. No modo padrão ("imediata") nada disso é usado.
+ */
+@Component
+public class GravacaoEmGrupo {
+
+    static final String MODO_GRUPO = "grupo";
+
+    private static final Logger log = LoggerFactory.getLogger(GravacaoEmGrupo.class);
+
+    private final boolean ativa;
+    private final int tamanhoLote;
+    private final long esperaMaximaNanos;
+    private final long timeoutFilaMs;
+    private final long timeoutGravacaoMs;
+    private final BlockingQueue<Pedido> fila;
+
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong itens = new AtomicLong();
+
+    private volatile Function<List<Reserva>, List<ResultadoItemLote>> processador;
+    private volatile boolean executando;
+    private Thread gravadora;
+
+    @Autowired
+    public GravacaoEmGrupo(@Value("${reservas.escrita.modo:imediata}") String modo,
+                           @Value("${reservas.escrita.grupo.tamanho-lote:128}") int tamanhoLote,
+                           @Value("${reservas.escrita.grupo.espera-maxima-ms:5}") long esperaMaximaMs,
+                           @Value("${reservas.escrita.grupo.capacidade-fila:10000}") int capacidadeFila,
+                           @Value("${reservas.escrita.grupo.timeout-fila-ms:5000}") long timeoutFilaMs,
+                           @Value("${reservas.escrita.grupo.timeout-gravacao-ms:10000}") long timeoutGravacaoMs) {
+        this.ativa = MODO_GRUPO.equalsIgnoreCase(modo);
+        this.tamanhoLote = Math.max(tamanhoLote, 1);
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(esperaMaximaMs, 0));
+        this.timeoutFilaMs = timeoutFilaMs;
+        this.timeoutGravacaoMs = timeoutGravacaoMs;
+        this.fila = new ArrayBlockingQueue<>(Math.max(capacidadeFila, 1));
+    }
+
+    public boolean ativa() {
+        return ativa;
+    }
+
+    /**
+     * Define quem grava cada lote e inicia a thread gravadora (se o modo estiver ativo).
+     * O processador recebe as reservas do lote e devolve o resultado de cada uma, na mesma ordem.
+     */
+    public synchronized void iniciar(Function<List<Reserva>, List<ResultadoItemLote>> processador) {
+        this.processador = processador;
+        if (!ativa || executando) {
+            return;
+        }
+        executando = true;
+        gravadora = new Thread(this::executarGravadora, "gravacao-em-grupo");
+        gravadora.setDaemon(true);
+        gravadora.start();
+    }
+
+    /**
+     * Enfileira a reserva e aguarda o commit do lote em que ela foi gravada.
+     * * @return A reserva gravada, já com ID.
+     * @throws ValidacaoReservaException se a reserva conflitar com outra (inclusive do mesmo lote).
+     * @throws ConflitoConcorrenciaException se a fila estiver cheia além do timeout, o lote falhar por
+     *         concorrência, a gravadora parar ou o commit não vier em reservas.escrita.grupo.timeout-gravacao-ms.
+     */
+    public Reserva gravar(Reserva reserva) {
+        Pedido pedido = new Pedido(reserva);
+        try {
+            if (!executando || !fila.offer(pedido, timeoutFilaMs, TimeUnit.MILLISECONDS)) {
+                throw new ConflitoConcorrenciaException("A fila de gravação de reservas está cheia. Tente novamente.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflitoConcorrenciaException("A espera pela fila de gravação foi interrompida.");
+        }
+
+        try {
+            return pedido.resultado.get(timeoutGravacaoMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // Ainda na fila: sai dela e com certeza não será gravada. Senão o lote já está sendo gravado
+            if (fila.remove(pedido)) {
+                throw new ConflitoConcorrenciaException("A gravação da reserva não começou a tempo. Tente novamente.");
+            }
+            throw new ConflitoConcorrenciaException("A gravação da reserva não foi confirmada a tempo. "
+                + "Consulte as reservas do quarto antes de tentar novamente.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflitoConcorrenciaException("A espera pela gravação da reserva foi interrompida.");
+        }
+    }
+
+    /**
+     * @return Média de reservas gravadas por commit desde a subida da aplicação.
+     */
+    public double mediaPorLote() {
+        long totalLotes = lotes.get();
+        return totalLotes == 0 ? 0 : (double) itens.get() / totalLotes;
+    }
+
+    @PreDestroy
+    public void parar() {
+        Thread thread;
+        synchronized (this) {
+            executando = false;
+            thread = gravadora;
+        }
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Quem ainda estiver na fila não será gravado
+        List<Pedido> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        restantes.forEach(p -> p.resultado.completeExceptionally(
+            new ConflitoConcorrenciaException("A aplicação está encerrando. Tente novamente.")));
+    }
+
+    private void executarGravadora() {
+        List<Pedido> lote = new ArrayList<>(tamanhoLote);
+        try {
+            while (executando || !fila.isEmpty()) {
+                Pedido primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                completarLote(lote);
+                gravarLote(lote);
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // A gravadora parou (encerramento, interrupção ou Error): gravar deixa de aceitar pedidos,
+            // e os que sobraram no lote em montagem ou na fila são recusados em vez de esperar para sempre
+            executando = false;
+            fila.drainTo(lote);
+            lote.forEach(p -> p.resultado.completeExceptionally(
+                new ConflitoConcorrenciaException("A gravação de reservas foi interrompida. Tente novamente.")));
+        }
+    }
+
+    // Junta o que já está na fila e, se o lote não encheu, espera mais itens até o prazo
+    private void completarLote(List<Pedido> lote) throws InterruptedException {
+        long prazo = System.nanoTime() + esperaMaximaNanos;
+        fila.drainTo(lote, tamanhoLote - lote.size());
+        while (lote.size() < tamanhoLote) {
+            long restante = prazo - System.nanoTime();
+            if (restante <= 0) {
+                break;
+            }
+            Pedido proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+            if (proximo == null) {
+                break;
+            }
+            lote.add(proximo);
+            fila.drainTo(lote, tamanhoLote - lote.size());
+        }
+    }
+
+    private void gravarLote(List<Pedido> lote) {
+        List<Reserva> reservas = new ArrayList<>(lote.size());
+        lote.forEach(p -> reservas.add(p.reserva));
+        try {
+            List<ResultadoItemLote> resultados = processador.apply(reservas);
+            lotes.incrementAndGet();
+            itens.addAndGet(lote.size());
+            for (int i = 0; i < lote.size(); i++) {
+                ResultadoItemLote resultado = resultados.get(i);
+                if (resultado.getStatus() == ResultadoItemLote.Status.CRIADA) {
+                    lote.get(i).resultado.complete(resultado.getReserva());
+                } else if (resultado.getErro() != null) {
+                    lote.get(i).resultado.completeExceptionally(resultado.getErro());
+                } else {
+                    lote.get(i).resultado.completeExceptionally(new ValidacaoReservaException(resultado.getMotivo()));
+                }
+            }
+        } catch (RuntimeException e) {
+            // Nada do lote foi confirmado: todas as requisições recebem o mesmo erro
+            log.warn("Falha ao gravar lote de {} reservas: {}", lote.size(), e.getMessage());
+            lote.forEach(p -> p.resultado.completeExceptionally(e));
+        } catch (Error e) {
+            lote.forEach(p -> p.resultado.completeExceptionally(e));
+            throw e;
+        }
+    }
+
+    private static class Pedido {
+        private final Reserva reserva;
+        private final CompletableFuture<Reserva> resultado = new CompletableFuture<>();
+
+        Pedido(Reserva reserva) {
+            this.reserva = reserva;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.trabalho.crud.core.concorrencia;
+
+import com.trabalho.crud.core.service.ConflitoConcorrenciaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Travas por quarto com striping: cada número de quarto é mapeado (por hash) para uma
+ * entre N travas fixas. Reservas de quartos em faixas diferentes correm em paralelo, e
+ * reservas do mesmo quarto são serializadas, tornando atômico o par "checar conflito + salvar".
+ * * Quando uma operação envolve vários quartos, as faixas são sempre adquiridas em ordem
+ * crescente, o que evita deadlocks entre operações concorrentes.
+ */
+@Component
+public class TravasQuarto {
+
+    private final Faixa[] faixas;
+    private final long timeoutNanos;
+
+    @Autowired
+    public TravasQuarto(@Value("${reservas.travas.quantidade:64}") int quantidade,
+                        @Value("${reservas.travas.timeout-ms:5000}") long timeoutMs) {
+        // Arredonda para potência de 2 para calcular a faixa com uma máscara
+        int tamanho = quantidade <= 1 ? 1 : Integer.highestOneBit(quantidade - 1) << 1;
+        this.faixas = new Faixa[tamanho];
+        for (int i = 0; i < faixas.length; i++) {
+            faixas[i] = new Faixa();
+        }
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    /**
+     * Executa a ação segurando a trava do quarto informado.
+     * @throws ConflitoConcorrenciaException se a trava não for obtida dentro do timeout.
+     */
+    public <T> T executar(String numeroDoQuarto, Supplier<T> acao) {
+        return executar(List.of(numeroDoQuarto), acao);
+    }
+
+    /**
+     * Executa a ação segurando as travas de todos os quartos informados, adquiridas em ordem fixa.
+     * @throws ConflitoConcorrenciaException se alguma trava não for obtida dentro do timeout.
+     */
+    public <T> T executar(Collection<String> numerosDosQuartos, Supplier<T> acao) {
+        TreeSet<Integer> indices = new TreeSet<>();
+        for (String quarto : numerosDosQuartos) {
+            indices.add(faixaDo(quarto));
+        }
+
+        List<Faixa> adquiridas = new ArrayList<>(indices.size());
+        try {
+            for (int indice : indices) {
+                Faixa faixa = faixas[indice];
+                faixa.adquirir(timeoutNanos);
+                adquiridas.add(faixa);
+            }
+            return acao.get();
+        } finally {
+            for (int i = adquiridas.size() - 1; i >= 0; i--) {
+                adquiridas.get(i).trava.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return As métricas de contenção de cada faixa.
+     */
+    public List<EstatisticaTrava> estatisticas() {
+        List<EstatisticaTrava> resultado = new ArrayList<>(faixas.length);
+        for (int i = 0; i < faixas.length; i++) {
+            resultado.add(faixas[i].fotografia(i));
+        }
+        return resultado;
+    }
+
+    int quantidadeDeFaixas() {
+        return faixas.length;
+    }
+
+    int faixaDo(String numeroDoQuarto) {
+        int h = numeroDoQuarto == null ? 0 : numeroDoQuarto.hashCode();
+        // Espalha os bits altos, como no HashMap, antes de aplicar a máscara
+        return (h ^ (h >>> 16)) & (faixas.length - 1);
+    }
+
+    private static final class Faixa {
+
+        private final ReentrantLock trava = new ReentrantLock();
+        private final AtomicLong aquisicoes = new AtomicLong();
+        private final AtomicLong contencoes = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong esperaTotalNanos = new AtomicLong();
+        private final LongAccumulator esperaMaximaNanos = new LongAccumulator(Math::max, 0);
+
+        void adquirir(long timeoutNanos) {
+            // Caminho rápido: trava livre, sem medir tempo
+            if (trava.tryLock()) {
+                aquisicoes.incrementAndGet();
+                return;
+            }
+            contencoes.incrementAndGet();
+            long inicio = System.nanoTime();
+            boolean obtida;
+            try {
+                obtida = trava.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConflitoConcorrenciaException("Operação interrompida aguardando a trava do quarto.");
+            }
+            long espera = System.nanoTime() - inicio;
+            esperaTotalNanos.addAndGet(espera);
+            esperaMaximaNanos.accumulate(espera);
+            if (!obtida) {
+                timeouts.incrementAndGet();
+                throw new ConflitoConcorrenciaException("O quarto está sendo reservado por outra operação. Tente novamente.");
+            }
+            aquisicoes.incrementAndGet();
+        }
+
+        EstatisticaTrava fotografia(int indice) {
+            long contidas = contencoes.get();
+            double mediaMs = contidas == 0 ? 0 : esperaTotalNanos.get() / (double) contidas / 1_000_000;
+            return new EstatisticaTrava(indice, aquisicoes.get(), contidas, timeouts.get(),
+                mediaMs, esperaMaximaNanos.get() / 1_000_000.0, trava.getQueueLength());
+        }
+    }
+}
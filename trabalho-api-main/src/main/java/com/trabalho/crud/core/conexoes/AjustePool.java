@@ -0,0 +1,167 @@
+package com.trabalho.crud.core.conexoes;
+
+import com.trabalho.crud.core.repository.PoolsConexao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Ajuste adaptativo do tamanho máximo de cada pool (reservas.pool.adaptativo.habilitado=true),
+ * entre reservas.pool.adaptativo.minimo e maximo, olhando a cada intervalo o que o
+ * {@link MonitorConexoes} mediu desde o intervalo anterior:
+ * - cresce (25% por vez) quando a espera média pela conexão passa de razao-espera vezes o tempo
+ *   médio de uso (e de 1 ms), ou quando algum pedido esgotou o connectionTimeout. Mas só se o
+ *   uso médio continua perto do menor já observado no pool: se ele passou de limite-degradacao
+ *   vezes esse mínimo, o gargalo é o banco, e mais conexões só aumentariam a disputa lá dentro;
+ * - diminui (25% por vez) quando não há fila, até o dobro das conexões ocupadas em média na
+ *   janela (tempo total de uso / duração da janela).
+ * * Na primeira passada o mínimo de conexões abertas de cada pool passa a ser o limite inferior;
+ * as conexões acima dele são fechadas pelo pool depois do tempo de ociosidade.
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.pool.adaptativo.habilitado", havingValue = "true")
+public class AjustePool {
+
+    private static final Logger log = LoggerFactory.getLogger(AjustePool.class);
+
+    // Conexões mantidas para cada conexão ocupada em média, ao reduzir
+    private static final int FOLGA = 2;
+
+    // Abaixo disso a espera é só o custo de pegar uma conexão livre, não fila
+    private static final long ESPERA_MINIMA_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MonitorConexoes monitor;
+    private final PoolsConexao pools;
+    private final int minimo;
+    private final int maximo;
+    private final double razaoEspera;
+    private final double limiteDegradacao;
+    private final LongSupplier relogioNanos;
+
+    private final Map<String, Amostra> amostras = new ConcurrentHashMap<>();
+    private final Map<String, Double> menorUsoNanos = new ConcurrentHashMap<>();
+    private final Set<String> saturados = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public AjustePool(MonitorConexoes monitor, PoolsConexao pools,
+                      @Value("${reservas.pool.adaptativo.minimo:5}") int minimo,
+                      @Value("${reservas.pool.adaptativo.maximo:50}") int maximo,
+                      @Value("${reservas.pool.adaptativo.razao-espera:0.5}") double razaoEspera,
+                      @Value("${reservas.pool.adaptativo.limite-degradacao:2.0}") double limiteDegradacao) {
+        this(monitor, pools, minimo, maximo, razaoEspera, limiteDegradacao, System::nanoTime);
+    }
+
+    AjustePool(MonitorConexoes monitor, PoolsConexao pools, int minimo, int maximo, double razaoEspera,
+               double limiteDegradacao, LongSupplier relogioNanos) {
+        if (minimo < 1 || maximo < minimo) {
+            throw new IllegalArgumentException("reservas.pool.adaptativo: esperado 1 <= minimo <= maximo, recebido "
+                + minimo + " e " + maximo + ".");
+        }
+        this.monitor = monitor;
+        this.pools = pools;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.razaoEspera = razaoEspera;
+        this.limiteDegradacao = limiteDegradacao;
+        this.relogioNanos = relogioNanos;
+    }
+
+    @Scheduled(initialDelayString = "${reservas.pool.adaptativo.intervalo-ms:5000}",
+               fixedDelayString = "${reservas.pool.adaptativo.intervalo-ms:5000}")
+    public void ajustar() {
+        long agora = relogioNanos.getAsLong();
+        for (String pool : pools.nomes()) {
+            ajustar(pool, agora);
+        }
+    }
+
+    private void ajustar(String pool, long agora) {
+        MonitorConexoes.MedidorPool medidor = monitor.medidor(pool);
+        Amostra atual = new Amostra(agora, medidor.espera.quantidade(), medidor.espera.totalNanos(),
+            medidor.uso.quantidade(), medidor.uso.totalNanos(), medidor.tempoEsgotado.sum());
+        Amostra anterior = amostras.put(pool, atual);
+        OcupacaoPool ocupacao = pools.ocupacao(pool);
+        int tamanho = ocupacao.getTamanhoMaximo();
+
+        int novo;
+        if (anterior == null) {
+            pools.definirMinimo(pool, minimo);
+            novo = Math.max(minimo, Math.min(maximo, tamanho));
+        } else {
+            novo = novoTamanho(pool, tamanho, ocupacao.getPendentes(), anterior, atual);
+        }
+        if (novo != tamanho) {
+            pools.redimensionar(pool, novo);
+            log.info("Pool {} redimensionado de {} para {} conexões.", pool, tamanho, novo);
+        }
+    }
+
+    private int novoTamanho(String pool, int tamanho, int pendentes, Amostra anterior, Amostra atual) {
+        long aquisicoes = atual.aquisicoes - anterior.aquisicoes;
+        long usos = atual.usos - anterior.usos;
+        long usoNanos = atual.usoNanos - anterior.usoNanos;
+        double esperaMedia = aquisicoes == 0 ? 0 : (atual.esperaNanos - anterior.esperaNanos) / (double) aquisicoes;
+        double usoMedio = usos == 0 ? 0 : usoNanos / (double) usos;
+        double referencia = usos == 0
+            ? menorUsoNanos.getOrDefault(pool, Double.MAX_VALUE)
+            : menorUsoNanos.merge(pool, usoMedio, Math::min);
+
+        boolean fila = atual.tempoEsgotado > anterior.tempoEsgotado
+            || (usos > 0 && esperaMedia >= ESPERA_MINIMA_NANOS && esperaMedia > razaoEspera * usoMedio);
+        if (fila) {
+            if (usos > 0 && usoMedio > limiteDegradacao * referencia) {
+                if (saturados.add(pool)) {
+                    log.warn("Pool {} com fila, mas o uso médio das conexões ({} µs) passou de {} vezes o menor "
+                        + "observado ({} µs): o pool não cresce enquanto o banco for o gargalo.", pool,
+                        Math.round(usoMedio / 1_000), limiteDegradacao, Math.round(referencia / 1_000));
+                }
+                return tamanho;
+            }
+            saturados.remove(pool);
+            return Math.min(maximo, tamanho + passo(tamanho));
+        }
+        saturados.remove(pool);
+
+        double ocupadasEmMedia = usoNanos / (double) Math.max(1, atual.instanteNanos - anterior.instanteNanos);
+        int necessario = Math.max(minimo, (int) Math.ceil(ocupadasEmMedia * FOLGA));
+        if (pendentes == 0 && necessario < tamanho) {
+            return Math.max(necessario, tamanho - passo(tamanho));
+        }
+        return tamanho;
+    }
+
+    private static int passo(int tamanho) {
+        return Math.max(1, tamanho / 4);
+    }
+
+    // Contadores acumulados do monitor no fim de um intervalo
+    private static final class Amostra {
+
+        private final long instanteNanos;
+        private final long aquisicoes;
+        private final long esperaNanos;
+        private final long usos;
+        private final long usoNanos;
+        private final long tempoEsgotado;
+
+        private Amostra(long instanteNanos, long aquisicoes, long esperaNanos, long usos, long usoNanos,
+                        long tempoEsgotado) {
+            this.instanteNanos = instanteNanos;
+            this.aquisicoes = aquisicoes;
+            this.esperaNanos = esperaNanos;
+            this.usos = usos;
+            this.usoNanos = usoNanos;
+            this.tempoEsgotado = tempoEsgotado;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.trabalho.crud.core.conexoes;
+
+import java.util.Map;
+
+/**
+ * Fotografia de um pool de conexões: ocupação atual, tempo de espera para obter uma conexão e
+ * tempo em que cada conexão ficou emprestada.
+ */
+public class EstatisticaPool {
+
+    private final String pool;
+    private final int ativas;
+    private final int ociosas;
+    private final int pendentes;
+    private final int tamanhoMaximo;
+    private final long aquisicoes;
+    private final long tempoEsgotado;
+    private final double esperaMediaUs;
+    private final long esperaP50Us;
+    private final long esperaP99Us;
+    private final double esperaMaximaUs;
+    private final Map<String, Long> histogramaEspera;
+    private final double usoMedioUs;
+    private final long usoP50Us;
+    private final long usoP99Us;
+    private final double usoMaximoUs;
+    private final Map<String, Long> histogramaUso;
+    private final long conexoesCriadas;
+    private final double criacaoMediaMs;
+
+    public EstatisticaPool(String pool, OcupacaoPool ocupacao, long aquisicoes, long tempoEsgotado,
+                           double esperaMediaUs, long esperaP50Us, long esperaP99Us, double esperaMaximaUs,
+                           Map<String, Long> histogramaEspera, double usoMedioUs, long usoP50Us, long usoP99Us,
+                           double usoMaximoUs, Map<String, Long> histogramaUso, long conexoesCriadas,
+                           double criacaoMediaMs) {
+        this.pool = pool;
+        this.ativas = ocupacao.getAtivas();
+        this.ociosas = ocupacao.getOciosas();
+        this.pendentes = ocupacao.getPendentes();
+        this.tamanhoMaximo = ocupacao.getTamanhoMaximo();
+        this.aquisicoes = aquisicoes;
+        this.tempoEsgotado = tempoEsgotado;
+        this.esperaMediaUs = esperaMediaUs;
+        this.esperaP50Us = esperaP50Us;
+        this.esperaP99Us = esperaP99Us;
+        this.esperaMaximaUs = esperaMaximaUs;
+        this.histogramaEspera = histogramaEspera;
+        this.usoMedioUs = usoMedioUs;
+        this.usoP50Us = usoP50Us;
+        this.usoP99Us = usoP99Us;
+        this.usoMaximoUs = usoMaximoUs;
+        this.histogramaUso = histogramaUso;
+        this.conexoesCriadas = conexoesCriadas;
+        this.criacaoMediaMs = criacaoMediaMs;
+    }
+
+    public String getPool() {
+        return pool;
+    }
+
+    public int getAtivas() {
+        return ativas;
+    }
+
+    public int getOciosas() {
+        return ociosas;
+    }
+
+    /**
+     * @return Threads esperando uma conexão livre neste instante.
+     */
+    public int getPendentes() {
+        return pendentes;
+    }
+
+    public int getTamanhoMaximo() {
+        return tamanhoMaximo;
+    }
+
+    public long getAquisicoes() {
+        return aquisicoes;
+    }
+
+    /**
+     * @return Pedidos de conexão que desistiram depois do connectionTimeout do pool.
+     */
+    public long getTempoEsgotado() {
+        return tempoEsgotado;
+    }
+
+    /**
+     * @return Espera média para obter uma conexão (fila do pool mais a validação de conexões
+     * que estavam ociosas).
+     */
+    public double getEsperaMediaUs() {
+        return esperaMediaUs;
+    }
+
+    /**
+     * @return Limite superior (em µs, potência de 2) da faixa do histograma que contém a mediana.
+     */
+    public long getEsperaP50Us() {
+        return esperaP50Us;
+    }
+
+    /**
+     * @return Limite superior (em µs, potência de 2) da faixa do histograma que contém o p99.
+     */
+    public long getEsperaP99Us() {
+        return esperaP99Us;
+    }
+
+    public double getEsperaMaximaUs() {
+        return esperaMaximaUs;
+    }
+
+    /**
+     * @return Aquisições por faixa de espera ("ate4us" = abaixo de 4µs), só faixas não vazias.
+     */
+    public Map<String, Long> getHistogramaEspera() {
+        return histogramaEspera;
+    }
+
+    /**
+     * @return Tempo médio entre obter e devolver a conexão (comandos no banco mais o trabalho
+     * da aplicação feito com a conexão em mãos).
+     */
+    public double getUsoMedioUs() {
+        return usoMedioUs;
+    }
+
+    public long getUsoP50Us() {
+        return usoP50Us;
+    }
+
+    public long getUsoP99Us() {
+        return usoP99Us;
+    }
+
+    public double getUsoMaximoUs() {
+        return usoMaximoUs;
+    }
+
+    /**
+     * @return Empréstimos por faixa de duração ("ate4us" = abaixo de 4µs), só faixas não vazias.
+     */
+    public Map<String, Long> getHistogramaUso() {
+        return histogramaUso;
+    }
+
+    /**
+     * @return Conexões físicas abertas pelo pool desde a subida.
+     */
+    public long getConexoesCriadas() {
+        return conexoesCriadas;
+    }
+
+    public double getCriacaoMediaMs() {
+        return criacaoMediaMs;
+    }
+}
@@ -0,0 +1,45 @@
+package com.trabalho.crud.core.conexoes;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fotografia das conexões retidas por tempo demais, agrupadas pelo método que as pegou.
+ */
+public class EstatisticaRetencoes {
+
+    private final long limiteMs;
+    private final long total;
+    private final Map<String, Long> porOperacao;
+    private final List<RetencaoConexao> recentes;
+
+    public EstatisticaRetencoes(long limiteMs, long total, Map<String, Long> porOperacao,
+                                List<RetencaoConexao> recentes) {
+        this.limiteMs = limiteMs;
+        this.total = total;
+        this.porOperacao = porOperacao;
+        this.recentes = recentes;
+    }
+
+    /**
+     * @return Tempo de empréstimo a partir do qual uma conexão é considerada retida (0 = desligado).
+     */
+    public long getLimiteMs() {
+        return limiteMs;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<String, Long> getPorOperacao() {
+        return porOperacao;
+    }
+
+    /**
+     * @return As últimas retenções registradas, da mais recente para a mais antiga.
+     */
+    public List<RetencaoConexao> getRecentes() {
+        return recentes;
+    }
+}
@@ -0,0 +1,96 @@
+package com.trabalho.crud.core.conexoes;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências em faixas de potência de 2 (em µs), com contagem, soma e máximo.
+ * Mesmo formato do histograma das regras de validação: a faixa i guarda as latências abaixo de
+ * 2^i µs e os percentis são o limite superior da faixa que os contém.
+ */
+class HistogramaLatencia {
+
+    private static final int FAIXAS = 32;
+
+    private final LongAdder quantidade = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maximaNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray faixas = new AtomicLongArray(FAIXAS);
+
+    void registrar(long nanos) {
+        quantidade.increment();
+        totalNanos.add(nanos);
+        maximaNanos.accumulate(nanos);
+        faixas.incrementAndGet(faixaDe(nanos));
+    }
+
+    long quantidade() {
+        return quantidade.sum();
+    }
+
+    long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    double mediaUs() {
+        long total = quantidade.sum();
+        return total == 0 ? 0 : totalNanos.sum() / (double) total / 1_000;
+    }
+
+    double maximaUs() {
+        return maximaNanos.get() / 1_000.0;
+    }
+
+    /**
+     * @return Limite superior (em µs) da faixa que contém o percentil, ou 0 sem registros.
+     */
+    long percentilUs(double fracao) {
+        long[] contagens = contagens();
+        long total = 0;
+        for (long contagem : contagens) {
+            total += contagem;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = (long) Math.ceil(total * fracao);
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                return 1L << i;
+            }
+        }
+        return 1L << (contagens.length - 1);
+    }
+
+    /**
+     * @return Quantidade por faixa ("ate4us" = abaixo de 4µs), só faixas não vazias.
+     */
+    Map<String, Long> faixas() {
+        long[] contagens = contagens();
+        Map<String, Long> resultado = new LinkedHashMap<>();
+        for (int i = 0; i < contagens.length; i++) {
+            if (contagens[i] > 0) {
+                resultado.put(i == contagens.length - 1 ? "acima" : "ate" + (1L << i) + "us", contagens[i]);
+            }
+        }
+        return resultado;
+    }
+
+    static int faixaDe(long nanos) {
+        long micros = nanos / 1_000;
+        return Math.min(64 - Long.numberOfLeadingZeros(micros), FAIXAS - 1);
+    }
+
+    private long[] contagens() {
+        long[] contagens = new long[FAIXAS];
+        for (int i = 0; i < contagens.length; i++) {
+            contagens[i] = faixas.get(i);
+        }
+        return contagens;
+    }
+}
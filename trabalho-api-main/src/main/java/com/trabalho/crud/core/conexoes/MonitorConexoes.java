@@ -0,0 +1,275 @@
+package com.trabalho.crud.core.conexoes;
+
+import com.trabalho.crud.core.repository.PoolsConexao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Métricas dos pools de conexões, alimentadas pelos próprios pools (ver PoolsConexao): quanto
+ * tempo cada pedido esperou por uma conexão e quanto tempo cada conexão ficou emprestada. Com as
+ * duas medidas dá para separar a latência de uma operação em fila do pool e uso da conexão.
+ * * Cada empréstimo é anotado na thread que pegou a conexão, com o método do núcleo que o
+ * pediu (de preferência o método de serviço por onde a operação entrou, como
+ * ReservaService.criar). Empréstimos mais longos que reservas.pool.retencao.limite-ms são
+ * registrados como retenção e logados com esse método, tanto na devolução quanto, se a conexão
+ * não voltar, na verificação periódica dos empréstimos abertos. Descobrir o método percorre a
+ * pilha da thread a cada aquisição; com o limite em 0 isso não é feito.
+ */
+@Component
+public class MonitorConexoes {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorConexoes.class);
+
+    static final String DESCONHECIDA = "desconhecida";
+
+    private static final String PACOTE_SERVICOS = "com.trabalho.crud.core.service.";
+    private static final String PACOTE_NUCLEO = "com.trabalho.crud.core.";
+    private static final String PACOTE_CONEXOES = "com.trabalho.crud.core.conexoes.";
+
+    private static final StackWalker PILHA = StackWalker.getInstance();
+
+    private final PoolsConexao pools;
+    private final long limiteNanos;
+    private final int historico;
+    private final LongSupplier relogioNanos;
+
+    private final Map<String, MedidorPool> medidores = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<Emprestimo>> emprestimosDaThread = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Set<Emprestimo> abertos = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder retencoes = new LongAdder();
+    private final Map<String, LongAdder> retencoesPorOperacao = new ConcurrentHashMap<>();
+    private final Deque<RetencaoConexao> recentes = new ArrayDeque<>();
+
+    @Autowired
+    public MonitorConexoes(PoolsConexao pools,
+                           @Value("${reservas.pool.retencao.limite-ms:2000}") long limiteRetencaoMs,
+                           @Value("${reservas.pool.retencao.historico:100}") int historico) {
+        this(pools, limiteRetencaoMs, historico, System::nanoTime);
+    }
+
+    MonitorConexoes(PoolsConexao pools, long limiteRetencaoMs, int historico, LongSupplier relogioNanos) {
+        this.pools = pools;
+        this.limiteNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, limiteRetencaoMs));
+        this.historico = Math.max(1, historico);
+        this.relogioNanos = relogioNanos;
+    }
+
+    /**
+     * Chamado pelo pool na thread que recebeu a conexão, logo depois de obtê-la.
+     * @param esperaNanos Tempo desde o pedido até a entrega (fila e validação da conexão).
+     */
+    public void conexaoAdquirida(String pool, long esperaNanos) {
+        medidor(pool).espera.registrar(esperaNanos);
+        Emprestimo emprestimo = new Emprestimo(pool, limiteNanos > 0 ? operacaoAtual() : null,
+            Thread.currentThread().getName(), relogioNanos.getAsLong());
+        emprestimosDaThread.get().push(emprestimo);
+        if (limiteNanos > 0) {
+            abertos.add(emprestimo);
+        }
+    }
+
+    /**
+     * Chamado pelo pool na thread que devolveu a conexão.
+     */
+    public void conexaoDevolvida(String pool) {
+        Emprestimo emprestimo = retirar(pool);
+        if (emprestimo == null) {
+            // Obtida em outra thread: o tempo de uso não tem como ser atribuído
+            return;
+        }
+        abertos.remove(emprestimo);
+        long duracao = relogioNanos.getAsLong() - emprestimo.inicioNanos;
+        medidor(pool).uso.registrar(duracao);
+        if (limiteNanos > 0 && duracao > limiteNanos && emprestimo.registrado.compareAndSet(false, true)) {
+            registrarRetencao(emprestimo, duracao, false);
+        }
+    }
+
+    /**
+     * Chamado pelo pool quando um pedido desiste depois do connectionTimeout.
+     */
+    public void tempoEsgotado(String pool) {
+        medidor(pool).tempoEsgotado.increment();
+    }
+
+    /**
+     * Chamado pelo pool ao abrir uma conexão física nova.
+     */
+    public void conexaoCriada(String pool, long duracaoMs) {
+        MedidorPool medidor = medidor(pool);
+        medidor.conexoesCriadas.increment();
+        medidor.criacaoTotalMs.add(duracaoMs);
+    }
+
+    /**
+     * Registra os empréstimos ainda abertos há mais tempo que o limite: conexões que talvez
+     * nunca voltem ao pool.
+     */
+    @Scheduled(initialDelayString = "${reservas.pool.retencao.verificacao-intervalo-ms:1000}",
+               fixedDelayString = "${reservas.pool.retencao.verificacao-intervalo-ms:1000}")
+    public void verificarRetencoes() {
+        if (limiteNanos == 0) {
+            return;
+        }
+        long agora = relogioNanos.getAsLong();
+        for (Emprestimo emprestimo : abertos) {
+            long duracao = agora - emprestimo.inicioNanos;
+            if (duracao > limiteNanos && emprestimo.registrado.compareAndSet(false, true)) {
+                registrarRetencao(emprestimo, duracao, true);
+            }
+        }
+    }
+
+    /**
+     * @return Ocupação, espera e uso de cada pool, na ordem em que foram criados.
+     */
+    public List<EstatisticaPool> estatisticas() {
+        List<EstatisticaPool> resultado = new ArrayList<>();
+        for (String nome : pools.nomes()) {
+            MedidorPool medidor = medidor(nome);
+            long criadas = medidor.conexoesCriadas.sum();
+            resultado.add(new EstatisticaPool(nome, pools.ocupacao(nome), medidor.espera.quantidade(),
+                medidor.tempoEsgotado.sum(), medidor.espera.mediaUs(), medidor.espera.percentilUs(0.50),
+                medidor.espera.percentilUs(0.99), medidor.espera.maximaUs(), medidor.espera.faixas(),
+                medidor.uso.mediaUs(), medidor.uso.percentilUs(0.50), medidor.uso.percentilUs(0.99),
+                medidor.uso.maximaUs(), medidor.uso.faixas(), criadas,
+                criadas == 0 ? 0 : medidor.criacaoTotalMs.sum() / (double) criadas));
+        }
+        return resultado;
+    }
+
+    /**
+     * @return Quantas retenções houve, por método, e as mais recentes.
+     */
+    public EstatisticaRetencoes retencoes() {
+        Map<String, Long> porOperacao = new TreeMap<>();
+        retencoesPorOperacao.forEach((operacao, quantidade) -> porOperacao.put(operacao, quantidade.sum()));
+        List<RetencaoConexao> ultimas;
+        synchronized (recentes) {
+            ultimas = List.copyOf(recentes);
+        }
+        return new EstatisticaRetencoes(TimeUnit.NANOSECONDS.toMillis(limiteNanos), retencoes.sum(),
+            porOperacao, ultimas);
+    }
+
+    MedidorPool medidor(String pool) {
+        return medidores.computeIfAbsent(pool, nome -> new MedidorPool());
+    }
+
+    // Empréstimos aninhados (transações encadeadas) são devolvidos na ordem inversa
+    private Emprestimo retirar(String pool) {
+        Deque<Emprestimo> emprestimos = emprestimosDaThread.get();
+        Iterator<Emprestimo> iterador = emprestimos.iterator();
+        while (iterador.hasNext()) {
+            Emprestimo emprestimo = iterador.next();
+            if (emprestimo.pool.equals(pool)) {
+                iterador.remove();
+                return emprestimo;
+            }
+        }
+        return null;
+    }
+
+    private void registrarRetencao(Emprestimo emprestimo, long duracaoNanos, boolean aberta) {
+        long duracaoMs = TimeUnit.NANOSECONDS.toMillis(duracaoNanos);
+        retencoes.increment();
+        retencoesPorOperacao.computeIfAbsent(emprestimo.operacao, operacao -> new LongAdder()).increment();
+        synchronized (recentes) {
+            recentes.addFirst(new RetencaoConexao(emprestimo.pool, emprestimo.operacao, emprestimo.thread,
+                duracaoMs, aberta));
+            if (recentes.size() > historico) {
+                recentes.removeLast();
+            }
+        }
+        log.warn("Conexão do pool {} retida por {} ms em {} (thread {}){}.", emprestimo.pool, duracaoMs,
+            emprestimo.operacao, emprestimo.thread, aberta ? ", ainda não devolvida" : "");
+    }
+
+    private static String operacaoAtual() {
+        return PILHA.walk(MonitorConexoes::operacao);
+    }
+
+    /**
+     * O método dos serviços mais externo da pilha (o ponto de entrada, como ReservaService.criar,
+     * mesmo que a conexão tenha sido pega num serviço chamado por ele) ou, sem nenhum, o primeiro
+     * método do núcleo a partir do topo, como "Classe.metodo".
+     */
+    static String operacao(Stream<StackWalker.StackFrame> pilha) {
+        String doServico = null;
+        String doNucleo = null;
+        Iterator<StackWalker.StackFrame> quadros = pilha.iterator();
+        while (quadros.hasNext()) {
+            StackWalker.StackFrame quadro = quadros.next();
+            String classe = quadro.getClassName();
+            if (classe.startsWith(PACOTE_SERVICOS)) {
+                doServico = nome(classe, quadro.getMethodName());
+            } else if (doServico == null && doNucleo == null && classe.startsWith(PACOTE_NUCLEO)
+                    && !classe.startsWith(PACOTE_CONEXOES)) {
+                doNucleo = nome(classe, quadro.getMethodName());
+            }
+        }
+        if (doServico != null) {
+            return doServico;
+        }
+        return doNucleo == null ? DESCONHECIDA : doNucleo;
+    }
+
+    // "com.x.ReservaService$$SpringCGLIB$$0" + "lambda$criar$3" -> "ReservaService.criar"
+    static String nome(String classe, String metodo) {
+        String simples = classe.substring(classe.lastIndexOf('.') + 1);
+        int interna = simples.indexOf('$');
+        if (interna > 0) {
+            simples = simples.substring(0, interna);
+        }
+        if (metodo.startsWith("lambda$")) {
+            int fim = metodo.indexOf('$', "lambda$".length());
+            metodo = metodo.substring("lambda$".length(), fim > 0 ? fim : metodo.length());
+        }
+        return simples + "." + metodo;
+    }
+
+    static final class MedidorPool {
+
+        final HistogramaLatencia espera = new HistogramaLatencia();
+        final HistogramaLatencia uso = new HistogramaLatencia();
+        final LongAdder tempoEsgotado = new LongAdder();
+        final LongAdder conexoesCriadas = new LongAdder();
+        final LongAdder criacaoTotalMs = new LongAdder();
+    }
+
+    private static final class Emprestimo {
+
+        private final String pool;
+        private final String operacao;
+        private final String thread;
+        private final long inicioNanos;
+        private final AtomicBoolean registrado = new AtomicBoolean();
+
+        private Emprestimo(String pool, String operacao, String thread, long inicioNanos) {
+            this.pool = pool;
+            this.operacao = operacao;
+            this.thread = thread;
+            this.inicioNanos = inicioNanos;
+        }
+    }
+}
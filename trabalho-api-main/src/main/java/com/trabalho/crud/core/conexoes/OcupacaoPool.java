@@ -0,0 +1,41 @@
+package com.trabalho.crud.core.conexoes;
+
+/**
+ * Ocupação instantânea de um pool de conexões, lida do próprio pool.
+ */
+public class OcupacaoPool {
+
+    private final int ativas;
+    private final int ociosas;
+    private final int pendentes;
+    private final int tamanhoMaximo;
+
+    public OcupacaoPool(int ativas, int ociosas, int pendentes, int tamanhoMaximo) {
+        this.ativas = ativas;
+        this.ociosas = ociosas;
+        this.pendentes = pendentes;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+
+    /**
+     * @return Conexões emprestadas a alguma thread.
+     */
+    public int getAtivas() {
+        return ativas;
+    }
+
+    public int getOciosas() {
+        return ociosas;
+    }
+
+    /**
+     * @return Threads esperando uma conexão livre.
+     */
+    public int getPendentes() {
+        return pendentes;
+    }
+
+    public int getTamanhoMaximo() {
+        return tamanhoMaximo;
+    }
+}
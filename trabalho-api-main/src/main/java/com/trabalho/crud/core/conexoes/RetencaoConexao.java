@@ -0,0 +1,51 @@
+package com.trabalho.crud.core.conexoes;
+
+/**
+ * Uma conexão que ficou emprestada além de reservas.pool.retencao.limite-ms.
+ */
+public class RetencaoConexao {
+
+    private final String pool;
+    private final String operacao;
+    private final String thread;
+    private final long duracaoMs;
+    private final boolean aberta;
+
+    public RetencaoConexao(String pool, String operacao, String thread, long duracaoMs, boolean aberta) {
+        this.pool = pool;
+        this.operacao = operacao;
+        this.thread = thread;
+        this.duracaoMs = duracaoMs;
+        this.aberta = aberta;
+    }
+
+    public String getPool() {
+        return pool;
+    }
+
+    /**
+     * @return O método que pegou a conexão, como "ReservaService.criar".
+     */
+    public String getOperacao() {
+        return operacao;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    /**
+     * @return Quanto tempo a conexão ficou emprestada (até a devolução, ou até a verificação que
+     * a encontrou ainda aberta).
+     */
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    /**
+     * @return true se a conexão ainda não tinha sido devolvida quando a retenção foi registrada.
+     */
+    public boolean isAberta() {
+        return aberta;
+    }
+}
@@ -0,0 +1,125 @@
+package com.trabalho.crud.core.disponibilidade;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.ReservaRepository;
+import com.trabalho.crud.core.shard.RoteadorShards;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Monta as sugestões devolvidas quando uma reserva é recusada por conflito, para que o cliente
+ * não precise sondar a API deslocando as datas às cegas.
+ * * Os períodos ocupados do quarto dentro do horizonte de busca (reservas.sugestoes.horizonte-dias
+ * antes e depois do período pedido) são percorridos uma única vez, em ordem, e cada intervalo
+ * livre que comporta a mesma quantidade de noites gera o candidato mais próximo da data pedida.
+ * Os dados vêm do índice em memória; sem ele, de uma consulta por faixa de datas.
+ */
+@Component
+public class BuscaAlternativas {
+
+    // Limite de segurança para o tamanho da resposta, independente da configuração
+    static final int QUANTIDADE_MAXIMA = 20;
+
+    private final IndiceDisponibilidade indiceDisponibilidade;
+    private final ReservaRepository reservaRepository;
+    private final RoteadorShards roteadorShards;
+    private final int quantidade;
+    private final int horizonteDias;
+
+    @Autowired
+    public BuscaAlternativas(IndiceDisponibilidade indiceDisponibilidade, ReservaRepository reservaRepository,
+                             RoteadorShards roteadorShards,
+                             @Value("${reservas.sugestoes.quantidade:3}") int quantidade,
+                             @Value("${reservas.sugestoes.horizonte-dias:30}") int horizonteDias) {
+        this.indiceDisponibilidade = indiceDisponibilidade;
+        this.reservaRepository = reservaRepository;
+        this.roteadorShards = roteadorShards;
+        this.quantidade = Math.max(0, Math.min(quantidade, QUANTIDADE_MAXIMA));
+        this.horizonteDias = Math.max(horizonteDias, 0);
+    }
+
+    /**
+     * @param reserva A reserva recusada (quarto e datas pedidos).
+     * @param ignorarId ID da própria reserva numa atualização (suas noites contam como livres), ou null.
+     * @return Até reservas.sugestoes.quantidade períodos no mesmo quarto e quartos nas mesmas datas.
+     */
+    public SugestoesReserva sugerir(Reserva reserva, Long ignorarId) {
+        if (quantidade == 0) {
+            return new SugestoesReserva(List.of(), List.of());
+        }
+        return new SugestoesReserva(periodosNoMesmoQuarto(reserva, ignorarId), outrosQuartos(reserva));
+    }
+
+    private List<PeriodoLivre> periodosNoMesmoQuarto(Reserva reserva, Long ignorarId) {
+        LocalDate inicio = reserva.getDataInicioReserva();
+        long noites = ChronoUnit.DAYS.between(inicio, reserva.getDataFinalReserva());
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicioBusca = inicio.minusDays(horizonteDias).isBefore(hoje) ? hoje : inicio.minusDays(horizonteDias);
+        LocalDate fimBusca = reserva.getDataFinalReserva().plusDays(horizonteDias);
+
+        List<PeriodoLivre> ocupados = periodosOcupados(reserva.getNumeroDoQuarto(), inicioBusca, fimBusca, ignorarId);
+
+        // Varredura única: entre o fim do último bloco ocupado (cursor) e o início do próximo há um intervalo livre
+        List<PeriodoLivre> candidatos = new ArrayList<>();
+        LocalDate cursor = inicioBusca;
+        for (PeriodoLivre ocupado : ocupados) {
+            adicionarCandidato(candidatos, cursor, ocupado.getDataInicioReserva(), noites, inicio);
+            if (ocupado.getDataFinalReserva().isAfter(cursor)) {
+                cursor = ocupado.getDataFinalReserva();
+            }
+        }
+        adicionarCandidato(candidatos, cursor, fimBusca, noites, inicio);
+
+        candidatos.sort(Comparator.comparingLong((PeriodoLivre p) ->
+                Math.abs(ChronoUnit.DAYS.between(inicio, p.getDataInicioReserva())))
+            .thenComparing(PeriodoLivre::getDataInicioReserva));
+        return candidatos.size() > quantidade ? List.copyOf(candidatos.subList(0, quantidade)) : candidatos;
+    }
+
+    // No intervalo livre [de, ate), escolhe o início mais próximo do pedido que ainda comporta as noites
+    private static void adicionarCandidato(List<PeriodoLivre> candidatos, LocalDate de, LocalDate ate,
+                                           long noites, LocalDate desejado) {
+        LocalDate ultimoInicio = ate.minusDays(noites);
+        if (ultimoInicio.isBefore(de)) {
+            return;
+        }
+        LocalDate escolhido = desejado.isBefore(de) ? de : desejado.isAfter(ultimoInicio) ? ultimoInicio : desejado;
+        candidatos.add(new PeriodoLivre(escolhido, escolhido.plusDays(noites)));
+    }
+
+    private List<PeriodoLivre> periodosOcupados(String quarto, LocalDate inicio, LocalDate fim, Long ignorarId) {
+        List<PeriodoLivre> ocupados = new ArrayList<>();
+        if (indiceDisponibilidade.estaPronto()) {
+            indiceDisponibilidade.paraCadaPeriodo(quarto, inicio, fim, ignorarId,
+                (de, ate) -> ocupados.add(new PeriodoLivre(de, ate)));
+            return ocupados;
+        }
+        List<Reserva> doQuarto = roteadorShards.lerDoQuarto(quarto,
+            () -> reservaRepository.findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(quarto, inicio, fim));
+        for (Reserva r : doQuarto) {
+            if (ignorarId == null || !ignorarId.equals(r.getId())) {
+                ocupados.add(new PeriodoLivre(r.getDataInicioReserva(), r.getDataFinalReserva()));
+            }
+        }
+        ocupados.sort(Comparator.comparing(PeriodoLivre::getDataInicioReserva));
+        return ocupados;
+    }
+
+    private List<String> outrosQuartos(Reserva reserva) {
+        List<String> livres = indiceDisponibilidade.estaPronto()
+            ? indiceDisponibilidade.quartosLivres(reserva.getDataInicioReserva(), reserva.getDataFinalReserva())
+            : roteadorShards.reunir(() -> reservaRepository.buscarQuartosLivres(reserva.getDataInicioReserva(),
+                reserva.getDataFinalReserva()), Comparator.naturalOrder(), Integer.MAX_VALUE);
+        return livres.stream()
+            .filter(quarto -> !quarto.equals(reserva.getNumeroDoQuarto()))
+            .limit(quantidade)
+            .toList();
+    }
+}
@@ -0,0 +1,105 @@
+package com.trabalho.crud.core.disponibilidade;
+
+/**
+ * Mapa de bits imutável das noites ocupadas de um quarto dentro de uma janela de datas.
+ * * O bit i representa a noite (origem + i), em epoch-day. Uma checagem de sobreposição
+ * vira um AND por palavra de 64 noites, sem alocar objetos. Períodos fora da janela não
+ * são representados; quem consulta deve usar {@link #cobre(long, long)} antes.
+ */
+final class CalendarioOcupacao {
+
+    // Cabeçalho do objeto + campos (24) e cabeçalho do array (16), considerando compressed oops
+    private static final int BYTES_FIXOS = 24 + 16;
+
+    private final int origem;
+    private final int dias;
+    private final long[] palavras;
+
+    private CalendarioOcupacao(int origem, int dias, long[] palavras) {
+        this.origem = origem;
+        this.dias = dias;
+        this.palavras = palavras;
+    }
+
+    /**
+     * Monta o calendário a partir dos períodos de um quarto, recortando-os para a janela.
+     */
+    static CalendarioOcupacao de(IntervalosQuarto intervalos, int origem, int dias) {
+        long[] palavras = new long[palavrasPara(dias)];
+        for (int i = 0; i < intervalos.tamanho(); i++) {
+            int inicio = Math.max(intervalos.inicioEmDias(i) - origem, 0);
+            int fim = Math.min(intervalos.fimEmDias(i) - origem, dias);
+            if (inicio < fim) {
+                marcar(palavras, inicio, fim);
+            }
+        }
+        return new CalendarioOcupacao(origem, dias, palavras);
+    }
+
+    /**
+     * @return true se [inicio, fim) está inteiro dentro da janela representada.
+     */
+    boolean cobre(long inicio, long fim) {
+        return inicio >= origem && fim <= (long) origem + dias;
+    }
+
+    /**
+     * @return true se alguma noite de [inicio, fim) está ocupada. Exige {@link #cobre(long, long)}.
+     */
+    boolean ocupado(long inicio, long fim) {
+        int primeiro = (int) (inicio - origem);
+        int ultimo = (int) (fim - origem) - 1;
+        if (ultimo < primeiro) {
+            return false;
+        }
+        int palavraInicial = primeiro >>> 6;
+        int palavraFinal = ultimo >>> 6;
+        // Shifts em Java usam só os 6 bits menores do deslocamento, então (i & 63) é implícito
+        long mascaraInicial = -1L << primeiro;
+        long mascaraFinal = -1L >>> (63 - (ultimo & 63));
+        if (palavraInicial == palavraFinal) {
+            return (palavras[palavraInicial] & mascaraInicial & mascaraFinal) != 0;
+        }
+        if ((palavras[palavraInicial] & mascaraInicial) != 0 || (palavras[palavraFinal] & mascaraFinal) != 0) {
+            return true;
+        }
+        for (int p = palavraInicial + 1; p < palavraFinal; p++) {
+            if (palavras[p] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Estimativa do espaço ocupado por este calendário na heap, em bytes.
+     */
+    long bytes() {
+        return bytesPara(dias);
+    }
+
+    static long bytesPara(int dias) {
+        return BYTES_FIXOS + 8L * palavrasPara(dias);
+    }
+
+    private static int palavrasPara(int dias) {
+        return (dias + 63) >>> 6;
+    }
+
+    private static void marcar(long[] palavras, int inicio, int fim) {
+        int ultimo = fim - 1;
+        int palavraInicial = inicio >>> 6;
+        int palavraFinal = ultimo >>> 6;
+        long mascaraInicial = -1L << inicio;
+        long mascaraFinal = -1L >>> (63 - (ultimo & 63));
+        if (palavraInicial == palavraFinal) {
+            palavras[palavraInicial] |= mascaraInicial & mascaraFinal;
+            return;
+        }
+        palavras[palavraInicial] |= mascaraInicial;
+        for (int p = palavraInicial + 1; p < palavraFinal; p++) {
+            palavras[p] = -1L;
+        }
+        palavras[palavraFinal] |= mascaraFinal;
+    }
+}
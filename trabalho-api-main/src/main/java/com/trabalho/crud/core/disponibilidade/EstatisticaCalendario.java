@@ -0,0 +1,59 @@
+package com.trabalho.crud.core.disponibilidade;
+
+import java.time.LocalDate;
+
+/**
+ * Fotografia do calendário de ocupação em bits mantido pelo índice de disponibilidade.
+ */
+public class EstatisticaCalendario {
+
+    private final int quartos;
+    private final LocalDate inicioJanela;
+    private final LocalDate fimJanela;
+    private final int horizonteDias;
+    private final long bytesPorQuarto;
+    private final long bytesTotais;
+
+    public EstatisticaCalendario(int quartos, LocalDate inicioJanela, LocalDate fimJanela, int horizonteDias,
+                                 long bytesPorQuarto, long bytesTotais) {
+        this.quartos = quartos;
+        this.inicioJanela = inicioJanela;
+        this.fimJanela = fimJanela;
+        this.horizonteDias = horizonteDias;
+        this.bytesPorQuarto = bytesPorQuarto;
+        this.bytesTotais = bytesTotais;
+    }
+
+    public int getQuartos() {
+        return quartos;
+    }
+
+    /**
+     * @return Primeira noite representada nos calendários.
+     */
+    public LocalDate getInicioJanela() {
+        return inicioJanela;
+    }
+
+    /**
+     * @return Dia seguinte à última noite representada (exclusivo).
+     */
+    public LocalDate getFimJanela() {
+        return fimJanela;
+    }
+
+    public int getHorizonteDias() {
+        return horizonteDias;
+    }
+
+    /**
+     * @return Memória estimada do calendário de um quarto (objeto + array de longs).
+     */
+    public long getBytesPorQuarto() {
+        return bytesPorQuarto;
+    }
+
+    public long getBytesTotais() {
+        return bytesTotais;
+    }
+}
@@ -0,0 +1,354 @@
+package com.trabalho.crud.core.disponibilidade;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.service.ReservaExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Índice em memória dos períodos ocupados de cada quarto.
+ * * É montado a partir do banco quando a aplicação sobe e mantido em sincronia pelo
+ * ReservaService a cada criação, atualização e remoção. Enquanto não estiver pronto
+ * (ou se estiver desabilitado), o serviço volta a consultar o banco.
+ * * Uma verificação periódica compara o índice com o banco e o reconstrói se encontrar
+ * divergências (ex.: alterações feitas direto no H2 Console).
+ * * Cada quarto também guarda um calendário de ocupação em bits (uma noite por bit, em epoch-day)
+ * cobrindo de hoje até reservas.indice.calendario.horizonte-dias. Checagens dentro dessa janela
+ * viram ANDs por palavra; fora dela, a busca nos períodos ordenados continua valendo.
+ */
+@Component
+public class IndiceDisponibilidade {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceDisponibilidade.class);
+
+    // Abaixo desta quantidade de quartos a varredura é sequencial; acima, é dividida no ForkJoinPool comum
+    static final long LIMIAR_PARALELISMO = 1024;
+
+    // A janela do calendário é deslocada (com reconstrução) depois de perder esta quantidade de dias
+    static final int DIAS_PARA_DESLIZAR_JANELA = 7;
+
+    private final ReservaExportService reservaExportService;
+    private final boolean habilitado;
+    private final int horizonteCalendario;
+
+    private volatile ConcurrentHashMap<String, IntervalosQuarto> quartos = new ConcurrentHashMap<>();
+    private volatile boolean pronto;
+    // Primeira noite (epoch-day) coberta pelos calendários dos quartos
+    private volatile int origemCalendario = (int) LocalDate.now().toEpochDay();
+
+    // Escritas usam o lock de leitura (podem ser concorrentes entre si); a troca do mapa usa o de escrita
+    private final ReentrantReadWriteLock trocaLock = new ReentrantReadWriteLock();
+    // Durante uma reconstrução, as escritas são registradas aqui para serem reaplicadas no mapa novo
+    private List<Consumer<Map<String, IntervalosQuarto>>> diario;
+
+    @Autowired
+    public IndiceDisponibilidade(ReservaExportService reservaExportService,
+                                 @Value("${reservas.indice.habilitado:true}") boolean habilitado,
+                                 @Value("${reservas.indice.calendario.horizonte-dias:730}") int horizonteCalendario) {
+        this.reservaExportService = reservaExportService;
+        this.habilitado = habilitado;
+        this.horizonteCalendario = Math.max(horizonteCalendario, 0);
+    }
+
+    /**
+     * @return true se o índice foi carregado e pode substituir a consulta ao banco.
+     */
+    public boolean estaPronto() {
+        return habilitado && pronto;
+    }
+
+    /**
+     * @param ignorarId ID da reserva em atualização (não conta como conflito), ou null na criação.
+     * @return true se o quarto tem alguma reserva que sobrepõe [inicio, fim).
+     */
+    public boolean temConflito(String numeroDoQuarto, LocalDate inicio, LocalDate fim, Long ignorarId) {
+        IntervalosQuarto intervalos = quartos.get(numeroDoQuarto);
+        return intervalos != null && intervalos.conflita(inicio.toEpochDay(), fim.toEpochDay(), ignorarId);
+    }
+
+    /**
+     * Entrega ao consumidor cada quarto conhecido pelo índice (com ao menos uma reserva)
+     * que está livre em todo o período [inicio, fim). Não aloca objetos por quarto.
+     */
+    public void paraCadaQuartoLivre(LocalDate inicio, LocalDate fim, Consumer<String> consumidor) {
+        long inicioEmDias = inicio.toEpochDay();
+        long fimEmDias = fim.toEpochDay();
+        quartos.forEach((quarto, intervalos) -> {
+            if (!intervalos.conflita(inicioEmDias, fimEmDias, null)) {
+                consumidor.accept(quarto);
+            }
+        });
+    }
+
+    /**
+     * Lista, em ordem, os quartos conhecidos pelo índice que estão livres em todo o período [inicio, fim).
+     * * Com muitos quartos, a varredura é feita em paralelo (fork-join do ConcurrentHashMap) e
+     * cada quarto é checado no próprio calendário em bits ou nos períodos ordenados.
+     */
+    public List<String> quartosLivres(LocalDate inicio, LocalDate fim) {
+        long inicioEmDias = inicio.toEpochDay();
+        long fimEmDias = fim.toEpochDay();
+        Queue<String> livres = new ConcurrentLinkedQueue<>();
+        quartos.forEach(LIMIAR_PARALELISMO,
+            (quarto, intervalos) -> intervalos.conflita(inicioEmDias, fimEmDias, null) ? null : quarto,
+            livres::add);
+        List<String> ordenados = new ArrayList<>(livres);
+        Collections.sort(ordenados);
+        return ordenados;
+    }
+
+    /**
+     * @return Tamanho da janela do calendário e memória ocupada por ele, por quarto e no total.
+     */
+    public EstatisticaCalendario estatisticasCalendario() {
+        Map<String, IntervalosQuarto> atual = quartos;
+        long bytesTotais = 0;
+        for (IntervalosQuarto intervalos : atual.values()) {
+            bytesTotais += intervalos.bytesCalendario();
+        }
+        LocalDate origem = LocalDate.ofEpochDay(origemCalendario);
+        long bytesPorQuarto = horizonteCalendario > 0 ? CalendarioOcupacao.bytesPara(horizonteCalendario) : 0;
+        return new EstatisticaCalendario(atual.size(), origem, origem.plusDays(horizonteCalendario),
+            horizonteCalendario, bytesPorQuarto, bytesTotais);
+    }
+
+    /**
+     * Entrega ao consumidor o início e o fim de cada período do quarto que sobrepõe [inicio, fim).
+     */
+    public void paraCadaPeriodo(String numeroDoQuarto, LocalDate inicio, LocalDate fim,
+                                BiConsumer<LocalDate, LocalDate> consumidor) {
+        paraCadaPeriodo(numeroDoQuarto, inicio, fim, null, consumidor);
+    }
+
+    /**
+     * Igual a {@link #paraCadaPeriodo(String, LocalDate, LocalDate, BiConsumer)}, pulando a reserva ignorarId.
+     */
+    public void paraCadaPeriodo(String numeroDoQuarto, LocalDate inicio, LocalDate fim, Long ignorarId,
+                                BiConsumer<LocalDate, LocalDate> consumidor) {
+        IntervalosQuarto intervalos = quartos.get(numeroDoQuarto);
+        if (intervalos == null) {
+            return;
+        }
+        for (int i : intervalos.sobrepostos(inicio.toEpochDay(), fim.toEpochDay())) {
+            if (ignorarId == null || intervalos.id(i) != ignorarId) {
+                consumidor.accept(intervalos.inicio(i), intervalos.fim(i));
+            }
+        }
+    }
+
+    // =========================================================================
+    // Sincronização com as escritas do ReservaService
+    // =========================================================================
+
+    /**
+     * Registra (ou substitui) o período de uma reserva persistida.
+     * Se houver uma transação ativa, a alteração só é aplicada após o commit.
+     */
+    public void registrar(Reserva reserva) {
+        Long id = reserva.getId();
+        String quarto = reserva.getNumeroDoQuarto();
+        LocalDate inicio = reserva.getDataInicioReserva();
+        LocalDate fim = reserva.getDataFinalReserva();
+        aplicarAposCommit(mapa -> mapa.compute(quarto,
+            (q, atual) -> (atual == null ? IntervalosQuarto.vazio(origemCalendario, horizonteCalendario) : atual)
+                .comPeriodo(id, inicio, fim)));
+    }
+
+    /**
+     * Registra uma reserva que pode ter mudado de quarto, removendo-a do quarto anterior.
+     */
+    public void mover(String quartoAnterior, Reserva reserva) {
+        if (quartoAnterior != null && !quartoAnterior.equals(reserva.getNumeroDoQuarto())) {
+            remover(reserva.getId(), quartoAnterior);
+        }
+        registrar(reserva);
+    }
+
+    /**
+     * Remove o período de uma reserva excluída.
+     */
+    public void remover(Long id, String numeroDoQuarto) {
+        aplicarAposCommit(mapa -> mapa.computeIfPresent(numeroDoQuarto, (q, atual) -> {
+            IntervalosQuarto restante = atual.semReserva(id);
+            return restante.tamanho() == 0 ? null : restante;
+        }));
+    }
+
+    private void aplicarAposCommit(Consumer<Map<String, IntervalosQuarto>> operacao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(operacao);
+                }
+            });
+        } else {
+            aplicar(operacao);
+        }
+    }
+
+    private void aplicar(Consumer<Map<String, IntervalosQuarto>> operacao) {
+        trocaLock.readLock().lock();
+        try {
+            operacao.accept(quartos);
+            synchronized (this) {
+                if (diario != null) {
+                    diario.add(operacao);
+                }
+            }
+        } finally {
+            trocaLock.readLock().unlock();
+        }
+    }
+
+    // =========================================================================
+    // Carga, reconstrução e verificação de consistência
+    // =========================================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarNaInicializacao() {
+        if (habilitado) {
+            reconstruir();
+        }
+    }
+
+    /**
+     * Reconstrói o índice a partir do banco sem interromper as leituras.
+     * As escritas feitas durante a leitura do banco são reaplicadas antes da troca.
+     */
+    public void reconstruir() {
+        synchronized (this) {
+            diario = new ArrayList<>();
+        }
+        int novaOrigem = (int) LocalDate.now().toEpochDay();
+        ConcurrentHashMap<String, IntervalosQuarto> novo;
+        try {
+            novo = lerDoBanco(novaOrigem);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                diario = null;
+            }
+            throw e;
+        }
+
+        trocaLock.writeLock().lock();
+        try {
+            // As escritas reaplicadas criam quartos novos já com a janela nova
+            origemCalendario = novaOrigem;
+            synchronized (this) {
+                diario.forEach(operacao -> operacao.accept(novo));
+                diario = null;
+            }
+            quartos = novo;
+            pronto = true;
+        } finally {
+            trocaLock.writeLock().unlock();
+        }
+        log.info("Índice de disponibilidade carregado: {} quartos, {} reservas.", novo.size(), totalDeReservas(novo));
+    }
+
+    /**
+     * Compara o índice com o banco e o reconstrói se houver divergências.
+     * Também reconstrói quando a janela do calendário ficou defasada em relação a hoje.
+     * * @return A quantidade de reservas divergentes encontradas (0 se consistente).
+     */
+    @Scheduled(initialDelayString = "${reservas.indice.verificacao-intervalo-ms:300000}",
+               fixedDelayString = "${reservas.indice.verificacao-intervalo-ms:300000}")
+    public int verificarConsistencia() {
+        if (!estaPronto()) {
+            return 0;
+        }
+        Map<String, IntervalosQuarto> atual = quartos;
+        Map<String, IntervalosQuarto> doBanco = lerDoBanco(origemCalendario);
+
+        int divergencias = 0;
+        for (Map.Entry<String, IntervalosQuarto> entrada : doBanco.entrySet()) {
+            divergencias += diferencas(entrada.getValue(), atual.get(entrada.getKey()));
+        }
+        for (Map.Entry<String, IntervalosQuarto> entrada : atual.entrySet()) {
+            if (!doBanco.containsKey(entrada.getKey())) {
+                divergencias += entrada.getValue().tamanho();
+            }
+        }
+
+        if (divergencias > 0) {
+            // Pode ser só uma escrita concorrente com a leitura; reconstruir resolve os dois casos
+            log.warn("Índice de disponibilidade divergente do banco em {} reservas. Reconstruindo.", divergencias);
+            reconstruir();
+        } else if (horizonteCalendario > 0
+                && LocalDate.now().toEpochDay() - origemCalendario >= DIAS_PARA_DESLIZAR_JANELA) {
+            log.info("Deslocando a janela do calendário de ocupação para começar em {}.", LocalDate.now());
+            reconstruir();
+        }
+        return divergencias;
+    }
+
+    private ConcurrentHashMap<String, IntervalosQuarto> lerDoBanco(int origem) {
+        Map<String, List<Reserva>> porQuarto = new HashMap<>();
+        // Reaproveita o cursor da exportação, que já desanexa cada entidade após o uso
+        reservaExportService.exportar(r -> {
+            if (r.getNumeroDoQuarto() != null && r.getDataInicioReserva() != null && r.getDataFinalReserva() != null) {
+                porQuarto.computeIfAbsent(r.getNumeroDoQuarto(), q -> new ArrayList<>())
+                    .add(new Reserva(r.getId(), null, r.getDataInicioReserva(), r.getDataFinalReserva(), null));
+            }
+        });
+
+        ConcurrentHashMap<String, IntervalosQuarto> mapa = new ConcurrentHashMap<>();
+        porQuarto.forEach((quarto, reservas) -> {
+            long[] ids = new long[reservas.size()];
+            int[] inicios = new int[reservas.size()];
+            int[] fins = new int[reservas.size()];
+            for (int i = 0; i < reservas.size(); i++) {
+                ids[i] = reservas.get(i).getId();
+                inicios[i] = (int) reservas.get(i).getDataInicioReserva().toEpochDay();
+                fins[i] = (int) reservas.get(i).getDataFinalReserva().toEpochDay();
+            }
+            IntervalosQuarto intervalos = IntervalosQuarto.ordenar(ids, inicios, fins);
+            mapa.put(quarto, horizonteCalendario > 0 ? intervalos.comCalendario(origem, horizonteCalendario) : intervalos);
+        });
+        return mapa;
+    }
+
+    private static int diferencas(IntervalosQuarto esperado, IntervalosQuarto atual) {
+        if (atual == null) {
+            return esperado.tamanho();
+        }
+        Map<Long, String> periodosAtuais = new HashMap<>();
+        for (int i = 0; i < atual.tamanho(); i++) {
+            periodosAtuais.put(atual.id(i), atual.inicio(i) + "/" + atual.fim(i));
+        }
+        int divergencias = 0;
+        for (int i = 0; i < esperado.tamanho(); i++) {
+            String periodo = periodosAtuais.remove(esperado.id(i));
+            if (!(esperado.inicio(i) + "/" + esperado.fim(i)).equals(periodo)) {
+                divergencias++;
+            }
+        }
+        return divergencias + periodosAtuais.size();
+    }
+
+    private static long totalDeReservas(Map<String, IntervalosQuarto> mapa) {
+        return mapa.values().stream().mapToLong(IntervalosQuarto::tamanho).sum();
+    }
+}
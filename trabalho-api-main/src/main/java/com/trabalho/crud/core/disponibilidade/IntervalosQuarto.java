@@ -0,0 +1,214 @@
+package com.trabalho.crud.core.disponibilidade;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Conjunto imutável dos períodos [inicio, fim) ocupados de um quarto.
+ * * Os períodos ficam em arrays ordenados pela data de início (em epoch-day), junto com o
+ * máximo acumulado das datas finais. Assim, uma consulta de sobreposição é uma busca binária
+ * seguida de uma varredura curta, sem alocar objetos. Cada escrita gera uma nova instância
+ * (copy-on-write), o que permite leituras concorrentes sem bloqueio.
+ * * Opcionalmente carrega um {@link CalendarioOcupacao} (mapa de bits por noite) da janela
+ * configurada no índice, que responde às checagens dentro da janela com ANDs por palavra.
+ */
+final class IntervalosQuarto {
+
+    static final IntervalosQuarto VAZIO = new IntervalosQuarto(new long[0], new int[0], new int[0], 0, 0);
+
+    private final long[] ids;
+    private final int[] inicios;
+    private final int[] fins;
+    // maxFim[i] = maior data final entre os períodos 0..i
+    private final int[] maxFim;
+    // Janela do calendário (diasCalendario == 0 significa sem calendário)
+    private final int origemCalendario;
+    private final int diasCalendario;
+    private final CalendarioOcupacao calendario;
+
+    private IntervalosQuarto(long[] ids, int[] inicios, int[] fins, int origemCalendario, int diasCalendario) {
+        this.ids = ids;
+        this.inicios = inicios;
+        this.fins = fins;
+        this.origemCalendario = origemCalendario;
+        this.diasCalendario = diasCalendario;
+        this.maxFim = new int[fins.length];
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < fins.length; i++) {
+            max = Math.max(max, fins[i]);
+            maxFim[i] = max;
+        }
+        this.calendario = diasCalendario > 0 ? CalendarioOcupacao.de(this, origemCalendario, diasCalendario) : null;
+    }
+
+    /**
+     * Conjunto vazio que já mantém o calendário de ocupação da janela informada.
+     * * @param origem Primeira noite da janela, em epoch-day.
+     * * @param dias Tamanho da janela em noites (0 desliga o calendário).
+     */
+    static IntervalosQuarto vazio(int origem, int dias) {
+        return dias > 0 ? new IntervalosQuarto(new long[0], new int[0], new int[0], origem, dias) : VAZIO;
+    }
+
+    /**
+     * Monta o conjunto a partir de períodos em qualquer ordem (usado na carga inicial).
+     */
+    static IntervalosQuarto ordenar(long[] ids, int[] inicios, int[] fins) {
+        Integer[] ordem = new Integer[ids.length];
+        for (int i = 0; i < ordem.length; i++) {
+            ordem[i] = i;
+        }
+        Arrays.sort(ordem, (a, b) -> Integer.compare(inicios[a], inicios[b]));
+
+        long[] idsOrdenados = new long[ids.length];
+        int[] iniciosOrdenados = new int[ids.length];
+        int[] finsOrdenados = new int[ids.length];
+        for (int i = 0; i < ordem.length; i++) {
+            idsOrdenados[i] = ids[ordem[i]];
+            iniciosOrdenados[i] = inicios[ordem[i]];
+            finsOrdenados[i] = fins[ordem[i]];
+        }
+        return new IntervalosQuarto(idsOrdenados, iniciosOrdenados, finsOrdenados, 0, 0);
+    }
+
+    /**
+     * @return O mesmo conjunto de períodos, com o calendário de ocupação da janela informada.
+     */
+    IntervalosQuarto comCalendario(int origem, int dias) {
+        return new IntervalosQuarto(ids, inicios, fins, origem, dias);
+    }
+
+    int tamanho() {
+        return ids.length;
+    }
+
+    long id(int i) {
+        return ids[i];
+    }
+
+    LocalDate inicio(int i) {
+        return LocalDate.ofEpochDay(inicios[i]);
+    }
+
+    LocalDate fim(int i) {
+        return LocalDate.ofEpochDay(fins[i]);
+    }
+
+    int inicioEmDias(int i) {
+        return inicios[i];
+    }
+
+    int fimEmDias(int i) {
+        return fins[i];
+    }
+
+    /**
+     * @return Bytes estimados do calendário de ocupação (0 se não houver calendário).
+     */
+    long bytesCalendario() {
+        return calendario == null ? 0 : calendario.bytes();
+    }
+
+    /**
+     * @param ignorarId ID de uma reserva que não deve contar como conflito (atualização), ou null.
+     * @return true se algum período sobrepõe [inicio, fim).
+     */
+    boolean conflita(long inicio, long fim, Long ignorarId) {
+        // Na criação, dentro da janela, o calendário responde sem olhar os períodos
+        if (ignorarId == null && calendario != null && calendario.cobre(inicio, fim)) {
+            return calendario.ocupado(inicio, fim);
+        }
+        // Apenas os períodos que começam antes de 'fim' podem se sobrepor
+        int j = quantidadeQueComecamAntes(fim) - 1;
+        while (j >= 0 && maxFim[j] > inicio) {
+            if (fins[j] > inicio && (ignorarId == null || ids[j] != ignorarId)) {
+                return true;
+            }
+            j--;
+        }
+        return false;
+    }
+
+    /**
+     * Índices (em ordem de início) dos períodos que sobrepõem [inicio, fim).
+     */
+    int[] sobrepostos(long inicio, long fim) {
+        int limite = quantidadeQueComecamAntes(fim);
+        int[] encontrados = new int[limite];
+        int total = 0;
+        for (int j = limite - 1; j >= 0 && maxFim[j] > inicio; j--) {
+            if (fins[j] > inicio) {
+                encontrados[total++] = j;
+            }
+        }
+        int[] resultado = Arrays.copyOf(encontrados, total);
+        Arrays.sort(resultado);
+        return resultado;
+    }
+
+    /**
+     * Insere (ou substitui, se o ID já existir) o período de uma reserva.
+     */
+    IntervalosQuarto comPeriodo(long id, LocalDate inicio, LocalDate fim) {
+        IntervalosQuarto base = semReserva(id);
+        int novoInicio = (int) inicio.toEpochDay();
+        int posicao = base.quantidadeQueComecamAntes(novoInicio);
+
+        int n = base.ids.length;
+        long[] novosIds = new long[n + 1];
+        int[] novosInicios = new int[n + 1];
+        int[] novosFins = new int[n + 1];
+        System.arraycopy(base.ids, 0, novosIds, 0, posicao);
+        System.arraycopy(base.inicios, 0, novosInicios, 0, posicao);
+        System.arraycopy(base.fins, 0, novosFins, 0, posicao);
+        novosIds[posicao] = id;
+        novosInicios[posicao] = novoInicio;
+        novosFins[posicao] = (int) fim.toEpochDay();
+        System.arraycopy(base.ids, posicao, novosIds, posicao + 1, n - posicao);
+        System.arraycopy(base.inicios, posicao, novosInicios, posicao + 1, n - posicao);
+        System.arraycopy(base.fins, posicao, novosFins, posicao + 1, n - posicao);
+        return new IntervalosQuarto(novosIds, novosInicios, novosFins, origemCalendario, diasCalendario);
+    }
+
+    /**
+     * Remove o período da reserva com o ID informado (se existir).
+     */
+    IntervalosQuarto semReserva(long id) {
+        int posicao = -1;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                posicao = i;
+                break;
+            }
+        }
+        if (posicao < 0) {
+            return this;
+        }
+        int n = ids.length;
+        long[] novosIds = new long[n - 1];
+        int[] novosInicios = new int[n - 1];
+        int[] novosFins = new int[n - 1];
+        System.arraycopy(ids, 0, novosIds, 0, posicao);
+        System.arraycopy(inicios, 0, novosInicios, 0, posicao);
+        System.arraycopy(fins, 0, novosFins, 0, posicao);
+        System.arraycopy(ids, posicao + 1, novosIds, posicao, n - posicao - 1);
+        System.arraycopy(inicios, posicao + 1, novosInicios, posicao, n - posicao - 1);
+        System.arraycopy(fins, posicao + 1, novosFins, posicao, n - posicao - 1);
+        return new IntervalosQuarto(novosIds, novosInicios, novosFins, origemCalendario, diasCalendario);
+    }
+
+    // Busca binária: quantos períodos começam estritamente antes do dia informado
+    private int quantidadeQueComecamAntes(long dia) {
+        int baixo = 0;
+        int alto = inicios.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (inicios[meio] < dia) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+}
@@ -0,0 +1,30 @@
+package com.trabalho.crud.core.disponibilidade;
+
+import java.time.LocalDate;
+
+/**
+ * Período [dataInicioReserva, dataFinalReserva) livre em um quarto, sugerido como alternativa.
+ */
+public class PeriodoLivre {
+
+    private final LocalDate dataInicioReserva;
+    private final LocalDate dataFinalReserva;
+
+    public PeriodoLivre(LocalDate dataInicioReserva, LocalDate dataFinalReserva) {
+        this.dataInicioReserva = dataInicioReserva;
+        this.dataFinalReserva = dataFinalReserva;
+    }
+
+    public LocalDate getDataInicioReserva() {
+        return dataInicioReserva;
+    }
+
+    public LocalDate getDataFinalReserva() {
+        return dataFinalReserva;
+    }
+
+    @Override
+    public String toString() {
+        return dataInicioReserva + "/" + dataFinalReserva;
+    }
+}
@@ -0,0 +1,27 @@
+package com.trabalho.crud.core.disponibilidade;
+
+import java.util.List;
+
+/**
+ * Alternativas para uma reserva recusada por conflito: outros períodos de mesma duração no
+ * quarto pedido (do mais próximo ao mais distante da data pedida) e outros quartos livres
+ * nas datas exatas.
+ */
+public class SugestoesReserva {
+
+    private final List<PeriodoLivre> periodos;
+    private final List<String> quartos;
+
+    public SugestoesReserva(List<PeriodoLivre> periodos, List<String> quartos) {
+        this.periodos = periodos;
+        this.quartos = quartos;
+    }
+
+    public List<PeriodoLivre> getPeriodos() {
+        return periodos;
+    }
+
+    public List<String> getQuartos() {
+        return quartos;
+    }
+}
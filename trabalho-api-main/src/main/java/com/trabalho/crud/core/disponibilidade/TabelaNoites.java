@@ -0,0 +1,112 @@
+package com.trabalho.crud.core.disponibilidade;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.NoiteQuartoRepository;
+import com.trabalho.crud.core.service.ReservaExportService;
+import com.trabalho.crud.core.shard.RoteadorShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modo de disponibilidade "noites": além da linha em Reserva, cada reserva ocupa uma linha
+ * por noite em noite_quarto, cuja chave primária impede sobreposições no próprio banco.
+ * * Ativado com reservas.disponibilidade.modo=noites. No modo padrão ("consulta") a tabela
+ * não é mantida; por isso, ao subir no modo noites, ela é reconstruída a partir das reservas.
+ */
+@Component
+public class TabelaNoites {
+
+    static final String MODO_NOITES = "noites";
+    private static final int TAMANHO_BLOCO_RESSINCRONIZACAO = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(TabelaNoites.class);
+
+    private final NoiteQuartoRepository noiteQuartoRepository;
+    private final ReservaExportService reservaExportService;
+    private final TransactionOperations transacao;
+    private final RoteadorShards roteadorShards;
+    private final boolean ativa;
+
+    @Autowired
+    public TabelaNoites(NoiteQuartoRepository noiteQuartoRepository, ReservaExportService reservaExportService,
+                        TransactionOperations transacao, RoteadorShards roteadorShards,
+                        @Value("${reservas.disponibilidade.modo:consulta}") String modo) {
+        this.noiteQuartoRepository = noiteQuartoRepository;
+        this.reservaExportService = reservaExportService;
+        this.transacao = transacao;
+        this.roteadorShards = roteadorShards;
+        this.ativa = MODO_NOITES.equalsIgnoreCase(modo);
+    }
+
+    /**
+     * @return true se o modo "noites" estiver ativo.
+     */
+    public boolean ativa() {
+        return ativa;
+    }
+
+    /**
+     * Grava as noites das reservas. Deve rodar na mesma transação que grava as reservas.
+     * @throws org.springframework.dao.DuplicateKeyException se alguma noite já estiver ocupada.
+     */
+    public void ocupar(List<Reserva> reservas) {
+        noiteQuartoRepository.ocupar(reservas);
+    }
+
+    public void ocupar(Reserva reserva) {
+        ocupar(List.of(reserva));
+    }
+
+    public void liberar(Long reservaId) {
+        noiteQuartoRepository.liberar(reservaId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ressincronizarNaInicializacao() {
+        if (ativa) {
+            ressincronizar();
+        }
+    }
+
+    /**
+     * Reconstrói a tabela de noites a partir da tabela de reservas, numa única transação (uma
+     * por shard, com as reservas particionadas).
+     * @return A quantidade de reservas processadas.
+     */
+    public long ressincronizar() {
+        long total = roteadorShards.emCadaShard(this::ressincronizarShard).stream().mapToLong(Long::longValue).sum();
+        log.info("Tabela de noites ressincronizada a partir de {} reservas.", total);
+        return total;
+    }
+
+    private long ressincronizarShard() {
+        Long total = transacao.execute(status -> {
+            noiteQuartoRepository.limpar();
+            List<Reserva> bloco = new ArrayList<>(TAMANHO_BLOCO_RESSINCRONIZACAO);
+            long processadas = reservaExportService.exportar(r -> {
+                if (r.getNumeroDoQuarto() != null && r.getDataInicioReserva() != null && r.getDataFinalReserva() != null) {
+                    bloco.add(new Reserva(r.getId(), r.getNumeroDoQuarto(), r.getDataInicioReserva(),
+                        r.getDataFinalReserva(), null));
+                }
+                if (bloco.size() == TAMANHO_BLOCO_RESSINCRONIZACAO) {
+                    noiteQuartoRepository.sobrescrever(bloco);
+                    bloco.clear();
+                }
+            });
+            if (!bloco.isEmpty()) {
+                noiteQuartoRepository.sobrescrever(bloco);
+            }
+            return processadas;
+        });
+        return total == null ? 0 : total;
+    }
+}
@@ -0,0 +1,66 @@
+package com.trabalho.crud.core.dto;
+
+/**
+ * DTO de uma entrada da sincronização incremental. Em alterações do tipo ALTERADA, o campo
+ * reserva traz o estado atual completo; em REMOVIDA, vem nulo e basta o reservaId.
+ */
+public class AlteracaoReservaDto {
+
+    private long sequencia;
+    private String tipo;
+    private Long reservaId;
+    private String numeroDoQuarto;
+    private ReservaDto reserva;
+
+    // Construtor padrão
+    public AlteracaoReservaDto() {
+    }
+
+    public AlteracaoReservaDto(long sequencia, String tipo, Long reservaId, String numeroDoQuarto, ReservaDto reserva) {
+        this.sequencia = sequencia;
+        this.tipo = tipo;
+        this.reservaId = reservaId;
+        this.numeroDoQuarto = numeroDoQuarto;
+        this.reserva = reserva;
+    }
+
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public void setSequencia(long sequencia) {
+        this.sequencia = sequencia;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getReservaId() {
+        return reservaId;
+    }
+
+    public void setReservaId(Long reservaId) {
+        this.reservaId = reservaId;
+    }
+
+    public String getNumeroDoQuarto() {
+        return numeroDoQuarto;
+    }
+
+    public void setNumeroDoQuarto(String numeroDoQuarto) {
+        this.numeroDoQuarto = numeroDoQuarto;
+    }
+
+    public ReservaDto getReserva() {
+        return reserva;
+    }
+
+    public void setReserva(ReservaDto reserva) {
+        this.reserva = reserva;
+    }
+}
@@ -0,0 +1,59 @@
+package com.trabalho.crud.core.dto;
+
+import java.util.List;
+
+/**
+ * DTO de resposta da sincronização incremental. O campo nextToken é opaco e vem sempre
+ * preenchido: o cliente o guarda e o reenvia no parâmetro "since". Enquanto hasMore for
+ * true, já existem mais alterações e a próxima chamada pode ser feita imediatamente.
+ */
+public class PaginaAlteracoesDto {
+
+    private List<AlteracaoReservaDto> alteracoes;
+    private String nextToken;
+    private boolean hasMore;
+    private int limit;
+
+    // Construtor padrão
+    public PaginaAlteracoesDto() {
+    }
+
+    public PaginaAlteracoesDto(List<AlteracaoReservaDto> alteracoes, String nextToken, boolean hasMore, int limit) {
+        this.alteracoes = alteracoes;
+        this.nextToken = nextToken;
+        this.hasMore = hasMore;
+        this.limit = limit;
+    }
+
+    public List<AlteracaoReservaDto> getAlteracoes() {
+        return alteracoes;
+    }
+
+    public void setAlteracoes(List<AlteracaoReservaDto> alteracoes) {
+        this.alteracoes = alteracoes;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public void setNextToken(String nextToken) {
+        this.nextToken = nextToken;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,49 @@
+package com.trabalho.crud.core.dto;
+
+import java.util.List;
+
+/**
+ * DTO de resposta da listagem paginada de reservas.
+ * O campo nextCursor é opaco para o cliente: basta reenviá-lo no parâmetro
+ * "cursor" para obter a próxima página. Quando for nulo, não há mais páginas.
+ */
+public class PaginaReservaDto {
+
+    private List<ReservaDto> reservas;
+    private String nextCursor;
+    private int limit;
+
+    // Construtor padrão
+    public PaginaReservaDto() {
+    }
+
+    public PaginaReservaDto(List<ReservaDto> reservas, String nextCursor, int limit) {
+        this.reservas = reservas;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<ReservaDto> getReservas() {
+        return reservas;
+    }
+
+    public void setReservas(List<ReservaDto> reservas) {
+        this.reservas = reservas;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -10,6 +10,8 @@ public class ReservaDto {
     private LocalDate dataInicioReserva;
     private LocalDate dataFinalReserva;
     private Long hospedeId;
+    // Somente leitura: versão atual da reserva (a mesma enviada no header ETag)
+    private Long versao;
 
     // Construtor padrão
     public ReservaDto() {
@@ -56,4 +58,12 @@ public class ReservaDto {
     public void setHospedeId(Long hospedeId) {
         this.hospedeId = hospedeId;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
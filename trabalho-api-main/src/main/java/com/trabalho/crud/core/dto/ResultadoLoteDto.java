@@ -0,0 +1,55 @@
+package com.trabalho.crud.core.dto;
+
+/**
+ * DTO com o resultado de um item do endpoint de criação em lote.
+ */
+public class ResultadoLoteDto {
+
+    private int indice;
+    private String status;
+    private ReservaDto reserva;
+    private String motivo;
+
+    // Construtor padrão
+    public ResultadoLoteDto() {
+    }
+
+    public ResultadoLoteDto(int indice, String status, ReservaDto reserva, String motivo) {
+        this.indice = indice;
+        this.status = status;
+        this.reserva = reserva;
+        this.motivo = motivo;
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public ReservaDto getReserva() {
+        return reserva;
+    }
+
+    public void setReserva(ReservaDto reserva) {
+        this.reserva = reserva;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(String motivo) {
+        this.motivo = motivo;
+    }
+}
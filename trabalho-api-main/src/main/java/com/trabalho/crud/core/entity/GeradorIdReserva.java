@@ -0,0 +1,43 @@
+package com.trabalho.crud.core.entity;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+/**
+ * Gerador dos IDs de {@link Reserva} sobre a sequência {@link #SEQUENCIA}, com o otimizador
+ * "pooled-lo": cada valor lido da sequência é o primeiro de um bloco de {@link #TAMANHO_ALOCACAO}
+ * IDs distribuídos em memória. Como o ID é conhecido antes do INSERT, o Hibernate pode adiar as
+ * inserções até o flush e enviá-las em lotes JDBC (com IDENTITY ele precisava executar cada
+ * INSERT na hora para ler a chave gerada).
+ * * O tamanho do bloco vem da propriedade do Hibernate {@link #TAMANHO_ALOCACAO}, que o
+ * application.yaml liga a reservas.ids.tamanho-alocacao. O incremento da sequência no banco é
+ * ajustado na inicialização (MigracaoIdsReserva), nunca menor que o bloco.
+ */
+public class GeradorIdReserva extends SequenceStyleGenerator {
+
+    public static final String SEQUENCIA = "reserva_id_seq";
+
+    public static final String TAMANHO_ALOCACAO = "reservas.ids.tamanho-alocacao";
+
+    public static final int TAMANHO_ALOCACAO_PADRAO = 50;
+
+    public GeradorIdReserva(IdReserva anotacao, Member membro, CustomIdGeneratorCreationContext contexto) {
+    }
+
+    @Override
+    public void configure(Type tipo, Properties parametros, ServiceRegistry servicos) {
+        Object tamanho = servicos.requireService(ConfigurationService.class).getSettings().get(TAMANHO_ALOCACAO);
+        parametros.put(SEQUENCE_PARAM, SEQUENCIA);
+        parametros.put(INCREMENT_PARAM, tamanho == null ? String.valueOf(TAMANHO_ALOCACAO_PADRAO) : tamanho.toString());
+        parametros.put(OptimizableGenerator.OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(tipo, parametros, servicos);
+    }
+}
@@ -0,0 +1,35 @@
+package com.trabalho.crud.core.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Hóspede cadastrado. Substituto local do cadastro de hóspedes de produção: o ID vem do
+ * sistema de origem (não é gerado aqui) e é o que as reservas referenciam em hospedeId.
+ */
+@Entity
+@Table(name = "hospede")
+public class Hospede {
+
+    @Id
+    private Long id;
+
+    private String nome;
+
+    public Hospede() {
+    }
+
+    public Hospede(Long id, String nome) {
+        this.id = id;
+        this.nome = nome;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+}
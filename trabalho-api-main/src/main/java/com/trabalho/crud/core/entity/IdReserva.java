@@ -0,0 +1,17 @@
+package com.trabalho.crud.core.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca o ID gerado por {@link GeradorIdReserva} (sequência com blocos alocados em memória).
+ */
+@IdGeneratorType(GeradorIdReserva.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface IdReserva {
+}
@@ -0,0 +1,50 @@
+package com.trabalho.crud.core.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Uma noite ocupada de um quarto. Usada no modo de disponibilidade "noites": cada reserva
+ * grava uma linha por noite, e a chave primária (numeroDoQuarto, noite) faz o próprio banco
+ * recusar sobreposições de forma atômica, sem consulta prévia nem trava na aplicação.
+ * * A noite de check-out não é gravada: uma reserva de [10, 12) ocupa as noites 10 e 11.
+ */
+@Entity
+@Table(name = "noite_quarto", indexes = @Index(name = "idx_noite_quarto_reserva", columnList = "reservaId"))
+@IdClass(NoiteQuartoId.class)
+public class NoiteQuarto {
+
+    @Id
+    private String numeroDoQuarto;
+
+    @Id
+    private LocalDate noite;
+
+    private Long reservaId;
+
+    public NoiteQuarto() {
+    }
+
+    public NoiteQuarto(String numeroDoQuarto, LocalDate noite, Long reservaId) {
+        this.numeroDoQuarto = numeroDoQuarto;
+        this.noite = noite;
+        this.reservaId = reservaId;
+    }
+
+    public String getNumeroDoQuarto() {
+        return numeroDoQuarto;
+    }
+
+    public LocalDate getNoite() {
+        return noite;
+    }
+
+    public Long getReservaId() {
+        return reservaId;
+    }
+}
@@ -0,0 +1,36 @@
+package com.trabalho.crud.core.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Chave composta de {@link NoiteQuarto}: um quarto só pode estar ocupado uma vez por noite.
+ */
+public class NoiteQuartoId implements Serializable {
+
+    private String numeroDoQuarto;
+
+    private LocalDate noite;
+
+    public NoiteQuartoId() {
+    }
+
+    public NoiteQuartoId(String numeroDoQuarto, LocalDate noite) {
+        this.numeroDoQuarto = numeroDoQuarto;
+        this.noite = noite;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NoiteQuartoId outro = (NoiteQuartoId) o;
+        return Objects.equals(numeroDoQuarto, outro.numeroDoQuarto) && Objects.equals(noite, outro.noite);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(numeroDoQuarto, noite);
+    }
+}
@@ -2,19 +2,30 @@ package com.trabalho.crud.core.entity;
 
 import java.time.LocalDate;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.util.Objects;
 
 @Entity
-@Table( name = "\"Reserva\"")
+@Table( name = "\"Reserva\"",
+    indexes = {
+        @Index(name = "idx_reserva_sequencia_alteracao", columnList = "sequenciaAlteracao"),
+        // Checagem de conflito: quarto fixo e "data final > início desejado" como faixa, que nas
+        // reservas futuras descarta o histórico do quarto (com a data de início na frente, não)
+        @Index(name = "idx_reserva_quarto_periodo", columnList = "numeroDoQuarto, dataFinalReserva, dataInicioReserva")
+    })
 public class Reserva {
 
+    /**
+     * Gerado pela sequência reserva_id_seq em blocos (ver {@link GeradorIdReserva}), o que
+     * permite ao Hibernate agrupar os INSERTs em lotes JDBC.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdReserva
     private Long id;
 
     private String numeroDoQuarto;
@@ -25,6 +36,22 @@ public class Reserva {
 
     private Long hospedeId;
 
+    /**
+     * Versão para controle de concorrência otimista: o Hibernate inclui "where versao = ?"
+     * em cada UPDATE/DELETE e falha se outra transação tiver alterado a linha antes.
+     * O default 0 permite que o ddl-auto adicione a coluna em tabelas já populadas.
+     */
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long versao;
+
+    /**
+     * Posição da última alteração desta reserva na sequência global de alterações (a mesma
+     * dos registros de remoção). Cada escrita recebe um valor novo e maior, o que permite a
+     * sincronização incremental "alterações desde o token".
+     */
+    private Long sequenciaAlteracao;
+
     public Reserva() {
     }
 
@@ -84,6 +111,22 @@ public class Reserva {
         this.hospedeId = hospedeId;
     }
     
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public Long getSequenciaAlteracao() {
+        return sequenciaAlteracao;
+    }
+
+    public void setSequenciaAlteracao(Long sequenciaAlteracao) {
+        this.sequenciaAlteracao = sequenciaAlteracao;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -125,6 +168,7 @@ public class Reserva {
                 ", dataInicioReserva=" + dataInicioReserva +
                 ", dataFinalReserva=" + dataFinalReserva +
                 ", hospedeId=" + hospedeId +
+                ", versao=" + versao +
                 '}';
     }
 
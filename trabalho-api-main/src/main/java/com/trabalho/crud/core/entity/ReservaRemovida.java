@@ -0,0 +1,60 @@
+package com.trabalho.crud.core.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Registro de remoção ("tombstone") de uma reserva. A linha da reserva some do banco, mas a
+ * remoção continua visível na sincronização incremental: quem mantém uma cópia local recebe
+ * o ID removido e apaga a sua linha.
+ * * A chave é a posição da remoção na sequência global de alterações, a mesma que numera as
+ * escritas em {@link Reserva#getSequenciaAlteracao()}. O gerador declarado aqui faz o
+ * ddl-auto criar a sequência reserva_alteracao_seq; os valores são obtidos via JDBC.
+ */
+@Entity
+@Table(name = "reserva_removida")
+public class ReservaRemovida {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reserva_alteracao")
+    @SequenceGenerator(name = "reserva_alteracao", sequenceName = "reserva_alteracao_seq", allocationSize = 1)
+    private Long sequenciaAlteracao;
+
+    private Long reservaId;
+
+    private String numeroDoQuarto;
+
+    private Instant removidaEm;
+
+    public ReservaRemovida() {
+    }
+
+    public ReservaRemovida(Long sequenciaAlteracao, Long reservaId, String numeroDoQuarto, Instant removidaEm) {
+        this.sequenciaAlteracao = sequenciaAlteracao;
+        this.reservaId = reservaId;
+        this.numeroDoQuarto = numeroDoQuarto;
+        this.removidaEm = removidaEm;
+    }
+
+    public Long getSequenciaAlteracao() {
+        return sequenciaAlteracao;
+    }
+
+    public Long getReservaId() {
+        return reservaId;
+    }
+
+    public String getNumeroDoQuarto() {
+        return numeroDoQuarto;
+    }
+
+    public Instant getRemovidaEm() {
+        return removidaEm;
+    }
+}
@@ -0,0 +1,258 @@
+package com.trabalho.crud.core.eventos;
+
+import com.trabalho.crud.core.entity.Reserva;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Barramento em memória das alterações de reservas (criação, atualização e remoção),
+ * entregues aos assinantes do feed de eventos depois do commit.
+ * * Cada evento recebe uma sequência crescente e fica num histórico circular, o que permite
+ * retomar uma assinatura a partir do último evento recebido. Cada assinante tem sua própria
+ * fila circular limitada: quem grava a reserva só insere nas filas, sem nunca esperar pela
+ * rede, e um pool pequeno de threads esvazia as filas em direção aos destinos.
+ * * Se um assinante lento encher a fila, a política reservas.eventos.consumidor-lento decide:
+ * "ressincronizar" (padrão) esvazia a fila e avisa o assinante para recarregar o estado;
+ * "descartar" descarta os eventos mais antigos da fila.
+ * * A sequência começa no horário de subida (em ms × 1000), então os IDs continuam crescendo
+ * entre reinícios e uma retomada com um ID anterior ao reinício recebe uma ressincronização.
+ */
+@Component
+public class BarramentoEventos {
+
+    static final String POLITICA_DESCARTAR = "descartar";
+    // Máximo de eventos entregues ao destino por chamada
+    private static final int TAMANHO_ENVIO = 256;
+
+    private final EventoReserva[] historico;
+    private final int capacidadeAssinante;
+    private final boolean descartarMaisAntigos;
+    private final Executor envio;
+    private final List<Assinatura> assinaturas = new CopyOnWriteArrayList<>();
+    private final long primeiraSequencia;
+
+    // Protegida pelo monitor do barramento
+    private long ultimaSequencia;
+
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder ressincronizacoes = new LongAdder();
+
+    @Autowired
+    public BarramentoEventos(@Value("${reservas.eventos.capacidade-historico:10000}") int capacidadeHistorico,
+                             @Value("${reservas.eventos.capacidade-assinante:1000}") int capacidadeAssinante,
+                             @Value("${reservas.eventos.consumidor-lento:ressincronizar}") String politica,
+                             @Value("${reservas.eventos.threads-envio:2}") int threadsEnvio) {
+        this(capacidadeHistorico, capacidadeAssinante, politica, Executors.newFixedThreadPool(threadsEnvio, tarefa -> {
+            Thread thread = new Thread(tarefa, "eventos-reserva");
+            thread.setDaemon(true);
+            return thread;
+        }), System.currentTimeMillis() * 1000);
+    }
+
+    BarramentoEventos(int capacidadeHistorico, int capacidadeAssinante, String politica, Executor envio,
+                      long sequenciaInicial) {
+        this.historico = new EventoReserva[capacidadeHistorico];
+        this.capacidadeAssinante = capacidadeAssinante;
+        this.descartarMaisAntigos = POLITICA_DESCARTAR.equalsIgnoreCase(politica);
+        this.envio = envio;
+        this.ultimaSequencia = sequenciaInicial;
+        this.primeiraSequencia = sequenciaInicial + 1;
+    }
+
+    /**
+     * Publica a alteração. Com uma transação ativa, o evento só é distribuído após o commit
+     * (e descartado num rollback), na ordem em que os commits acontecem.
+     * * @param quartoAnterior O quarto antes de uma atualização, para que assinantes dele também
+     * sejam avisados de uma troca de quarto (null nos demais casos).
+     */
+    public void publicar(TipoEventoReserva tipo, Reserva reserva, String quartoAnterior) {
+        EventoReserva evento = new EventoReserva(0, tipo, reserva, quartoAnterior, Instant.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    distribuir(evento);
+                }
+            });
+        } else {
+            distribuir(evento);
+        }
+    }
+
+    /**
+     * Cria uma assinatura. Com aposSequencia, os eventos seguintes ainda no histórico são
+     * entregues antes dos novos; se algum já tiver saído do histórico, o destino recebe
+     * primeiro uma ressincronização.
+     * * @param quartos Quartos de interesse (vazio para todos).
+     * @param aposSequencia A sequência do último evento recebido, ou null para só os próximos.
+     * @param destino Para onde os eventos são enviados.
+     * @return A assinatura, que deve ser cancelada quando o destino fechar.
+     */
+    public synchronized Assinatura assinar(Set<String> quartos, Long aposSequencia, DestinoEventos destino) {
+        Assinatura assinatura = new Assinatura(Set.copyOf(quartos), destino);
+        if (aposSequencia != null && aposSequencia != ultimaSequencia) {
+            long primeiraRetida = Math.max(primeiraSequencia, ultimaSequencia - historico.length + 1);
+            if (aposSequencia < primeiraRetida - 1 || aposSequencia > ultimaSequencia) {
+                assinatura.ressincronizarEm(ultimaSequencia);
+            } else {
+                for (long sequencia = aposSequencia + 1; sequencia <= ultimaSequencia; sequencia++) {
+                    assinatura.oferecer(historico[posicao(sequencia)]);
+                }
+            }
+        }
+        assinaturas.add(assinatura);
+        // O primeiro envio libera os cabeçalhos da resposta para o cliente
+        assinatura.manterViva();
+        return assinatura;
+    }
+
+    /**
+     * Envia um sinal de vida às assinaturas, detectando conexões que já caíram.
+     */
+    @Scheduled(initialDelayString = "${reservas.eventos.intervalo-sinal-de-vida-ms:15000}",
+               fixedDelayString = "${reservas.eventos.intervalo-sinal-de-vida-ms:15000}")
+    public void manterAssinaturasVivas() {
+        assinaturas.forEach(Assinatura::manterViva);
+    }
+
+    public synchronized EstatisticaEventos estatisticas() {
+        return new EstatisticaEventos(assinaturas.size(), ultimaSequencia, ultimaSequencia - primeiraSequencia + 1,
+            descartados.sum(), ressincronizacoes.sum());
+    }
+
+    @PreDestroy
+    public void parar() {
+        assinaturas.forEach(Assinatura::cancelar);
+        if (envio instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private synchronized void distribuir(EventoReserva pendente) {
+        EventoReserva evento = pendente.comSequencia(++ultimaSequencia);
+        historico[posicao(evento.getSequencia())] = evento;
+        for (Assinatura assinatura : assinaturas) {
+            assinatura.oferecer(evento);
+        }
+    }
+
+    private int posicao(long sequencia) {
+        return (int) Math.floorMod(sequencia, (long) historico.length);
+    }
+
+    /**
+     * Uma assinatura do feed: o filtro de quartos, a fila circular do assinante e o destino.
+     */
+    public final class Assinatura {
+
+        private final Set<String> quartos;
+        private final DestinoEventos destino;
+        private final FilaCircular<EventoReserva> fila = new FilaCircular<>(capacidadeAssinante);
+        // Há uma tarefa de envio agendada ou rodando (no máximo uma por assinatura)
+        private final AtomicBoolean agendada = new AtomicBoolean();
+        private final AtomicLong ressincronizarEm = new AtomicLong(-1);
+        private volatile boolean sinalDeVidaPendente;
+        private volatile boolean ativa = true;
+
+        private Assinatura(Set<String> quartos, DestinoEventos destino) {
+            this.quartos = quartos;
+            this.destino = destino;
+        }
+
+        public void cancelar() {
+            ativa = false;
+            assinaturas.remove(this);
+            fila.limpar();
+        }
+
+        public boolean isAtiva() {
+            return ativa;
+        }
+
+        void oferecer(EventoReserva evento) {
+            if (!ativa || !evento.envolve(quartos)) {
+                return;
+            }
+            if (descartarMaisAntigos) {
+                if (fila.sobrescrever(evento)) {
+                    descartados.increment();
+                }
+            } else if (!fila.oferecer(evento)) {
+                // Assinante lento: os eventos na fila não bastam mais, ele precisa recarregar o estado
+                fila.limpar();
+                ressincronizarEm(evento.getSequencia());
+            }
+            agendar();
+        }
+
+        private void ressincronizarEm(long sequencia) {
+            ressincronizacoes.increment();
+            ressincronizarEm.set(sequencia);
+        }
+
+        void manterViva() {
+            sinalDeVidaPendente = true;
+            agendar();
+        }
+
+        private void agendar() {
+            if (ativa && agendada.compareAndSet(false, true)) {
+                try {
+                    envio.execute(this::enviarPendentes);
+                } catch (RejectedExecutionException e) {
+                    cancelar(); // Barramento parando
+                }
+            }
+        }
+
+        private void enviarPendentes() {
+            List<EventoReserva> lote = new ArrayList<>(Math.min(TAMANHO_ENVIO, fila.capacidade()));
+            try {
+                while (ativa) {
+                    long ressincronizacao = ressincronizarEm.getAndSet(-1);
+                    if (ressincronizacao >= 0) {
+                        destino.ressincronizar(ressincronizacao);
+                    }
+                    lote.clear();
+                    if (fila.drenar(lote, TAMANHO_ENVIO) > 0) {
+                        sinalDeVidaPendente = false;
+                        destino.enviar(lote);
+                        continue;
+                    }
+                    if (sinalDeVidaPendente) {
+                        sinalDeVidaPendente = false;
+                        destino.manterViva();
+                    }
+                    // Libera o agendamento e confere se algo chegou nesse meio-tempo
+                    agendada.set(false);
+                    if ((fila.vazia() && ressincronizarEm.get() < 0 && !sinalDeVidaPendente)
+                            || !agendada.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // Cliente desconectado ou destino com erro: a assinatura é encerrada
+                cancelar();
+            }
+        }
+    }
+}
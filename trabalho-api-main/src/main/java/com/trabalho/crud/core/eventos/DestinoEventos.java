@@ -0,0 +1,25 @@
+package com.trabalho.crud.core.eventos;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Para onde os eventos de uma assinatura são entregues (ex.: uma conexão SSE). As chamadas
+ * de uma mesma assinatura nunca são concorrentes e acontecem fora da thread que gravou a reserva.
+ * Uma IOException encerra a assinatura.
+ */
+public interface DestinoEventos {
+
+    void enviar(List<EventoReserva> eventos) throws IOException;
+
+    /**
+     * Avisa que eventos foram perdidos (consumidor lento ou retomada de um ponto que já saiu
+     * do histórico): o assinante deve recarregar o estado completo e seguir a partir da sequência informada.
+     */
+    void ressincronizar(long sequencia) throws IOException;
+
+    /**
+     * Mantém a conexão viva quando não há eventos, e detecta clientes que já desconectaram.
+     */
+    void manterViva() throws IOException;
+}
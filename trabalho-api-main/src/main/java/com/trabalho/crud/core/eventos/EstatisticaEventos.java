@@ -0,0 +1,51 @@
+package com.trabalho.crud.core.eventos;
+
+/**
+ * Fotografia do barramento de eventos de reservas.
+ */
+public class EstatisticaEventos {
+
+    private final int assinaturas;
+    private final long ultimaSequencia;
+    private final long eventosPublicados;
+    private final long descartados;
+    private final long ressincronizacoes;
+
+    public EstatisticaEventos(int assinaturas, long ultimaSequencia, long eventosPublicados, long descartados,
+                              long ressincronizacoes) {
+        this.assinaturas = assinaturas;
+        this.ultimaSequencia = ultimaSequencia;
+        this.eventosPublicados = eventosPublicados;
+        this.descartados = descartados;
+        this.ressincronizacoes = ressincronizacoes;
+    }
+
+    public int getAssinaturas() {
+        return assinaturas;
+    }
+
+    public long getUltimaSequencia() {
+        return ultimaSequencia;
+    }
+
+    /**
+     * @return Eventos publicados desde a subida da aplicação.
+     */
+    public long getEventosPublicados() {
+        return eventosPublicados;
+    }
+
+    /**
+     * @return Eventos descartados das filas de assinantes lentos (política "descartar").
+     */
+    public long getDescartados() {
+        return descartados;
+    }
+
+    /**
+     * @return Ressincronizações enviadas (fila cheia ou retomada de um ponto fora do histórico).
+     */
+    public long getRessincronizacoes() {
+        return ressincronizacoes;
+    }
+}
@@ -0,0 +1,106 @@
+package com.trabalho.crud.core.eventos;
+
+import com.trabalho.crud.core.entity.Reserva;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Uma alteração de reserva já confirmada no banco. A sequência é crescente e sem buracos
+ * na ordem dos commits, e serve de ID do evento para a retomada do feed.
+ * * Guarda uma cópia dos dados da reserva no momento da alteração (no caso de REMOVIDA,
+ * os dados que ela tinha antes de ser removida).
+ */
+public class EventoReserva {
+
+    private final long sequencia;
+    private final TipoEventoReserva tipo;
+    private final Long reservaId;
+    private final String numeroDoQuarto;
+    private final String quartoAnterior;
+    private final LocalDate dataInicioReserva;
+    private final LocalDate dataFinalReserva;
+    private final Long hospedeId;
+    private final Long versao;
+    private final Instant instante;
+
+    EventoReserva(long sequencia, TipoEventoReserva tipo, Reserva reserva, String quartoAnterior, Instant instante) {
+        this.sequencia = sequencia;
+        this.tipo = tipo;
+        this.reservaId = reserva.getId();
+        this.numeroDoQuarto = reserva.getNumeroDoQuarto();
+        // Só informado quando a atualização trocou a reserva de quarto
+        this.quartoAnterior = quartoAnterior != null && !quartoAnterior.equals(numeroDoQuarto) ? quartoAnterior : null;
+        this.dataInicioReserva = reserva.getDataInicioReserva();
+        this.dataFinalReserva = reserva.getDataFinalReserva();
+        this.hospedeId = reserva.getHospedeId();
+        this.versao = reserva.getVersao();
+        this.instante = instante;
+    }
+
+    private EventoReserva(long sequencia, EventoReserva dados) {
+        this.sequencia = sequencia;
+        this.tipo = dados.tipo;
+        this.reservaId = dados.reservaId;
+        this.numeroDoQuarto = dados.numeroDoQuarto;
+        this.quartoAnterior = dados.quartoAnterior;
+        this.dataInicioReserva = dados.dataInicioReserva;
+        this.dataFinalReserva = dados.dataFinalReserva;
+        this.hospedeId = dados.hospedeId;
+        this.versao = dados.versao;
+        this.instante = dados.instante;
+    }
+
+    EventoReserva comSequencia(long novaSequencia) {
+        return new EventoReserva(novaSequencia, this);
+    }
+
+    /**
+     * @return true se o filtro estiver vazio ou contiver o quarto atual ou o anterior da reserva.
+     */
+    boolean envolve(Set<String> quartos) {
+        return quartos.isEmpty() || quartos.contains(numeroDoQuarto)
+            || (quartoAnterior != null && quartos.contains(quartoAnterior));
+    }
+
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public TipoEventoReserva getTipo() {
+        return tipo;
+    }
+
+    public Long getReservaId() {
+        return reservaId;
+    }
+
+    public String getNumeroDoQuarto() {
+        return numeroDoQuarto;
+    }
+
+    public String getQuartoAnterior() {
+        return quartoAnterior;
+    }
+
+    public LocalDate getDataInicioReserva() {
+        return dataInicioReserva;
+    }
+
+    public LocalDate getDataFinalReserva() {
+        return dataFinalReserva;
+    }
+
+    public Long getHospedeId() {
+        return hospedeId;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public Instant getInstante() {
+        return instante;
+    }
+}
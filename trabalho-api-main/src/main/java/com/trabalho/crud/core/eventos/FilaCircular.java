@@ -0,0 +1,74 @@
+package com.trabalho.crud.core.eventos;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fila limitada sobre um array circular. A inserção nunca espera: com a fila cheia,
+ * quem insere decide o que fazer (descartar o mais antigo ou desistir).
+ */
+class FilaCircular<T> {
+
+    private final Object[] itens;
+    private int inicio;
+    private int tamanho;
+
+    FilaCircular(int capacidade) {
+        this.itens = new Object[capacidade];
+    }
+
+    synchronized boolean oferecer(T item) {
+        if (tamanho == itens.length) {
+            return false;
+        }
+        itens[(inicio + tamanho) % itens.length] = item;
+        tamanho++;
+        return true;
+    }
+
+    /**
+     * Insere descartando o item mais antigo se a fila estiver cheia.
+     * @return true se algum item foi descartado.
+     */
+    synchronized boolean sobrescrever(T item) {
+        boolean descartou = false;
+        if (tamanho == itens.length) {
+            itens[inicio] = null;
+            inicio = (inicio + 1) % itens.length;
+            tamanho--;
+            descartou = true;
+        }
+        oferecer(item);
+        return descartou;
+    }
+
+    /**
+     * Move até max itens, do mais antigo ao mais novo, para o destino.
+     * @return A quantidade de itens movidos.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized int drenar(List<T> destino, int max) {
+        int movidos = Math.min(max, tamanho);
+        for (int i = 0; i < movidos; i++) {
+            destino.add((T) itens[inicio]);
+            itens[inicio] = null;
+            inicio = (inicio + 1) % itens.length;
+        }
+        tamanho -= movidos;
+        return movidos;
+    }
+
+    synchronized void limpar() {
+        Arrays.fill(itens, null);
+        inicio = 0;
+        tamanho = 0;
+    }
+
+    synchronized boolean vazia() {
+        return tamanho == 0;
+    }
+
+    int capacidade() {
+        return itens.length;
+    }
+}
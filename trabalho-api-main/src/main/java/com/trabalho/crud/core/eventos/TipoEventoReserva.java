@@ -0,0 +1,7 @@
+package com.trabalho.crud.core.eventos;
+
+public enum TipoEventoReserva {
+    CRIADA,
+    ATUALIZADA,
+    REMOVIDA
+}
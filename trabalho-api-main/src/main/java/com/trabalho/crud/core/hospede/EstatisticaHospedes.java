@@ -0,0 +1,82 @@
+package com.trabalho.crud.core.hospede;
+
+/**
+ * Fotografia do filtro e do cache que ficam na frente do cadastro de hóspedes.
+ */
+public class EstatisticaHospedes {
+
+    private final boolean habilitado;
+    private final boolean filtroCarregado;
+    private final long idsNoFiltro;
+    private final long ultimoIdCarregado;
+    private final long bytesFiltro;
+    private final double taxaFalsoPositivoEstimada;
+    private final long negativosPeloFiltro;
+    private final long acertosCache;
+    private final long consultasCadastro;
+    private final long falsosPositivos;
+
+    public EstatisticaHospedes(boolean habilitado, boolean filtroCarregado, long idsNoFiltro, long ultimoIdCarregado,
+                               long bytesFiltro, double taxaFalsoPositivoEstimada, long negativosPeloFiltro,
+                               long acertosCache, long consultasCadastro, long falsosPositivos) {
+        this.habilitado = habilitado;
+        this.filtroCarregado = filtroCarregado;
+        this.idsNoFiltro = idsNoFiltro;
+        this.ultimoIdCarregado = ultimoIdCarregado;
+        this.bytesFiltro = bytesFiltro;
+        this.taxaFalsoPositivoEstimada = taxaFalsoPositivoEstimada;
+        this.negativosPeloFiltro = negativosPeloFiltro;
+        this.acertosCache = acertosCache;
+        this.consultasCadastro = consultasCadastro;
+        this.falsosPositivos = falsosPositivos;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public boolean isFiltroCarregado() {
+        return filtroCarregado;
+    }
+
+    public long getIdsNoFiltro() {
+        return idsNoFiltro;
+    }
+
+    public long getUltimoIdCarregado() {
+        return ultimoIdCarregado;
+    }
+
+    public long getBytesFiltro() {
+        return bytesFiltro;
+    }
+
+    /**
+     * @return A taxa de falsos positivos esperada do filtro para a quantidade atual de IDs.
+     */
+    public double getTaxaFalsoPositivoEstimada() {
+        return taxaFalsoPositivoEstimada;
+    }
+
+    /**
+     * @return IDs recusados só pelo filtro, sem ir ao cadastro.
+     */
+    public long getNegativosPeloFiltro() {
+        return negativosPeloFiltro;
+    }
+
+    public long getAcertosCache() {
+        return acertosCache;
+    }
+
+    public long getConsultasCadastro() {
+        return consultasCadastro;
+    }
+
+    /**
+     * @return Consultas ao cadastro em que o filtro disse "talvez" e o hóspede não existia.
+     */
+    public long getFalsosPositivos() {
+        return falsosPositivos;
+    }
+}
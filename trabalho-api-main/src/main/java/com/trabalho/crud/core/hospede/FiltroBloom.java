@@ -0,0 +1,94 @@
+package com.trabalho.crud.core.hospede;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom de IDs numéricos. Responde "com certeza não contém" ou "talvez contém":
+ * não há falsos negativos, e a taxa de falsos positivos é a escolhida na criação enquanto a
+ * quantidade de IDs não passar da capacidade. Com 1% de falsos positivos, cada ID custa
+ * cerca de 9,6 bits (1 milhão de hóspedes em ~1,2 MB).
+ * * Inserções e consultas são seguras entre threads e não usam trava.
+ */
+class FiltroBloom {
+
+    private final AtomicLongArray palavras;
+    private final long totalBits;
+    private final int funcoesHash;
+    private final long capacidade;
+    private final LongAdder quantidade = new LongAdder();
+
+    FiltroBloom(long capacidade, double taxaFalsoPositivo) {
+        if (capacidade <= 0 || taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Capacidade e taxa de falso positivo do filtro inválidas.");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (ln2 * ln2));
+        int quantidadePalavras = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64);
+        this.palavras = new AtomicLongArray(quantidadePalavras);
+        this.totalBits = quantidadePalavras * 64L;
+        this.funcoesHash = Math.max(1, (int) Math.round((double) totalBits / capacidade * ln2));
+        this.capacidade = capacidade;
+    }
+
+    void adicionar(long id) {
+        long h1 = misturar(id);
+        long h2 = misturar(h1) | 1;
+        for (int i = 1; i <= funcoesHash; i++) {
+            long bit = posicao(h1 + i * h2);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual = palavras.get(palavra);
+            while ((atual & mascara) == 0 && !palavras.compareAndSet(palavra, atual, atual | mascara)) {
+                atual = palavras.get(palavra);
+            }
+        }
+        quantidade.increment();
+    }
+
+    boolean talvezContem(long id) {
+        long h1 = misturar(id);
+        long h2 = misturar(h1) | 1;
+        for (int i = 1; i <= funcoesHash; i++) {
+            long bit = posicao(h1 + i * h2);
+            if ((palavras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Quantas inserções foram feitas (IDs repetidos contam de novo).
+     */
+    long quantidade() {
+        return quantidade.sum();
+    }
+
+    long capacidade() {
+        return capacidade;
+    }
+
+    long bytes() {
+        return totalBits / 8;
+    }
+
+    /**
+     * @return A taxa de falsos positivos esperada para a quantidade atual de IDs.
+     */
+    double taxaFalsoPositivoEstimada() {
+        return Math.pow(1 - Math.exp(-funcoesHash * (double) quantidade() / totalBits), funcoesHash);
+    }
+
+    // Hash duplo (Kirsch-Mitzenmacher): as k posições saem de dois hashes de 64 bits
+    private long posicao(long combinado) {
+        return Math.floorMod(combinado, totalBits);
+    }
+
+    // Finalizador do SplitMix64: IDs sequenciais viram bits bem espalhados
+    private static long misturar(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+}
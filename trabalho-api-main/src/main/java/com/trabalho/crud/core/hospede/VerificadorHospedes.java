@@ -0,0 +1,241 @@
+package com.trabalho.crud.core.hospede;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trabalho.crud.core.repository.DiretorioHospedes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verifica se um hóspede existe sem ir ao {@link DiretorioHospedes} a cada reserva.
+ * * Na frente do cadastro ficam um filtro de Bloom com todos os IDs (resposta negativa
+ * imediata, sem falsos negativos) e um cache limitado das respostas positivas. Só vai ao
+ * cadastro um ID que o filtro diz "talvez" e que não está no cache.
+ * * O filtro é carregado em blocos de IDs em ordem crescente e depois completado
+ * incrementalmente. Os IDs vêm do sistema de origem e não chegam necessariamente em ordem:
+ * uma transação mais lenta pode confirmar o ID N depois que N+1 já foi carregado. Por isso o
+ * filtro só recusa sozinho os IDs até a marca segura, o maior ID de uma carga que foi relida
+ * por outra carga começada pelo menos reservas.hospedes.carga.janela-confirmacao-ms depois.
+ * Acima dela, um ID que o filtro não conhece é conferido no cadastro (e, se existir, entra no
+ * filtro e no cache). A carga incremental relê a partir da marca segura, e a recarga completa
+ * periódica pega os IDs que chegarem muito abaixo dela. Ativado com reservas.hospedes.verificar=true.
+ */
+@Component
+public class VerificadorHospedes {
+
+    private static final Logger log = LoggerFactory.getLogger(VerificadorHospedes.class);
+
+    private final DiretorioHospedes diretorio;
+    private final boolean habilitado;
+    private final long capacidadeInicial;
+    private final double taxaFalsoPositivo;
+    private final int tamanhoBloco;
+    private final long janelaConfirmacaoNanos;
+    private final Cache<Long, Boolean> positivos;
+
+    private volatile FiltroBloom filtro;
+    private volatile long ultimoIdCarregado;
+    // Até aqui a ausência no filtro é definitiva; acima, confere no cadastro
+    private volatile long marcaSegura;
+    // Carga mais antiga cujos IDs ainda não passaram para a marca segura (null se não há)
+    private Carga cargaPendente;
+
+    private final LongAdder negativosPeloFiltro = new LongAdder();
+    private final LongAdder acertosCache = new LongAdder();
+    private final LongAdder consultasDiretorio = new LongAdder();
+    private final LongAdder falsosPositivos = new LongAdder();
+
+    @Autowired
+    public VerificadorHospedes(DiretorioHospedes diretorio,
+                               @Value("${reservas.hospedes.verificar:false}") boolean habilitado,
+                               @Value("${reservas.hospedes.filtro.capacidade:1000000}") long capacidade,
+                               @Value("${reservas.hospedes.filtro.taxa-falso-positivo:0.01}") double taxaFalsoPositivo,
+                               @Value("${reservas.hospedes.carga.tamanho-bloco:10000}") int tamanhoBloco,
+                               @Value("${reservas.hospedes.carga.janela-confirmacao-ms:30000}") long janelaConfirmacaoMs,
+                               @Value("${reservas.hospedes.cache.tamanho-maximo:10000}") long tamanhoCache,
+                               @Value("${reservas.hospedes.cache.ttl-segundos:300}") long ttlCacheSegundos) {
+        this.diretorio = diretorio;
+        this.habilitado = habilitado;
+        this.capacidadeInicial = capacidade;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+        this.tamanhoBloco = tamanhoBloco;
+        this.janelaConfirmacaoNanos = Duration.ofMillis(janelaConfirmacaoMs).toNanos();
+        // A expiração limita por quanto tempo um hóspede removido do cadastro ainda é aceito
+        this.positivos = Caffeine.newBuilder()
+            .maximumSize(tamanhoCache)
+            .expireAfterWrite(Duration.ofSeconds(ttlCacheSegundos))
+            .build();
+    }
+
+    /**
+     * @return true se a existência do hóspede deve ser verificada nas reservas.
+     */
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * @return true se o hóspede existir no cadastro.
+     */
+    public boolean existe(long hospedeId) {
+        FiltroBloom atual = filtro;
+        if (atual == null) {
+            // Filtro ainda não carregado: responde pelo cadastro
+            consultasDiretorio.increment();
+            return diretorio.existe(hospedeId);
+        }
+        boolean talvez = atual.talvezContem(hospedeId);
+        if (!talvez && hospedeId <= marcaSegura) {
+            negativosPeloFiltro.increment();
+            return false;
+        }
+        if (positivos.getIfPresent(hospedeId) != null) {
+            acertosCache.increment();
+            return true;
+        }
+
+        consultasDiretorio.increment();
+        boolean existe = diretorio.existe(hospedeId);
+        if (existe) {
+            positivos.put(hospedeId, Boolean.TRUE);
+            if (!talvez) {
+                atual.adicionar(hospedeId); // Hóspede cadastrado depois da carga que o leria
+            }
+        } else if (talvez) {
+            falsosPositivos.increment();
+        }
+        return existe;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarNaInicializacao() {
+        if (habilitado) {
+            carregar();
+        }
+    }
+
+    /**
+     * Recarga completa periódica: pega os hóspedes que chegaram com ID abaixo da marca segura,
+     * que a carga incremental não relê.
+     */
+    @Scheduled(initialDelayString = "${reservas.hospedes.recarga-intervalo-ms:3600000}",
+               fixedDelayString = "${reservas.hospedes.recarga-intervalo-ms:3600000}")
+    public void recarregar() {
+        if (filtro != null) {
+            carregar();
+        }
+    }
+
+    /**
+     * Monta um filtro novo com todo o cadastro, em blocos, e o troca pelo atual. O filtro
+     * novo é dimensionado para o dobro do que já existe, se isso passar da capacidade configurada.
+     * A marca segura não recua: os IDs abaixo dela continuam no filtro novo.
+     * @return A quantidade de IDs carregados.
+     */
+    public synchronized long carregar() {
+        long inicio = System.nanoTime();
+        FiltroBloom atual = filtro;
+        long capacidade = Math.max(capacidadeInicial, atual == null ? 0 : atual.quantidade() * 2);
+        FiltroBloom novo = new FiltroBloom(capacidade, taxaFalsoPositivo);
+        long ultimo = preencher(novo, 0);
+        if (novo.quantidade() > capacidade) {
+            // Cadastro maior que o previsto: refaz com folga para não degradar a taxa de falsos positivos
+            novo = new FiltroBloom(novo.quantidade() * 2, taxaFalsoPositivo);
+            ultimo = preencher(novo, 0);
+        }
+        filtro = novo;
+        ultimoIdCarregado = ultimo;
+        avancarMarcaSegura(inicio, ultimo);
+        log.info("Filtro de hóspedes carregado: {} IDs em {} KB.", novo.quantidade(), novo.bytes() / 1024);
+        return novo.quantidade();
+    }
+
+    /**
+     * Acrescenta ao filtro os hóspedes cadastrados depois da última carga, relendo a partir da
+     * marca segura para pegar os IDs confirmados fora de ordem. Se o filtro passar da capacidade
+     * (e a taxa de falsos positivos começar a subir), é recarregado maior.
+     * @return A quantidade de IDs novos.
+     */
+    @Scheduled(initialDelayString = "${reservas.hospedes.atualizacao-intervalo-ms:60000}",
+               fixedDelayString = "${reservas.hospedes.atualizacao-intervalo-ms:60000}")
+    public synchronized long atualizar() {
+        FiltroBloom atual = filtro;
+        if (atual == null) {
+            return 0;
+        }
+        long inicio = System.nanoTime();
+        long antes = atual.quantidade();
+        ultimoIdCarregado = Math.max(ultimoIdCarregado, preencher(atual, marcaSegura));
+        avancarMarcaSegura(inicio, ultimoIdCarregado);
+        long novos = atual.quantidade() - antes;
+        if (atual.quantidade() > atual.capacidade()) {
+            carregar();
+        }
+        return novos;
+    }
+
+    public EstatisticaHospedes estatisticas() {
+        FiltroBloom atual = filtro;
+        return new EstatisticaHospedes(habilitado, atual != null,
+            atual == null ? 0 : atual.quantidade(), ultimoIdCarregado,
+            atual == null ? 0 : atual.bytes(), atual == null ? 0 : atual.taxaFalsoPositivoEstimada(),
+            negativosPeloFiltro.sum(), acertosCache.sum(), consultasDiretorio.sum(), falsosPositivos.sum());
+    }
+
+    /**
+     * Chamado depois de uma carga que começou em {@code inicio} e leu até {@code ultimoLido},
+     * relendo tudo acima da marca segura. A carga pendente vira marca segura se começou pelo
+     * menos uma janela antes desta: as transações que estavam abertas na leitura dela já
+     * confirmaram e esta carga as leu. Esta carga fica pendente no lugar dela.
+     */
+    private void avancarMarcaSegura(long inicio, long ultimoLido) {
+        if (cargaPendente != null && inicio - cargaPendente.inicio >= janelaConfirmacaoNanos) {
+            marcaSegura = Math.max(marcaSegura, cargaPendente.ultimoId);
+            cargaPendente = null;
+        }
+        if (cargaPendente == null) {
+            // Sem janela, a própria carga já serve de confirmação
+            if (janelaConfirmacaoNanos == 0) {
+                marcaSegura = Math.max(marcaSegura, ultimoLido);
+            } else {
+                cargaPendente = new Carga(inicio, ultimoLido);
+            }
+        }
+    }
+
+    // Carrega em blocos os IDs acima de aposId e devolve o maior ID lido. IDs que o filtro
+    // já (talvez) contém não são adicionados de novo, para a releitura não inflar a contagem
+    private long preencher(FiltroBloom destino, long aposId) {
+        long[] ultimo = {aposId};
+        int lidos;
+        do {
+            lidos = diretorio.paraCadaId(ultimo[0], tamanhoBloco, id -> {
+                if (!destino.talvezContem(id)) {
+                    destino.adicionar(id);
+                }
+                ultimo[0] = id;
+            });
+        } while (lidos == tamanhoBloco);
+        return ultimo[0];
+    }
+
+    private static final class Carga {
+
+        final long inicio;
+        final long ultimoId;
+
+        Carga(long inicio, long ultimoId) {
+            this.inicio = inicio;
+            this.ultimoId = ultimoId;
+        }
+    }
+}
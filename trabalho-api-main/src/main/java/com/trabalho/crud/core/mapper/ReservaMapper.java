@@ -28,6 +28,7 @@ public class ReservaMapper {
         dto.setDataInicioReserva(reserva.getDataInicioReserva());
         dto.setDataFinalReserva(reserva.getDataFinalReserva());
         dto.setHospedeId(reserva.getHospedeId());
+        dto.setVersao(reserva.getVersao());
         return dto;
     }
 
@@ -0,0 +1,29 @@
+package com.trabalho.crud.core.replicacao;
+
+/**
+ * Identifica o cliente da requisição em andamento, para a janela de leitura das próprias
+ * escritas do {@link RoteamentoLeitura}. Preenchido pelo filtro HTTP no início de cada
+ * requisição; fora de uma requisição (threads internas) fica vazio.
+ */
+public final class ClienteAtual {
+
+    private static final ThreadLocal<String> CLIENTE = new ThreadLocal<>();
+
+    private ClienteAtual() {
+    }
+
+    public static void definir(String cliente) {
+        CLIENTE.set(cliente);
+    }
+
+    /**
+     * @return O identificador do cliente, ou null fora de uma requisição.
+     */
+    public static String obter() {
+        return CLIENTE.get();
+    }
+
+    public static void limpar() {
+        CLIENTE.remove();
+    }
+}
@@ -0,0 +1,80 @@
+package com.trabalho.crud.core.replicacao;
+
+/**
+ * Fotografia do roteamento de leituras entre o banco principal e a réplica.
+ */
+public class EstatisticaReplica {
+
+    private final boolean habilitada;
+    private final long atrasoMs;
+    private final long atrasoMaximoObservadoMs;
+    private final long sequenciaReplicada;
+    private final long leiturasReplica;
+    private final long leiturasPrimarioJanela;
+    private final long leiturasPrimarioAtraso;
+    private final long ciclosReplicacao;
+    private final long alteracoesReplicadas;
+
+    public EstatisticaReplica(boolean habilitada, long atrasoMs, long atrasoMaximoObservadoMs, long sequenciaReplicada,
+                              long leiturasReplica, long leiturasPrimarioJanela, long leiturasPrimarioAtraso,
+                              long ciclosReplicacao, long alteracoesReplicadas) {
+        this.habilitada = habilitada;
+        this.atrasoMs = atrasoMs;
+        this.atrasoMaximoObservadoMs = atrasoMaximoObservadoMs;
+        this.sequenciaReplicada = sequenciaReplicada;
+        this.leiturasReplica = leiturasReplica;
+        this.leiturasPrimarioJanela = leiturasPrimarioJanela;
+        this.leiturasPrimarioAtraso = leiturasPrimarioAtraso;
+        this.ciclosReplicacao = ciclosReplicacao;
+        this.alteracoesReplicadas = alteracoesReplicadas;
+    }
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * @return Há quanto tempo a réplica deixou de refletir o banco principal (0 se está em dia,
+     * -1 se ainda não foi sincronizada).
+     */
+    public long getAtrasoMs() {
+        return atrasoMs;
+    }
+
+    public long getAtrasoMaximoObservadoMs() {
+        return atrasoMaximoObservadoMs;
+    }
+
+    /**
+     * @return A sequência de alterações até a qual a réplica está completa.
+     */
+    public long getSequenciaReplicada() {
+        return sequenciaReplicada;
+    }
+
+    public long getLeiturasReplica() {
+        return leiturasReplica;
+    }
+
+    /**
+     * @return Leituras enviadas ao principal porque o cliente escreveu há pouco.
+     */
+    public long getLeiturasPrimarioJanela() {
+        return leiturasPrimarioJanela;
+    }
+
+    /**
+     * @return Leituras enviadas ao principal porque a réplica estava atrasada demais.
+     */
+    public long getLeiturasPrimarioAtraso() {
+        return leiturasPrimarioAtraso;
+    }
+
+    public long getCiclosReplicacao() {
+        return ciclosReplicacao;
+    }
+
+    public long getAlteracoesReplicadas() {
+        return alteracoesReplicadas;
+    }
+}
@@ -0,0 +1,93 @@
+package com.trabalho.crud.core.replicacao;
+
+import com.trabalho.crud.core.cache.CacheReservas;
+import com.trabalho.crud.core.repository.AlteracaoReservaRepository;
+import com.trabalho.crud.core.repository.ReplicaReservas;
+import com.trabalho.crud.core.service.AlteracaoReserva;
+import com.trabalho.crud.core.service.AlteracaoReservaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Substituto local da replicação do banco: mantém a réplica H2 em dia lendo do principal as
+ * alterações da sincronização incremental (sequência de alterações + registros de remoção),
+ * como um log de replicação, e aplicando-as na réplica em blocos.
+ * * Cada ciclo copia até o horizonte de alterações confirmadas do principal, então a réplica
+ * nunca vê uma escrita não confirmada nem pula uma confirmada fora de ordem. A réplica é
+ * recriada vazia na subida e preenchida a partir da sequência 0.
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.replica.habilitada", havingValue = "true")
+public class ReplicadorReservas {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicadorReservas.class);
+
+    private final AlteracaoReservaRepository alteracaoReservaRepository;
+    private final AlteracaoReservaService alteracoes;
+    private final ReplicaReservas replica;
+    private final RoteamentoLeitura roteamentoLeitura;
+    private final CacheReservas cacheReservas;
+    private final int tamanhoBloco;
+
+    private volatile boolean preparada;
+    private long sequenciaReplicada;
+
+    @Autowired
+    public ReplicadorReservas(AlteracaoReservaRepository alteracaoReservaRepository,
+                              AlteracaoReservaService alteracoes, ReplicaReservas replica,
+                              RoteamentoLeitura roteamentoLeitura, CacheReservas cacheReservas,
+                              @Value("${reservas.replica.replicacao.tamanho-bloco:1000}") int tamanhoBloco) {
+        this.alteracaoReservaRepository = alteracaoReservaRepository;
+        this.alteracoes = alteracoes;
+        this.replica = replica;
+        this.roteamentoLeitura = roteamentoLeitura;
+        this.cacheReservas = cacheReservas;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    // Depois do AlteracaoReservaService, que numera as reservas antigas na subida
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        replica.prepararEsquema();
+        preparada = true;
+        int copiadas = replicar();
+        log.info("Réplica de leitura sincronizada: {} reservas copiadas.", copiadas);
+    }
+
+    /**
+     * Aplica na réplica as alterações confirmadas desde o último ciclo.
+     * @return A quantidade de alterações aplicadas.
+     */
+    @Scheduled(fixedDelayString = "${reservas.replica.replicacao.intervalo-ms:200}")
+    public synchronized int replicar() {
+        if (!preparada) {
+            return 0;
+        }
+        long referencia = System.nanoTime();
+        long alvo = alteracoes.horizonte();
+        int aplicadas = 0;
+        while (sequenciaReplicada < alvo) {
+            List<AlteracaoReserva> bloco = alteracaoReservaRepository.buscarAlteracoes(sequenciaReplicada, alvo, tamanhoBloco);
+            if (bloco.isEmpty()) {
+                break;
+            }
+            replica.aplicar(bloco);
+            // Uma leitura da réplica pode ter guardado no cache a versão anterior
+            bloco.forEach(alteracao -> cacheReservas.invalidar(alteracao.getReservaId()));
+            sequenciaReplicada = bloco.get(bloco.size() - 1).getSequencia();
+            aplicadas += bloco.size();
+        }
+        sequenciaReplicada = Math.max(sequenciaReplicada, alvo);
+        roteamentoLeitura.registrarReplicacao(sequenciaReplicada, referencia, aplicadas);
+        return aplicadas;
+    }
+}
@@ -0,0 +1,176 @@
+package com.trabalho.crud.core.replicacao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trabalho.crud.core.service.AlteracaoReservaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Decide se uma leitura do {@link com.trabalho.crud.core.service.ReservaService} pode ir à
+ * réplica. A leitura roda numa transação somente leitura marcada para a réplica, e o
+ * datasource de roteamento entrega a conexão do pool da réplica; qualquer outra conexão
+ * (escritas, checagens de conflito, jobs internos) continua no banco principal.
+ * * A leitura fica no principal quando:
+ * - o mesmo cliente escreveu há menos de reservas.replica.janela-leitura-propria-ms (ele
+ *   precisa ver a própria escrita, que talvez ainda não tenha chegado à réplica);
+ * - o atraso medido da réplica passa de reservas.replica.atraso-maximo-ms, ou ela ainda
+ *   não foi sincronizada.
+ */
+@Component
+public class RoteamentoLeitura {
+
+    private static final ThreadLocal<Boolean> REPLICA = new ThreadLocal<>();
+
+    private final boolean habilitada;
+    private final long atrasoMaximoMs;
+    private final TransactionTemplate leitura;
+    private final AlteracaoReservaService alteracoes;
+    private final Cache<String, Boolean> escritasRecentes;
+    private final LongSupplier relogioNanos;
+
+    // Até onde a réplica está completa e o instante (no principal) que ela reflete
+    private volatile long sequenciaReplicada = -1;
+    private volatile long referenciaNanos;
+
+    private final LongAdder leiturasReplica = new LongAdder();
+    private final LongAdder leiturasPrimarioJanela = new LongAdder();
+    private final LongAdder leiturasPrimarioAtraso = new LongAdder();
+    private final LongAdder ciclosReplicacao = new LongAdder();
+    private final LongAdder alteracoesReplicadas = new LongAdder();
+    private final AtomicLong atrasoMaximoObservadoMs = new AtomicLong();
+
+    @Autowired
+    public RoteamentoLeitura(@Value("${reservas.replica.habilitada:false}") boolean habilitada,
+                             @Value("${reservas.replica.janela-leitura-propria-ms:5000}") long janelaLeituraPropriaMs,
+                             @Value("${reservas.replica.atraso-maximo-ms:2000}") long atrasoMaximoMs,
+                             PlatformTransactionManager gerenciadorTransacoes,
+                             AlteracaoReservaService alteracoes) {
+        this(habilitada, janelaLeituraPropriaMs, atrasoMaximoMs, gerenciadorTransacoes, alteracoes, System::nanoTime);
+    }
+
+    RoteamentoLeitura(boolean habilitada, long janelaLeituraPropriaMs, long atrasoMaximoMs,
+                      PlatformTransactionManager gerenciadorTransacoes, AlteracaoReservaService alteracoes,
+                      LongSupplier relogioNanos) {
+        this.habilitada = habilitada;
+        this.atrasoMaximoMs = atrasoMaximoMs;
+        this.alteracoes = alteracoes;
+        this.relogioNanos = relogioNanos;
+        this.escritasRecentes = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMillis(Math.max(1, janelaLeituraPropriaMs)))
+            .ticker(relogioNanos::getAsLong)
+            .build();
+        if (habilitada) {
+            this.leitura = new TransactionTemplate(gerenciadorTransacoes);
+            this.leitura.setReadOnly(true);
+        } else {
+            this.leitura = null;
+        }
+    }
+
+    /**
+     * Usado pelo datasource de roteamento ao abrir a conexão física.
+     * @return true se a transação da thread atual foi marcada para ler da réplica.
+     */
+    public static boolean replicaSelecionada() {
+        return Boolean.TRUE.equals(REPLICA.get());
+    }
+
+    /**
+     * Executa a consulta na réplica, se ela estiver em condições de atender o cliente atual,
+     * ou no banco principal.
+     */
+    public <T> T ler(Supplier<T> consulta) {
+        if (!habilitada || TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Dentro de uma transação a conexão já foi escolhida
+            return consulta.get();
+        }
+        if (leituraPropriaPendente()) {
+            leiturasPrimarioJanela.increment();
+            return consulta.get();
+        }
+        if (atrasoMs() > atrasoMaximoMs) {
+            leiturasPrimarioAtraso.increment();
+            return consulta.get();
+        }
+        leiturasReplica.increment();
+        REPLICA.set(Boolean.TRUE);
+        try {
+            return leitura.execute(status -> consulta.get());
+        } finally {
+            REPLICA.remove();
+        }
+    }
+
+    /**
+     * Abre a janela de leitura das próprias escritas para o cliente da requisição atual.
+     */
+    public void registrarEscrita() {
+        String cliente = ClienteAtual.obter();
+        if (habilitada && cliente != null) {
+            escritasRecentes.put(cliente, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @return true se o cliente da requisição atual escreveu dentro da janela.
+     */
+    public boolean leituraPropriaPendente() {
+        String cliente = ClienteAtual.obter();
+        return habilitada && cliente != null && escritasRecentes.getIfPresent(cliente) != null;
+    }
+
+    /**
+     * Chamado pelo replicador ao fim de cada ciclo.
+     * * @param sequencia A réplica contém todas as alterações até esta sequência.
+     * @param referenciaNanos O instante (System.nanoTime) em que essa sequência era o horizonte do principal.
+     * @param aplicadas Quantas alterações o ciclo aplicou.
+     */
+    public void registrarReplicacao(long sequencia, long referenciaNanos, int aplicadas) {
+        this.referenciaNanos = referenciaNanos;
+        this.sequenciaReplicada = sequencia;
+        ciclosReplicacao.increment();
+        alteracoesReplicadas.add(aplicadas);
+    }
+
+    /**
+     * Atraso da réplica: zero se ela já tem tudo o que foi emitido no principal; senão, o tempo
+     * desde o instante que ela reflete.
+     * @return O atraso em milissegundos, ou Long.MAX_VALUE se a réplica ainda não foi sincronizada.
+     */
+    public long atrasoMs() {
+        long replicada = sequenciaReplicada;
+        if (replicada < 0) {
+            return Long.MAX_VALUE;
+        }
+        if (replicada >= alteracoes.ultimaEmitida()) {
+            return 0;
+        }
+        long atraso = TimeUnit.NANOSECONDS.toMillis(relogioNanos.getAsLong() - referenciaNanos);
+        atrasoMaximoObservadoMs.accumulateAndGet(atraso, Math::max);
+        return atraso;
+    }
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public EstatisticaReplica estatisticas() {
+        long atraso = habilitada ? atrasoMs() : 0;
+        return new EstatisticaReplica(habilitada, atraso == Long.MAX_VALUE ? -1 : atraso,
+            atrasoMaximoObservadoMs.get(), sequenciaReplicada, leiturasReplica.sum(), leiturasPrimarioJanela.sum(),
+            leiturasPrimarioAtraso.sum(), ciclosReplicacao.sum(), alteracoesReplicadas.sum());
+    }
+}
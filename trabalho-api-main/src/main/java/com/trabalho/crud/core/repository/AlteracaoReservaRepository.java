@@ -0,0 +1,47 @@
+package com.trabalho.crud.core.repository;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.service.AlteracaoReserva;
+
+import java.util.List;
+
+/**
+ * Porta de persistência da sequência de alterações e dos registros de remoção
+ * ({@link com.trabalho.crud.core.entity.ReservaRemovida}) usados na sincronização incremental.
+ */
+public interface AlteracaoReservaRepository {
+
+    /**
+     * Reserva valores novos da sequência de alterações numa única ida ao banco.
+     * * @param quantidade Quantos valores reservar.
+     * @return Os valores, em ordem crescente.
+     */
+    long[] proximasSequencias(int quantidade);
+
+    /**
+     * Grava o registro de remoção da reserva com a sequência informada.
+     */
+    void registrarRemocao(long sequencia, Reserva reserva);
+
+    /**
+     * Busca as alterações (reservas atuais e remoções) com sequência no intervalo (apos, ate],
+     * em ordem de sequência. Cada tabela é lida pelo índice da sequência, então o custo é
+     * proporcional ao número de alterações, não ao tamanho da tabela.
+     * * @param apos Sequências estritamente maiores que esta.
+     * @param ate Sequências menores ou iguais a esta.
+     * @param limite Quantidade máxima de alterações.
+     * @return As alterações encontradas, em ordem crescente de sequência.
+     */
+    List<AlteracaoReserva> buscarAlteracoes(long apos, long ate, int limite);
+
+    /**
+     * Numera as reservas gravadas antes da existência da sequência (coluna nula).
+     * @return A quantidade de reservas numeradas.
+     */
+    int preencherSequenciasAusentes();
+
+    /**
+     * @return A maior sequência já gravada (em reservas ou remoções), ou 0 se não houver.
+     */
+    long maiorSequencia();
+}
@@ -0,0 +1,25 @@
+package com.trabalho.crud.core.repository;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Porta do cadastro de hóspedes ({@link com.trabalho.crud.core.entity.Hospede}). Em produção
+ * pode ser um serviço remoto; localmente é uma tabela do H2.
+ */
+public interface DiretorioHospedes {
+
+    /**
+     * @return true se existir um hóspede com o ID informado.
+     */
+    boolean existe(long hospedeId);
+
+    /**
+     * Percorre os IDs de hóspedes maiores que aposId, em ordem crescente, até o limite.
+     * Permite carregar o cadastro em blocos, sem montar a lista inteira na memória.
+     * * @param aposId Os IDs retornados são estritamente maiores que este.
+     * @param limite Quantidade máxima de IDs do bloco.
+     * @param consumidor Recebe cada ID lido.
+     * @return A quantidade de IDs lidos (menor que o limite quando o cadastro acabou).
+     */
+    int paraCadaId(long aposId, int limite, LongConsumer consumidor);
+}
@@ -0,0 +1,32 @@
+package com.trabalho.crud.core.repository;
+
+import com.trabalho.crud.core.entity.Reserva;
+
+import java.util.List;
+
+/**
+ * Porta de persistência da tabela de noites ocupadas por quarto ({@link com.trabalho.crud.core.entity.NoiteQuarto}).
+ */
+public interface NoiteQuartoRepository {
+
+    /**
+     * Grava uma linha por noite de cada reserva, em lote.
+     * @throws org.springframework.dao.DuplicateKeyException se alguma noite já estiver ocupada.
+     */
+    void ocupar(List<Reserva> reservas);
+
+    /**
+     * Remove as noites ocupadas pela reserva informada.
+     */
+    void liberar(Long reservaId);
+
+    /**
+     * Remove todas as noites gravadas (usado antes de uma ressincronização completa).
+     */
+    void limpar();
+
+    /**
+     * Grava as noites sem falhar em sobreposições já existentes no banco (dados legados).
+     */
+    void sobrescrever(List<Reserva> reservas);
+}
@@ -0,0 +1,35 @@
+package com.trabalho.crud.core.repository;
+
+import com.trabalho.crud.core.conexoes.OcupacaoPool;
+
+import java.util.List;
+
+/**
+ * Porta de acesso aos pools de conexões da aplicação (o único do modo padrão, o principal e o da
+ * réplica, ou um por shard), usada pelo {@link com.trabalho.crud.core.conexoes.MonitorConexoes}
+ * e pelo ajuste adaptativo do tamanho.
+ */
+public interface PoolsConexao {
+
+    /**
+     * @return O nome de cada pool, na ordem em que foram criados.
+     */
+    List<String> nomes();
+
+    /**
+     * @return Conexões ativas, ociosas, threads esperando e o tamanho máximo atual do pool.
+     */
+    OcupacaoPool ocupacao(String pool);
+
+    /**
+     * Reserva sempre pelo menos minimo conexões abertas; acima disso o pool cresce sob demanda
+     * e as conexões ociosas são fechadas depois do tempo de ociosidade do pool.
+     */
+    void definirMinimo(String pool, int minimo);
+
+    /**
+     * Altera o tamanho máximo do pool com a aplicação no ar. Ao reduzir, as conexões excedentes
+     * são fechadas quando ficam ociosas, sem interromper quem as está usando.
+     */
+    void redimensionar(String pool, int tamanhoMaximo);
+}
@@ -0,0 +1,24 @@
+package com.trabalho.crud.core.repository;
+
+import com.trabalho.crud.core.service.AlteracaoReserva;
+
+import java.util.List;
+
+/**
+ * Porta de escrita na réplica de leitura, usada pelo replicador local
+ * ({@link com.trabalho.crud.core.replicacao.ReplicadorReservas}).
+ */
+public interface ReplicaReservas {
+
+    /**
+     * Recria na réplica a tabela de reservas com a mesma estrutura (colunas e índices) do
+     * banco principal, vazia.
+     */
+    void prepararEsquema();
+
+    /**
+     * Aplica as alterações na réplica numa única transação: reservas alteradas são gravadas
+     * no estado atual e as removidas são apagadas.
+     */
+    void aplicar(List<AlteracaoReserva> alteracoes);
+}
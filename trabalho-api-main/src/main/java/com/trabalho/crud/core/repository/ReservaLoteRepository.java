@@ -0,0 +1,25 @@
+package com.trabalho.crud.core.repository;
+
+import com.trabalho.crud.core.entity.Reserva;
+
+import java.util.List;
+
+/**
+ * Porta de persistência para inserções em lote de reservas.
+ * Separada do {@link ReservaRepository} porque a implementação usa JDBC batching
+ * diretamente, sem passar pelo ciclo de vida de entidades do JPA.
+ */
+public interface ReservaLoteRepository {
+
+    /**
+     * Insere todas as reservas usando JDBC batching e preenche o ID gerado em cada uma.
+     * * @param reservas As reservas (já validadas) a serem inseridas.
+     */
+    void inserirEmLote(List<Reserva> reservas);
+
+    /**
+     * Grava a reserva com o ID, a versão e a sequência que ela já tem (usado quando a reserva
+     * passa para outro shard e mantém o ID).
+     */
+    void gravarComId(Reserva reserva);
+}
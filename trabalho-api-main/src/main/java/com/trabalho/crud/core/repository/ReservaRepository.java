@@ -1,14 +1,27 @@
 package com.trabalho.crud.core.repository;
 
 import com.trabalho.crud.core.entity.Reserva;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
+
+    /**
+     * Quantidade de linhas trazidas do banco a cada ida ao cursor JDBC durante a exportação.
+     */
+    String TAMANHO_FETCH_EXPORTACAO = "500";
     
     /**
      * Método customizado pelo Spring Data JPA. Ele é interpretado para buscar reservas
@@ -24,4 +37,86 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
         LocalDate dataInicioDesejada, 
         LocalDate dataFinalDesejada
     );
+
+    /**
+     * Mesmo critério de conflito da consulta acima, para vários quartos numa única ida ao banco
+     * (usado na reserva em grupo).
+     * * O "in" fica por último de propósito: o H2 monta o cursor do índice a partir da última
+     * condição, e só busca quarto a quarto pela lista quando ela é a primeira que ele considera.
+     * Na ordem da consulta derivada ele percorria o índice inteiro (ver PlanosConsultaReservaTest).
+     */
+    @Query("select r from Reserva r"
+        + " where r.dataInicioReserva < :dataFinalDesejada"
+        + " and r.dataFinalReserva > :dataInicioDesejada"
+        + " and r.numeroDoQuarto in :numerosDosQuartos")
+    List<Reserva> findByNumeroDoQuartoInAndDataFinalReservaAfterAndDataInicioReservaBefore(
+        @Param("numerosDosQuartos") Collection<String> numerosDosQuartos,
+        @Param("dataInicioDesejada") LocalDate dataInicioDesejada,
+        @Param("dataFinalDesejada") LocalDate dataFinalDesejada
+    );
+
+    /**
+     * Busca uma página de reservas usando paginação por keyset (cursor) sobre o ID.
+     * Como a consulta parte de "id > :aposId" e ordena pela chave primária, o custo
+     * de cada página é limitado pelo tamanho da página e não pela profundidade.
+     * * Os filtros opcionais (quarto e janela de datas) são ignorados quando nulos.
+     * A janela de datas seleciona as reservas que se sobrepõem a [inicio, fim).
+     */
+    @Query("select r from Reserva r"
+        + " where r.id > :aposId"
+        + " and (:numeroDoQuarto is null or r.numeroDoQuarto = :numeroDoQuarto)"
+        + " and (:inicio is null or r.dataFinalReserva > :inicio)"
+        + " and (:fim is null or r.dataInicioReserva < :fim)"
+        + " order by r.id asc")
+    List<Reserva> buscarPagina(
+        @Param("aposId") Long aposId,
+        @Param("numeroDoQuarto") String numeroDoQuarto,
+        @Param("inicio") LocalDate inicio,
+        @Param("fim") LocalDate fim,
+        Limit limite
+    );
+
+    /**
+     * Mesma página de {@link #buscarPagina}, restrita a um quarto. Com o quarto fixo a consulta
+     * usa o índice (quarto, período) e lê só as reservas dele; no "is null or" da consulta geral
+     * o banco não consegue usar índice nenhum e percorre a chave primária até completar a página.
+     */
+    @Query("select r from Reserva r"
+        + " where r.numeroDoQuarto = :numeroDoQuarto"
+        + " and r.id > :aposId"
+        + " and (:inicio is null or r.dataFinalReserva > :inicio)"
+        + " and (:fim is null or r.dataInicioReserva < :fim)"
+        + " order by r.id asc")
+    List<Reserva> buscarPaginaDoQuarto(
+        @Param("aposId") Long aposId,
+        @Param("numeroDoQuarto") String numeroDoQuarto,
+        @Param("inicio") LocalDate inicio,
+        @Param("fim") LocalDate fim,
+        Limit limite
+    );
+
+    /**
+     * Quartos com ao menos uma reserva cadastrada e nenhuma reserva sobrepondo [inicio, fim),
+     * em ordem. Usado quando o índice em memória não está disponível; só números de quarto
+     * trafegam, nenhuma entidade é carregada.
+     */
+    @Query("select distinct r.numeroDoQuarto from Reserva r"
+        + " where r.numeroDoQuarto not in (select o.numeroDoQuarto from Reserva o"
+        + " where o.dataFinalReserva > :inicio and o.dataInicioReserva < :fim)"
+        + " order by r.numeroDoQuarto")
+    List<String> buscarQuartosLivres(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    /**
+     * Percorre todas as reservas ordenadas por ID através de um cursor JDBC do lado do servidor.
+     * * As linhas são lidas em blocos de {@link #TAMANHO_FETCH_EXPORTACAO} e as entidades são
+     * carregadas como somente-leitura (sem snapshot para dirty checking). O Stream precisa ser
+     * consumido dentro de uma transação e fechado ao final (try-with-resources).
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TAMANHO_FETCH_EXPORTACAO),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select r from Reserva r order by r.id asc")
+    Stream<Reserva> streamTodas();
 }
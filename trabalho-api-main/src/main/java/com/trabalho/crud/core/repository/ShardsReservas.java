@@ -0,0 +1,35 @@
+package com.trabalho.crud.core.repository;
+
+import java.util.Set;
+
+/**
+ * Porta da estrutura e da movimentação de dados entre os shards de reservas. Acessa cada
+ * shard diretamente, fora das transações da aplicação.
+ */
+public interface ShardsReservas {
+
+    /**
+     * Cria nos demais shards as tabelas de reservas do shard 0 (e as colunas e índices que
+     * faltarem) e posiciona a identidade de cada shard para que os IDs nunca se repitam entre eles.
+     */
+    void prepararEsquema();
+
+    /**
+     * @return Os números dos quartos com reservas no shard.
+     */
+    Set<String> quartos(int shard);
+
+    /**
+     * Copia as reservas (e as noites) do quarto para o shard de destino, mantendo ID, versão e
+     * sequência de alterações. Pode ser repetida sem duplicar linhas.
+     * * @return A quantidade de reservas copiadas.
+     */
+    int copiarQuarto(String numeroDoQuarto, int origem, int destino);
+
+    /**
+     * Remove do shard as reservas e as noites do quarto.
+     */
+    void removerQuarto(String numeroDoQuarto, int shard);
+
+    long contarReservas(int shard);
+}
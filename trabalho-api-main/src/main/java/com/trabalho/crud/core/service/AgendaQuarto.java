@@ -0,0 +1,44 @@
+package com.trabalho.crud.core.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Agenda de ocupação de um único quarto, usada para validar vários pedidos de uma vez.
+ * Guarda os períodos [inicio, fim) já ocupados em ordem de início, fundindo os que se
+ * sobrepõem, de modo que cada verificação de conflito é uma busca O(log n).
+ */
+class AgendaQuarto {
+
+    private final TreeMap<LocalDate, LocalDate> ocupados = new TreeMap<>();
+
+    /**
+     * @return true se o período [inicio, fim) se sobrepõe a algum período ocupado.
+     */
+    boolean conflita(LocalDate inicio, LocalDate fim) {
+        // Como os períodos são disjuntos, basta olhar o último que começa antes de 'fim'
+        Map.Entry<LocalDate, LocalDate> anterior = ocupados.lowerEntry(fim);
+        return anterior != null && anterior.getValue().isAfter(inicio);
+    }
+
+    /**
+     * Marca o período [inicio, fim) como ocupado, fundindo-o com os vizinhos sobrepostos.
+     */
+    void ocupar(LocalDate inicio, LocalDate fim) {
+        LocalDate novoInicio = inicio;
+        LocalDate novoFim = fim;
+        Map.Entry<LocalDate, LocalDate> vizinho = ocupados.lowerEntry(novoFim);
+        while (vizinho != null && vizinho.getValue().isAfter(novoInicio)) {
+            if (vizinho.getKey().isBefore(novoInicio)) {
+                novoInicio = vizinho.getKey();
+            }
+            if (vizinho.getValue().isAfter(novoFim)) {
+                novoFim = vizinho.getValue();
+            }
+            ocupados.remove(vizinho.getKey());
+            vizinho = ocupados.lowerEntry(novoFim);
+        }
+        ocupados.put(novoInicio, novoFim);
+    }
+}
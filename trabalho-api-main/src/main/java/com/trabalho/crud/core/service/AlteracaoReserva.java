@@ -0,0 +1,61 @@
+package com.trabalho.crud.core.service;
+
+import com.trabalho.crud.core.entity.Reserva;
+
+/**
+ * Uma entrada da sincronização incremental: a reserva no estado atual (ALTERADA) ou o
+ * registro de que ela foi removida (REMOVIDA), com a sua posição na sequência de alterações.
+ */
+public class AlteracaoReserva {
+
+    public enum Tipo {
+        ALTERADA,
+        REMOVIDA
+    }
+
+    private final long sequencia;
+    private final Tipo tipo;
+    private final Long reservaId;
+    private final String numeroDoQuarto;
+    private final Reserva reserva;
+
+    private AlteracaoReserva(long sequencia, Tipo tipo, Long reservaId, String numeroDoQuarto, Reserva reserva) {
+        this.sequencia = sequencia;
+        this.tipo = tipo;
+        this.reservaId = reservaId;
+        this.numeroDoQuarto = numeroDoQuarto;
+        this.reserva = reserva;
+    }
+
+    public static AlteracaoReserva alterada(Reserva reserva) {
+        return new AlteracaoReserva(reserva.getSequenciaAlteracao(), Tipo.ALTERADA, reserva.getId(),
+            reserva.getNumeroDoQuarto(), reserva);
+    }
+
+    public static AlteracaoReserva removida(long sequencia, Long reservaId, String numeroDoQuarto) {
+        return new AlteracaoReserva(sequencia, Tipo.REMOVIDA, reservaId, numeroDoQuarto, null);
+    }
+
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getReservaId() {
+        return reservaId;
+    }
+
+    public String getNumeroDoQuarto() {
+        return numeroDoQuarto;
+    }
+
+    /**
+     * @return A reserva no estado atual, ou null quando a alteração é uma remoção.
+     */
+    public Reserva getReserva() {
+        return reserva;
+    }
+}
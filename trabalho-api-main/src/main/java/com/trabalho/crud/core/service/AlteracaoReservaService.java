@@ -0,0 +1,181 @@
+package com.trabalho.crud.core.service;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.AlteracaoReservaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sincronização incremental das reservas ("alterações desde o token").
+ * * Toda escrita numera a reserva com um valor novo da sequência de alterações, e toda
+ * remoção grava um registro com o seu próprio valor. Um cliente que mantém uma cópia local
+ * guarda o token da última sincronização e recebe só o que mudou depois dele.
+ * * Como as transações terminam fora da ordem da sequência, uma alteração com sequência
+ * menor pode ficar visível depois de outra maior. Para que o token nunca pule uma alteração,
+ * as consultas só enxergam até o horizonte: a maior sequência abaixo da qual nenhuma
+ * transação desta instância está em andamento.
+ */
+@Service
+public class AlteracaoReservaService {
+
+    static final int LIMITE_PADRAO = 500;
+    static final int LIMITE_MAXIMO = 5000;
+
+    private static final Logger log = LoggerFactory.getLogger(AlteracaoReservaService.class);
+
+    private final AlteracaoReservaRepository repositorio;
+
+    // Sequências já reservadas por transações que ainda não terminaram
+    private final ConcurrentSkipListSet<Long> emAndamento = new ConcurrentSkipListSet<>();
+    private final AtomicLong maiorEmitida = new AtomicLong();
+    // Escritores (compartilhado) obtêm e registram a sequência sem que o horizonte (exclusivo)
+    // seja calculado entre as duas coisas
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+
+    @Autowired
+    public AlteracaoReservaService(AlteracaoReservaRepository repositorio) {
+        this.repositorio = repositorio;
+    }
+
+    /**
+     * Numera as reservas antigas e posiciona o horizonte na maior sequência já gravada.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepararNaInicializacao() {
+        int preenchidas = repositorio.preencherSequenciasAusentes();
+        if (preenchidas > 0) {
+            log.info("Sequência de alterações atribuída a {} reservas antigas.", preenchidas);
+        }
+        maiorEmitida.accumulateAndGet(repositorio.maiorSequencia(), Math::max);
+    }
+
+    /**
+     * Atribui uma sequência nova à reserva, antes do INSERT/UPDATE que a grava. Deve ser
+     * chamado dentro da transação da escrita, para que o horizonte espere o commit.
+     */
+    public void marcar(Reserva reserva) {
+        reserva.setSequenciaAlteracao(reservar(1)[0]);
+    }
+
+    /**
+     * Atribui sequências novas a todas as reservas, com uma única ida ao banco.
+     */
+    public void marcar(List<Reserva> reservas) {
+        long[] sequencias = reservar(reservas.size());
+        for (int i = 0; i < sequencias.length; i++) {
+            reservas.get(i).setSequenciaAlteracao(sequencias[i]);
+        }
+    }
+
+    /**
+     * Grava o registro de remoção da reserva, para que a remoção apareça na sincronização.
+     */
+    public void registrarRemocao(Reserva reserva) {
+        repositorio.registrarRemocao(reservar(1)[0], reserva);
+    }
+
+    /**
+     * Retorna as alterações posteriores ao token, em ordem de sequência.
+     * * @param token O token devolvido pela sincronização anterior (nulo para começar do zero).
+     * @param limite A quantidade máxima de alterações (padrão 500, máximo 5000).
+     * @return As alterações e o token a ser enviado na próxima chamada.
+     * @throws ValidacaoReservaException se o token ou o limite forem inválidos.
+     */
+    public PaginaAlteracoes buscarAlteracoes(String token, Integer limite) {
+        long apos = TokenAlteracoes.decodificar(token);
+        int tamanho = normalizarLimite(limite);
+        long ate = horizonte();
+        if (ate <= apos) {
+            return new PaginaAlteracoes(List.of(), TokenAlteracoes.codificar(apos), false, tamanho);
+        }
+
+        // Busca um item a mais para saber se existe próxima página sem um COUNT
+        List<AlteracaoReserva> resultado = repositorio.buscarAlteracoes(apos, ate, tamanho + 1);
+        if (resultado.isEmpty()) {
+            return new PaginaAlteracoes(resultado, TokenAlteracoes.codificar(apos), false, tamanho);
+        }
+        boolean temMais = resultado.size() > tamanho;
+        List<AlteracaoReserva> pagina = temMais ? resultado.subList(0, tamanho) : resultado;
+        long ultima = pagina.get(pagina.size() - 1).getSequencia();
+        return new PaginaAlteracoes(pagina, TokenAlteracoes.codificar(ultima), temMais, tamanho);
+    }
+
+    /**
+     * @return A maior sequência que já pode ser entregue: todas as menores ou iguais a ela
+     * pertencem a transações concluídas (ou desfeitas).
+     */
+    public long horizonte() {
+        trava.writeLock().lock();
+        try {
+            return emAndamento.isEmpty() ? maiorEmitida.get() : emAndamento.first() - 1;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return A maior sequência já reservada, inclusive por transações em andamento. Leitura
+     * sem trava, para quem só precisa saber se algo mudou (ex.: o atraso da réplica).
+     */
+    public long ultimaEmitida() {
+        return maiorEmitida.get();
+    }
+
+    private long[] reservar(int quantidade) {
+        long[] sequencias;
+        trava.readLock().lock();
+        try {
+            sequencias = repositorio.proximasSequencias(quantidade);
+            if (sequencias.length == 0) {
+                return sequencias;
+            }
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                for (long sequencia : sequencias) {
+                    emAndamento.add(sequencia);
+                }
+            }
+            maiorEmitida.accumulateAndGet(sequencias[sequencias.length - 1], Math::max);
+        } finally {
+            trava.readLock().unlock();
+        }
+
+        // Fora de transação a escrita é confirmada na hora; dentro, a sequência fica
+        // "em andamento" até o commit ou rollback
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> reservadas = new ArrayList<>(sequencias.length);
+            for (long sequencia : sequencias) {
+                reservadas.add(sequencia);
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    emAndamento.removeAll(reservadas);
+                }
+            });
+        }
+        return sequencias;
+    }
+
+    private int normalizarLimite(Integer limite) {
+        if (limite == null) {
+            return LIMITE_PADRAO;
+        }
+        if (limite <= 0 || limite > LIMITE_MAXIMO) {
+            throw new ValidacaoReservaException("O limite da página deve estar entre 1 e " + LIMITE_MAXIMO + ".");
+        }
+        return limite;
+    }
+}
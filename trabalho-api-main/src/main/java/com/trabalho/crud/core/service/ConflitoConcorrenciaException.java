@@ -0,0 +1,17 @@
+package com.trabalho.crud.core.service;
+
+/**
+ * Exceção lançada quando uma operação não pode ser concluída por causa de outra
+ * operação concorrente sobre o mesmo recurso (ex.: tempo esgotado aguardando a trava
+ * de um quarto). O cliente pode repetir a requisição.
+ */
+public class ConflitoConcorrenciaException extends RuntimeException {
+
+    /**
+     * Construtor que aceita a mensagem detalhada do conflito.
+     * * @param mensagem A descrição do conflito de concorrência.
+     */
+    public ConflitoConcorrenciaException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,54 @@
+package com.trabalho.crud.core.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica e decodifica o cursor opaco usado na paginação por keyset.
+ * Internamente o cursor carrega apenas o último ID entregue ao cliente,
+ * mas o formato não faz parte do contrato da API.
+ */
+public final class CursorPaginacao {
+
+    private static final String PREFIXO = "r1:";
+
+    private CursorPaginacao() {
+    }
+
+    /**
+     * Gera o cursor que aponta para depois da reserva com o ID informado.
+     * @param ultimoId O ID da última reserva da página atual.
+     * @return O cursor codificado em Base64 (URL-safe, sem padding).
+     */
+    public static String codificar(Long ultimoId) {
+        String bruto = PREFIXO + ultimoId;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Extrai o ID a partir do qual a próxima página deve começar.
+     * @param cursor O cursor recebido do cliente (pode ser nulo ou vazio para a primeira página).
+     * @return O último ID já entregue, ou 0 quando não houver cursor.
+     * @throws ValidacaoReservaException se o cursor não tiver sido gerado pela API.
+     */
+    public static long decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!bruto.startsWith(PREFIXO)) {
+                throw new ValidacaoReservaException("Cursor de paginação inválido.");
+            }
+            long id = Long.parseLong(bruto.substring(PREFIXO.length()));
+            if (id < 0) {
+                throw new ValidacaoReservaException("Cursor de paginação inválido.");
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            // Cobre tanto Base64 malformado quanto NumberFormatException
+            throw new ValidacaoReservaException("Cursor de paginação inválido.");
+        }
+    }
+}
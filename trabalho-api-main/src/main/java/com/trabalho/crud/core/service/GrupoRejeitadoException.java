@@ -0,0 +1,25 @@
+package com.trabalho.crud.core.service;
+
+import java.util.List;
+
+/**
+ * Exceção lançada quando uma reserva em grupo é recusada: basta um item inválido ou em
+ * conflito para que nenhuma reserva do grupo seja gravada. Leva o motivo de cada item recusado.
+ */
+public class GrupoRejeitadoException extends ValidacaoReservaException {
+
+    private final transient List<ResultadoItemLote> rejeicoes;
+
+    /**
+     * @param mensagem A descrição geral da recusa.
+     * @param rejeicoes Os itens recusados, com o índice no grupo e o motivo.
+     */
+    public GrupoRejeitadoException(String mensagem, List<ResultadoItemLote> rejeicoes) {
+        super(mensagem);
+        this.rejeicoes = rejeicoes;
+    }
+
+    public List<ResultadoItemLote> getRejeicoes() {
+        return rejeicoes;
+    }
+}
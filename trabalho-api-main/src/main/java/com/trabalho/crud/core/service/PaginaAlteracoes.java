@@ -0,0 +1,42 @@
+package com.trabalho.crud.core.service;
+
+import java.util.List;
+
+/**
+ * Resultado de uma consulta "alterações desde o token". O próximo token vem sempre
+ * preenchido: o cliente o guarda e o reenvia na próxima sincronização, mesmo quando a
+ * página veio vazia.
+ */
+public class PaginaAlteracoes {
+
+    private final List<AlteracaoReserva> alteracoes;
+    private final String proximoToken;
+    private final boolean temMais;
+    private final int limite;
+
+    public PaginaAlteracoes(List<AlteracaoReserva> alteracoes, String proximoToken, boolean temMais, int limite) {
+        this.alteracoes = alteracoes;
+        this.proximoToken = proximoToken;
+        this.temMais = temMais;
+        this.limite = limite;
+    }
+
+    public List<AlteracaoReserva> getAlteracoes() {
+        return alteracoes;
+    }
+
+    public String getProximoToken() {
+        return proximoToken;
+    }
+
+    /**
+     * @return true se já existirem mais alterações visíveis além desta página.
+     */
+    public boolean isTemMais() {
+        return temMais;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+}
@@ -0,0 +1,41 @@
+package com.trabalho.crud.core.service;
+
+import com.trabalho.crud.core.entity.Reserva;
+
+import java.util.List;
+
+/**
+ * Resultado de uma consulta paginada por cursor (keyset) sobre as reservas.
+ * Contém apenas as reservas da página atual e o cursor opaco da próxima página.
+ */
+public class PaginaReservas {
+
+    private final List<Reserva> reservas;
+    private final String proximoCursor;
+    private final int limite;
+
+    public PaginaReservas(List<Reserva> reservas, String proximoCursor, int limite) {
+        this.reservas = reservas;
+        this.proximoCursor = proximoCursor;
+        this.limite = limite;
+    }
+
+    public List<Reserva> getReservas() {
+        return reservas;
+    }
+
+    /**
+     * @return O cursor da próxima página, ou null se esta for a última.
+     */
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public boolean temProximaPagina() {
+        return proximoCursor != null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.trabalho.crud.core.service;
+
+import com.trabalho.crud.core.disponibilidade.IndiceDisponibilidade;
+import com.trabalho.crud.core.repository.ReservaRepository;
+import com.trabalho.crud.core.shard.RoteadorShards;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Consultas sobre os quartos, derivadas das reservas (a API não tem cadastro de quartos:
+ * um quarto é conhecido a partir do momento em que recebe a primeira reserva).
+ */
+@Service
+public class QuartoService {
+
+    private final ReservaRepository reservaRepository;
+    private final IndiceDisponibilidade indiceDisponibilidade;
+    private final RoteadorShards roteadorShards;
+
+    @Autowired
+    public QuartoService(ReservaRepository reservaRepository, IndiceDisponibilidade indiceDisponibilidade,
+                         RoteadorShards roteadorShards) {
+        this.reservaRepository = reservaRepository;
+        this.indiceDisponibilidade = indiceDisponibilidade;
+        this.roteadorShards = roteadorShards;
+    }
+
+    /**
+     * Retorna os quartos livres em todas as noites do período [inicio, fim).
+     * * @param inicio Data de check-in desejada.
+     * @param fim Data de check-out desejada.
+     * @return Os números dos quartos livres, em ordem.
+     * @throws ValidacaoReservaException se o período for inválido.
+     */
+    public List<String> buscarDisponiveis(LocalDate inicio, LocalDate fim) {
+        if (inicio == null || fim == null) {
+            throw new ValidacaoReservaException("As datas de início e fim são obrigatórias.");
+        }
+        if (!fim.isAfter(inicio)) {
+            throw new ValidacaoReservaException("A data final deve ser posterior à data de início.");
+        }
+
+        // Com o índice carregado, a resposta sai da memória, sem ir ao banco
+        if (indiceDisponibilidade.estaPronto()) {
+            return indiceDisponibilidade.quartosLivres(inicio, fim);
+        }
+        // Todas as reservas de um quarto ficam no mesmo shard: a resposta de cada shard já é exata
+        return roteadorShards.reunir(() -> reservaRepository.buscarQuartosLivres(inicio, fim),
+            Comparator.naturalOrder(), Integer.MAX_VALUE);
+    }
+}
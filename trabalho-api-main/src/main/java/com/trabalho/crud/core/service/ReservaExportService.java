@@ -0,0 +1,69 @@
+package com.trabalho.crud.core.service;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.ReservaRepository;
+import com.trabalho.crud.core.shard.RoteadorShards;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Serviço responsável pela exportação completa da tabela de reservas.
+ * Diferente de {@link ReservaService#buscarTodas()}, nunca monta a lista inteira em memória:
+ * cada reserva é lida do cursor, entregue ao consumidor e desanexada do contexto de persistência.
+ * * Com as reservas particionadas, os shards são exportados um depois do outro (cada um em ordem
+ * de ID), com um cursor aberto por vez.
+ */
+@Service
+public class ReservaExportService {
+
+    private final ReservaRepository reservaRepository;
+    private final EntityManager entityManager;
+    private final RoteadorShards roteadorShards;
+    private final TransactionTemplate leitura;
+
+    @Autowired
+    public ReservaExportService(ReservaRepository reservaRepository, EntityManager entityManager,
+                                RoteadorShards roteadorShards, PlatformTransactionManager gerenciadorTransacoes) {
+        this.reservaRepository = reservaRepository;
+        this.entityManager = entityManager;
+        this.roteadorShards = roteadorShards;
+        this.leitura = new TransactionTemplate(gerenciadorTransacoes);
+        this.leitura.setReadOnly(true);
+    }
+
+    /**
+     * Entrega todas as reservas, em ordem de ID (por shard), ao consumidor informado. Chamado
+     * dentro de uma transação, exporta só o shard dela.
+     * * @param consumidor Quem escreve cada reserva no destino (ex.: a resposta HTTP).
+     * @return A quantidade de reservas exportadas.
+     */
+    public long exportar(Consumer<Reserva> consumidor) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return exportarNaTransacao(consumidor);
+        }
+        return roteadorShards.emCadaShard(() -> leitura.execute(status -> exportarNaTransacao(consumidor)))
+            .stream().mapToLong(Long::longValue).sum();
+    }
+
+    private long exportarNaTransacao(Consumer<Reserva> consumidor) {
+        long total = 0;
+        try (Stream<Reserva> reservas = reservaRepository.streamTodas()) {
+            var iterador = reservas.iterator();
+            while (iterador.hasNext()) {
+                Reserva reserva = iterador.next();
+                consumidor.accept(reserva);
+                // Evita que o contexto de persistência cresça junto com a exportação
+                entityManager.detach(reserva);
+                total++;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,26 @@
+package com.trabalho.crud.core.service;
+
+import com.trabalho.crud.core.disponibilidade.SugestoesReserva;
+
+/**
+ * Exceção lançada quando o quarto já está reservado no período pedido.
+ * Continua sendo uma ValidacaoReservaException (400), mas leva as alternativas
+ * encontradas para que o cliente não precise tentar outras datas às cegas.
+ */
+public class ReservaIndisponivelException extends ValidacaoReservaException {
+
+    private final transient SugestoesReserva sugestoes;
+
+    /**
+     * @param mensagem A descrição do conflito.
+     * @param sugestoes Períodos e quartos alternativos (pode ser null se não calculados).
+     */
+    public ReservaIndisponivelException(String mensagem, SugestoesReserva sugestoes) {
+        super(mensagem);
+        this.sugestoes = sugestoes;
+    }
+
+    public SugestoesReserva getSugestoes() {
+        return sugestoes;
+    }
+}
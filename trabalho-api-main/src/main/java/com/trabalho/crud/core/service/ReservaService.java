@@ -1,30 +1,134 @@
 package com.trabalho.crud.core.service;
 
+import com.trabalho.crud.core.cache.CacheReservas;
+import com.trabalho.crud.core.concorrencia.GravacaoEmGrupo;
+import com.trabalho.crud.core.concorrencia.TravasQuarto;
+import com.trabalho.crud.core.disponibilidade.BuscaAlternativas;
+import com.trabalho.crud.core.disponibilidade.IndiceDisponibilidade;
+import com.trabalho.crud.core.disponibilidade.TabelaNoites;
 import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.eventos.BarramentoEventos;
+import com.trabalho.crud.core.eventos.TipoEventoReserva;
+import com.trabalho.crud.core.replicacao.RoteamentoLeitura;
+import com.trabalho.crud.core.repository.ReservaLoteRepository;
 import com.trabalho.crud.core.repository.ReservaRepository;
+import com.trabalho.crud.core.shard.RoteadorShards;
+import com.trabalho.crud.core.validacao.RegraDisponibilidade;
+import com.trabalho.crud.core.validacao.ValidadorReserva;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class ReservaService {
 
+    static final int LIMITE_PADRAO = 50;
+    static final int LIMITE_MAXIMO = 500;
+    static final int LIMITE_LOTE = 5000;
+    static final int LIMITE_GRUPO = 500;
+    // Quantas vezes uma atualização sem If-Match é refeita ao perder a corrida de versão
+    static final int TENTATIVAS_ATUALIZACAO = 5;
+
+    private static final Comparator<Reserva> POR_ID = Comparator.comparing(Reserva::getId);
+
     private final ReservaRepository reservaRepository;
+    private final ReservaLoteRepository reservaLoteRepository;
+    private final IndiceDisponibilidade indiceDisponibilidade;
+    private final TravasQuarto travasQuarto;
+    private final TransactionOperations transacao;
+    private final TabelaNoites tabelaNoites;
+    private final CacheReservas cacheReservas;
+    private final GravacaoEmGrupo gravacaoEmGrupo;
+    private final BuscaAlternativas buscaAlternativas;
+    private final ValidadorReserva validador;
+    private final BarramentoEventos barramentoEventos;
+    private final AlteracaoReservaService alteracoes;
+    private final RoteamentoLeitura roteamentoLeitura;
+    private final RoteadorShards roteadorShards;
 
     @Autowired
-    public ReservaService(ReservaRepository reservaRepository) {
+    public ReservaService(ReservaRepository reservaRepository, ReservaLoteRepository reservaLoteRepository,
+                          IndiceDisponibilidade indiceDisponibilidade, TravasQuarto travasQuarto,
+                          TransactionOperations transacao, TabelaNoites tabelaNoites,
+                          CacheReservas cacheReservas, GravacaoEmGrupo gravacaoEmGrupo,
+                          BuscaAlternativas buscaAlternativas, ValidadorReserva validador,
+                          BarramentoEventos barramentoEventos, AlteracaoReservaService alteracoes,
+                          RoteamentoLeitura roteamentoLeitura, RoteadorShards roteadorShards) {
         this.reservaRepository = reservaRepository;
-        
+        this.reservaLoteRepository = reservaLoteRepository;
+        this.indiceDisponibilidade = indiceDisponibilidade;
+        this.travasQuarto = travasQuarto;
+        this.transacao = transacao;
+        this.tabelaNoites = tabelaNoites;
+        this.cacheReservas = cacheReservas;
+        this.gravacaoEmGrupo = gravacaoEmGrupo;
+        this.buscaAlternativas = buscaAlternativas;
+        this.validador = validador;
+        this.barramentoEventos = barramentoEventos;
+        this.alteracoes = alteracoes;
+        this.roteamentoLeitura = roteamentoLeitura;
+        this.roteadorShards = roteadorShards;
+        // No modo "grupo", a thread gravadora grava cada lote pelo mesmo caminho do criarEmLote
+        gravacaoEmGrupo.iniciar(this::gravarGrupo);
     }
 
     /**
-     * Retorna todas as reservas cadastradas.
+     * Retorna todas as reservas cadastradas (da réplica de leitura, quando habilitada; de todos
+     * os shards, em ordem de ID, quando particionadas).
      * @return Uma lista de todas as Reservas.
      */
     public List<Reserva> buscarTodas() {
-        return reservaRepository.findAll();
+        return roteadorShards.reunir(() -> roteamentoLeitura.ler(reservaRepository::findAll), POR_ID, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retorna uma página de reservas ordenadas por ID, usando paginação por cursor.
+     * * @param cursor O cursor opaco devolvido pela página anterior (nulo para a primeira página).
+     * @param limite A quantidade máxima de reservas na página (padrão 50, máximo 500).
+     * @param numeroDoQuarto Filtro opcional pelo número do quarto.
+     * @param inicio Filtro opcional: início da janela de datas.
+     * @param fim Filtro opcional: fim da janela de datas.
+     * @return A página encontrada e o cursor da próxima página.
+     * @throws ValidacaoReservaException se o cursor, o limite ou a janela de datas forem inválidos.
+     */
+    public PaginaReservas buscarPagina(String cursor, Integer limite, String numeroDoQuarto,
+                                       LocalDate inicio, LocalDate fim) {
+        long aposId = CursorPaginacao.decodificar(cursor);
+        int tamanho = normalizarLimite(limite);
+
+        if (inicio != null && fim != null && !fim.isAfter(inicio)) {
+            throw new ValidacaoReservaException("O fim da janela de datas deve ser posterior ao início.");
+        }
+
+        // Busca um item a mais para saber se existe próxima página sem um COUNT. Filtrando por
+        // quarto, só o shard dele é consultado (e pelo índice do quarto); senão, cada shard
+        // devolve a sua página
+        List<Reserva> resultado = numeroDoQuarto != null
+            ? roteadorShards.lerDoQuarto(numeroDoQuarto, () -> roteamentoLeitura.ler(() ->
+                reservaRepository.buscarPaginaDoQuarto(aposId, numeroDoQuarto, inicio, fim, Limit.of(tamanho + 1))))
+            : roteadorShards.reunir(() -> roteamentoLeitura.ler(() ->
+                reservaRepository.buscarPagina(aposId, null, inicio, fim, Limit.of(tamanho + 1))), POR_ID, tamanho + 1);
+
+        if (resultado.size() <= tamanho) {
+            return new PaginaReservas(resultado, null, tamanho);
+        }
+        List<Reserva> pagina = resultado.subList(0, tamanho);
+        String proximoCursor = CursorPaginacao.codificar(pagina.get(tamanho - 1).getId());
+        return new PaginaReservas(pagina, proximoCursor, tamanho);
     }
     
     /**
@@ -36,23 +140,327 @@ public class ReservaService {
 
     public Reserva criar(Reserva novaReserva) {
         
-        validarDatas(novaReserva);
-        validarDisponibilidade(novaReserva);
-        validarHospede(novaReserva.getHospedeId()); 
-        
-        return reservaRepository.save(novaReserva);
+        // Regras que não leem as reservas do quarto antes de qualquer trava ou fila
+        validador.validarAntesDaTrava(novaReserva, null);
+        roteamentoLeitura.registrarEscrita();
+
+        if (gravacaoEmGrupo.ativa()) {
+            return gravacaoEmGrupo.gravar(novaReserva);
+        }
+        return roteadorShards.noQuarto(novaReserva.getNumeroDoQuarto(), () -> {
+            if (tabelaNoites.ativa()) {
+                return criarComNoites(novaReserva);
+            }
+
+            // A checagem de conflito e o save precisam ser atômicos para o mesmo quarto
+            return travasQuarto.executar(novaReserva.getNumeroDoQuarto(), () -> transacao.execute(status -> {
+                validador.validarComTrava(novaReserva, null);
+                alteracoes.marcar(novaReserva);
+                Reserva salva = reservaRepository.save(novaReserva);
+                registrarCriacao(salva);
+                return salva;
+            }));
+        });
     }
     
     /**
-     * Retorna uma reserva pelo seu ID.
+     * Modo "noites": grava a reserva e uma linha por noite na mesma transação. Sem consulta
+     * prévia e sem trava: se alguma noite já estiver ocupada, a chave primária da tabela de
+     * noites recusa o INSERT e a transação inteira é desfeita.
+     */
+    private Reserva criarComNoites(Reserva novaReserva) {
+        try {
+            return transacao.execute(status -> {
+                alteracoes.marcar(novaReserva);
+                Reserva salva = reservaRepository.save(novaReserva);
+                tabelaNoites.ocupar(salva);
+                registrarCriacao(salva);
+                return salva;
+            });
+        } catch (DuplicateKeyException e) {
+            novaReserva.setId(null);
+            throw indisponivel(novaReserva, null);
+        }
+    }
+
+    /**
+     * Cria várias reservas de uma vez, validando cada item de forma independente.
+     * * Os itens são agrupados por quarto: cada quarto custa uma única consulta de conflitos
+     * (cobrindo o menor início e o maior fim do grupo), e os itens do próprio lote também
+     * são checados entre si, na ordem em que foram enviados. As reservas válidas são
+     * inseridas via JDBC batching numa única transação, com as travas de todos os quartos
+     * do lote seguras até o commit.
+     * * @param reservas As reservas a serem criadas (no máximo 5000).
+     * @return O resultado de cada item, na mesma ordem do lote recebido.
+     * @throws ValidacaoReservaException se o lote estiver vazio ou exceder o limite.
+     */
+    public List<ResultadoItemLote> criarEmLote(List<Reserva> reservas) {
+        if (reservas == null || reservas.isEmpty()) {
+            throw new ValidacaoReservaException("O lote deve conter ao menos uma reserva.");
+        }
+        if (reservas.size() > LIMITE_LOTE) {
+            throw new ValidacaoReservaException("O lote deve conter no máximo " + LIMITE_LOTE + " reservas.");
+        }
+
+        ResultadoItemLote[] resultados = new ResultadoItemLote[reservas.size()];
+        roteamentoLeitura.registrarEscrita();
+
+        // 1. Regras que não leem as reservas do quarto, agrupando os itens válidos por quarto
+        Map<String, List<Integer>> indicesPorQuarto = new LinkedHashMap<>();
+        for (int i = 0; i < reservas.size(); i++) {
+            Reserva reserva = reservas.get(i);
+            try {
+                validador.validarAntesDaTrava(reserva, null);
+                indicesPorQuarto.computeIfAbsent(reserva.getNumeroDoQuarto(), q -> new ArrayList<>()).add(i);
+            } catch (ValidacaoReservaException e) {
+                resultados[i] = ResultadoItemLote.rejeitada(i, reserva, e.getMessage());
+            }
+        }
+
+        // 2 e 3. Com as travas dos quartos, checa disponibilidade e insere numa só transação
+        return gravarLoteValidado(reservas, indicesPorQuarto, resultados);
+    }
+
+    /**
+     * Cria as reservas de um grupo (ex.: vários quartos para um congresso) em tudo-ou-nada.
+     * * As validações que não leem as reservas do quarto rodam antes de qualquer trava. Depois,
+     * com as travas de todos os quartos do grupo (adquiridas sempre na mesma ordem), os conflitos
+     * são checados com uma única consulta (ou pelo índice em memória), inclusive entre os itens
+     * do próprio grupo, e as reservas são inseridas via JDBC batching numa só transação. Se
+     * qualquer item falhar, nada é gravado.
+     * * @param reservas As reservas do grupo (no máximo 500).
+     * @return As reservas criadas, na ordem recebida.
+     * @throws ValidacaoReservaException se o grupo estiver vazio ou exceder o limite.
+     * @throws GrupoRejeitadoException se algum item for inválido ou conflitar, com o motivo de cada um.
+     */
+    public List<Reserva> criarGrupo(List<Reserva> reservas) {
+        if (reservas == null || reservas.isEmpty()) {
+            throw new ValidacaoReservaException("O grupo deve conter ao menos uma reserva.");
+        }
+        if (reservas.size() > LIMITE_GRUPO) {
+            throw new ValidacaoReservaException("O grupo deve conter no máximo " + LIMITE_GRUPO + " reservas.");
+        }
+
+        // 1. Regras que não leem as reservas do quarto, antes de qualquer trava
+        List<ResultadoItemLote> rejeicoes = new ArrayList<>();
+        Map<String, List<Integer>> indicesPorQuarto = new LinkedHashMap<>();
+        for (int i = 0; i < reservas.size(); i++) {
+            Reserva reserva = reservas.get(i);
+            try {
+                validador.validarAntesDaTrava(reserva, null);
+                indicesPorQuarto.computeIfAbsent(reserva.getNumeroDoQuarto(), q -> new ArrayList<>()).add(i);
+            } catch (ValidacaoReservaException e) {
+                rejeicoes.add(ResultadoItemLote.rejeitada(i, reserva, e.getMessage()));
+            }
+        }
+        if (!rejeicoes.isEmpty()) {
+            throw grupoRejeitado(rejeicoes);
+        }
+
+        // 2 e 3. Com as travas de todos os quartos, checa conflitos e insere tudo ou nada
+        roteamentoLeitura.registrarEscrita();
+        return roteadorShards.comQuartos(indicesPorQuarto.keySet(), quartosPorShard ->
+            travasQuarto.executar(indicesPorQuarto.keySet(), () -> {
+                if (quartosPorShard.size() == 1) {
+                    return roteadorShards.noShard(quartosPorShard.keySet().iterator().next(),
+                        () -> transacao.execute(status -> validarEInserirGrupo(reservas, indicesPorQuarto)));
+                }
+                return validarEInserirGrupoEntreShards(reservas, indicesPorQuarto, quartosPorShard);
+            }));
+    }
+
+    private List<Reserva> validarEInserirGrupo(List<Reserva> reservas, Map<String, List<Integer>> indicesPorQuarto) {
+        List<ResultadoItemLote> rejeicoes = conflitosDoGrupo(reservas, indicesPorQuarto);
+        if (!rejeicoes.isEmpty()) {
+            rejeicoes.sort(Comparator.comparingInt(ResultadoItemLote::getIndice));
+            throw grupoRejeitado(rejeicoes);
+        }
+        inserirGrupo(reservas);
+        return reservas;
+    }
+
+    /**
+     * Grupo com quartos em mais de um shard: os conflitos de todos os shards são checados antes
+     * de qualquer gravação (a recusa lista todos os itens), e as inserções de cada shard rodam em
+     * transações encadeadas, desfeitas juntas se alguma falhar.
+     */
+    private List<Reserva> validarEInserirGrupoEntreShards(List<Reserva> reservas,
+                                                          Map<String, List<Integer>> indicesPorQuarto,
+                                                          Map<Integer, List<String>> quartosPorShard) {
+        List<ResultadoItemLote> rejeicoes = new ArrayList<>();
+        quartosPorShard.forEach((shard, quartos) -> rejeicoes.addAll(roteadorShards.noShard(shard,
+            () -> conflitosDoGrupo(reservas, doShard(indicesPorQuarto, quartos)))));
+        if (!rejeicoes.isEmpty()) {
+            rejeicoes.sort(Comparator.comparingInt(ResultadoItemLote::getIndice));
+            throw grupoRejeitado(rejeicoes);
+        }
+        roteadorShards.emCadeia(quartosPorShard, (shard, quartos) -> {
+            List<Reserva> doShard = new ArrayList<>();
+            doShard(indicesPorQuarto, quartos).values().forEach(indices -> indices.forEach(i -> doShard.add(reservas.get(i))));
+            inserirGrupo(doShard);
+        });
+        return reservas;
+    }
+
+    private List<ResultadoItemLote> conflitosDoGrupo(List<Reserva> reservas, Map<String, List<Integer>> indicesPorQuarto) {
+        Map<String, AgendaQuarto> agendas = carregarAgendas(indicesPorQuarto.keySet(), reservas);
+        List<ResultadoItemLote> rejeicoes = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> grupo : indicesPorQuarto.entrySet()) {
+            AgendaQuarto agenda = agendas.get(grupo.getKey());
+            for (int i : grupo.getValue()) {
+                Reserva reserva = reservas.get(i);
+                if (agenda.conflita(reserva.getDataInicioReserva(), reserva.getDataFinalReserva())) {
+                    rejeicoes.add(ResultadoItemLote.rejeitada(i, reserva, RegraDisponibilidade.mensagemConflito(reserva, null)));
+                } else {
+                    agenda.ocupar(reserva.getDataInicioReserva(), reserva.getDataFinalReserva());
+                }
+            }
+        }
+        return rejeicoes;
+    }
+
+    private void inserirGrupo(List<Reserva> reservas) {
+        alteracoes.marcar(reservas);
+        reservaLoteRepository.inserirEmLote(reservas);
+        if (tabelaNoites.ativa()) {
+            ocuparNoitesDoLote(reservas);
+        }
+        reservas.forEach(this::registrarCriacao);
+    }
+
+    // Os quartos informados (todos de um mesmo shard), com os índices dos seus itens
+    private static Map<String, List<Integer>> doShard(Map<String, List<Integer>> indicesPorQuarto, List<String> quartos) {
+        Map<String, List<Integer>> resultado = new LinkedHashMap<>();
+        quartos.forEach(quarto -> resultado.put(quarto, indicesPorQuarto.get(quarto)));
+        return resultado;
+    }
+
+    private static GrupoRejeitadoException grupoRejeitado(List<ResultadoItemLote> rejeicoes) {
+        return new GrupoRejeitadoException("O grupo foi recusado: " + rejeicoes.size()
+            + " reserva(s) inválida(s) ou em conflito. Nenhuma reserva foi criada.", rejeicoes);
+    }
+
+    /**
+     * Processador do modo de escrita "grupo": grava numa só transação as reservas enfileiradas
+     * por várias chamadas de {@link #criar(Reserva)}, que já passaram pelas validações de antes da
+     * trava. Os conflitos são checados contra o banco e entre os próprios itens do lote.
+     */
+    List<ResultadoItemLote> gravarGrupo(List<Reserva> reservas) {
+        Map<String, List<Integer>> indicesPorQuarto = new LinkedHashMap<>();
+        for (int i = 0; i < reservas.size(); i++) {
+            indicesPorQuarto.computeIfAbsent(reservas.get(i).getNumeroDoQuarto(), q -> new ArrayList<>()).add(i);
+        }
+        List<ResultadoItemLote> resultados = gravarLoteValidado(reservas, indicesPorQuarto,
+            new ResultadoItemLote[reservas.size()]);
+        // Recusas por conflito levam as mesmas sugestões do modo imediato. São buscadas depois do
+        // commit, fora das travas; se a busca falhar, o item fica só com o motivo (o lote já foi gravado)
+        List<ResultadoItemLote> respostas = new ArrayList<>(resultados.size());
+        for (ResultadoItemLote resultado : resultados) {
+            respostas.add(resultado.getStatus() == ResultadoItemLote.Status.REJEITADA
+                ? rejeitadaComSugestoes(resultado) : resultado);
+        }
+        return respostas;
+    }
+
+    private ResultadoItemLote rejeitadaComSugestoes(ResultadoItemLote resultado) {
+        Reserva reserva = resultado.getReserva();
+        try {
+            return ResultadoItemLote.rejeitada(resultado.getIndice(), reserva,
+                roteadorShards.noQuarto(reserva.getNumeroDoQuarto(), () -> indisponivel(reserva, null)));
+        } catch (RuntimeException e) {
+            return resultado;
+        }
+    }
+
+    // Com reservas em vários shards, cada shard valida e insere os seus quartos numa transação
+    // própria, encadeada às dos outros: o lote continua sendo confirmado ou desfeito por inteiro
+    private List<ResultadoItemLote> gravarLoteValidado(List<Reserva> reservas, Map<String, List<Integer>> indicesPorQuarto,
+                                                       ResultadoItemLote[] resultados) {
+        return roteadorShards.comQuartos(indicesPorQuarto.keySet(), quartosPorShard ->
+            travasQuarto.executar(indicesPorQuarto.keySet(), () -> {
+                if (quartosPorShard.size() == 1) {
+                    return roteadorShards.noShard(quartosPorShard.keySet().iterator().next(),
+                        () -> transacao.execute(status -> validarEInserirLote(reservas, indicesPorQuarto, resultados)));
+                }
+                roteadorShards.emCadeia(quartosPorShard, (shard, quartos) ->
+                    validarEInserirLote(reservas, doShard(indicesPorQuarto, quartos), resultados));
+                return Arrays.asList(resultados);
+            }));
+    }
+
+    private List<ResultadoItemLote> validarEInserirLote(List<Reserva> reservas, Map<String, List<Integer>> indicesPorQuarto,
+                                                        ResultadoItemLote[] resultados) {
+        // 2. Disponibilidade: uma consulta por quarto + conflitos dentro do próprio lote
+        List<Reserva> aceitas = new ArrayList<>();
+        List<Integer> indicesAceitos = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> grupo : indicesPorQuarto.entrySet()) {
+            AgendaQuarto agenda = carregarAgenda(grupo.getKey(), grupo.getValue(), reservas);
+            for (int i : grupo.getValue()) {
+                Reserva reserva = reservas.get(i);
+                if (agenda.conflita(reserva.getDataInicioReserva(), reserva.getDataFinalReserva())) {
+                    resultados[i] = ResultadoItemLote.rejeitada(i, reserva, RegraDisponibilidade.mensagemConflito(reserva, null));
+                } else {
+                    agenda.ocupar(reserva.getDataInicioReserva(), reserva.getDataFinalReserva());
+                    aceitas.add(reserva);
+                    indicesAceitos.add(i);
+                }
+            }
+        }
+
+        // 3. Inserção em lote das reservas aceitas
+        if (!aceitas.isEmpty()) {
+            alteracoes.marcar(aceitas);
+            reservaLoteRepository.inserirEmLote(aceitas);
+            if (tabelaNoites.ativa()) {
+                ocuparNoitesDoLote(aceitas);
+            }
+            aceitas.forEach(this::registrarCriacao);
+        }
+        for (int i = 0; i < aceitas.size(); i++) {
+            resultados[indicesAceitos.get(i)] = ResultadoItemLote.criada(indicesAceitos.get(i), aceitas.get(i));
+        }
+        return Arrays.asList(resultados);
+    }
+
+    // No modo "noites" as criações unitárias não usam trava; uma delas pode ter ocupado uma
+    // noite depois da checagem do lote, e então o lote inteiro é desfeito
+    private void ocuparNoitesDoLote(List<Reserva> aceitas) {
+        try {
+            tabelaNoites.ocupar(aceitas);
+        } catch (DuplicateKeyException e) {
+            throw new ConflitoConcorrenciaException(
+                "Outra reserva ocupou um dos quartos do lote durante o processamento. Tente novamente.");
+        }
+    }
+
+    /**
+     * Retorna uma reserva pelo seu ID, passando pelo cache de leitura (e, numa falta, pela
+     * réplica de leitura, quando habilitada).
      * * @param id O ID da reserva.
-     * @return A Reserva encontrada.
+     * @return Uma cópia da Reserva encontrada (alterá-la não altera o cache nem o banco).
      * @throws ResourceNotFoundException se a reserva não for encontrada.
      */
     
     public Reserva buscarPorId(Long id) {
-        return reservaRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Reserva com ID " + id + " não encontrada."));
+        if (roteamentoLeitura.leituraPropriaPendente()) {
+            // O cliente acabou de escrever: o cache pode ter sido preenchido pela réplica
+            // antes da escrita chegar a ela, então a leitura vai direto ao principal
+            return roteadorShards.primeiro(() -> roteamentoLeitura.ler(() -> reservaRepository.findById(id)))
+                .orElseThrow(() -> reservaNaoEncontrada(id));
+        }
+        return cacheReservas.buscar(id,
+                chave -> roteadorShards.primeiro(() -> roteamentoLeitura.ler(() -> reservaRepository.findById(chave))))
+            .orElseThrow(() -> reservaNaoEncontrada(id));
+    }
+
+    // Escritas sempre partem da entidade atual do banco, nunca da cópia em cache. O ID não diz
+    // em que shard a reserva está, então todos são consultados
+    private Reserva carregarParaEscrita(Long id) {
+        return roteadorShards.primeiro(() -> reservaRepository.findById(id)).orElseThrow(() -> reservaNaoEncontrada(id));
+    }
+
+    private static ResourceNotFoundException reservaNaoEncontrada(Long id) {
+        return new ResourceNotFoundException("Reserva com ID " + id + " não encontrada.");
     }
     
     /**
@@ -64,99 +472,275 @@ public class ReservaService {
      * @throws ValidacaoReservaException se as novas datas violarem alguma regra.
      */
     public Reserva atualizar(Long id, Reserva reservaDetalhes) {
-        Reserva reservaExistente = buscarPorId(id); // Já valida se existe
+        return atualizar(id, reservaDetalhes, null);
+    }
+
+    /**
+     * Atualiza os dados de uma reserva existente com controle de concorrência otimista.
+     * * Com versaoEsperada (header If-Match), a atualização só é aplicada se a reserva ainda
+     * estiver nessa versão. Sem ela, se outra requisição alterar a reserva entre a leitura e o
+     * save, a atualização é refeita sobre os dados novos (até {@link #TENTATIVAS_ATUALIZACAO} vezes).
+     * * @param id O ID da reserva a ser atualizada.
+     * @param reservaDetalhes Os novos detalhes da reserva.
+     * @param versaoEsperada A versão que o cliente leu, ou null para não exigir versão.
+     * @return A Reserva atualizada.
+     * @throws ResourceNotFoundException se a reserva não for encontrada.
+     * @throws ValidacaoReservaException se as novas datas violarem alguma regra.
+     * @throws VersaoDesatualizadaException se a reserva não estiver mais na versão esperada.
+     * @throws ConflitoConcorrenciaException se as retentativas se esgotarem.
+     */
+    public Reserva atualizar(Long id, Reserva reservaDetalhes, Long versaoEsperada) {
+        roteamentoLeitura.registrarEscrita();
+        for (int tentativa = 1; ; tentativa++) {
+            Reserva reservaExistente = carregarParaEscrita(id); // Já valida se existe
+            if (versaoEsperada != null && !versaoEsperada.equals(reservaExistente.getVersao())) {
+                throw new VersaoDesatualizadaException(mensagemVersaoDesatualizada(id, reservaExistente.getVersao()));
+            }
+            String quartoAnterior = reservaExistente.getNumeroDoQuarto();
+
+            try {
+                List<String> quartos = Arrays.asList(quartoAnterior, reservaDetalhes.getNumeroDoQuarto());
+                return roteadorShards.comQuartos(quartos, quartosPorShard -> {
+                    if (quartosPorShard.size() > 1) {
+                        return moverEntreShards(reservaExistente, quartoAnterior, reservaDetalhes, quartosPorShard);
+                    }
+                    return roteadorShards.noShard(quartosPorShard.keySet().iterator().next(), () -> {
+                        if (tabelaNoites.ativa()) {
+                            return atualizarComNoites(reservaExistente, quartoAnterior, reservaDetalhes);
+                        }
+                        // Se o quarto mudar, as duas travas são adquiridas (sempre na mesma ordem)
+                        return travasQuarto.executar(quartos,
+                            () -> transacao.execute(status -> aplicarAtualizacao(reservaExistente, quartoAnterior, reservaDetalhes)));
+                    });
+                });
+            } catch (OptimisticLockingFailureException e) {
+                // Outra requisição gravou uma versão mais nova entre a leitura e o save
+                if (versaoEsperada != null) {
+                    throw new VersaoDesatualizadaException(mensagemVersaoDesatualizada(id, null));
+                }
+                if (tentativa >= TENTATIVAS_ATUALIZACAO) {
+                    throw new ConflitoConcorrenciaException("A reserva com ID " + id
+                        + " está sendo alterada por outras requisições. Tente novamente.");
+                }
+                aguardarAntesDeRepetir(tentativa);
+            }
+        }
+    }
+
+    private Reserva aplicarAtualizacao(Reserva reservaExistente, String quartoAnterior, Reserva reservaDetalhes) {
+        aplicarDetalhes(reservaExistente, reservaDetalhes);
         
-        // Aplica os novos detalhes
+        // Revalida todas as regras APÓS a modificação, ignorando a própria reserva nos conflitos
+        validador.validar(reservaExistente, reservaExistente.getId());
+
+        alteracoes.marcar(reservaExistente);
+        Reserva salva = reservaRepository.save(reservaExistente);
+        registrarAtualizacao(quartoAnterior, salva);
+        return salva;
+    }
+    
+    /**
+     * Modo "noites": troca as noites da reserva e grava os novos dados numa só transação.
+     * A própria reserva libera as noites antigas antes de ocupar as novas, então só há
+     * violação de chave se outra reserva ocupar alguma das noites novas.
+     */
+    private Reserva atualizarComNoites(Reserva reservaExistente, String quartoAnterior, Reserva reservaDetalhes) {
+        aplicarDetalhes(reservaExistente, reservaDetalhes);
+        validador.validarAntesDaTrava(reservaExistente, reservaExistente.getId());
+
+        try {
+            return transacao.execute(status -> {
+                alteracoes.marcar(reservaExistente);
+                Reserva salva = reservaRepository.save(reservaExistente);
+                tabelaNoites.liberar(salva.getId());
+                tabelaNoites.ocupar(salva);
+                registrarAtualizacao(quartoAnterior, salva);
+                return salva;
+            });
+        } catch (DuplicateKeyException e) {
+            throw indisponivel(reservaExistente, reservaExistente.getId());
+        }
+    }
+
+    /**
+     * A reserva mudou para um quarto de outro shard: é validada no shard novo (onde estão as
+     * reservas do quarto novo), gravada lá com o mesmo ID e removida do shard antigo, em
+     * transações encadeadas. A remoção confere a versão lida, como o save faria.
+     */
+    private Reserva moverEntreShards(Reserva reservaExistente, String quartoAnterior, Reserva reservaDetalhes,
+                                     Map<Integer, List<String>> quartosPorShard) {
+        Long id = reservaExistente.getId();
+        long versaoLida = reservaExistente.getVersao();
+        aplicarDetalhes(reservaExistente, reservaDetalhes);
+        int destino = roteadorShards.shardDoQuarto(reservaExistente.getNumeroDoQuarto());
+
+        List<String> quartos = Arrays.asList(quartoAnterior, reservaExistente.getNumeroDoQuarto());
+        return travasQuarto.executar(quartos, () -> {
+            roteadorShards.noShard(destino, () -> {
+                validador.validar(reservaExistente, id);
+                return null;
+            });
+            try {
+                roteadorShards.emCadeia(quartosPorShard, (shard, doShard) -> {
+                    if (shard == destino) {
+                        alteracoes.marcar(reservaExistente);
+                        reservaExistente.setVersao(versaoLida + 1);
+                        reservaLoteRepository.gravarComId(reservaExistente);
+                        if (tabelaNoites.ativa()) {
+                            tabelaNoites.ocupar(reservaExistente);
+                        }
+                        return;
+                    }
+                    Reserva anterior = reservaRepository.findById(id)
+                        .filter(atual -> atual.getVersao() == versaoLida)
+                        .orElseThrow(() -> new OptimisticLockingFailureException("Reserva " + id + " alterada durante a troca de shard."));
+                    if (tabelaNoites.ativa()) {
+                        tabelaNoites.liberar(id);
+                    }
+                    reservaRepository.delete(anterior);
+                });
+            } catch (DuplicateKeyException e) {
+                throw indisponivel(reservaExistente, id);
+            }
+            registrarAtualizacao(quartoAnterior, reservaExistente);
+            return reservaExistente;
+        });
+    }
+
+    private static void aplicarDetalhes(Reserva reservaExistente, Reserva reservaDetalhes) {
         reservaExistente.setNumeroDoQuarto(reservaDetalhes.getNumeroDoQuarto());
         reservaExistente.setDataInicioReserva(reservaDetalhes.getDataInicioReserva());
         reservaExistente.setDataFinalReserva(reservaDetalhes.getDataFinalReserva());
         reservaExistente.setHospedeId(reservaDetalhes.getHospedeId());
-        
-        // Revalida as datas e disponibilidade APÓS a modificação
-        validarDatas(reservaExistente);
-        validarDisponibilidadeDuranteAtualizacao(reservaExistente);
-        validarHospede(reservaExistente.getHospedeId());
-
-        return reservaRepository.save(reservaExistente);
     }
-    
+
     /**
      * Deleta uma reserva pelo seu ID.
      * * @param id O ID da reserva a ser deletada.
      * @throws ResourceNotFoundException se a reserva não for encontrada.
      */
     public void deletar(Long id) {
-        Reserva reserva = buscarPorId(id); // Garante que a reserva existe antes de deletar
-        reservaRepository.delete(reserva);
+        roteamentoLeitura.registrarEscrita();
+        Reserva reserva = carregarParaEscrita(id); // Garante que a reserva existe antes de deletar
+        // A remoção e o seu registro para a sincronização incremental são gravados juntos
+        roteadorShards.noQuarto(reserva.getNumeroDoQuarto(), () -> {
+            transacao.executeWithoutResult(status -> {
+                if (tabelaNoites.ativa()) {
+                    tabelaNoites.liberar(reserva.getId());
+                }
+                reservaRepository.delete(reserva);
+                alteracoes.registrarRemocao(reserva);
+            });
+            return null;
+        });
+        indiceDisponibilidade.remover(reserva.getId(), reserva.getNumeroDoQuarto());
+        cacheReservas.invalidar(reserva.getId());
+        barramentoEventos.publicar(TipoEventoReserva.REMOVIDA, reserva, null);
+    }
+
+    // Efeitos de uma escrita bem-sucedida fora da tabela de reservas: índice, cache e feed de
+    // eventos. Dentro de uma transação, o índice e o feed só são atualizados após o commit.
+    private void registrarCriacao(Reserva salva) {
+        indiceDisponibilidade.registrar(salva);
+        cacheReservas.invalidar(salva.getId()); // Descarta um 404 guardado para este ID
+        barramentoEventos.publicar(TipoEventoReserva.CRIADA, salva, null);
+    }
+
+    private void registrarAtualizacao(String quartoAnterior, Reserva salva) {
+        indiceDisponibilidade.mover(quartoAnterior, salva);
+        cacheReservas.invalidar(salva.getId());
+        barramentoEventos.publicar(TipoEventoReserva.ATUALIZADA, salva, quartoAnterior);
     }
     
-    // =========================================================================
-    // Métodos de Validação de Regra de Negócio
-    // =========================================================================
-    
-    private void validarDatas(Reserva reserva) {
-        LocalDate hoje = LocalDate.now();
+    private String mensagemVersaoDesatualizada(Long id, Long versaoAtual) {
+        return "A reserva com ID " + id + " foi alterada por outra requisição"
+            + (versaoAtual != null ? " (versão atual: " + versaoAtual + ")" : "")
+            + ". Busque a reserva novamente antes de atualizar.";
+    }
 
-        // Regra 1: Data de Check-out não pode ser antes ou igual à data de Check-in.
-        if (!reserva.getDataFinalReserva().isAfter(reserva.getDataInicioReserva())) {
-            throw new ValidacaoReservaException("A data final da reserva deve ser posterior à data de início.");
+    // Backoff curto com jitter para que as retentativas concorrentes não colidam de novo
+    private void aguardarAntesDeRepetir(int tentativa) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 10L * tentativa + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflitoConcorrenciaException("Atualização interrompida durante a retentativa.");
         }
+    }
 
-        // Regra 2: Não é permitido criar reservas com data de check-in no passado.
-        // Permite reservas para HOJE, mas não para datas anteriores.
-        if (reserva.getDataInicioReserva().isBefore(hoje)) {
-            throw new ValidacaoReservaException("Não é permitido agendar reservas para datas passadas.");
-        }
+    // Conflito detectado pela chave das noites: a resposta leva as mesmas sugestões da regra de disponibilidade
+    private ReservaIndisponivelException indisponivel(Reserva reserva, Long ignorarId) {
+        return new ReservaIndisponivelException(RegraDisponibilidade.mensagemConflito(reserva, ignorarId),
+            buscaAlternativas.sugerir(reserva, ignorarId));
     }
-    
+
     /**
-     * Regra 3: Checa se o quarto está ocupado no período desejado para uma nova reserva.
+     * Monta as agendas de vários quartos com uma única consulta ao banco (ou pelo índice em
+     * memória), cobrindo do menor início ao maior fim de todos os pedidos.
      */
-    private void validarDisponibilidade(Reserva novaReserva) {
-
-        List<Reserva> conflitos = reservaRepository
-            .findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(
-                novaReserva.getNumeroDoQuarto(), 
-                novaReserva.getDataInicioReserva(), 
-                novaReserva.getDataFinalReserva()
-            );
+    private Map<String, AgendaQuarto> carregarAgendas(Collection<String> quartos, List<Reserva> reservas) {
+        LocalDate menorInicio = null;
+        LocalDate maiorFim = null;
+        for (Reserva reserva : reservas) {
+            if (menorInicio == null || reserva.getDataInicioReserva().isBefore(menorInicio)) {
+                menorInicio = reserva.getDataInicioReserva();
+            }
+            if (maiorFim == null || reserva.getDataFinalReserva().isAfter(maiorFim)) {
+                maiorFim = reserva.getDataFinalReserva();
+            }
+        }
 
-        if (!conflitos.isEmpty()) {
-            throw new ValidacaoReservaException("O quarto " + novaReserva.getNumeroDoQuarto() 
-                                              + " já está reservado no período de " 
-                                              + novaReserva.getDataInicioReserva() + " a " 
-                                              + novaReserva.getDataFinalReserva() + ".");
+        Map<String, AgendaQuarto> agendas = new HashMap<>();
+        quartos.forEach(quarto -> agendas.put(quarto, new AgendaQuarto()));
+        if (indiceDisponibilidade.estaPronto()) {
+            for (String quarto : quartos) {
+                indiceDisponibilidade.paraCadaPeriodo(quarto, menorInicio, maiorFim, agendas.get(quarto)::ocupar);
+            }
+            return agendas;
         }
+        reservaRepository
+            .findByNumeroDoQuartoInAndDataFinalReservaAfterAndDataInicioReservaBefore(quartos, menorInicio, maiorFim)
+            .forEach(existente -> agendas.get(existente.getNumeroDoQuarto())
+                .ocupar(existente.getDataInicioReserva(), existente.getDataFinalReserva()));
+        return agendas;
     }
-    
+
     /**
-     * Checa se o quarto está ocupado no período desejado durante a atualização, 
-     * ignorando a própria reserva que está sendo atualizada.
-     */
-    private void validarDisponibilidadeDuranteAtualizacao(Reserva reservaAtualizada) {
-        // Ao atualizar, precisamos ignorar a própria reserva do conflito
-        List<Reserva> conflitos = reservaRepository
-            .findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(
-                reservaAtualizada.getNumeroDoQuarto(), 
-                reservaAtualizada.getDataInicioReserva(), 
-                reservaAtualizada.getDataFinalReserva()
-            );
-
-        // Se houver conflitos, verificamos se todos os conflitos são a própria reserva
-        for (Reserva conflito : conflitos) {
-            if (!conflito.getId().equals(reservaAtualizada.getId())) {
-                throw new ValidacaoReservaException("O quarto " + reservaAtualizada.getNumeroDoQuarto() 
-                                                  + " já está reservado por outra pessoa neste novo período.");
+     * Monta a agenda de um quarto com uma única consulta (ao índice em memória ou ao banco)
+     * que cobre todos os pedidos do grupo.
+     */
+    private AgendaQuarto carregarAgenda(String numeroDoQuarto, List<Integer> indices, List<Reserva> reservas) {
+        LocalDate menorInicio = null;
+        LocalDate maiorFim = null;
+        for (int i : indices) {
+            Reserva reserva = reservas.get(i);
+            if (menorInicio == null || reserva.getDataInicioReserva().isBefore(menorInicio)) {
+                menorInicio = reserva.getDataInicioReserva();
+            }
+            if (maiorFim == null || reserva.getDataFinalReserva().isAfter(maiorFim)) {
+                maiorFim = reserva.getDataFinalReserva();
             }
         }
-    }
 
-    // Regra 4: Simulação da validação de Hóspede
-    private void validarHospede(Long hospedeId) {
-        // Implementação simulada: deve ser um ID válido (não nulo e positivo)
-        if (hospedeId == null || hospedeId <= 0) {
-            throw new ValidacaoReservaException("O ID do Hóspede é obrigatório e deve ser válido.");
+        AgendaQuarto agenda = new AgendaQuarto();
+        if (indiceDisponibilidade.estaPronto()) {
+            indiceDisponibilidade.paraCadaPeriodo(numeroDoQuarto, menorInicio, maiorFim, agenda::ocupar);
+            return agenda;
+        }
+        reservaRepository
+            .findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(numeroDoQuarto, menorInicio, maiorFim)
+            .forEach(existente -> agenda.ocupar(existente.getDataInicioReserva(), existente.getDataFinalReserva()));
+        return agenda;
+    }
+    
+    private int normalizarLimite(Integer limite) {
+        if (limite == null) {
+            return LIMITE_PADRAO;
+        }
+        if (limite <= 0 || limite > LIMITE_MAXIMO) {
+            throw new ValidacaoReservaException("O limite da página deve estar entre 1 e " + LIMITE_MAXIMO + ".");
         }
+        return limite;
     }
 
-}
\ No newline at end of file
+}
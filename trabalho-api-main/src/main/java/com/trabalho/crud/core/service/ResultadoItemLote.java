@@ -0,0 +1,74 @@
+package com.trabalho.crud.core.service;
+
+import com.trabalho.crud.core.entity.Reserva;
+
+/**
+ * Resultado do processamento de um item de um lote de reservas.
+ * Cada item do lote é aceito (CRIADA) ou rejeitado com o motivo, de forma independente.
+ */
+public class ResultadoItemLote {
+
+    public enum Status {
+        CRIADA,
+        REJEITADA
+    }
+
+    private final int indice;
+    private final Status status;
+    private final Reserva reserva;
+    private final String motivo;
+    private final ValidacaoReservaException erro;
+
+    private ResultadoItemLote(int indice, Status status, Reserva reserva, String motivo, ValidacaoReservaException erro) {
+        this.indice = indice;
+        this.status = status;
+        this.reserva = reserva;
+        this.motivo = motivo;
+        this.erro = erro;
+    }
+
+    public static ResultadoItemLote criada(int indice, Reserva reserva) {
+        return new ResultadoItemLote(indice, Status.CRIADA, reserva, null, null);
+    }
+
+    public static ResultadoItemLote rejeitada(int indice, Reserva reserva, String motivo) {
+        return new ResultadoItemLote(indice, Status.REJEITADA, reserva, motivo, null);
+    }
+
+    /**
+     * Rejeição que guarda a exceção da regra (por exemplo, a recusa por conflito com as sugestões
+     * de outros períodos), para quem responde pelo item devolver a mesma resposta do modo imediato.
+     */
+    public static ResultadoItemLote rejeitada(int indice, Reserva reserva, ValidacaoReservaException erro) {
+        return new ResultadoItemLote(indice, Status.REJEITADA, reserva, erro.getMessage(), erro);
+    }
+
+    /**
+     * @return A posição do item no lote recebido (começando em 0).
+     */
+    public int getIndice() {
+        return indice;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Reserva getReserva() {
+        return reserva;
+    }
+
+    /**
+     * @return A mensagem da regra violada, ou null se a reserva foi criada.
+     */
+    public String getMotivo() {
+        return motivo;
+    }
+
+    /**
+     * @return A exceção da regra violada, ou null se a reserva foi criada ou a rejeição só tem o motivo.
+     */
+    public ValidacaoReservaException getErro() {
+        return erro;
+    }
+}
@@ -0,0 +1,52 @@
+package com.trabalho.crud.core.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica e decodifica o token opaco da sincronização incremental. Internamente o token
+ * carrega a última sequência de alteração já entregue ao cliente, com um prefixo próprio
+ * para não ser confundido com o cursor da listagem ({@link CursorPaginacao}).
+ */
+public final class TokenAlteracoes {
+
+    private static final String PREFIXO = "s1:";
+
+    private TokenAlteracoes() {
+    }
+
+    /**
+     * @param sequencia A última sequência de alteração já entregue.
+     * @return O token codificado em Base64 (URL-safe, sem padding).
+     */
+    public static String codificar(long sequencia) {
+        String bruto = PREFIXO + sequencia;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token O token recebido do cliente (nulo ou vazio para sincronizar desde o início).
+     * @return A última sequência já entregue, ou 0 quando não houver token.
+     * @throws ValidacaoReservaException se o token não tiver sido gerado pela API.
+     */
+    public static long decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return 0L;
+        }
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!bruto.startsWith(PREFIXO)) {
+                throw new ValidacaoReservaException("Token de sincronização inválido.");
+            }
+            long sequencia = Long.parseLong(bruto.substring(PREFIXO.length()));
+            if (sequencia < 0) {
+                throw new ValidacaoReservaException("Token de sincronização inválido.");
+            }
+            return sequencia;
+        } catch (IllegalArgumentException e) {
+            // Cobre tanto Base64 malformado quanto NumberFormatException
+            throw new ValidacaoReservaException("Token de sincronização inválido.");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.trabalho.crud.core.service;
+
+/**
+ * Exceção lançada quando o cliente tenta alterar uma reserva a partir de uma versão
+ * que não é mais a atual (header If-Match divergente). O cliente deve buscar a reserva
+ * novamente antes de reenviar a alteração.
+ */
+public class VersaoDesatualizadaException extends RuntimeException {
+
+    /**
+     * Construtor que aceita a mensagem detalhada do erro.
+     * * @param mensagem A descrição da divergência de versão.
+     */
+    public VersaoDesatualizadaException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,57 @@
+package com.trabalho.crud.core.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Anel de hash consistente: cada shard ocupa vários pontos (nós virtuais) num anel de 64 bits,
+ * e um quarto pertence ao primeiro ponto a partir do hash do seu número. Ao acrescentar um
+ * shard, só os quartos que caem nos pontos novos mudam de lugar (cerca de 1/N deles).
+ */
+class AnelShards {
+
+    private final long[] pontos;
+    private final int[] donos;
+
+    AnelShards(int quantidade, int nosVirtuais) {
+        int total = quantidade * nosVirtuais;
+        long[][] pares = new long[total][];
+        for (int shard = 0; shard < quantidade; shard++) {
+            for (int no = 0; no < nosVirtuais; no++) {
+                pares[shard * nosVirtuais + no] = new long[] {hash("shard-" + shard + "#" + no), shard};
+            }
+        }
+        Arrays.sort(pares, (a, b) -> Long.compare(a[0], b[0]));
+        this.pontos = new long[total];
+        this.donos = new int[total];
+        for (int i = 0; i < total; i++) {
+            pontos[i] = pares[i][0];
+            donos[i] = (int) pares[i][1];
+        }
+    }
+
+    /**
+     * @return O shard dono do quarto.
+     */
+    int shardDo(String numeroDoQuarto) {
+        long h = hash(numeroDoQuarto);
+        int posicao = Arrays.binarySearch(pontos, h);
+        if (posicao < 0) {
+            posicao = -posicao - 1;
+        }
+        // Passou do último ponto: o anel dá a volta
+        return donos[posicao == pontos.length ? 0 : posicao];
+    }
+
+    // FNV-1a seguido do finalizador do SplitMix64: números de quarto parecidos ("101", "102")
+    // caem em pontos distantes do anel
+    static long hash(String texto) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : texto.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
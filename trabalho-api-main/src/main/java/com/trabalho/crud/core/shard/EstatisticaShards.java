@@ -0,0 +1,76 @@
+package com.trabalho.crud.core.shard;
+
+import java.util.List;
+
+/**
+ * Fotografia do particionamento das reservas entre os shards.
+ */
+public class EstatisticaShards {
+
+    private final boolean habilitado;
+    private final int quantidade;
+    private final int nosVirtuais;
+    private final List<Long> reservasPorShard;
+    private final int quartosForaDoLugar;
+    private final long operacoesRoteadas;
+    private final long consultasDistribuidas;
+    private final long transacoesEncadeadas;
+
+    public EstatisticaShards(boolean habilitado, int quantidade, int nosVirtuais, List<Long> reservasPorShard,
+                             int quartosForaDoLugar, long operacoesRoteadas, long consultasDistribuidas,
+                             long transacoesEncadeadas) {
+        this.habilitado = habilitado;
+        this.quantidade = quantidade;
+        this.nosVirtuais = nosVirtuais;
+        this.reservasPorShard = reservasPorShard;
+        this.quartosForaDoLugar = quartosForaDoLugar;
+        this.operacoesRoteadas = operacoesRoteadas;
+        this.consultasDistribuidas = consultasDistribuidas;
+        this.transacoesEncadeadas = transacoesEncadeadas;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public int getNosVirtuais() {
+        return nosVirtuais;
+    }
+
+    /**
+     * @return Quantas reservas cada shard guarda, na ordem dos shards.
+     */
+    public List<Long> getReservasPorShard() {
+        return reservasPorShard;
+    }
+
+    /**
+     * @return Quartos que ainda estão num shard diferente do indicado pelo anel (aguardando o
+     * rebalanceamento).
+     */
+    public int getQuartosForaDoLugar() {
+        return quartosForaDoLugar;
+    }
+
+    public long getOperacoesRoteadas() {
+        return operacoesRoteadas;
+    }
+
+    /**
+     * @return Consultas executadas em todos os shards ao mesmo tempo (listagens, busca por ID).
+     */
+    public long getConsultasDistribuidas() {
+        return consultasDistribuidas;
+    }
+
+    /**
+     * @return Gravações que envolveram mais de um shard (lotes, grupos, troca de quarto).
+     */
+    public long getTransacoesEncadeadas() {
+        return transacoesEncadeadas;
+    }
+}
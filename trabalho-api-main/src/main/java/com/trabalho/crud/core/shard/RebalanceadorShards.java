@@ -0,0 +1,122 @@
+package com.trabalho.crud.core.shard;
+
+import com.trabalho.crud.core.repository.ShardsReservas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantém os quartos no shard indicado pelo anel, sem parar a aplicação.
+ * * Na inicialização (antes das cargas de índice e sincronização), a estrutura das tabelas é
+ * levada a todos os shards e cada quarto encontrado fora do seu shard (porque um shard foi
+ * acrescentado, por exemplo) é registrado onde está; ele continua sendo atendido de lá.
+ * O rebalanceamento move esses quartos um a um: com a trava de escrita do quarto, copia as
+ * reservas e as noites para o destino, passa a rotear o quarto para lá e só então apaga a origem.
+ * Se o processo cair no meio, a cópia se repete na próxima execução sem duplicar linhas.
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.shards.habilitado", havingValue = "true")
+public class RebalanceadorShards implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(RebalanceadorShards.class);
+
+    private final RoteadorShards roteadorShards;
+    private final ShardsReservas shardsReservas;
+    private final int quartosPorExecucao;
+
+    @Autowired
+    public RebalanceadorShards(RoteadorShards roteadorShards, ShardsReservas shardsReservas,
+                               @Value("${reservas.shards.rebalanceamento.quartos-por-execucao:1000}") int quartosPorExecucao) {
+        this.roteadorShards = roteadorShards;
+        this.shardsReservas = shardsReservas;
+        this.quartosPorExecucao = quartosPorExecucao;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        shardsReservas.prepararEsquema();
+        mapearPosicoes();
+    }
+
+    /**
+     * Registra no roteador os quartos que estão fora do shard do anel.
+     */
+    void mapearPosicoes() {
+        Map<String, Integer> encontrados = new HashMap<>();
+        for (int shard = 0; shard < roteadorShards.quantidade(); shard++) {
+            for (String quarto : shardsReservas.quartos(shard)) {
+                if (roteadorShards.shardDoAnel(quarto) == shard) {
+                    continue;
+                }
+                Integer anterior = encontrados.putIfAbsent(quarto, shard);
+                if (anterior != null) {
+                    log.warn("Quarto {} tem reservas nos shards {} e {}; o rebalanceamento move só o shard {}.",
+                        quarto, anterior, shard, anterior);
+                    continue;
+                }
+                roteadorShards.definirPosicao(quarto, shard);
+            }
+        }
+        if (!encontrados.isEmpty()) {
+            log.info("{} quartos estão fora do shard indicado pelo anel e aguardam o rebalanceamento.",
+                encontrados.size());
+        }
+    }
+
+    /**
+     * Move para o shard do anel até reservas.shards.rebalanceamento.quartos-por-execucao quartos.
+     * As escritas de cada quarto esperam só enquanto ele é movido.
+     * * @return Quantos quartos e reservas foram movidos e quantos quartos ainda faltam.
+     */
+    public synchronized ResultadoRebalanceamento rebalancear() {
+        long inicio = System.nanoTime();
+        int quartosMovidos = 0;
+        long reservasMovidas = 0;
+        for (String quarto : roteadorShards.quartosForaDoLugar().keySet()) {
+            if (quartosMovidos == quartosPorExecucao) {
+                break;
+            }
+            reservasMovidas += mover(quarto);
+            quartosMovidos++;
+        }
+        long duracaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        int pendentes = roteadorShards.quartosForaDoLugar().size();
+        log.info("Rebalanceamento: {} quartos ({} reservas) movidos em {} ms; {} pendentes.",
+            quartosMovidos, reservasMovidas, duracaoMs, pendentes);
+        return new ResultadoRebalanceamento(quartosMovidos, reservasMovidas, pendentes, duracaoMs);
+    }
+
+    long mover(String quarto) {
+        return roteadorShards.comQuartoBloqueado(quarto, () -> {
+            int origem = roteadorShards.shardDoQuarto(quarto);
+            int destino = roteadorShards.shardDoAnel(quarto);
+            if (origem == destino) {
+                return 0L;
+            }
+            int copiadas = shardsReservas.copiarQuarto(quarto, origem, destino);
+            // A partir daqui o quarto é lido e escrito no destino; a origem ainda tem a cópia
+            // antiga, que as consultas distribuídas descartam como repetida
+            roteadorShards.definirPosicao(quarto, destino);
+            shardsReservas.removerQuarto(quarto, origem);
+            return (long) copiadas;
+        });
+    }
+
+    public EstatisticaShards estatisticas() {
+        List<Long> reservasPorShard = new ArrayList<>(roteadorShards.quantidade());
+        for (int shard = 0; shard < roteadorShards.quantidade(); shard++) {
+            reservasPorShard.add(shardsReservas.contarReservas(shard));
+        }
+        return roteadorShards.estatisticas(reservasPorShard);
+    }
+}
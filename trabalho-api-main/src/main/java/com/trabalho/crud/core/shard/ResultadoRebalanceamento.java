@@ -0,0 +1,38 @@
+package com.trabalho.crud.core.shard;
+
+/**
+ * Resumo de uma execução do rebalanceamento entre shards.
+ */
+public class ResultadoRebalanceamento {
+
+    private final int quartosMovidos;
+    private final long reservasMovidas;
+    private final int quartosPendentes;
+    private final long duracaoMs;
+
+    public ResultadoRebalanceamento(int quartosMovidos, long reservasMovidas, int quartosPendentes, long duracaoMs) {
+        this.quartosMovidos = quartosMovidos;
+        this.reservasMovidas = reservasMovidas;
+        this.quartosPendentes = quartosPendentes;
+        this.duracaoMs = duracaoMs;
+    }
+
+    public int getQuartosMovidos() {
+        return quartosMovidos;
+    }
+
+    public long getReservasMovidas() {
+        return reservasMovidas;
+    }
+
+    /**
+     * @return Quartos que continuam fora do lugar (ex.: a execução atingiu o limite de quartos).
+     */
+    public int getQuartosPendentes() {
+        return quartosPendentes;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+}
@@ -0,0 +1,362 @@
+package com.trabalho.crud.core.shard;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Particionamento horizontal das reservas por número do quarto (reservas.shards.habilitado=true).
+ * * Cada quarto pertence a um shard, escolhido por hash consistente do número; todas as reservas
+ * do quarto ficam nele, então a checagem de conflitos nunca sai do shard. O roteador marca a
+ * thread com o shard da operação ({@link ShardAtual}) antes de a transação abrir a conexão, e o
+ * datasource de roteamento entrega a conexão do pool desse shard. Consultas que não dependem de
+ * um quarto (listagem, busca por ID, sincronização) rodam em todos os shards em paralelo e os
+ * resultados são combinados.
+ * * Enquanto o rebalanceamento não move um quarto para o shard que o anel indica, ele continua
+ * sendo atendido pelo shard onde está ({@link #definirPosicao}). Escritas seguram a trava de
+ * leitura do quarto; a movimentação segura a de escrita.
+ * * Desligado, todos os métodos só executam a ação recebida, sem trava nem troca de thread.
+ */
+@Component
+public class RoteadorShards {
+
+    private static final int FAIXAS_TRAVA = 64;
+
+    private final boolean habilitado;
+    private final int quantidade;
+    private final int nosVirtuais;
+    private final AnelShards anel;
+    private final ExecutorService consultas;
+    private final TransactionOperations novaTransacao;
+
+    // Quartos que ainda estão fora do shard indicado pelo anel, e onde estão
+    private final Map<String, Integer> posicoes = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock[] travas = new ReentrantReadWriteLock[FAIXAS_TRAVA];
+
+    private final LongAdder operacoesRoteadas = new LongAdder();
+    private final LongAdder consultasDistribuidas = new LongAdder();
+    private final LongAdder transacoesEncadeadas = new LongAdder();
+
+    @Autowired
+    public RoteadorShards(@Value("${reservas.shards.habilitado:false}") boolean habilitado,
+                          @Value("${reservas.shards.urls:}") String[] urls,
+                          @Value("${reservas.shards.nos-virtuais:128}") int nosVirtuais,
+                          @Value("${reservas.shards.threads-consulta:8}") int threadsConsulta,
+                          PlatformTransactionManager gerenciadorTransacoes) {
+        this(habilitado, habilitado ? urls.length + 1 : 1, nosVirtuais,
+            habilitado ? Executors.newFixedThreadPool(threadsConsulta, tarefa -> {
+                Thread thread = new Thread(tarefa, "consulta-shards");
+                thread.setDaemon(true);
+                return thread;
+            }) : null,
+            habilitado ? transacaoNova(gerenciadorTransacoes) : null);
+    }
+
+    RoteadorShards(boolean habilitado, int quantidade, int nosVirtuais, ExecutorService consultas,
+                   TransactionOperations novaTransacao) {
+        this.habilitado = habilitado;
+        this.quantidade = quantidade;
+        this.nosVirtuais = nosVirtuais;
+        this.anel = new AnelShards(quantidade, nosVirtuais);
+        this.consultas = consultas;
+        this.novaTransacao = novaTransacao;
+        for (int i = 0; i < travas.length; i++) {
+            travas[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    private static TransactionOperations transacaoNova(PlatformTransactionManager gerenciadorTransacoes) {
+        TransactionTemplate template = new TransactionTemplate(gerenciadorTransacoes);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public int quantidade() {
+        return quantidade;
+    }
+
+    /**
+     * @return O shard onde o quarto está agora (o do anel, salvo se ainda não foi movido).
+     */
+    public int shardDoQuarto(String numeroDoQuarto) {
+        if (!habilitado || numeroDoQuarto == null) {
+            return 0;
+        }
+        Integer posicao = posicoes.get(numeroDoQuarto);
+        return posicao != null ? posicao : anel.shardDo(numeroDoQuarto);
+    }
+
+    /**
+     * @return O shard que o anel indica para o quarto (o destino do rebalanceamento).
+     */
+    public int shardDoAnel(String numeroDoQuarto) {
+        return habilitado && numeroDoQuarto != null ? anel.shardDo(numeroDoQuarto) : 0;
+    }
+
+    /**
+     * Registra onde o quarto está. Com o shard do anel, o quarto deixa de ser exceção.
+     */
+    public void definirPosicao(String numeroDoQuarto, int shard) {
+        if (shard == anel.shardDo(numeroDoQuarto)) {
+            posicoes.remove(numeroDoQuarto);
+        } else {
+            posicoes.put(numeroDoQuarto, shard);
+        }
+    }
+
+    /**
+     * @return Os quartos fora do shard do anel, com o shard onde estão.
+     */
+    public Map<String, Integer> quartosForaDoLugar() {
+        return Map.copyOf(posicoes);
+    }
+
+    /**
+     * Executa a escrita de um quarto no shard dele, com o quarto protegido contra movimentação.
+     */
+    public <T> T noQuarto(String numeroDoQuarto, Supplier<T> acao) {
+        return comQuartos(List.of(numeroDoQuarto), quartosPorShard ->
+            noShard(quartosPorShard.keySet().iterator().next(), acao));
+    }
+
+    /**
+     * Protege os quartos contra movimentação e entrega à ação os quartos agrupados pelo shard
+     * onde estão (em ordem de shard). Quem recebe escolhe o shard de cada parte com
+     * {@link #noShard} ou {@link #emCadeia}.
+     */
+    public <T> T comQuartos(Collection<String> numerosDosQuartos, Function<Map<Integer, List<String>>, T> acao) {
+        if (!habilitado) {
+            return acao.apply(Map.of(0, new ArrayList<>(numerosDosQuartos)));
+        }
+        // Faixas em ordem crescente, como nas travas por quarto
+        TreeSet<Integer> faixas = new TreeSet<>();
+        for (String quarto : numerosDosQuartos) {
+            faixas.add(faixaDo(quarto));
+        }
+        List<ReentrantReadWriteLock.ReadLock> adquiridas = new ArrayList<>(faixas.size());
+        try {
+            for (int faixa : faixas) {
+                travas[faixa].readLock().lock();
+                adquiridas.add(travas[faixa].readLock());
+            }
+            Map<Integer, List<String>> quartosPorShard = new TreeMap<>();
+            for (String quarto : numerosDosQuartos) {
+                List<String> doShard = quartosPorShard.computeIfAbsent(shardDoQuarto(quarto), s -> new ArrayList<>());
+                if (!doShard.contains(quarto)) {
+                    doShard.add(quarto);
+                }
+            }
+            return acao.apply(quartosPorShard);
+        } finally {
+            for (int i = adquiridas.size() - 1; i >= 0; i--) {
+                adquiridas.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Executa a ação com as conexões da thread apontando para o shard informado. Deve ser chamado
+     * fora de transação (a transação aberta dentro da ação usa o shard) ou dentro de uma transação
+     * do mesmo shard.
+     */
+    public <T> T noShard(int shard, Supplier<T> acao) {
+        if (!habilitado) {
+            return acao.get();
+        }
+        operacoesRoteadas.increment();
+        Integer anterior = ShardAtual.obter();
+        ShardAtual.definir(shard);
+        try {
+            return acao.get();
+        } finally {
+            ShardAtual.definir(anterior);
+        }
+    }
+
+    /**
+     * Consulta somente o shard do quarto, sem trava: durante uma movimentação o quarto só passa
+     * a apontar para o destino depois que todas as reservas foram copiadas.
+     */
+    public <T> T lerDoQuarto(String numeroDoQuarto, Supplier<T> consulta) {
+        return noShard(shardDoQuarto(numeroDoQuarto), consulta);
+    }
+
+    /**
+     * Executa a ação em cada shard, um de cada vez, na ordem dos shards.
+     * @return O resultado de cada shard.
+     */
+    public <T> List<T> emCadaShard(Supplier<T> acao) {
+        if (!habilitado) {
+            return List.of(acao.get());
+        }
+        List<T> resultados = new ArrayList<>(quantidade);
+        for (int shard = 0; shard < quantidade; shard++) {
+            resultados.add(noShard(shard, acao));
+        }
+        return resultados;
+    }
+
+    /**
+     * Executa a consulta em todos os shards ao mesmo tempo.
+     * @return O resultado de cada shard, na ordem dos shards.
+     */
+    public <T> List<T> emTodos(Supplier<T> consulta) {
+        if (!habilitado) {
+            return List.of(consulta.get());
+        }
+        consultasDistribuidas.increment();
+        // Todas as partes vão ao pool, inclusive a do shard 0: a thread que chama pode estar
+        // numa transação de outro shard, cuja conexão as consultas não podem herdar
+        List<Future<T>> futuros = new ArrayList<>(quantidade);
+        for (int shard = 0; shard < quantidade; shard++) {
+            int alvo = shard;
+            futuros.add(consultas.submit(() -> noShard(alvo, consulta)));
+        }
+        List<T> resultados = new ArrayList<>(quantidade);
+        for (Future<T> futuro : futuros) {
+            resultados.add(aguardar(futuro));
+        }
+        return resultados;
+    }
+
+    /**
+     * Executa a consulta em todos os shards e combina as listas em ordem, descartando os
+     * repetidos (uma reserva aparece em dois shards só durante a movimentação do quarto).
+     * * @param ordem A ordem do resultado; itens iguais nela são considerados o mesmo item.
+     * @param limite A quantidade máxima de itens do resultado.
+     */
+    public <T> List<T> reunir(Supplier<List<T>> consulta, Comparator<? super T> ordem, int limite) {
+        if (!habilitado) {
+            return consulta.get();
+        }
+        List<T> todos = new ArrayList<>();
+        emTodos(consulta).forEach(todos::addAll);
+        // Cada parte já vem ordenada: o sort (TimSort) só intercala as sequências
+        todos.sort(ordem);
+        List<T> resultado = new ArrayList<>(Math.min(todos.size(), limite));
+        for (T item : todos) {
+            if (resultado.size() == limite) {
+                break;
+            }
+            if (resultado.isEmpty() || ordem.compare(resultado.get(resultado.size() - 1), item) != 0) {
+                resultado.add(item);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Procura em todos os shards e retorna o primeiro resultado encontrado.
+     */
+    public <T> Optional<T> primeiro(Supplier<Optional<T>> consulta) {
+        if (!habilitado) {
+            return consulta.get();
+        }
+        for (Optional<T> resultado : emTodos(consulta)) {
+            if (resultado.isPresent()) {
+                return resultado;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Grava os quartos de cada shard numa transação do próprio shard, aninhando as transações: a
+     * do segundo shard abre dentro da do primeiro, e assim por diante. Uma falha em qualquer shard
+     * desfaz todas; os commits acontecem do último shard para o primeiro, e só uma falha no commit
+     * de um shard depois de outro já confirmado deixa a gravação pela metade.
+     * * Os shards entram sempre em ordem crescente, qualquer que seja o mapa recebido: duas cadeias
+     * concorrentes nunca esperam uma pela outra em ordens opostas.
+     */
+    public void emCadeia(Map<Integer, List<String>> quartosPorShard, BiConsumer<Integer, List<String>> gravacao) {
+        transacoesEncadeadas.increment();
+        encadear(new TreeMap<>(quartosPorShard).entrySet().iterator(), gravacao);
+    }
+
+    private void encadear(Iterator<Map.Entry<Integer, List<String>>> shards, BiConsumer<Integer, List<String>> gravacao) {
+        if (!shards.hasNext()) {
+            return;
+        }
+        Map.Entry<Integer, List<String>> atual = shards.next();
+        noShard(atual.getKey(), () -> {
+            novaTransacao.executeWithoutResult(status -> {
+                gravacao.accept(atual.getKey(), atual.getValue());
+                encadear(shards, gravacao);
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Executa a ação com a trava de escrita do quarto: nenhuma escrita do quarto começa nem está
+     * em andamento enquanto ela roda. Usado pela movimentação entre shards.
+     */
+    public <T> T comQuartoBloqueado(String numeroDoQuarto, Supplier<T> acao) {
+        ReentrantReadWriteLock.WriteLock trava = travas[faixaDo(numeroDoQuarto)].writeLock();
+        trava.lock();
+        try {
+            return acao.get();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public EstatisticaShards estatisticas(List<Long> reservasPorShard) {
+        return new EstatisticaShards(habilitado, quantidade, nosVirtuais, reservasPorShard, posicoes.size(),
+            operacoesRoteadas.sum(), consultasDistribuidas.sum(), transacoesEncadeadas.sum());
+    }
+
+    @PreDestroy
+    public void parar() {
+        if (consultas != null) {
+            consultas.shutdownNow();
+        }
+    }
+
+    private static int faixaDo(String numeroDoQuarto) {
+        return numeroDoQuarto == null ? 0 : (int) (AnelShards.hash(numeroDoQuarto) & (FAIXAS_TRAVA - 1));
+    }
+
+    private static <T> T aguardar(Future<T> futuro) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta aos shards interrompida.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Falha na consulta a um shard.", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.trabalho.crud.core.shard;
+
+/**
+ * Shard escolhido para as conexões abertas pela thread atual. Preenchido pelo
+ * {@link RoteadorShards} durante uma operação roteada; vazio, as conexões vão ao shard 0
+ * (o banco principal, que também guarda o cadastro de hóspedes e a sequência de alterações).
+ */
+public final class ShardAtual {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardAtual() {
+    }
+
+    /**
+     * @return O índice do shard da thread atual, ou null fora de uma operação roteada.
+     */
+    public static Integer obter() {
+        return SHARD.get();
+    }
+
+    static void definir(Integer shard) {
+        if (shard == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(shard);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.trabalho.crud.core.validacao;
+
+/**
+ * Classe de custo de uma regra de validação. O pipeline avalia as regras em ordem crescente
+ * de custo, para que uma reserva inválida seja recusada antes de qualquer ida ao banco.
+ */
+public enum CustoRegra {
+
+    /** Checagens só sobre os campos da própria reserva (nulos, datas, IDs). */
+    MEMORIA,
+
+    /** Regras que consultam o banco ou o índice de disponibilidade. */
+    CONSULTA
+}
@@ -0,0 +1,78 @@
+package com.trabalho.crud.core.validacao;
+
+import java.util.Map;
+
+/**
+ * Fotografia das métricas de uma regra do pipeline de validação.
+ */
+public class EstatisticaRegra {
+
+    private final String regra;
+    private final CustoRegra custo;
+    private final long avaliacoes;
+    private final long rejeicoes;
+    private final double latenciaMediaUs;
+    private final long latenciaP50Us;
+    private final long latenciaP99Us;
+    private final double latenciaMaximaUs;
+    private final Map<String, Long> histograma;
+
+    public EstatisticaRegra(String regra, CustoRegra custo, long avaliacoes, long rejeicoes,
+                            double latenciaMediaUs, long latenciaP50Us, long latenciaP99Us,
+                            double latenciaMaximaUs, Map<String, Long> histograma) {
+        this.regra = regra;
+        this.custo = custo;
+        this.avaliacoes = avaliacoes;
+        this.rejeicoes = rejeicoes;
+        this.latenciaMediaUs = latenciaMediaUs;
+        this.latenciaP50Us = latenciaP50Us;
+        this.latenciaP99Us = latenciaP99Us;
+        this.latenciaMaximaUs = latenciaMaximaUs;
+        this.histograma = histograma;
+    }
+
+    public String getRegra() {
+        return regra;
+    }
+
+    public CustoRegra getCusto() {
+        return custo;
+    }
+
+    public long getAvaliacoes() {
+        return avaliacoes;
+    }
+
+    public long getRejeicoes() {
+        return rejeicoes;
+    }
+
+    public double getLatenciaMediaUs() {
+        return latenciaMediaUs;
+    }
+
+    /**
+     * @return Limite superior (em µs, potência de 2) da faixa do histograma que contém a mediana.
+     */
+    public long getLatenciaP50Us() {
+        return latenciaP50Us;
+    }
+
+    /**
+     * @return Limite superior (em µs, potência de 2) da faixa do histograma que contém o p99.
+     */
+    public long getLatenciaP99Us() {
+        return latenciaP99Us;
+    }
+
+    public double getLatenciaMaximaUs() {
+        return latenciaMaximaUs;
+    }
+
+    /**
+     * @return Quantidade de avaliações por faixa de latência ("ate4us" = abaixo de 4µs), só faixas não vazias.
+     */
+    public Map<String, Long> getHistograma() {
+        return histograma;
+    }
+}
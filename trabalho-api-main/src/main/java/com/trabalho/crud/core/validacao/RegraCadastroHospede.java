@@ -0,0 +1,45 @@
+package com.trabalho.crud.core.validacao;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.hospede.VerificadorHospedes;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regra 5: com reservas.hospedes.verificar=true, o hóspede deve existir no cadastro. A
+ * existência é respondida em memória (filtro de Bloom + cache de positivos) quase sempre; só
+ * os IDs desconhecidos do cache vão ao cadastro. Não lê as reservas do quarto, então roda
+ * antes da trava do quarto (e antes da disponibilidade, quando as duas são avaliadas juntas).
+ */
+@Component
+@Order(0)
+public class RegraCadastroHospede implements RegraReserva {
+
+    private final VerificadorHospedes verificadorHospedes;
+
+    @Autowired
+    public RegraCadastroHospede(VerificadorHospedes verificadorHospedes) {
+        this.verificadorHospedes = verificadorHospedes;
+    }
+
+    @Override
+    public String nome() {
+        return "cadastro-hospede";
+    }
+
+    @Override
+    public CustoRegra custo() {
+        return CustoRegra.CONSULTA;
+    }
+
+    @Override
+    public void validar(Reserva reserva, Long ignorarId) {
+        Long hospedeId = reserva.getHospedeId();
+        // ID ausente ou inválido é recusado pela RegraHospede, avaliada antes
+        if (verificadorHospedes.isHabilitado() && hospedeId != null && !verificadorHospedes.existe(hospedeId)) {
+            throw new ValidacaoReservaException("Hóspede com ID " + hospedeId + " não encontrado.");
+        }
+    }
+}
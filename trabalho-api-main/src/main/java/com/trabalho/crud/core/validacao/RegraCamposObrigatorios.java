@@ -0,0 +1,33 @@
+package com.trabalho.crud.core.validacao;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * No lote e no grupo não há @Valid por item, então os campos obrigatórios são checados
+ * aqui, antes das regras que dependem deles.
+ */
+@Component
+@Order(1)
+public class RegraCamposObrigatorios implements RegraReserva {
+
+    @Override
+    public String nome() {
+        return "camposObrigatorios";
+    }
+
+    @Override
+    public CustoRegra custo() {
+        return CustoRegra.MEMORIA;
+    }
+
+    @Override
+    public void validar(Reserva reserva, Long ignorarId) {
+        if (reserva == null || reserva.getNumeroDoQuarto() == null || reserva.getNumeroDoQuarto().isBlank()
+                || reserva.getDataInicioReserva() == null || reserva.getDataFinalReserva() == null) {
+            throw new ValidacaoReservaException("Número do quarto e datas da reserva são obrigatórios.");
+        }
+    }
+}
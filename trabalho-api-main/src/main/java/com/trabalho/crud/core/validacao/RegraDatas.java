@@ -0,0 +1,39 @@
+package com.trabalho.crud.core.validacao;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+@Order(2)
+public class RegraDatas implements RegraReserva {
+
+    @Override
+    public String nome() {
+        return "datas";
+    }
+
+    @Override
+    public CustoRegra custo() {
+        return CustoRegra.MEMORIA;
+    }
+
+    @Override
+    public void validar(Reserva reserva, Long ignorarId) {
+        LocalDate hoje = LocalDate.now();
+
+        // Regra 1: Data de Check-out não pode ser antes ou igual à data de Check-in.
+        if (!reserva.getDataFinalReserva().isAfter(reserva.getDataInicioReserva())) {
+            throw new ValidacaoReservaException("A data final da reserva deve ser posterior à data de início.");
+        }
+
+        // Regra 2: Não é permitido criar reservas com data de check-in no passado.
+        // Permite reservas para HOJE, mas não para datas anteriores.
+        if (reserva.getDataInicioReserva().isBefore(hoje)) {
+            throw new ValidacaoReservaException("Não é permitido agendar reservas para datas passadas.");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.trabalho.crud.core.validacao;
+
+import com.trabalho.crud.core.disponibilidade.BuscaAlternativas;
+import com.trabalho.crud.core.disponibilidade.IndiceDisponibilidade;
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.ReservaRepository;
+import com.trabalho.crud.core.service.ReservaIndisponivelException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regra 3: Checa se o quarto está ocupado no período desejado. Numa atualização, a própria
+ * reserva (ignorarId) não conta como conflito. Deve ser avaliada segurando a trava do quarto.
+ */
+@Component
+@Order(1)
+public class RegraDisponibilidade implements RegraReserva {
+
+    private static final String MENSAGEM_CONFLITO_ATUALIZACAO =
+        "O quarto %s já está reservado por outra pessoa neste novo período.";
+
+    private final IndiceDisponibilidade indiceDisponibilidade;
+    private final ReservaRepository reservaRepository;
+    private final BuscaAlternativas buscaAlternativas;
+
+    @Autowired
+    public RegraDisponibilidade(IndiceDisponibilidade indiceDisponibilidade, ReservaRepository reservaRepository,
+                                BuscaAlternativas buscaAlternativas) {
+        this.indiceDisponibilidade = indiceDisponibilidade;
+        this.reservaRepository = reservaRepository;
+        this.buscaAlternativas = buscaAlternativas;
+    }
+
+    @Override
+    public String nome() {
+        return "disponibilidade";
+    }
+
+    @Override
+    public CustoRegra custo() {
+        return CustoRegra.CONSULTA;
+    }
+
+    @Override
+    public boolean precisaTravaDoQuarto() {
+        return true;
+    }
+
+    @Override
+    public void validar(Reserva reserva, Long ignorarId) {
+        if (temConflito(reserva, ignorarId)) {
+            // A resposta leva períodos e quartos alternativos, calculados numa só passada
+            throw new ReservaIndisponivelException(mensagemConflito(reserva, ignorarId),
+                buscaAlternativas.sugerir(reserva, ignorarId));
+        }
+    }
+
+    private boolean temConflito(Reserva reserva, Long ignorarId) {
+        // Com o índice em memória carregado, a checagem não precisa ir ao banco
+        if (indiceDisponibilidade.estaPronto()) {
+            return indiceDisponibilidade.temConflito(reserva.getNumeroDoQuarto(),
+                reserva.getDataInicioReserva(), reserva.getDataFinalReserva(), ignorarId);
+        }
+
+        // Numa atualização, os conflitos que são a própria reserva são ignorados
+        return reservaRepository
+            .findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(
+                reserva.getNumeroDoQuarto(),
+                reserva.getDataInicioReserva(),
+                reserva.getDataFinalReserva())
+            .stream()
+            .anyMatch(conflito -> ignorarId == null || !ignorarId.equals(conflito.getId()));
+    }
+
+    /**
+     * @return A mensagem de quarto ocupado, para uma nova reserva (ignorarId nulo) ou uma atualização.
+     */
+    public static String mensagemConflito(Reserva reserva, Long ignorarId) {
+        if (ignorarId != null) {
+            return MENSAGEM_CONFLITO_ATUALIZACAO.formatted(reserva.getNumeroDoQuarto());
+        }
+        return "O quarto " + reserva.getNumeroDoQuarto()
+            + " já está reservado no período de "
+            + reserva.getDataInicioReserva() + " a "
+            + reserva.getDataFinalReserva() + ".";
+    }
+}
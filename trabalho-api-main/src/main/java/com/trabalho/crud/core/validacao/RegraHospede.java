@@ -0,0 +1,33 @@
+package com.trabalho.crud.core.validacao;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regra 4: o hóspede deve ter um ID válido. A existência no cadastro fica na
+ * {@link RegraCadastroHospede}.
+ */
+@Component
+@Order(3)
+public class RegraHospede implements RegraReserva {
+
+    @Override
+    public String nome() {
+        return "hospede";
+    }
+
+    @Override
+    public CustoRegra custo() {
+        return CustoRegra.MEMORIA;
+    }
+
+    @Override
+    public void validar(Reserva reserva, Long ignorarId) {
+        Long hospedeId = reserva.getHospedeId();
+        if (hospedeId == null || hospedeId <= 0) {
+            throw new ValidacaoReservaException("O ID do Hóspede é obrigatório e deve ser válido.");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.trabalho.crud.core.validacao;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+
+/**
+ * Uma regra de negócio aplicada a uma reserva antes de gravá-la. Cada regra é um bean:
+ * o {@link ValidadorReserva} recebe todas, ordena por {@link #custo()} (e por @Order
+ * dentro da mesma classe de custo) e para na primeira violação.
+ */
+public interface RegraReserva {
+
+    /**
+     * @return Nome curto da regra, usado nas métricas de validação.
+     */
+    String nome();
+
+    CustoRegra custo();
+
+    /**
+     * @return true se a regra lê as reservas do quarto e por isso deve ser avaliada com a trava
+     * do quarto. As demais rodam antes de pegar travas ou de entrar na fila de gravação.
+     */
+    default boolean precisaTravaDoQuarto() {
+        return false;
+    }
+
+    /**
+     * Valida a reserva.
+     * * @param reserva A reserva a ser validada.
+     * @param ignorarId ID de reserva que não conta como conflito (a própria, numa atualização), ou null.
+     * @throws ValidacaoReservaException se a regra for violada.
+     */
+    void validar(Reserva reserva, Long ignorarId);
+}
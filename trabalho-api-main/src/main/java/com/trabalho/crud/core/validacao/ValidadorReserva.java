@@ -0,0 +1,178 @@
+package com.trabalho.crud.core.validacao;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Pipeline das regras de validação de reserva. As regras (beans {@link RegraReserva}) são
+ * avaliadas em ordem crescente de custo, então regras em memória sempre rodam antes das que
+ * consultam o banco, e a avaliação para na primeira violação.
+ * * Cada regra tem seu histograma de latência e seu contador de rejeições.
+ */
+@Component
+public class ValidadorReserva {
+
+    // Faixas do histograma em potências de 2 de microssegundos (1µs .. ~1s) + uma faixa final
+    static final int FAIXAS_HISTOGRAMA = 22;
+
+    private final List<RegraReserva> regras;
+    private final Medidor[] medidores;
+
+    @Autowired
+    public ValidadorReserva(List<RegraReserva> regras) {
+        // Ordenação estável: dentro da mesma classe de custo, vale a ordem (@Order) recebida
+        List<RegraReserva> ordenadas = new ArrayList<>(regras);
+        ordenadas.sort(Comparator.comparing(RegraReserva::custo));
+        this.regras = List.copyOf(ordenadas);
+        this.medidores = new Medidor[ordenadas.size()];
+        for (int i = 0; i < medidores.length; i++) {
+            medidores[i] = new Medidor();
+        }
+    }
+
+    /**
+     * Avalia todas as regras.
+     * * @param reserva A reserva a ser validada.
+     * @param ignorarId ID de reserva que não conta como conflito (a própria, numa atualização), ou null.
+     * @throws ValidacaoReservaException na primeira regra violada.
+     */
+    public void validar(Reserva reserva, Long ignorarId) {
+        avaliar(reserva, ignorarId, regra -> true);
+    }
+
+    /**
+     * Avalia só as regras de uma classe de custo. Permite rodar as regras em memória antes de
+     * pegar travas ou entrar numa fila, e as de consulta depois, já com a trava do quarto.
+     * @throws ValidacaoReservaException na primeira regra violada.
+     */
+    public void validar(Reserva reserva, Long ignorarId, CustoRegra custo) {
+        avaliar(reserva, ignorarId, regra -> regra.custo() == custo);
+    }
+
+    /**
+     * Avalia as regras que não leem as reservas do quarto: as em memória e as que consultam
+     * outros cadastros (ex.: o de hóspedes). Roda antes de pegar travas ou de entrar na fila; a
+     * disponibilidade fica para {@link #validarComTrava}, ou para a checagem do lote ou da
+     * tabela de noites.
+     * @throws ValidacaoReservaException na primeira regra violada.
+     */
+    public void validarAntesDaTrava(Reserva reserva, Long ignorarId) {
+        avaliar(reserva, ignorarId, regra -> !regra.precisaTravaDoQuarto());
+    }
+
+    /**
+     * Avalia as regras que leem as reservas do quarto, com a trava do quarto já segura.
+     * @throws ValidacaoReservaException na primeira regra violada.
+     */
+    public void validarComTrava(Reserva reserva, Long ignorarId) {
+        avaliar(reserva, ignorarId, RegraReserva::precisaTravaDoQuarto);
+    }
+
+    /**
+     * @return As regras na ordem em que são avaliadas.
+     */
+    public List<RegraReserva> getRegras() {
+        return regras;
+    }
+
+    /**
+     * @return Avaliações, rejeições e latência de cada regra, na ordem de avaliação.
+     */
+    public List<EstatisticaRegra> estatisticas() {
+        List<EstatisticaRegra> resultado = new ArrayList<>(regras.size());
+        for (int i = 0; i < regras.size(); i++) {
+            resultado.add(medidores[i].fotografia(regras.get(i)));
+        }
+        return resultado;
+    }
+
+    private void avaliar(Reserva reserva, Long ignorarId, Predicate<RegraReserva> avaliada) {
+        for (int i = 0; i < regras.size(); i++) {
+            RegraReserva regra = regras.get(i);
+            if (!avaliada.test(regra)) {
+                continue;
+            }
+            Medidor medidor = medidores[i];
+            long inicio = System.nanoTime();
+            try {
+                regra.validar(reserva, ignorarId);
+            } catch (ValidacaoReservaException e) {
+                medidor.rejeicoes.increment();
+                throw e;
+            } finally {
+                medidor.registrar(System.nanoTime() - inicio);
+            }
+        }
+    }
+
+    // Faixa i guarda as latências abaixo de 2^i µs
+    static int faixaDe(long nanos) {
+        long micros = nanos / 1_000;
+        return Math.min(64 - Long.numberOfLeadingZeros(micros), FAIXAS_HISTOGRAMA - 1);
+    }
+
+    private static final class Medidor {
+
+        private final LongAdder avaliacoes = new LongAdder();
+        private final LongAdder rejeicoes = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maximaNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray histograma = new AtomicLongArray(FAIXAS_HISTOGRAMA);
+
+        void registrar(long nanos) {
+            avaliacoes.increment();
+            totalNanos.add(nanos);
+            maximaNanos.accumulate(nanos);
+            histograma.incrementAndGet(faixaDe(nanos));
+        }
+
+        EstatisticaRegra fotografia(RegraReserva regra) {
+            long[] contagens = new long[FAIXAS_HISTOGRAMA];
+            long total = 0;
+            for (int i = 0; i < contagens.length; i++) {
+                contagens[i] = histograma.get(i);
+                total += contagens[i];
+            }
+
+            Map<String, Long> faixas = new LinkedHashMap<>();
+            for (int i = 0; i < contagens.length; i++) {
+                if (contagens[i] > 0) {
+                    faixas.put(i == contagens.length - 1 ? "acima" : "ate" + (1L << i) + "us", contagens[i]);
+                }
+            }
+            long quantidade = avaliacoes.sum();
+            double mediaUs = quantidade == 0 ? 0 : totalNanos.sum() / (double) quantidade / 1_000;
+            return new EstatisticaRegra(regra.nome(), regra.custo(), quantidade, rejeicoes.sum(), mediaUs,
+                percentil(contagens, total, 0.50), percentil(contagens, total, 0.99),
+                maximaNanos.get() / 1_000.0, faixas);
+        }
+
+        // Limite superior da faixa que contém o percentil (precisão de potência de 2)
+        private static long percentil(long[] contagens, long total, double fracao) {
+            if (total == 0) {
+                return 0;
+            }
+            long alvo = (long) Math.ceil(total * fracao);
+            long acumulado = 0;
+            for (int i = 0; i < contagens.length; i++) {
+                acumulado += contagens[i];
+                if (acumulado >= alvo) {
+                    return 1L << i;
+                }
+            }
+            return 1L << (contagens.length - 1);
+        }
+    }
+}
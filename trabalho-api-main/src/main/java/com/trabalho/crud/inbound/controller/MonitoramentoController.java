@@ -0,0 +1,158 @@
+package com.trabalho.crud.inbound.controller;
+
+import com.trabalho.crud.core.cache.CacheReservas;
+import com.trabalho.crud.core.cache.EstatisticaCache;
+import com.trabalho.crud.core.conexoes.EstatisticaPool;
+import com.trabalho.crud.core.conexoes.EstatisticaRetencoes;
+import com.trabalho.crud.core.conexoes.MonitorConexoes;
+import com.trabalho.crud.core.concorrencia.EstatisticaTrava;
+import com.trabalho.crud.core.concorrencia.TravasQuarto;
+import com.trabalho.crud.core.disponibilidade.EstatisticaCalendario;
+import com.trabalho.crud.core.disponibilidade.IndiceDisponibilidade;
+import com.trabalho.crud.core.eventos.BarramentoEventos;
+import com.trabalho.crud.core.eventos.EstatisticaEventos;
+import com.trabalho.crud.core.hospede.EstatisticaHospedes;
+import com.trabalho.crud.core.hospede.VerificadorHospedes;
+import com.trabalho.crud.core.replicacao.EstatisticaReplica;
+import com.trabalho.crud.core.replicacao.RoteamentoLeitura;
+import com.trabalho.crud.core.validacao.EstatisticaRegra;
+import com.trabalho.crud.core.validacao.ValidadorReserva;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller REST com informações operacionais da API (uso interno / observabilidade).
+ */
+@RestController
+@RequestMapping("/api/v1/monitoramento")
+public class MonitoramentoController {
+
+    private final TravasQuarto travasQuarto;
+    private final IndiceDisponibilidade indiceDisponibilidade;
+    private final CacheReservas cacheReservas;
+    private final ValidadorReserva validadorReserva;
+    private final VerificadorHospedes verificadorHospedes;
+    private final BarramentoEventos barramentoEventos;
+    private final RoteamentoLeitura roteamentoLeitura;
+    private final MonitorConexoes monitorConexoes;
+
+    @Autowired
+    public MonitoramentoController(TravasQuarto travasQuarto, IndiceDisponibilidade indiceDisponibilidade,
+                                   CacheReservas cacheReservas, ValidadorReserva validadorReserva,
+                                   VerificadorHospedes verificadorHospedes, BarramentoEventos barramentoEventos,
+                                   RoteamentoLeitura roteamentoLeitura, MonitorConexoes monitorConexoes) {
+        this.travasQuarto = travasQuarto;
+        this.indiceDisponibilidade = indiceDisponibilidade;
+        this.cacheReservas = cacheReservas;
+        this.validadorReserva = validadorReserva;
+        this.verificadorHospedes = verificadorHospedes;
+        this.barramentoEventos = barramentoEventos;
+        this.roteamentoLeitura = roteamentoLeitura;
+        this.monitorConexoes = monitorConexoes;
+    }
+
+    /**
+     * Retorna as métricas de contenção de cada faixa de travas por quarto.
+     * @return ResponseEntity com a lista de estatísticas por faixa e status HTTP 200 (OK).
+     */
+    @GetMapping("/travas")
+    public ResponseEntity<List<EstatisticaTrava>> estatisticasTravas() {
+        return ResponseEntity.ok(travasQuarto.estatisticas());
+    }
+
+    /**
+     * Retorna a janela e o consumo de memória do calendário de ocupação em bits.
+     * @return ResponseEntity com as estatísticas do calendário e status HTTP 200 (OK).
+     */
+    @GetMapping("/calendario")
+    public ResponseEntity<EstatisticaCalendario> estatisticasCalendario() {
+        return ResponseEntity.ok(indiceDisponibilidade.estatisticasCalendario());
+    }
+
+    /**
+     * Retorna os contadores do cache de leitura de reservas (acertos, faltas, remoções).
+     * @return ResponseEntity com as estatísticas do cache e status HTTP 200 (OK).
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<EstatisticaCache> estatisticasCache() {
+        return ResponseEntity.ok(cacheReservas.estatisticas());
+    }
+
+    /**
+     * Liga ou desliga o cache de leitura de reservas sem reiniciar a aplicação.
+     * @param habilitado true para ligar, false para desligar (o cache é esvaziado nos dois casos).
+     * @return ResponseEntity com as estatísticas do cache após a mudança e status HTTP 200 (OK).
+     */
+    @PutMapping("/cache")
+    public ResponseEntity<EstatisticaCache> alterarCache(@RequestParam boolean habilitado) {
+        cacheReservas.setHabilitado(habilitado);
+        return ResponseEntity.ok(cacheReservas.estatisticas());
+    }
+
+    /**
+     * Retorna, para cada regra de validação (na ordem em que são avaliadas), as avaliações,
+     * as rejeições e o histograma de latência.
+     * @return ResponseEntity com a lista de estatísticas por regra e status HTTP 200 (OK).
+     */
+    @GetMapping("/validacao")
+    public ResponseEntity<List<EstatisticaRegra>> estatisticasValidacao() {
+        return ResponseEntity.ok(validadorReserva.estatisticas());
+    }
+
+    /**
+     * Retorna o tamanho do filtro de hóspedes e quantas verificações foram respondidas pelo
+     * filtro, pelo cache de positivos e pelo cadastro.
+     * @return ResponseEntity com as estatísticas da verificação de hóspedes e status HTTP 200 (OK).
+     */
+    @GetMapping("/hospedes")
+    public ResponseEntity<EstatisticaHospedes> estatisticasHospedes() {
+        return ResponseEntity.ok(verificadorHospedes.estatisticas());
+    }
+
+    /**
+     * Retorna as assinaturas abertas do feed de eventos, a última sequência publicada e
+     * quantos eventos foram descartados ou ressincronizados por assinantes lentos.
+     * @return ResponseEntity com as estatísticas do feed de eventos e status HTTP 200 (OK).
+     */
+    @GetMapping("/eventos")
+    public ResponseEntity<EstatisticaEventos> estatisticasEventos() {
+        return ResponseEntity.ok(barramentoEventos.estatisticas());
+    }
+
+    /**
+     * Retorna o atraso medido da réplica de leitura e quantas leituras foram atendidas por ela
+     * ou enviadas ao banco principal (janela de leitura das próprias escritas ou atraso).
+     * @return ResponseEntity com as estatísticas da réplica e status HTTP 200 (OK).
+     */
+    @GetMapping("/replica")
+    public ResponseEntity<EstatisticaReplica> estatisticasReplica() {
+        return ResponseEntity.ok(roteamentoLeitura.estatisticas());
+    }
+
+    /**
+     * Retorna, para cada pool de conexões, as conexões ativas, ociosas e as threads esperando, e
+     * os histogramas do tempo de espera por uma conexão e do tempo de uso de cada conexão.
+     * @return ResponseEntity com a lista de estatísticas por pool e status HTTP 200 (OK).
+     */
+    @GetMapping("/pool")
+    public ResponseEntity<List<EstatisticaPool>> estatisticasPool() {
+        return ResponseEntity.ok(monitorConexoes.estatisticas());
+    }
+
+    /**
+     * Retorna as conexões que ficaram emprestadas além do limite, agrupadas pelo método que as
+     * pegou (ex.: ReservaService.criar), e as mais recentes.
+     * @return ResponseEntity com as estatísticas de retenção e status HTTP 200 (OK).
+     */
+    @GetMapping("/pool/retencoes")
+    public ResponseEntity<EstatisticaRetencoes> retencoesPool() {
+        return ResponseEntity.ok(monitorConexoes.retencoes());
+    }
+}
@@ -0,0 +1,42 @@
+package com.trabalho.crud.inbound.controller;
+
+import com.trabalho.crud.core.service.QuartoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controller REST para consultas sobre os quartos.
+ */
+@RestController
+@RequestMapping("/api/v1/quartos")
+public class QuartoController {
+
+    private final QuartoService quartoService;
+
+    @Autowired
+    public QuartoController(QuartoService quartoService) {
+        this.quartoService = quartoService;
+    }
+
+    /**
+     * Lista os quartos livres em um período.
+     * @param inicio Data de check-in (ISO, ex.: 2026-01-10).
+     * @param fim Data de check-out (ISO), exclusiva.
+     * @return ResponseEntity com os números dos quartos livres, em ordem, e status HTTP 200 (OK).
+     * @throws com.trabalho.crud.core.service.ValidacaoReservaException se o período for inválido.
+     */
+    @GetMapping("/disponiveis")
+    public ResponseEntity<List<String>> buscarDisponiveis(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
+        return ResponseEntity.ok(quartoService.buscarDisponiveis(inicio, fim));
+    }
+}
@@ -0,0 +1,57 @@
+package com.trabalho.crud.inbound.controller;
+
+import com.trabalho.crud.core.dto.AlteracaoReservaDto;
+import com.trabalho.crud.core.dto.PaginaAlteracoesDto;
+import com.trabalho.crud.core.mapper.ReservaMapper;
+import com.trabalho.crud.core.service.AlteracaoReserva;
+import com.trabalho.crud.core.service.AlteracaoReservaService;
+import com.trabalho.crud.core.service.PaginaAlteracoes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller REST da sincronização incremental, para clientes que mantêm uma cópia local
+ * das reservas e hoje baixam a listagem inteira a cada sincronização.
+ */
+@RestController
+@RequestMapping("/api/v1/reservas/changes")
+public class ReservaAlteracoesController {
+
+    private final AlteracaoReservaService alteracaoReservaService;
+    private final ReservaMapper reservaMapper;
+
+    @Autowired
+    public ReservaAlteracoesController(AlteracaoReservaService alteracaoReservaService, ReservaMapper reservaMapper) {
+        this.alteracaoReservaService = alteracaoReservaService;
+        this.reservaMapper = reservaMapper;
+    }
+
+    /**
+     * Retorna as reservas criadas, alteradas ou removidas depois do token, em ordem de alteração.
+     * Uma reserva alterada várias vezes aparece uma só vez, no estado atual.
+     * * @param since O token devolvido pela sincronização anterior (omitido na primeira carga).
+     * @param limit A quantidade máxima de alterações por página (padrão 500, máximo 5000).
+     * @return ResponseEntity com as alterações, o nextToken e status HTTP 200 (OK).
+     * @throws com.trabalho.crud.core.service.ValidacaoReservaException se o token ou o limite forem inválidos.
+     */
+    @GetMapping
+    public ResponseEntity<PaginaAlteracoesDto> buscarAlteracoes(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        PaginaAlteracoes pagina = alteracaoReservaService.buscarAlteracoes(since, limit);
+        return ResponseEntity.ok(new PaginaAlteracoesDto(
+            pagina.getAlteracoes().stream().map(this::toDto).toList(),
+            pagina.getProximoToken(),
+            pagina.isTemMais(),
+            pagina.getLimite()));
+    }
+
+    private AlteracaoReservaDto toDto(AlteracaoReserva alteracao) {
+        return new AlteracaoReservaDto(alteracao.getSequencia(), alteracao.getTipo().name(),
+            alteracao.getReservaId(), alteracao.getNumeroDoQuarto(), reservaMapper.toDto(alteracao.getReserva()));
+    }
+}
@@ -1,16 +1,24 @@
 package com.trabalho.crud.inbound.controller; 
 
 import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.dto.PaginaReservaDto;
 import com.trabalho.crud.core.dto.ReservaDto;
+import com.trabalho.crud.core.dto.ResultadoLoteDto;
 import com.trabalho.crud.core.mapper.ReservaMapper;
+import com.trabalho.crud.core.service.PaginaReservas;
 import com.trabalho.crud.core.service.ReservaService;
+import com.trabalho.crud.core.service.ResultadoItemLote;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid; 
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -40,44 +48,97 @@ public class ReservaController {
     public ResponseEntity<ReservaDto> criarReserva(@Valid @RequestBody ReservaDto reservaDto) {
         Reserva reserva = reservaMapper.toEntity(reservaDto);
         Reserva novaReserva = reservaService.criar(reserva);
-        return ResponseEntity.status(HttpStatus.CREATED).body(reservaMapper.toDto(novaReserva));
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .eTag(etag(novaReserva))
+            .body(reservaMapper.toDto(novaReserva));
+    }
+
+    /**
+     * Cria várias reservas numa única requisição (ex.: integrações com channel manager).
+     * Cada item é validado de forma independente; os válidos são inseridos em lote.
+     * * @param reservasDto A lista de DTOs das Reservas a serem criadas (no máximo 5000).
+     * @return ResponseEntity com o resultado de cada item (CRIADA ou REJEITADA com o motivo) e status HTTP 200 (OK).
+     * @throws com.trabalho.crud.core.service.ValidacaoReservaException se o lote estiver vazio ou exceder o limite.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ResultadoLoteDto>> criarReservasEmLote(@RequestBody List<ReservaDto> reservasDto) {
+        List<Reserva> reservas = reservasDto == null ? null
+            : reservasDto.stream().map(reservaMapper::toEntity).toList();
+        List<ResultadoItemLote> resultados = reservaService.criarEmLote(reservas);
+        return ResponseEntity.ok(resultados.stream()
+            .map(r -> new ResultadoLoteDto(r.getIndice(), r.getStatus().name(),
+                reservaMapper.toDto(r.getReserva()), r.getMotivo()))
+            .toList());
+    }
+
+    /**
+     * Cria as reservas de um grupo (ex.: vários quartos para um congresso) em tudo-ou-nada.
+     * * @param reservasDto A lista de DTOs das Reservas do grupo (no máximo 500).
+     * @return ResponseEntity com os DTOs das Reservas criadas, na ordem recebida, e status HTTP 201 (Created).
+     * @throws com.trabalho.crud.core.service.GrupoRejeitadoException se algum item for inválido ou conflitar
+     *         (nenhuma reserva é criada e o corpo traz o motivo de cada item recusado).
+     */
+    @PostMapping("/grupo")
+    public ResponseEntity<List<ReservaDto>> criarGrupo(@RequestBody List<ReservaDto> reservasDto) {
+        List<Reserva> reservas = reservasDto == null ? null
+            : reservasDto.stream().map(reservaMapper::toEntity).toList();
+        List<Reserva> criadas = reservaService.criarGrupo(reservas);
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(criadas.stream().map(reservaMapper::toDto).toList());
     }
 
     /**
      * Busca uma reserva pelo ID.
      * * @param id O ID da reserva.
-     * @return ResponseEntity com o DTO da Reserva e status HTTP 200 (OK).
+     * @return ResponseEntity com o DTO da Reserva, o header ETag (versão) e status HTTP 200 (OK).
      * @throws com.trabalho.crud.core.service.ResourceNotFoundException se a reserva não for encontrada.
      */
     @GetMapping("/{id}")
     public ResponseEntity<ReservaDto> buscarReservaPorId(@PathVariable Long id) {
         Reserva reserva = reservaService.buscarPorId(id);
-        return ResponseEntity.ok(reservaMapper.toDto(reserva));
+        return ResponseEntity.ok().eTag(etag(reserva)).body(reservaMapper.toDto(reserva));
     }
     
     /**
-     * Busca todas as reservas cadastradas.
-     * @return ResponseEntity com a lista de DTOs das Reservas e status HTTP 200 (OK).
+     * Lista as reservas cadastradas de forma paginada (por cursor), com filtros opcionais.
+     * * @param cursor O cursor opaco (nextCursor) devolvido pela página anterior; omitir na primeira página.
+     * @param limit A quantidade máxima de reservas por página (padrão 50, máximo 500).
+     * @param quarto Filtro opcional pelo número do quarto.
+     * @param inicio Filtro opcional: retorna reservas que terminam depois desta data (ISO yyyy-MM-dd).
+     * @param fim Filtro opcional: retorna reservas que começam antes desta data (ISO yyyy-MM-dd).
+     * @return ResponseEntity com a página de DTOs das Reservas, o nextCursor e status HTTP 200 (OK).
+     * @throws com.trabalho.crud.core.service.ValidacaoReservaException se o cursor ou os filtros forem inválidos.
      */
     @GetMapping
-    public ResponseEntity<List<ReservaDto>> buscarTodasReservas() {
-        List<Reserva> reservas = reservaService.buscarTodas();
-        return ResponseEntity.ok(reservaMapper.toDtoList(reservas));
+    public ResponseEntity<PaginaReservaDto> buscarTodasReservas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String quarto,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
+        PaginaReservas pagina = reservaService.buscarPagina(cursor, limit, quarto, inicio, fim);
+        return ResponseEntity.ok(new PaginaReservaDto(
+            reservaMapper.toDtoList(pagina.getReservas()),
+            pagina.getProximoCursor(),
+            pagina.getLimite()));
     }
 
     /**
      * Atualiza uma reserva existente pelo ID.
      * * @param id O ID da reserva a ser atualizada.
      * @param reservaDto O DTO com os novos detalhes da Reserva.
-     * @return ResponseEntity com o DTO da Reserva atualizada e status HTTP 200 (OK).
+     * @param ifMatch Header If-Match opcional com o ETag (versão) lido pelo cliente.
+     * @return ResponseEntity com o DTO da Reserva atualizada, o novo ETag e status HTTP 200 (OK).
      * @throws com.trabalho.crud.core.service.ResourceNotFoundException se a reserva não for encontrada.
      * @throws com.trabalho.crud.core.service.ValidacaoReservaException se as regras de negócio forem violadas.
+     * @throws com.trabalho.crud.core.service.VersaoDesatualizadaException se o If-Match não conferir (412).
      */
     @PutMapping("/{id}")
-    public ResponseEntity<ReservaDto> atualizarReserva(@PathVariable Long id, @Valid @RequestBody ReservaDto reservaDto) {
+    public ResponseEntity<ReservaDto> atualizarReserva(@PathVariable Long id, @Valid @RequestBody ReservaDto reservaDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Reserva reserva = reservaMapper.toEntity(reservaDto);
-        Reserva reservaAtualizada = reservaService.atualizar(id, reserva);
-        return ResponseEntity.ok(reservaMapper.toDto(reservaAtualizada));
+        Reserva reservaAtualizada = reservaService.atualizar(id, reserva, versaoDoIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(etag(reservaAtualizada)).body(reservaMapper.toDto(reservaAtualizada));
     }
 
     /**
@@ -91,4 +152,25 @@ public class ReservaController {
         reservaService.deletar(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static String etag(Reserva reserva) {
+        return reserva.getVersao() == null ? null : "\"" + reserva.getVersao() + "\"";
+    }
+
+    // Aceita "3", "\"3\"" e W/"3"; "*" significa "qualquer versão"
+    private static Long versaoDoIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.startsWith("W/")) {
+            valor = valor.substring(2);
+        }
+        valor = valor.replace("\"", "");
+        try {
+            return Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new ValidacaoReservaException("Header If-Match inválido: " + ifMatch + ".");
+        }
+    }
 }
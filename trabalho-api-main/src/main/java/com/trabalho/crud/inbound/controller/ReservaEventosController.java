@@ -0,0 +1,110 @@
+package com.trabalho.crud.inbound.controller;
+
+import com.trabalho.crud.core.eventos.BarramentoEventos;
+import com.trabalho.crud.core.eventos.DestinoEventos;
+import com.trabalho.crud.core.eventos.EventoReserva;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Controller REST do feed de alterações de reservas em Server-Sent Events, para os sistemas
+ * que hoje fazem polling na listagem (governança, faturamento).
+ */
+@RestController
+@RequestMapping("/api/v1/reservas/eventos")
+public class ReservaEventosController {
+
+    static final String EVENTO_RESSINCRONIZAR = "RESSINCRONIZAR";
+
+    private final BarramentoEventos barramentoEventos;
+    private final long timeoutMs;
+
+    @Autowired
+    public ReservaEventosController(BarramentoEventos barramentoEventos,
+                                    @Value("${reservas.eventos.timeout-ms:1800000}") long timeoutMs) {
+        this.barramentoEventos = barramentoEventos;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Abre o feed de eventos (text/event-stream). Cada evento tem como nome o tipo (CRIADA,
+     * ATUALIZADA, REMOVIDA), como ID a sequência e como dados a reserva. Um evento
+     * RESSINCRONIZAR indica que eventos foram perdidos e o estado deve ser recarregado.
+     * * @param quartos Filtro opcional pelos números dos quartos.
+     * @param desde Retoma após o evento com esta sequência (o header Last-Event-ID tem precedência).
+     * @param ultimoEventoId Header Last-Event-ID, enviado pelo EventSource ao reconectar.
+     * @return O SseEmitter da conexão.
+     * @throws ValidacaoReservaException se a sequência informada não for numérica.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter assinarEventos(@RequestParam(required = false) List<String> quartos,
+                                     @RequestParam(required = false) String desde,
+                                     @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        Long aposSequencia = lerSequencia(ultimoEventoId != null ? ultimoEventoId : desde);
+        Set<String> filtro = quartos == null ? Set.of() : new HashSet<>(quartos);
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        BarramentoEventos.Assinatura assinatura = barramentoEventos.assinar(filtro, aposSequencia, new DestinoSse(emitter));
+        emitter.onCompletion(assinatura::cancelar);
+        emitter.onTimeout(assinatura::cancelar);
+        emitter.onError(erro -> assinatura.cancelar());
+        return emitter;
+    }
+
+    private static Long lerSequencia(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new ValidacaoReservaException("ID de evento inválido: " + valor + ".");
+        }
+    }
+
+    private static final class DestinoSse implements DestinoEventos {
+
+        private final SseEmitter emitter;
+
+        DestinoSse(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void enviar(List<EventoReserva> eventos) throws IOException {
+            for (EventoReserva evento : eventos) {
+                emitter.send(SseEmitter.event()
+                    .id(String.valueOf(evento.getSequencia()))
+                    .name(evento.getTipo().name())
+                    .data(evento, MediaType.APPLICATION_JSON));
+            }
+        }
+
+        @Override
+        public void ressincronizar(long sequencia) throws IOException {
+            emitter.send(SseEmitter.event()
+                .id(String.valueOf(sequencia))
+                .name(EVENTO_RESSINCRONIZAR)
+                .data(Map.of("sequencia", sequencia), MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void manterViva() throws IOException {
+            emitter.send(SseEmitter.event().comment("ping"));
+        }
+    }
+}
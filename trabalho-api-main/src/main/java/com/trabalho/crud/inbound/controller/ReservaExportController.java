@@ -0,0 +1,119 @@
+package com.trabalho.crud.inbound.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.mapper.ReservaMapper;
+import com.trabalho.crud.core.service.ReservaExportService;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Controller REST para a exportação completa das reservas (ex.: conciliação noturna).
+ * As linhas são escritas diretamente na resposta à medida que saem do cursor do banco,
+ * mantendo o uso de memória constante independente do tamanho da tabela.
+ */
+@RestController
+@RequestMapping("/api/v1/reservas/export")
+public class ReservaExportController {
+
+    static final String FORMATO_NDJSON = "ndjson";
+    static final String FORMATO_CSV = "csv";
+    static final String CABECALHO_CSV = "id,numeroDoQuarto,dataInicioReserva,dataFinalReserva,hospedeId,versao";
+
+    // A cada quantas linhas o buffer é descarregado para o cliente
+    private static final int INTERVALO_FLUSH = 1000;
+
+    private final ReservaExportService reservaExportService;
+    private final ReservaMapper reservaMapper;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ReservaExportController(ReservaExportService reservaExportService, ReservaMapper reservaMapper,
+                                   ObjectMapper objectMapper) {
+        this.reservaExportService = reservaExportService;
+        this.reservaMapper = reservaMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Exporta todas as reservas em NDJSON (uma reserva JSON por linha) ou CSV.
+     * * @param formato "ndjson" (padrão) ou "csv".
+     * @param response A resposta HTTP onde as linhas são escritas em streaming.
+     * @throws ValidacaoReservaException se o formato não for suportado.
+     */
+    @GetMapping
+    public void exportarReservas(@RequestParam(defaultValue = FORMATO_NDJSON) String formato,
+                                 HttpServletResponse response) throws IOException {
+        boolean csv = FORMATO_CSV.equalsIgnoreCase(formato);
+        if (!csv && !FORMATO_NDJSON.equalsIgnoreCase(formato)) {
+            throw new ValidacaoReservaException("Formato de exportação não suportado: " + formato + ".");
+        }
+
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"reservas." + (csv ? FORMATO_CSV : FORMATO_NDJSON) + "\"");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        if (csv) {
+            writer.write(CABECALHO_CSV);
+            writer.write('\n');
+        }
+
+        long[] escritas = {0};
+        try {
+            reservaExportService.exportar(reserva -> {
+                try {
+                    writer.write(csv ? linhaCsv(reserva) : objectMapper.writeValueAsString(reservaMapper.toDto(reserva)));
+                    writer.write('\n');
+                    if (++escritas[0] % INTERVALO_FLUSH == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Cliente desconectou no meio da exportação: propaga a causa original
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static String linhaCsv(Reserva reserva) {
+        return reserva.getId() + ","
+            + escaparCsv(reserva.getNumeroDoQuarto()) + ","
+            + valorOuVazio(reserva.getDataInicioReserva()) + ","
+            + valorOuVazio(reserva.getDataFinalReserva()) + ","
+            + valorOuVazio(reserva.getHospedeId()) + ","
+            + valorOuVazio(reserva.getVersao());
+    }
+
+    private static String valorOuVazio(Object valor) {
+        return valor == null ? "" : valor.toString();
+    }
+
+    // Aplica as regras de escape do RFC 4180 apenas quando necessário
+    private static String escaparCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,48 @@
+package com.trabalho.crud.inbound.controller;
+
+import com.trabalho.crud.core.shard.EstatisticaShards;
+import com.trabalho.crud.core.shard.RebalanceadorShards;
+import com.trabalho.crud.core.shard.ResultadoRebalanceamento;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller REST do particionamento das reservas em shards (uso interno). Só existe com
+ * reservas.shards.habilitado=true.
+ */
+@RestController
+@RequestMapping("/api/v1/monitoramento/shards")
+@ConditionalOnProperty(name = "reservas.shards.habilitado", havingValue = "true")
+public class ShardsController {
+
+    private final RebalanceadorShards rebalanceadorShards;
+
+    @Autowired
+    public ShardsController(RebalanceadorShards rebalanceadorShards) {
+        this.rebalanceadorShards = rebalanceadorShards;
+    }
+
+    /**
+     * Retorna quantas reservas cada shard guarda, quantos quartos aguardam o rebalanceamento e
+     * os contadores do roteamento.
+     * @return ResponseEntity com as estatísticas dos shards e status HTTP 200 (OK).
+     */
+    @GetMapping
+    public ResponseEntity<EstatisticaShards> estatisticas() {
+        return ResponseEntity.ok(rebalanceadorShards.estatisticas());
+    }
+
+    /**
+     * Move para o shard indicado pelo anel os quartos que estão fora dele, com a aplicação no ar.
+     * @return ResponseEntity com o resumo da execução e status HTTP 200 (OK).
+     */
+    @PostMapping("/rebalanceamento")
+    public ResponseEntity<ResultadoRebalanceamento> rebalancear() {
+        return ResponseEntity.ok(rebalanceadorShards.rebalancear());
+    }
+}
@@ -0,0 +1,34 @@
+package com.trabalho.crud.inbound.filtro;
+
+import com.trabalho.crud.core.replicacao.ClienteAtual;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Registra quem é o cliente de cada requisição: o header X-Client-Id, quando enviado, ou o
+ * endereço de origem. É a chave da janela em que as leituras de quem acabou de escrever
+ * vão ao banco principal em vez da réplica.
+ */
+@Component
+public class ClienteLeituraFilter extends OncePerRequestFilter {
+
+    static final String HEADER_CLIENTE = "X-Client-Id";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String cliente = request.getHeader(HEADER_CLIENTE);
+        ClienteAtual.definir(cliente != null && !cliente.isBlank() ? cliente : request.getRemoteAddr());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ClienteAtual.limpar();
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.trabalho.crud.inbound.handler;
 
+import com.trabalho.crud.core.service.ConflitoConcorrenciaException;
+import com.trabalho.crud.core.service.GrupoRejeitadoException;
+import com.trabalho.crud.core.service.ReservaIndisponivelException;
 import com.trabalho.crud.core.service.ValidacaoReservaException;
+import com.trabalho.crud.core.service.VersaoDesatualizadaException;
 import com.trabalho.crud.core.service.ResourceNotFoundException;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -35,6 +40,49 @@ public class RequestHandler {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
     
+    // -------------------------------------------------------------------------
+    // 1.1. Quarto já reservado no período (400 Bad Request com sugestões)
+    // Captura ReservaIndisponivelException e inclui as alternativas no corpo.
+    // -------------------------------------------------------------------------
+    @ExceptionHandler(ReservaIndisponivelException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Object> handleReservaIndisponivelException(
+            ReservaIndisponivelException ex, WebRequest request) {
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Bad Request - Erro de Validação");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false).replace("uri=", ""));
+        if (ex.getSugestoes() != null) {
+            body.put("sugestoes", ex.getSugestoes());
+        }
+
+        // Mesmo status da validação comum; as sugestões evitam novas tentativas às cegas
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    // -------------------------------------------------------------------------
+    // 1.2. Reserva em grupo recusada (400 Bad Request com os itens recusados)
+    // Captura GrupoRejeitadoException: nenhuma reserva do grupo foi criada.
+    // -------------------------------------------------------------------------
+    @ExceptionHandler(GrupoRejeitadoException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Object> handleGrupoRejeitadoException(
+            GrupoRejeitadoException ex, WebRequest request) {
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Bad Request - Erro de Validação");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false).replace("uri=", ""));
+        body.put("itens", ex.getRejeicoes().stream()
+            .map(r -> Map.of("indice", r.getIndice(), "motivo", r.getMotivo()))
+            .toList());
+
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
     // -------------------------------------------------------------------------
     // 2. Tratamento para Recurso Não Encontrado (404 Not Found)
     // Captura ResourceNotFoundException e retorna 404.
@@ -54,6 +102,45 @@ public class RequestHandler {
         return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
     }
 	
+    // -------------------------------------------------------------------------
+    // 3. Tratamento para Conflito de Concorrência (409 Conflict)
+    // Captura ConflitoConcorrenciaException (ex.: trava do quarto ocupada por muito tempo).
+    // -------------------------------------------------------------------------
+    @ExceptionHandler({ConflitoConcorrenciaException.class, OptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<Object> handleConflitoConcorrenciaException(
+            RuntimeException ex, WebRequest request) {
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("error", "Conflict - Conflito de Concorrência");
+        // A mensagem do Hibernate no OptimisticLockingFailureException não é voltada ao cliente
+        body.put("message", ex instanceof ConflitoConcorrenciaException ? ex.getMessage()
+                : "A reserva foi alterada por outra requisição. Tente novamente.");
+        body.put("path", request.getDescription(false).replace("uri=", ""));
+
+        // Retorna o status 409 (Conflict): o cliente pode repetir a requisição.
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    // -------------------------------------------------------------------------
+    // 4. Tratamento para Versão Desatualizada (412 Precondition Failed)
+    // Captura VersaoDesatualizadaException (header If-Match não confere com a versão atual).
+    // -------------------------------------------------------------------------
+    @ExceptionHandler(VersaoDesatualizadaException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ResponseEntity<Object> handleVersaoDesatualizadaException(
+            VersaoDesatualizadaException ex, WebRequest request) {
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.PRECONDITION_FAILED.value());
+        body.put("error", "Precondition Failed - Versão Desatualizada");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return new ResponseEntity<>(body, HttpStatus.PRECONDITION_FAILED);
+    }
+	
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<Object> handleAllExceptions(
@@ -0,0 +1,70 @@
+package com.trabalho.crud.outbound.datasource;
+
+import com.trabalho.crud.core.repository.ReplicaReservas;
+import com.trabalho.crud.outbound.repository.JdbcReplicaReservas;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Datasources do modo com réplica de leitura (reservas.replica.habilitada=true): um pool para
+ * o banco principal (spring.datasource.*), um pool somente leitura para a réplica
+ * (reservas.replica.*) e, na frente dos dois, o datasource de roteamento usado por JPA e JDBC.
+ * Desligado, a aplicação usa o datasource único configurado pelo Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "reservas.replica.habilitada", havingValue = "true")
+public class ConfiguracaoReplica {
+
+    @Value("${reservas.replica.url:jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1}")
+    private String url;
+
+    @Value("${reservas.replica.username:sa}")
+    private String usuario;
+
+    @Value("${reservas.replica.password:}")
+    private String senha;
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        HikariDataSource primario = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primario.setPoolName("primario");
+        return primario;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource dataSourceReplica(@Value("${reservas.replica.tamanho-pool:10}") int tamanhoPool) {
+        HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+            .url(url).username(usuario).password(senha).build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(tamanhoPool);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario,
+                                 @Qualifier("dataSourceReplica") DataSource replica) {
+        return new LazyConnectionDataSourceProxy(new DataSourceRoteador(primario, replica));
+    }
+
+    /**
+     * Escrita do replicador local: conexões próprias (fora do pool somente leitura) na réplica.
+     */
+    @Bean
+    public ReplicaReservas replicaReservas(JdbcTemplate jdbcTemplate) {
+        return new JdbcReplicaReservas(jdbcTemplate, new DriverManagerDataSource(url, usuario, senha));
+    }
+}
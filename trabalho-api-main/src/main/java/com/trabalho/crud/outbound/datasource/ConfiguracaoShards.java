@@ -0,0 +1,101 @@
+package com.trabalho.crud.outbound.datasource;
+
+import com.trabalho.crud.core.repository.AlteracaoReservaRepository;
+import com.trabalho.crud.core.repository.DiretorioHospedes;
+import com.trabalho.crud.core.repository.ShardsReservas;
+import com.trabalho.crud.core.shard.RoteadorShards;
+import com.trabalho.crud.outbound.repository.AlteracaoReservaShards;
+import com.trabalho.crud.outbound.repository.JdbcAlteracaoReservaRepository;
+import com.trabalho.crud.outbound.repository.JdbcDiretorioHospedes;
+import com.trabalho.crud.outbound.repository.JdbcShardsReservas;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datasources do modo particionado (reservas.shards.habilitado=true): o shard 0 é o banco
+ * configurado em spring.datasource.* (e continua guardando o cadastro de hóspedes e a sequência
+ * de alterações); os shards seguintes são os de reservas.shards.urls. Na frente de todos fica o
+ * datasource de roteamento usado por JPA e JDBC.
+ * * Não pode ser combinado com a réplica de leitura, que também substitui o datasource.
+ */
+@Configuration
+@ConditionalOnProperty(name = "reservas.shards.habilitado", havingValue = "true")
+public class ConfiguracaoShards {
+
+    @Value("${reservas.shards.urls:}")
+    private String[] urls;
+
+    @Value("${reservas.shards.tamanho-pool:10}")
+    private int tamanhoPool;
+
+    public ConfiguracaoShards(@Value("${reservas.replica.habilitada:false}") boolean replicaHabilitada) {
+        if (replicaHabilitada) {
+            throw new IllegalStateException(
+                "reservas.shards.habilitado e reservas.replica.habilitada não podem ser ligados ao mesmo tempo.");
+        }
+    }
+
+    @Bean(destroyMethod = "close")
+    public DataSourceRoteadorShards dataSourceShards(DataSourceProperties propriedades) {
+        List<HikariDataSource> shards = new ArrayList<>();
+        HikariDataSource principal = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        principal.setPoolName("shard-0");
+        principal.setMaximumPoolSize(tamanhoPool);
+        shards.add(principal);
+        for (String url : urls) {
+            HikariDataSource shard = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url.strip()).username(propriedades.determineUsername())
+                .password(propriedades.determinePassword()).build();
+            shard.setPoolName("shard-" + shards.size());
+            shard.setMaximumPoolSize(tamanhoPool);
+            shards.add(shard);
+        }
+        return new DataSourceRoteadorShards(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceRoteadorShards shards) {
+        return new LazyConnectionDataSourceProxy(shards);
+    }
+
+    @Bean
+    public ShardsReservas shardsReservas(DataSourceRoteadorShards shards,
+                                         @Value("${reservas.ids.tamanho-alocacao:50}") int tamanhoAlocacao) {
+        return new JdbcShardsReservas(shards.shards(), tamanhoAlocacao);
+    }
+
+    /**
+     * Sequência de alterações global, com as consultas distribuídas entre os shards.
+     */
+    @Bean
+    @Primary
+    public AlteracaoReservaRepository alteracaoReservaShards(JdbcAlteracaoReservaRepository porShard,
+                                                             DataSourceRoteadorShards shards,
+                                                             RoteadorShards roteadorShards) {
+        JdbcAlteracaoReservaRepository catalogo = new JdbcAlteracaoReservaRepository(new JdbcTemplate(shards.shards().get(0)));
+        return new AlteracaoReservaShards(porShard, catalogo, roteadorShards);
+    }
+
+    /**
+     * O cadastro de hóspedes fica só no shard 0; as validações que o consultam podem estar numa
+     * transação de outro shard.
+     */
+    @Bean
+    @Primary
+    public DiretorioHospedes diretorioHospedesCatalogo(DataSourceRoteadorShards shards) {
+        return new JdbcDiretorioHospedes(new JdbcTemplate(shards.shards().get(0)));
+    }
+}
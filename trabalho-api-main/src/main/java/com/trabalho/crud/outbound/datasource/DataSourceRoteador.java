@@ -0,0 +1,33 @@
+package com.trabalho.crud.outbound.datasource;
+
+import com.trabalho.crud.core.replicacao.RoteamentoLeitura;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Datasource que entrega conexões do pool da réplica para as transações somente leitura
+ * marcadas pelo {@link RoteamentoLeitura}, e do pool principal para todo o resto.
+ * * Precisa ficar atrás de um LazyConnectionDataSourceProxy: o gerenciador de transações pede
+ * a conexão antes de registrar a transação como somente leitura, e o proxy adia a escolha do
+ * pool até o primeiro comando SQL.
+ */
+public class DataSourceRoteador extends AbstractRoutingDataSource {
+
+    static final String PRIMARIO = "primario";
+    static final String REPLICA = "replica";
+
+    public DataSourceRoteador(DataSource primario, DataSource replica) {
+        setTargetDataSources(Map.of(PRIMARIO, primario, REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return RoteamentoLeitura.replicaSelecionada() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            ? REPLICA : PRIMARIO;
+    }
+}
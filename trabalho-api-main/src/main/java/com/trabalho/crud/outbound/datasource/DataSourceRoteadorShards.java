@@ -0,0 +1,51 @@
+package com.trabalho.crud.outbound.datasource;
+
+import com.trabalho.crud.core.shard.ShardAtual;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Datasource que entrega a conexão do pool do shard marcado na thread pelo
+ * {@link com.trabalho.crud.core.shard.RoteadorShards}, ou do shard 0 fora de uma operação roteada.
+ * * Fica atrás de um LazyConnectionDataSourceProxy, como o de réplica: a conexão física só é
+ * escolhida no primeiro comando SQL da transação.
+ */
+public class DataSourceRoteadorShards extends AbstractRoutingDataSource implements Closeable {
+
+    private final List<HikariDataSource> shards;
+
+    public DataSourceRoteadorShards(List<HikariDataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> alvos = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            alvos.put(i, shards.get(i));
+        }
+        setTargetDataSources(alvos);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    /**
+     * @return O pool de cada shard, na ordem dos shards (acesso direto, fora do roteamento).
+     */
+    public List<DataSource> shards() {
+        return List.copyOf(shards);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardAtual.obter();
+        return shard == null ? 0 : shard;
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
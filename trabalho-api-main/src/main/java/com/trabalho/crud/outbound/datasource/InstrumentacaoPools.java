@@ -0,0 +1,176 @@
+package com.trabalho.crud.outbound.datasource;
+
+import com.trabalho.crud.core.conexoes.MonitorConexoes;
+import com.trabalho.crud.core.conexoes.OcupacaoPool;
+import com.trabalho.crud.core.repository.PoolsConexao;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Liga ao {@link MonitorConexoes} todos os pools Hikari da aplicação, em qualquer modo: o
+ * datasource do Spring Boot, o principal e o da réplica, ou os pools de cada shard (que não são
+ * beans e são encontrados dentro do {@link DataSourceRoteadorShards}).
+ * * Cada pool recebe, antes de abrir a primeira conexão, um rastreador de métricas do próprio
+ * Hikari, chamado na thread que pega e na que devolve a conexão. Pools que já têm um
+ * rastreador ou registro de métricas configurado são mantidos como estão.
+ * * Como o pool aceita um único rastreador, o do Micrometer (métricas hikaricp.*, que o Spring
+ * Boot instalaria) é chamado pelo nosso quando há um MeterRegistry no contexto.
+ */
+@Component
+public class InstrumentacaoPools implements BeanPostProcessor, PoolsConexao {
+
+    private final ObjectProvider<MonitorConexoes> monitor;
+    private final ObjectProvider<MeterRegistry> registro;
+    private final Map<String, HikariDataSource> pools = new ConcurrentHashMap<>();
+    private final List<String> nomes = new ArrayList<>();
+
+    // O monitor e o registro são obtidos só quando o primeiro pool abre, depois dos BeanPostProcessors
+    public InstrumentacaoPools(ObjectProvider<MonitorConexoes> monitor, ObjectProvider<MeterRegistry> registro) {
+        this.monitor = monitor;
+        this.registro = registro;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String nomeBean) {
+        if (bean instanceof HikariDataSource pool) {
+            instrumentar(pool, nomeBean);
+        } else if (bean instanceof DataSourceRoteadorShards roteador) {
+            for (DataSource shard : roteador.shards()) {
+                if (shard instanceof HikariDataSource pool) {
+                    instrumentar(pool, pool.getPoolName());
+                }
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public List<String> nomes() {
+        synchronized (nomes) {
+            return List.copyOf(nomes);
+        }
+    }
+
+    @Override
+    public OcupacaoPool ocupacao(String nome) {
+        HikariDataSource pool = pool(nome);
+        HikariPoolMXBean estado = pool.getHikariPoolMXBean();
+        if (estado == null) {
+            // Ainda não abriu nenhuma conexão
+            return new OcupacaoPool(0, 0, 0, pool.getMaximumPoolSize());
+        }
+        return new OcupacaoPool(estado.getActiveConnections(), estado.getIdleConnections(),
+            estado.getThreadsAwaitingConnection(), pool.getHikariConfigMXBean().getMaximumPoolSize());
+    }
+
+    @Override
+    public void definirMinimo(String nome, int minimo) {
+        HikariConfigMXBean configuracao = pool(nome).getHikariConfigMXBean();
+        configuracao.setMinimumIdle(Math.min(minimo, configuracao.getMaximumPoolSize()));
+    }
+
+    @Override
+    public void redimensionar(String nome, int tamanhoMaximo) {
+        HikariConfigMXBean configuracao = pool(nome).getHikariConfigMXBean();
+        if (configuracao.getMinimumIdle() > tamanhoMaximo) {
+            configuracao.setMinimumIdle(tamanhoMaximo);
+        }
+        configuracao.setMaximumPoolSize(tamanhoMaximo);
+    }
+
+    private void instrumentar(HikariDataSource pool, String nomePadrao) {
+        if (pool.getMetricsTrackerFactory() != null || pool.getMetricRegistry() != null) {
+            return;
+        }
+        if (pool.getPoolName() == null) {
+            pool.setPoolName(nomePadrao);
+        }
+        String nome = pool.getPoolName();
+        if (pools.putIfAbsent(nome, pool) != null) {
+            throw new IllegalStateException("Dois pools de conexões com o nome " + nome + ".");
+        }
+        synchronized (nomes) {
+            nomes.add(nome);
+        }
+        pool.setMetricsTrackerFactory((nomePool, estatisticas) -> {
+            MeterRegistry registroDisponivel = registro.getIfAvailable();
+            IMetricsTracker micrometer = registroDisponivel == null ? null
+                : new MicrometerMetricsTrackerFactory(registroDisponivel).create(nomePool, estatisticas);
+            return new Rastreador(nome, monitor.getObject(), micrometer);
+        });
+    }
+
+    private HikariDataSource pool(String nome) {
+        HikariDataSource pool = pools.get(nome);
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool de conexões desconhecido: " + nome);
+        }
+        return pool;
+    }
+
+    private static final class Rastreador implements IMetricsTracker {
+
+        private final String pool;
+        private final MonitorConexoes monitor;
+        private final IMetricsTracker micrometer;
+
+        private Rastreador(String pool, MonitorConexoes monitor, IMetricsTracker micrometer) {
+            this.pool = pool;
+            this.monitor = monitor;
+            this.micrometer = micrometer;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long esperaNanos) {
+            monitor.conexaoAdquirida(pool, esperaNanos);
+            if (micrometer != null) {
+                micrometer.recordConnectionAcquiredNanos(esperaNanos);
+            }
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long usoMs) {
+            // O monitor mede o uso em nanossegundos a partir da aquisição
+            monitor.conexaoDevolvida(pool);
+            if (micrometer != null) {
+                micrometer.recordConnectionUsageMillis(usoMs);
+            }
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            monitor.tempoEsgotado(pool);
+            if (micrometer != null) {
+                micrometer.recordConnectionTimeout();
+            }
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long criacaoMs) {
+            monitor.conexaoCriada(pool, criacaoMs);
+            if (micrometer != null) {
+                micrometer.recordConnectionCreatedMillis(criacaoMs);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (micrometer != null) {
+                micrometer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.trabalho.crud.outbound.metricas;
+
+import com.trabalho.crud.core.conexoes.MonitorConexoes;
+import com.trabalho.crud.core.repository.ReservaRepository;
+import com.trabalho.crud.core.service.ReservaService;
+import com.trabalho.crud.inbound.controller.ReservaController;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Métricas da aplicação no Micrometer (expostas em /actuator/prometheus):
+ * - o timer reservas.chamadas em cada endpoint do ReservaController, método público do
+ *   ReservaService e consulta do ReservaRepository (reservas.metricas.camadas.habilitado);
+ * - as retenções de conexão do {@link MonitorConexoes}.
+ * * Os pools de conexões publicam as métricas hikaricp.* pelo rastreador instalado em
+ * com.trabalho.crud.outbound.datasource.InstrumentacaoPools.
+ */
+@Configuration
+public class ConfiguracaoMetricas {
+
+    @Bean
+    @ConditionalOnProperty(name = "reservas.metricas.camadas.habilitado", havingValue = "true", matchIfMissing = true)
+    static MedicaoCamadas medicaoCamadas(ObjectProvider<MeterRegistry> registro) {
+        Map<Class<?>, String> camadas = new LinkedHashMap<>();
+        camadas.put(ReservaController.class, "controller");
+        camadas.put(ReservaService.class, "servico");
+        camadas.put(ReservaRepository.class, "repositorio");
+        return new MedicaoCamadas(registro, camadas);
+    }
+
+    @Bean
+    MeterBinder metricasRetencaoConexoes(MonitorConexoes monitor) {
+        return registro -> FunctionCounter.builder("reservas.pool.retencoes", monitor,
+                m -> m.retencoes().getTotal())
+            .description("Conexões emprestadas além de reservas.pool.retencao.limite-ms")
+            .register(registro);
+    }
+}
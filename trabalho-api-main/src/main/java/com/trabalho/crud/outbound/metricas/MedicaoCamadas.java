@@ -0,0 +1,43 @@
+package com.trabalho.crud.outbound.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+/**
+ * Acrescenta o {@link MedidorChamadas} aos métodos públicos dos beans dos tipos configurados.
+ * Beans que já são proxies (como os repositórios do Spring Data) recebem a medição antes dos
+ * demais interceptadores, para que ela inclua transação e tradução de exceções; os outros
+ * passam a ser servidos por um proxy de classe.
+ */
+public class MedicaoCamadas extends AbstractAdvisingBeanPostProcessor {
+
+    private final Map<Class<?>, String> camadas;
+
+    /**
+     * @param registro Obtido só na primeira chamada medida: criar o registro aqui, entre os
+     *                 BeanPostProcessors, o deixaria sem as configurações do Spring Boot.
+     * @param camadas Tipo de bean medido e o valor da tag camada das suas chamadas.
+     */
+    public MedicaoCamadas(ObjectProvider<MeterRegistry> registro, Map<Class<?>, String> camadas) {
+        this.camadas = Map.copyOf(camadas);
+        this.advisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method metodo, Class<?> classe) {
+                return Modifier.isPublic(metodo.getModifiers()) && metodo.getDeclaringClass() != Object.class;
+            }
+        }, new MedidorChamadas(registro, camadas));
+        setBeforeExistingAdvisors(true);
+    }
+
+    @Override
+    protected boolean isEligible(Object bean, String nomeBean) {
+        return camadas.keySet().stream().anyMatch(tipo -> tipo.isInstance(bean));
+    }
+}
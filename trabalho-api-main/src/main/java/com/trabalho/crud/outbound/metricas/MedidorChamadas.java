@@ -0,0 +1,139 @@
+package com.trabalho.crud.outbound.metricas;
+
+import com.trabalho.crud.core.service.ConflitoConcorrenciaException;
+import com.trabalho.crud.core.service.ResourceNotFoundException;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import com.trabalho.crud.core.service.VersaoDesatualizadaException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede cada chamada interceptada no timer {@link #TIMER}, com as tags camada, metodo, resultado
+ * ("sucesso", a exceção de negócio, ou "erro") e excecao (a classe lançada, ou "nenhuma").
+ * * Os timers são criados na primeira chamada de cada método e resultado e guardados; a partir
+ * daí uma chamada custa duas leituras do relógio, uma consulta a um mapa e o registro no
+ * histograma (ver MedicaoChamadasBenchmark). Sem um MeterRegistry no contexto as chamadas
+ * passam direto.
+ * * Métodos que devolvem um Stream medem só a abertura do Stream, não a leitura.
+ */
+class MedidorChamadas implements MethodInterceptor {
+
+    static final String TIMER = "reservas.chamadas";
+
+    static final String SUCESSO = "sucesso";
+    static final String ERRO = "erro";
+
+    // Resultados com nome próprio; a primeira classe que a exceção estende vira a tag resultado
+    private static final List<Class<? extends Throwable>> RESULTADOS = List.of(
+        ValidacaoReservaException.class,
+        ResourceNotFoundException.class,
+        ConflitoConcorrenciaException.class,
+        VersaoDesatualizadaException.class);
+
+    private static final Medidores SEM_REGISTRO = new Medidores(null, null, null, null);
+
+    private final ObjectProvider<MeterRegistry> registro;
+    private final Map<Class<?>, String> camadas;
+    private final Map<Method, Medidores> medidores = new ConcurrentHashMap<>();
+
+    /**
+     * @param camadas Tipo de bean medido e o valor da tag camada das suas chamadas.
+     */
+    MedidorChamadas(ObjectProvider<MeterRegistry> registro, Map<Class<?>, String> camadas) {
+        this.registro = registro;
+        this.camadas = camadas;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation chamada) throws Throwable {
+        Medidores medidor = medidores.get(chamada.getMethod());
+        if (medidor == null) {
+            // O alvo de um repositório é o SimpleJpaRepository: o tipo da camada está no proxy
+            Object bean = chamada instanceof ProxyMethodInvocation doProxy ? doProxy.getProxy() : chamada.getThis();
+            medidor = medidores.computeIfAbsent(chamada.getMethod(), metodo -> criar(metodo, bean));
+        }
+        if (medidor == SEM_REGISTRO) {
+            return chamada.proceed();
+        }
+        long inicio = System.nanoTime();
+        try {
+            Object resultado = chamada.proceed();
+            medidor.sucesso.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return resultado;
+        } catch (Throwable e) {
+            medidor.falha(e.getClass()).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Medidores criar(Method metodo, Object bean) {
+        MeterRegistry registroDisponivel = registro.getIfAvailable();
+        if (registroDisponivel == null) {
+            return SEM_REGISTRO;
+        }
+        String camada = camadas.entrySet().stream()
+            .filter(tipo -> tipo.getKey().isInstance(bean))
+            .map(Map.Entry::getValue)
+            .findFirst()
+            .orElse("outra");
+        return new Medidores(registroDisponivel, camada, metodo.getName(),
+            timer(registroDisponivel, camada, metodo.getName(), SUCESSO, "nenhuma"));
+    }
+
+    static String resultado(Class<?> excecao) {
+        for (Class<? extends Throwable> conhecida : RESULTADOS) {
+            if (conhecida.isAssignableFrom(excecao)) {
+                return conhecida.getSimpleName();
+            }
+        }
+        return ERRO;
+    }
+
+    static Timer timer(MeterRegistry registro, String camada, String metodo, String resultado, String excecao) {
+        return Timer.builder(TIMER)
+            .description("Chamadas dos controllers, serviços e repositórios de reservas")
+            .tag("camada", camada)
+            .tag("metodo", metodo)
+            .tag("resultado", resultado)
+            .tag("excecao", excecao)
+            // Percentis calculados no Prometheus a partir dos baldes (histogram_quantile), somáveis
+            // entre instâncias; calculá-los também aqui quase dobraria o custo de cada registro
+            .publishPercentileHistogram()
+            // Consultas ao H2 levam dezenas de µs: o padrão de 1 ms juntaria todas no primeiro balde
+            .minimumExpectedValue(Duration.ofNanos(10_000))
+            .maximumExpectedValue(Duration.ofSeconds(10))
+            .register(registro);
+    }
+
+    private static final class Medidores {
+
+        private final MeterRegistry registro;
+        private final String camada;
+        private final String metodo;
+        private final Timer sucesso;
+        private final Map<Class<?>, Timer> falhas = new ConcurrentHashMap<>();
+
+        private Medidores(MeterRegistry registro, String camada, String metodo, Timer sucesso) {
+            this.registro = registro;
+            this.camada = camada;
+            this.metodo = metodo;
+            this.sucesso = sucesso;
+        }
+
+        private Timer falha(Class<?> excecao) {
+            return falhas.computeIfAbsent(excecao,
+                classe -> timer(registro, camada, metodo, resultado(classe), classe.getSimpleName()));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.trabalho.crud.outbound.repository;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.AlteracaoReservaRepository;
+import com.trabalho.crud.core.service.AlteracaoReserva;
+import com.trabalho.crud.core.shard.RoteadorShards;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sequência de alterações com as reservas distribuídas em shards. A sequência continua única:
+ * os valores saem sempre do shard 0, por uma conexão própria (fora da transação da escrita,
+ * que pode estar em outro shard). As remoções são registradas no shard da reserva, e as
+ * consultas juntam as alterações de todos os shards em ordem de sequência.
+ */
+public class AlteracaoReservaShards implements AlteracaoReservaRepository {
+
+    private final AlteracaoReservaRepository porShard;
+    private final AlteracaoReservaRepository catalogo;
+    private final RoteadorShards roteadorShards;
+
+    /**
+     * @param porShard Repositório sobre o datasource roteado (o shard da thread atual).
+     * @param catalogo Repositório sobre o pool do shard 0, usado só para obter as sequências.
+     */
+    public AlteracaoReservaShards(AlteracaoReservaRepository porShard, AlteracaoReservaRepository catalogo,
+                                  RoteadorShards roteadorShards) {
+        this.porShard = porShard;
+        this.catalogo = catalogo;
+        this.roteadorShards = roteadorShards;
+    }
+
+    @Override
+    public long[] proximasSequencias(int quantidade) {
+        return catalogo.proximasSequencias(quantidade);
+    }
+
+    @Override
+    public void registrarRemocao(long sequencia, Reserva reserva) {
+        porShard.registrarRemocao(sequencia, reserva);
+    }
+
+    @Override
+    public List<AlteracaoReserva> buscarAlteracoes(long apos, long ate, int limite) {
+        return roteadorShards.reunir(() -> porShard.buscarAlteracoes(apos, ate, limite),
+            Comparator.comparingLong(AlteracaoReserva::getSequencia), limite);
+    }
+
+    @Override
+    public int preencherSequenciasAusentes() {
+        // Reservas sem sequência são anteriores à sincronização incremental e, portanto, ao
+        // particionamento: só existem no shard 0, e a movimentação entre shards só roda depois
+        return roteadorShards.noShard(0, porShard::preencherSequenciasAusentes);
+    }
+
+    @Override
+    public long maiorSequencia() {
+        return roteadorShards.emTodos(porShard::maiorSequencia).stream().mapToLong(Long::longValue).max().orElse(0L);
+    }
+}
@@ -0,0 +1,96 @@
+package com.trabalho.crud.outbound.repository;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.AlteracaoReservaRepository;
+import com.trabalho.crud.core.service.AlteracaoReserva;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Implementação JDBC da sequência de alterações sobre o H2. A sequência reserva_alteracao_seq
+ * e a tabela reserva_removida são criadas pelo ddl-auto a partir da entidade ReservaRemovida.
+ */
+@Repository
+public class JdbcAlteracaoReservaRepository implements AlteracaoReservaRepository {
+
+    private static final String SQL_PROXIMAS = "SELECT NEXT VALUE FOR reserva_alteracao_seq FROM SYSTEM_RANGE(1, ?)";
+
+    private static final String SQL_REMOCAO = "INSERT INTO reserva_removida "
+        + "(sequencia_alteracao, reserva_id, numero_do_quarto, removida_em) VALUES (?, ?, ?, ?)";
+
+    // Cada lado do UNION para no limite pelo próprio índice; só o resultado combinado é reordenado
+    private static final String SQL_ALTERACOES = "SELECT * FROM ("
+        + "(SELECT sequencia_alteracao, id, numero_do_quarto, data_inicio_reserva, data_final_reserva, "
+        + "hospede_id, versao, FALSE AS removida FROM \"reserva\" "
+        + "WHERE sequencia_alteracao > ? AND sequencia_alteracao <= ? ORDER BY sequencia_alteracao LIMIT ?) "
+        + "UNION ALL "
+        + "(SELECT sequencia_alteracao, reserva_id, numero_do_quarto, NULL, NULL, NULL, NULL, TRUE "
+        + "FROM reserva_removida "
+        + "WHERE sequencia_alteracao > ? AND sequencia_alteracao <= ? ORDER BY sequencia_alteracao LIMIT ?)"
+        + ") alteracoes ORDER BY sequencia_alteracao LIMIT ?";
+
+    private static final String SQL_PREENCHER = "UPDATE \"reserva\" "
+        + "SET sequencia_alteracao = NEXT VALUE FOR reserva_alteracao_seq WHERE sequencia_alteracao IS NULL";
+
+    private static final String SQL_MAIOR = "SELECT GREATEST("
+        + "(SELECT COALESCE(MAX(sequencia_alteracao), 0) FROM \"reserva\"), "
+        + "(SELECT COALESCE(MAX(sequencia_alteracao), 0) FROM reserva_removida))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JdbcAlteracaoReservaRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long[] proximasSequencias(int quantidade) {
+        return jdbcTemplate.queryForList(SQL_PROXIMAS, Long.class, quantidade).stream()
+            .mapToLong(Long::longValue)
+            .sorted()
+            .toArray();
+    }
+
+    @Override
+    public void registrarRemocao(long sequencia, Reserva reserva) {
+        jdbcTemplate.update(SQL_REMOCAO, sequencia, reserva.getId(), reserva.getNumeroDoQuarto(),
+            Timestamp.from(Instant.now()));
+    }
+
+    @Override
+    public List<AlteracaoReserva> buscarAlteracoes(long apos, long ate, int limite) {
+        return jdbcTemplate.query(SQL_ALTERACOES, (rs, i) -> mapear(rs),
+            apos, ate, limite, apos, ate, limite, limite);
+    }
+
+    @Override
+    public int preencherSequenciasAusentes() {
+        return jdbcTemplate.update(SQL_PREENCHER);
+    }
+
+    @Override
+    public long maiorSequencia() {
+        Long maior = jdbcTemplate.queryForObject(SQL_MAIOR, Long.class);
+        return maior == null ? 0L : maior;
+    }
+
+    private static AlteracaoReserva mapear(ResultSet rs) throws SQLException {
+        long sequencia = rs.getLong("sequencia_alteracao");
+        if (rs.getBoolean("removida")) {
+            return AlteracaoReserva.removida(sequencia, rs.getLong("id"), rs.getString("numero_do_quarto"));
+        }
+        Reserva reserva = new Reserva(rs.getLong("id"), rs.getString("numero_do_quarto"),
+            rs.getDate("data_inicio_reserva").toLocalDate(), rs.getDate("data_final_reserva").toLocalDate(),
+            rs.getLong("hospede_id"));
+        reserva.setVersao(rs.getLong("versao"));
+        reserva.setSequenciaAlteracao(sequencia);
+        return AlteracaoReserva.alterada(reserva);
+    }
+}
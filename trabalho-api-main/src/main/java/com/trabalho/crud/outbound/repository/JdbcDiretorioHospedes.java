@@ -0,0 +1,39 @@
+package com.trabalho.crud.outbound.repository;
+
+import com.trabalho.crud.core.repository.DiretorioHospedes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Cadastro de hóspedes local, na tabela hospede do próprio H2.
+ */
+@Repository
+public class JdbcDiretorioHospedes implements DiretorioHospedes {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JdbcDiretorioHospedes(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean existe(long hospedeId) {
+        return !jdbcTemplate.queryForList("SELECT 1 FROM hospede WHERE id = ?", Integer.class, hospedeId).isEmpty();
+    }
+
+    @Override
+    public int paraCadaId(long aposId, int limite, LongConsumer consumidor) {
+        int[] lidos = {0};
+        // Paginação por chave: cada bloco é uma busca pelo índice da chave primária
+        jdbcTemplate.query("SELECT id FROM hospede WHERE id > ? ORDER BY id LIMIT ?", (RowCallbackHandler) rs -> {
+            consumidor.accept(rs.getLong(1));
+            lidos[0]++;
+        }, aposId, limite);
+        return lidos[0];
+    }
+}
@@ -0,0 +1,64 @@
+package com.trabalho.crud.outbound.repository;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.NoiteQuartoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementação JDBC da tabela de noites. Todas as noites de um conjunto de reservas
+ * vão ao banco num único batch; a chave primária (numero_do_quarto, noite) garante a exclusão.
+ */
+@Repository
+public class JdbcNoiteQuartoRepository implements NoiteQuartoRepository {
+
+    private static final String SQL_INSERT =
+        "INSERT INTO noite_quarto (numero_do_quarto, noite, reserva_id) VALUES (?, ?, ?)";
+    // MERGE ... KEY é específico do H2: substitui a linha em vez de violar a chave
+    private static final String SQL_MERGE =
+        "MERGE INTO noite_quarto (numero_do_quarto, noite, reserva_id) KEY (numero_do_quarto, noite) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JdbcNoiteQuartoRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void ocupar(List<Reserva> reservas) {
+        jdbcTemplate.batchUpdate(SQL_INSERT, noites(reservas));
+    }
+
+    @Override
+    public void liberar(Long reservaId) {
+        jdbcTemplate.update("DELETE FROM noite_quarto WHERE reserva_id = ?", reservaId);
+    }
+
+    @Override
+    public void limpar() {
+        jdbcTemplate.update("DELETE FROM noite_quarto");
+    }
+
+    @Override
+    public void sobrescrever(List<Reserva> reservas) {
+        jdbcTemplate.batchUpdate(SQL_MERGE, noites(reservas));
+    }
+
+    private static List<Object[]> noites(List<Reserva> reservas) {
+        List<Object[]> linhas = new ArrayList<>();
+        for (Reserva reserva : reservas) {
+            for (LocalDate noite = reserva.getDataInicioReserva(); noite.isBefore(reserva.getDataFinalReserva());
+                    noite = noite.plusDays(1)) {
+                linhas.add(new Object[] {reserva.getNumeroDoQuarto(), Date.valueOf(noite), reserva.getId()});
+            }
+        }
+        return linhas;
+    }
+}
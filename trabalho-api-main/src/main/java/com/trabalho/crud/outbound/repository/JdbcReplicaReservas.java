@@ -0,0 +1,75 @@
+package com.trabalho.crud.outbound.repository;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.ReplicaReservas;
+import com.trabalho.crud.core.service.AlteracaoReserva;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escrita na réplica H2 usada pelo replicador local. A estrutura da tabela é copiada do
+ * principal com o comando SCRIPT do H2, então colunas e índices novos chegam à réplica sem
+ * DDL duplicado aqui.
+ */
+public class JdbcReplicaReservas implements ReplicaReservas {
+
+    private static final String SQL_GRAVAR = "MERGE INTO \"reserva\" (id, numero_do_quarto, data_inicio_reserva, "
+        + "data_final_reserva, hospede_id, versao, sequencia_alteracao) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_REMOVER = "DELETE FROM \"reserva\" WHERE id = ?";
+
+    private final JdbcTemplate principal;
+    private final JdbcTemplate replica;
+    private final TransactionTemplate transacaoReplica;
+
+    public JdbcReplicaReservas(JdbcTemplate principal, DataSource replica) {
+        this.principal = principal;
+        this.replica = new JdbcTemplate(replica);
+        this.transacaoReplica = new TransactionTemplate(new DataSourceTransactionManager(replica));
+    }
+
+    @Override
+    public void prepararEsquema() {
+        List<String> ddl = principal.query("SCRIPT NODATA NOPASSWORDS NOSETTINGS TABLE \"reserva\"",
+            (rs, i) -> rs.getString(1));
+        replica.execute("DROP TABLE IF EXISTS \"reserva\"");
+        for (String comando : ddl) {
+            // Só a tabela, a chave e os índices; usuários e sequências ficam no principal
+            if (comando.startsWith("CREATE MEMORY TABLE") || comando.startsWith("CREATE CACHED TABLE")
+                    || comando.startsWith("ALTER TABLE") || comando.startsWith("CREATE INDEX")) {
+                replica.execute(comando);
+            }
+        }
+    }
+
+    @Override
+    public void aplicar(List<AlteracaoReserva> alteracoes) {
+        List<Object[]> gravadas = new ArrayList<>();
+        List<Object[]> removidas = new ArrayList<>();
+        for (AlteracaoReserva alteracao : alteracoes) {
+            if (alteracao.getTipo() == AlteracaoReserva.Tipo.REMOVIDA) {
+                removidas.add(new Object[] {alteracao.getReservaId()});
+            } else {
+                Reserva reserva = alteracao.getReserva();
+                gravadas.add(new Object[] {reserva.getId(), reserva.getNumeroDoQuarto(),
+                    Date.valueOf(reserva.getDataInicioReserva()), Date.valueOf(reserva.getDataFinalReserva()),
+                    reserva.getHospedeId(), reserva.getVersao(), reserva.getSequenciaAlteracao()});
+            }
+        }
+        // Quem lê a réplica vê o bloco inteiro ou nada dele
+        transacaoReplica.executeWithoutResult(status -> {
+            if (!gravadas.isEmpty()) {
+                replica.batchUpdate(SQL_GRAVAR, gravadas);
+            }
+            if (!removidas.isEmpty()) {
+                replica.batchUpdate(SQL_REMOVER, removidas);
+            }
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package com.trabalho.crud.outbound.repository;
+
+import com.trabalho.crud.core.entity.GeradorIdReserva;
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.ReservaLoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementação JDBC da inserção em lote. As linhas vão em blocos de {@link #TAMANHO_BLOCO}
+ * numa única ida ao banco, sem passar pelo contexto de persistência do JPA.
+ * * Os IDs saem da mesma sequência do {@link GeradorIdReserva}, com o mesmo tamanho de bloco:
+ * cada valor lido é o primeiro de um bloco de IDs, e todos os valores de um bloco de inserção
+ * vêm numa única consulta antes do batch.
+ */
+@Repository
+public class JdbcReservaLoteRepository implements ReservaLoteRepository {
+
+    static final int TAMANHO_BLOCO = 500;
+
+    private static final String SQL_PROXIMOS_IDS =
+        "SELECT NEXT VALUE FOR " + GeradorIdReserva.SEQUENCIA + " FROM SYSTEM_RANGE(1, ?)";
+
+    private static final String SQL_INSERT_COM_ID = "INSERT INTO \"reserva\" "
+        + "(id, numero_do_quarto, data_inicio_reserva, data_final_reserva, hospede_id, versao, sequencia_alteracao) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanhoAlocacao;
+
+    @Autowired
+    public JdbcReservaLoteRepository(JdbcTemplate jdbcTemplate,
+                                     @Value("${reservas.ids.tamanho-alocacao:50}") int tamanhoAlocacao) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanhoAlocacao = tamanhoAlocacao;
+    }
+
+    @Override
+    public void inserirEmLote(List<Reserva> reservas) {
+        for (int inicio = 0; inicio < reservas.size(); inicio += TAMANHO_BLOCO) {
+            inserirBloco(reservas.subList(inicio, Math.min(inicio + TAMANHO_BLOCO, reservas.size())));
+        }
+    }
+
+    @Override
+    public void gravarComId(Reserva reserva) {
+        jdbcTemplate.update(SQL_INSERT_COM_ID, reserva.getId(), reserva.getNumeroDoQuarto(),
+            Date.valueOf(reserva.getDataInicioReserva()), Date.valueOf(reserva.getDataFinalReserva()),
+            reserva.getHospedeId(), reserva.getVersao(), reserva.getSequenciaAlteracao());
+    }
+
+    private void inserirBloco(List<Reserva> bloco) {
+        long[] ids = alocarIds(bloco.size());
+        List<Object[]> linhas = new ArrayList<>(bloco.size());
+        for (int i = 0; i < bloco.size(); i++) {
+            Reserva reserva = bloco.get(i);
+            reserva.setId(ids[i]);
+            reserva.setVersao(0L);
+            linhas.add(new Object[] {reserva.getId(), reserva.getNumeroDoQuarto(),
+                Date.valueOf(reserva.getDataInicioReserva()), Date.valueOf(reserva.getDataFinalReserva()),
+                reserva.getHospedeId(), reserva.getVersao(), reserva.getSequenciaAlteracao()});
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERT_COM_ID, linhas);
+    }
+
+    // Cada valor da sequência vale um bloco inteiro de IDs (v, v + 1, ..., v + tamanhoAlocacao - 1)
+    private long[] alocarIds(int quantidade) {
+        int blocos = (quantidade + tamanhoAlocacao - 1) / tamanhoAlocacao;
+        List<Long> inicios = jdbcTemplate.queryForList(SQL_PROXIMOS_IDS, Long.class, blocos);
+        long[] ids = new long[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            ids[i] = inicios.get(i / tamanhoAlocacao) + i % tamanhoAlocacao;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,140 @@
+package com.trabalho.crud.outbound.repository;
+
+import com.trabalho.crud.core.repository.ShardsReservas;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Estrutura e movimentação entre shards H2. As tabelas dos shards novos são copiadas do shard 0
+ * (onde o ddl-auto as mantém) com o comando SCRIPT do H2, de forma idempotente: tabelas, colunas,
+ * chaves e índices só são criados se ainda não existirem.
+ */
+public class JdbcShardsReservas implements ShardsReservas {
+
+    // reserva_removida e noite_quarto são criadas sem aspas pelo Hibernate, em maiúsculas no H2
+    private static final String SQL_ESTRUTURA =
+        "SCRIPT NODATA NOPASSWORDS NOSETTINGS TABLE \"reserva\", RESERVA_REMOVIDA, NOITE_QUARTO";
+
+    private static final String SQL_RESERVAS_DO_QUARTO = "SELECT id, numero_do_quarto, data_inicio_reserva, "
+        + "data_final_reserva, hospede_id, versao, sequencia_alteracao FROM \"reserva\" WHERE numero_do_quarto = ?";
+
+    private static final String SQL_GRAVAR = "MERGE INTO \"reserva\" (id, numero_do_quarto, data_inicio_reserva, "
+        + "data_final_reserva, hospede_id, versao, sequencia_alteracao) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_NOITES_DO_QUARTO =
+        "SELECT numero_do_quarto, noite, reserva_id FROM noite_quarto WHERE numero_do_quarto = ?";
+
+    private static final String SQL_GRAVAR_NOITE = "MERGE INTO noite_quarto (numero_do_quarto, noite, reserva_id) "
+        + "KEY (numero_do_quarto, noite) VALUES (?, ?, ?)";
+
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+    private final List<TransactionTemplate> transacoes = new ArrayList<>();
+    private final int tamanhoAlocacao;
+
+    public JdbcShardsReservas(List<? extends DataSource> fontes, int tamanhoAlocacao) {
+        this.tamanhoAlocacao = tamanhoAlocacao;
+        for (DataSource fonte : fontes) {
+            shards.add(new JdbcTemplate(fonte));
+            transacoes.add(new TransactionTemplate(new DataSourceTransactionManager(fonte)));
+        }
+    }
+
+    @Override
+    public void prepararEsquema() {
+        List<String> ddl = shards.get(0).query(SQL_ESTRUTURA, (rs, i) -> rs.getString(1));
+        for (int shard = 1; shard < shards.size(); shard++) {
+            JdbcTemplate destino = shards.get(shard);
+            for (String comando : ddl) {
+                for (String idempotente : comandosIdempotentes(comando)) {
+                    destino.execute(idempotente);
+                }
+            }
+        }
+
+        // Os IDs novos começam acima do maior já usado ou entregue em qualquer shard. Cada valor
+        // da sequência é o início de um bloco de tamanhoAlocacao IDs (GeradorIdReserva); o shard s
+        // entrega os blocos s, s + N, s + 2N... a partir daí e nunca repete um ID de outro shard
+        long proximo = 1;
+        for (JdbcTemplate shard : shards) {
+            proximo = Math.max(proximo, MigracaoIdsReserva.proximoIdLivre(shard));
+        }
+        int quantidade = shards.size();
+        for (int shard = 0; shard < quantidade; shard++) {
+            MigracaoIdsReserva.posicionar(shards.get(shard), proximo + (long) shard * tamanhoAlocacao,
+                (long) quantidade * tamanhoAlocacao);
+        }
+    }
+
+    // Transforma o DDL do SCRIPT em comandos que podem rodar de novo num shard que já tem a tabela
+    static List<String> comandosIdempotentes(String comando) {
+        List<String> comandos = new ArrayList<>();
+        if (comando.startsWith("CREATE MEMORY TABLE") || comando.startsWith("CREATE CACHED TABLE")) {
+            String tabela = comando.substring(comando.indexOf("TABLE ") + 6, comando.indexOf('('));
+            comandos.add(comando.replaceFirst(" TABLE ", " TABLE IF NOT EXISTS "));
+            // Uma coluna por linha; as que faltarem (acrescentadas ao shard 0 depois) são criadas
+            for (String linha : comando.split("\n")) {
+                String coluna = linha.strip();
+                if (coluna.startsWith("\"")) {
+                    if (coluna.endsWith(",")) {
+                        coluna = coluna.substring(0, coluna.length() - 1);
+                    }
+                    comandos.add("ALTER TABLE " + tabela + " ADD COLUMN IF NOT EXISTS " + coluna);
+                }
+            }
+        } else if (comando.startsWith("ALTER TABLE") && comando.contains(" ADD CONSTRAINT ")) {
+            comandos.add(comando.replaceFirst(" ADD CONSTRAINT ", " ADD CONSTRAINT IF NOT EXISTS "));
+        } else if (comando.startsWith("CREATE INDEX") || comando.startsWith("CREATE UNIQUE INDEX")) {
+            comandos.add(comando.replaceFirst(" INDEX ", " INDEX IF NOT EXISTS "));
+        }
+        // Usuários, sequências e comentários ficam só no shard 0
+        return comandos;
+    }
+
+    @Override
+    public Set<String> quartos(int shard) {
+        return new HashSet<>(shards.get(shard).queryForList(
+            "SELECT DISTINCT numero_do_quarto FROM \"reserva\" WHERE numero_do_quarto IS NOT NULL", String.class));
+    }
+
+    @Override
+    public int copiarQuarto(String numeroDoQuarto, int origem, int destino) {
+        List<Object[]> reservas = shards.get(origem).query(SQL_RESERVAS_DO_QUARTO, (rs, i) -> new Object[] {
+            rs.getLong(1), rs.getString(2), rs.getDate(3), rs.getDate(4), rs.getObject(5), rs.getLong(6), rs.getObject(7)
+        }, numeroDoQuarto);
+        List<Object[]> noites = shards.get(origem).query(SQL_NOITES_DO_QUARTO,
+            (rs, i) -> new Object[] {rs.getString(1), rs.getDate(2), rs.getLong(3)}, numeroDoQuarto);
+
+        JdbcTemplate alvo = shards.get(destino);
+        transacoes.get(destino).executeWithoutResult(status -> {
+            if (!reservas.isEmpty()) {
+                alvo.batchUpdate(SQL_GRAVAR, reservas);
+            }
+            if (!noites.isEmpty()) {
+                alvo.batchUpdate(SQL_GRAVAR_NOITE, noites);
+            }
+        });
+        return reservas.size();
+    }
+
+    @Override
+    public void removerQuarto(String numeroDoQuarto, int shard) {
+        JdbcTemplate alvo = shards.get(shard);
+        transacoes.get(shard).executeWithoutResult(status -> {
+            alvo.update("DELETE FROM noite_quarto WHERE numero_do_quarto = ?", numeroDoQuarto);
+            alvo.update("DELETE FROM \"reserva\" WHERE numero_do_quarto = ?", numeroDoQuarto);
+        });
+    }
+
+    @Override
+    public long contarReservas(int shard) {
+        Long total = shards.get(shard).queryForObject("SELECT COUNT(*) FROM \"reserva\"", Long.class);
+        return total == null ? 0L : total;
+    }
+}
@@ -0,0 +1,91 @@
+package com.trabalho.crud.outbound.repository;
+
+import com.trabalho.crud.core.entity.GeradorIdReserva;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Migração do ID das reservas de IDENTITY para a sequência de {@link GeradorIdReserva}. Roda na
+ * inicialização, antes de qualquer escrita:
+ * - bancos criados antes da troca (como data/demo.mv.db) têm a coluna id como IDENTITY, que o
+ *   ddl-auto não altera; o IDENTITY é retirado, para que um INSERT sem ID falhe em vez de gerar
+ *   um valor que a sequência também vai entregar;
+ * - a sequência é posicionada acima do maior ID já usado e com o incremento igual ao bloco
+ *   alocado, também quando reservas.ids.tamanho-alocacao muda entre uma execução e outra.
+ * * Com os shards ligados, quem faz isso em cada shard é o {@link JdbcShardsReservas}.
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.shards.habilitado", havingValue = "false", matchIfMissing = true)
+public class MigracaoIdsReserva implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracaoIdsReserva.class);
+
+    private static final String SQL_IDENTITY = "SELECT identity_base FROM information_schema.columns "
+        + "WHERE table_name = 'reserva' AND column_name = 'ID' AND is_identity = 'YES'";
+
+    // O Hibernate cria a sequência sem aspas, em maiúsculas no H2
+    private static final String SQL_SEQUENCIA = "SELECT base_value, increment FROM information_schema.sequences "
+        + "WHERE sequence_name = '" + GeradorIdReserva.SEQUENCIA.toUpperCase() + "'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanhoAlocacao;
+
+    @Autowired
+    public MigracaoIdsReserva(JdbcTemplate jdbcTemplate,
+                              @Value("${reservas.ids.tamanho-alocacao:50}") int tamanhoAlocacao) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanhoAlocacao = tamanhoAlocacao;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long[] sequencia = sequencia(jdbcTemplate);
+        long proximo = proximoIdLivre(jdbcTemplate);
+        if (sequencia == null || proximo != sequencia[0] || sequencia[1] != tamanhoAlocacao) {
+            posicionar(jdbcTemplate, proximo, tamanhoAlocacao);
+            log.info("Sequência de IDs das reservas posicionada em {}, em blocos de {}.", proximo, tamanhoAlocacao);
+        }
+    }
+
+    /**
+     * Retira o IDENTITY da coluna id, se ainda houver, e devolve o menor ID que nunca foi usado
+     * nem entregue pela sequência do banco.
+     */
+    static long proximoIdLivre(JdbcTemplate banco) {
+        long proximo = 1;
+        List<Long> identity = banco.queryForList(SQL_IDENTITY, Long.class);
+        if (!identity.isEmpty()) {
+            if (identity.get(0) != null) {
+                proximo = identity.get(0);
+            }
+            banco.execute("ALTER TABLE \"reserva\" ALTER COLUMN id DROP IDENTITY");
+        }
+        Long maior = banco.queryForObject("SELECT COALESCE(MAX(id), 0) FROM \"reserva\"", Long.class);
+        proximo = Math.max(proximo, maior == null ? 1 : maior + 1);
+        long[] sequencia = sequencia(banco);
+        return sequencia == null ? proximo : Math.max(proximo, sequencia[0]);
+    }
+
+    /**
+     * Faz a sequência entregar inicio, inicio + incremento, ... (criando-a se não existir).
+     */
+    static void posicionar(JdbcTemplate banco, long inicio, long incremento) {
+        banco.execute("CREATE SEQUENCE IF NOT EXISTS " + GeradorIdReserva.SEQUENCIA);
+        banco.execute("ALTER SEQUENCE " + GeradorIdReserva.SEQUENCIA + " RESTART WITH " + inicio
+            + " INCREMENT BY " + incremento);
+    }
+
+    // Próximo valor e incremento da sequência, ou null se ela ainda não existir
+    private static long[] sequencia(JdbcTemplate banco) {
+        List<long[]> encontrada = banco.query(SQL_SEQUENCIA, (rs, i) -> new long[] {rs.getLong(1), rs.getLong(2)});
+        return encontrada.isEmpty() ? null : encontrada.get(0);
+    }
+}
@@ -0,0 +1,129 @@
+package com.trabalho.crud.benchmark;
+
+import com.trabalho.crud.CrudApplication;
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.ReservaRepository;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark manual (não roda no "mvn test") das idas ao banco numa escrita em massa pelo JPA
+ * (saveAll de blocos de reservas, um commit por bloco):
+ * - sequência sem blocos e sem lote JDBC: uma consulta à sequência e um INSERT por reserva,
+ *   o mesmo custo por linha que o IDENTITY tinha (um INSERT executado na hora por reserva);
+ * - blocos de IDs e lote JDBC com a configuração do application.yaml.
+ * * As idas ao banco são as execuções JDBC (execute*, com cada executeBatch contando uma vez),
+ * contadas num proxy em volta do DataSource.
+ * * Uso: mvn test-compile exec:java -Dexec.mainClass=com.trabalho.crud.benchmark.GeracaoIdsBenchmark
+ *   -Dexec.classpathScope=test [-Dexec.args="reservas reservasPorTransacao"]
+ */
+public class GeracaoIdsBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int reservas = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int porTransacao = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        executar("sem blocos, sem lote", Map.of(
+            "reservas.ids.tamanho-alocacao", "1",
+            "spring.jpa.properties.hibernate.jdbc.batch_size", "1"), reservas, porTransacao);
+        executar("blocos e lote (padrão)", Map.of(), reservas, porTransacao);
+    }
+
+    private static void executar(String nome, Map<String, Object> propriedades, int reservas,
+                                 int porTransacao) {
+        SpringApplication aplicacao = new SpringApplication(CrudApplication.class);
+        aplicacao.setWebApplicationType(WebApplicationType.NONE);
+        aplicacao.setAdditionalProfiles("test");
+        Map<String, Object> config = new HashMap<>(propriedades);
+        config.put("spring.datasource.url", "jdbc:h2:mem:bench" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        config.put("logging.level.root", "WARN");
+        config.put("spring.main.banner-mode", "off");
+        String[] argumentos = config.entrySet().stream()
+            .map(e -> "--" + e.getKey() + "=" + e.getValue())
+            .toArray(String[]::new);
+
+        AtomicLong execucoes = new AtomicLong();
+        aplicacao.addInitializers(contexto -> contexto.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nomeBean) {
+                return bean instanceof DataSource fonte && "dataSource".equals(nomeBean)
+                    ? contando(fonte, execucoes) : bean;
+            }
+        }));
+
+        try (ConfigurableApplicationContext contexto = aplicacao.run(argumentos)) {
+            ReservaRepository repositorio = contexto.getBean(ReservaRepository.class);
+            TransactionTemplate transacao = contexto.getBean(TransactionTemplate.class);
+            LocalDate base = LocalDate.now().plusDays(1);
+
+            execucoes.set(0);
+            long inicio = System.nanoTime();
+            for (int feitas = 0; feitas < reservas; feitas += porTransacao) {
+                List<Reserva> bloco = new ArrayList<>(porTransacao);
+                for (int i = feitas; i < Math.min(feitas + porTransacao, reservas); i++) {
+                    LocalDate checkIn = base.plusDays((i / 500) * 3L);
+                    bloco.add(new Reserva(null, "Q" + (i % 500), checkIn, checkIn.plusDays(2), 1L + i % 1000));
+                }
+                transacao.executeWithoutResult(status -> repositorio.saveAll(bloco));
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+
+            Long gravadas = contexto.getBean(JdbcTemplate.class)
+                .queryForObject("SELECT COUNT(*) FROM \"reserva\"", Long.class);
+
+            System.out.printf("%-24s %8.0f reservas/s  gravadas=%d idas ao banco=%d (%.3f por reserva)%n",
+                nome, reservas / segundos, gravadas, execucoes.get(), (double) execucoes.get() / reservas);
+        }
+    }
+
+    // Conta as execuções de comandos feitas pelas conexões do DataSource
+    private static DataSource contando(DataSource fonte, AtomicLong execucoes) {
+        return new DelegatingDataSource(fonte) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection conexao = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(GeracaoIdsBenchmark.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, metodo, argumentos) -> {
+                        Object resultado = invocar(conexao, metodo, argumentos);
+                        if (resultado instanceof Statement comando) {
+                            return Proxy.newProxyInstance(GeracaoIdsBenchmark.class.getClassLoader(),
+                                new Class<?>[] {metodo.getReturnType()}, (p, m, a) -> {
+                                    if (m.getName().startsWith("execute")) {
+                                        execucoes.incrementAndGet();
+                                    }
+                                    return invocar(comando, m, a);
+                                });
+                        }
+                        return resultado;
+                    });
+            }
+        };
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(alvo, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
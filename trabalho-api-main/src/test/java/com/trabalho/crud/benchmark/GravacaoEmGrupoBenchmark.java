@@ -0,0 +1,93 @@
+package com.trabalho.crud.benchmark;
+
+import com.trabalho.crud.CrudApplication;
+import com.trabalho.crud.core.concorrencia.GravacaoEmGrupo;
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.service.ConflitoConcorrenciaException;
+import com.trabalho.crud.core.service.ReservaService;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark manual (não roda no "mvn test") que compara os modos de escrita "imediata" e
+ * "grupo" com o H2 em arquivo, onde o custo de cada commit aparece.
+ * * Uso: mvn test-compile exec:java -Dexec.mainClass=com.trabalho.crud.benchmark.GravacaoEmGrupoBenchmark
+ *   -Dexec.classpathScope=test [-Dexec.args="threads pedidos"]
+ */
+public class GravacaoEmGrupoBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int pedidos = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        executar("imediata", threads, pedidos);
+        executar("grupo", threads, pedidos);
+    }
+
+    private static void executar(String modo, int threads, int pedidos) throws Exception {
+        Path diretorio = Files.createTempDirectory("bench-gravacao");
+        SpringApplication aplicacao = new SpringApplication(CrudApplication.class);
+        aplicacao.setWebApplicationType(WebApplicationType.NONE);
+        aplicacao.setAdditionalProfiles("test");
+        Map<String, Object> config = new HashMap<>();
+        config.put("spring.datasource.url", "jdbc:h2:file:" + diretorio.resolve("bench").toAbsolutePath());
+        config.put("reservas.escrita.modo", modo);
+        config.put("logging.level.root", "WARN");
+        config.put("spring.main.banner-mode", "off");
+        // Argumentos de linha de comando têm precedência sobre o application.yaml (default properties não)
+        String[] argumentos = config.entrySet().stream()
+            .map(e -> "--" + e.getKey() + "=" + e.getValue())
+            .toArray(String[]::new);
+
+        try (ConfigurableApplicationContext contexto = aplicacao.run(argumentos)) {
+            ReservaService servico = contexto.getBean(ReservaService.class);
+            LocalDate base = LocalDate.now().plusDays(1);
+            AtomicLong criadas = new AtomicLong();
+            AtomicLong recusadas = new AtomicLong();
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> tarefas = new ArrayList<>();
+            long inicio = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                tarefas.add(executor.submit(() -> {
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    for (int i = 0; i < pedidos / threads; i++) {
+                        LocalDate checkIn = base.plusDays(aleatorio.nextInt(365));
+                        Reserva reserva = new Reserva(null, "Q" + aleatorio.nextInt(500), checkIn,
+                            checkIn.plusDays(1 + aleatorio.nextInt(4)), 1L + aleatorio.nextInt(1000));
+                        try {
+                            servico.criar(reserva);
+                            criadas.incrementAndGet();
+                        } catch (ValidacaoReservaException | ConflitoConcorrenciaException e) {
+                            recusadas.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            executor.shutdown();
+
+            System.out.printf("%-9s %8.0f criações/s  criadas=%d recusadas=%d reservas/commit=%.1f%n", modo,
+                (criadas.get() + recusadas.get()) / segundos, criadas.get(), recusadas.get(),
+                "grupo".equals(modo) ? contexto.getBean(GravacaoEmGrupo.class).mediaPorLote() : 1.0);
+        }
+    }
+}
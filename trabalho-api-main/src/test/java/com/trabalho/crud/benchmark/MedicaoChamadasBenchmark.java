@@ -0,0 +1,117 @@
+package com.trabalho.crud.benchmark;
+
+import com.trabalho.crud.core.service.ResourceNotFoundException;
+import com.trabalho.crud.outbound.metricas.MedicaoCamadas;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Benchmark manual (não roda no "mvn test") do custo da medição por camada (timer
+ * reservas.chamadas com o histograma da latência, num PrometheusMeterRegistry): compara o mesmo
+ * proxy de classe com e sem registro, para que só a medição fique na diferença, no caminho de
+ * sucesso e no de exceção. O custo do proxy em si aparece ao lado, contra a chamada direta.
+ * * Termina com código 1 se a medição passar de 1 µs por chamada em algum caminho.
+ * * Uso: mvn test-compile exec:java -Dexec.mainClass=com.trabalho.crud.benchmark.MedicaoChamadasBenchmark
+ *   -Dexec.classpathScope=test [-Dexec.args="chamadasPorRodada rodadas"]
+ */
+public class MedicaoChamadasBenchmark {
+
+    private static final double LIMITE_NS = 1_000;
+
+    // Evita que o JIT descarte as chamadas
+    private static volatile long sumidouro;
+
+    public static void main(String[] args) {
+        int chamadas = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int rodadas = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        Alvo direto = new Alvo();
+        Alvo semRegistro = proxy(null);
+        Alvo medido = proxy(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+
+        double sucessoDireto = medir(direto::somar, chamadas, rodadas);
+        double[] sucesso = comparar(semRegistro::somar, medido::somar, chamadas, rodadas);
+        // Lançar a exceção custa bem mais que a chamada: menos chamadas por rodada
+        double[] falha = comparar(falhando(semRegistro), falhando(medido), chamadas / 10, rodadas);
+        double sucessoSemRegistro = sucesso[0];
+        double sucessoMedido = sucesso[1];
+        double falhaSemRegistro = falha[0];
+        double falhaMedido = falha[1];
+
+        System.out.printf("%-10s %10s %12s %12s %12s%n", "caminho", "direto", "proxy", "medido", "medição");
+        System.out.printf("%-10s %8.1f ns %10.1f ns %10.1f ns %10.1f ns%n", "sucesso",
+            sucessoDireto, sucessoSemRegistro, sucessoMedido, sucessoMedido - sucessoSemRegistro);
+        System.out.printf("%-10s %10s %10.1f ns %10.1f ns %10.1f ns%n", "exceção", "-",
+            falhaSemRegistro, falhaMedido, falhaMedido - falhaSemRegistro);
+
+        double pior = Math.max(sucessoMedido - sucessoSemRegistro, falhaMedido - falhaSemRegistro);
+        if (pior >= LIMITE_NS) {
+            System.out.printf("Medição custa %.1f ns por chamada, acima do limite de %.0f ns.%n", pior, LIMITE_NS);
+            System.exit(1);
+        }
+    }
+
+    private static Alvo proxy(MeterRegistry registro) {
+        StaticListableBeanFactory beans = registro == null
+            ? new StaticListableBeanFactory()
+            : new StaticListableBeanFactory(Map.of("registro", registro));
+        MedicaoCamadas medicao = new MedicaoCamadas(beans.getBeanProvider(MeterRegistry.class),
+            Map.of(Alvo.class, "servico"));
+        return (Alvo) medicao.postProcessAfterInitialization(new Alvo(), "alvo");
+    }
+
+    private static LongUnaryOperator falhando(Alvo alvo) {
+        return valor -> {
+            try {
+                return alvo.buscar(valor);
+            } catch (ResourceNotFoundException e) {
+                return valor;
+            }
+        };
+    }
+
+    // Alterna as duas versões a cada rodada, para que as duas passem pelas mesmas condições da máquina
+    private static double[] comparar(LongUnaryOperator base, LongUnaryOperator medida, int chamadas, int rodadas) {
+        double melhorBase = Double.MAX_VALUE;
+        double melhorMedida = Double.MAX_VALUE;
+        for (int rodada = 0; rodada < rodadas; rodada++) {
+            melhorBase = Math.min(melhorBase, medir(base, chamadas, 1));
+            melhorMedida = Math.min(melhorMedida, medir(medida, chamadas, 1));
+        }
+        return new double[] {melhorBase, melhorMedida};
+    }
+
+    // Menor média de nanossegundos por chamada entre as rodadas, depois de uma rodada de aquecimento
+    private static double medir(LongUnaryOperator chamada, int chamadas, int rodadas) {
+        double melhor = Double.MAX_VALUE;
+        for (int rodada = 0; rodada <= rodadas; rodada++) {
+            long soma = 0;
+            long inicio = System.nanoTime();
+            for (int i = 0; i < chamadas; i++) {
+                soma += chamada.applyAsLong(i);
+            }
+            double porChamada = (System.nanoTime() - inicio) / (double) chamadas;
+            sumidouro += soma;
+            if (rodada > 0) {
+                melhor = Math.min(melhor, porChamada);
+            }
+        }
+        return melhor;
+    }
+
+    public static class Alvo {
+
+        public long somar(long valor) {
+            return valor + 1;
+        }
+
+        public long buscar(long valor) {
+            throw new ResourceNotFoundException("Reserva não encontrada.");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.trabalho.crud.benchmark;
+
+import com.trabalho.crud.CrudApplication;
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.service.ConflitoConcorrenciaException;
+import com.trabalho.crud.core.service.ReservaService;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark manual (não roda no "mvn test") que compara os modos de checagem de disponibilidade
+ * sob carga concorrente de criações:
+ * - consulta ao banco (índice em memória desligado) + travas por quarto;
+ * - índice em memória + travas por quarto;
+ * - tabela de noites com chave primária, sem consulta e sem trava.
+ * * Uso: mvn test-compile exec:java -Dexec.mainClass=com.trabalho.crud.benchmark.ModoDisponibilidadeBenchmark
+ *   -Dexec.classpathScope=test [-Dexec.args="threads pedidos quartos"]
+ */
+public class ModoDisponibilidadeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int pedidos = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int quartos = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        executar("consulta (sem índice)", Map.of("reservas.indice.habilitado", "false"), threads, pedidos, quartos);
+        executar("consulta (com índice)", Map.of(), threads, pedidos, quartos);
+        executar("noites (chave primária)", Map.of("reservas.disponibilidade.modo", "noites"), threads, pedidos, quartos);
+    }
+
+    private static void executar(String nome, Map<String, Object> propriedades, int threads, int pedidos,
+                                 int quartos) throws Exception {
+        SpringApplication aplicacao = new SpringApplication(CrudApplication.class);
+        aplicacao.setWebApplicationType(WebApplicationType.NONE);
+        aplicacao.setAdditionalProfiles("test");
+        Map<String, Object> config = new java.util.HashMap<>(propriedades);
+        config.put("spring.datasource.url", "jdbc:h2:mem:bench" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        config.put("logging.level.root", "WARN");
+        config.put("spring.main.banner-mode", "off");
+        // Argumentos de linha de comando têm precedência sobre o application.yaml (default properties não)
+        String[] argumentos = config.entrySet().stream()
+            .map(e -> "--" + e.getKey() + "=" + e.getValue())
+            .toArray(String[]::new);
+
+        try (ConfigurableApplicationContext contexto = aplicacao.run(argumentos)) {
+            ReservaService servico = contexto.getBean(ReservaService.class);
+            LocalDate base = LocalDate.now().plusDays(1);
+            AtomicLong criadas = new AtomicLong();
+            AtomicLong recusadas = new AtomicLong();
+            AtomicLong conflitos = new AtomicLong();
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> tarefas = new ArrayList<>();
+            long inicio = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                tarefas.add(executor.submit(() -> {
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    for (int i = 0; i < pedidos / threads; i++) {
+                        LocalDate checkIn = base.plusDays(aleatorio.nextInt(365));
+                        Reserva reserva = new Reserva(null, "Q" + aleatorio.nextInt(quartos), checkIn,
+                            checkIn.plusDays(1 + aleatorio.nextInt(4)), 1L + aleatorio.nextInt(1000));
+                        try {
+                            servico.criar(reserva);
+                            criadas.incrementAndGet();
+                        } catch (ValidacaoReservaException e) {
+                            recusadas.incrementAndGet();
+                        } catch (ConflitoConcorrenciaException e) {
+                            conflitos.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            executor.shutdown();
+
+            Integer sobreposicoes = contexto.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT COUNT(*) FROM \"reserva\" a JOIN \"reserva\" b ON a.numero_do_quarto = b.numero_do_quarto"
+                    + " AND a.id < b.id AND a.data_inicio_reserva < b.data_final_reserva"
+                    + " AND b.data_inicio_reserva < a.data_final_reserva", Integer.class);
+
+            System.out.printf("%-26s %8.0f pedidos/s  criadas=%d recusadas=%d 409=%d sobreposições=%d%n",
+                nome, (criadas.get() + recusadas.get() + conflitos.get()) / segundos,
+                criadas.get(), recusadas.get(), conflitos.get(), sobreposicoes);
+        }
+    }
+}
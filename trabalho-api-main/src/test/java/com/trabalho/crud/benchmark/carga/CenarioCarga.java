@@ -0,0 +1,140 @@
+package com.trabalho.crud.benchmark.carga;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Cenários do teste de carga: taxa de chegada, massa inicial, mistura de operações e de onde
+ * saem os quartos e períodos das reservas criadas e as páginas listadas. Taxa, massa e
+ * mistura podem ser trocadas na linha de comando (ver {@link TesteCarga}).
+ * * A massa inicial espalha as reservas por {@link #QUARTOS_MASSA} quartos, uma estadia de 2
+ * noites a cada 3 dias por quarto, metade no passado e metade no futuro.
+ */
+enum CenarioCarga {
+
+    /**
+     * Tráfego de uso normal: quartos e datas espalhados, poucas recusas por conflito.
+     */
+    MISTO("misto", 300, 50_000, CenarioCarga.QUARTOS_MASSA, 730,
+            mistura(20, 50, 10, 5, 15), false) {
+        @Override
+        String consultaListagem(Random aleatorio, LocalDate hoje) {
+            int tipo = aleatorio.nextInt(4);
+            if (tipo < 2) {
+                return "?limit=50";
+            }
+            if (tipo == 2) {
+                return "?limit=50&quarto=Q" + aleatorio.nextInt(QUARTOS_MASSA);
+            }
+            LocalDate inicio = hoje.plusDays(aleatorio.nextInt(60));
+            return "?limit=50&inicio=" + inicio + "&fim=" + inicio.plusDays(7);
+        }
+    },
+
+    /**
+     * Quarto disputado: quase todas as criações e atualizações vão para os mesmos
+     * {@link #QUARTOS_DISPUTADOS} quartos, nos próximos 30 dias. Depois que as primeiras reservas
+     * ocupam o período, o que se mede é a fila nas travas dos quartos e o caminho da recusa com
+     * sugestões.
+     */
+    QUARTO_DISPUTADO("quarto-disputado", 300, 10_000, CenarioCarga.QUARTOS_DISPUTADOS, 30,
+            mistura(60, 20, 10, 0, 10), false) {
+        @Override
+        String consultaListagem(Random aleatorio, LocalDate hoje) {
+            return "?limit=50&quarto=Q" + aleatorio.nextInt(QUARTOS_DISPUTADOS);
+        }
+    },
+
+    /**
+     * Tabela grande: um milhão de reservas, clientes percorrendo a listagem inteira pelo cursor
+     * (cada resposta devolve o cursor da página seguinte para a próxima listagem) e leituras
+     * por ID.
+     */
+    TABELA_GRANDE("tabela-grande", 100, 1_000_000, CenarioCarga.QUARTOS_MASSA, 730,
+            mistura(0, 20, 0, 0, 80), true) {
+        @Override
+        String consultaListagem(Random aleatorio, LocalDate hoje) {
+            return "?limit=100";
+        }
+    };
+
+    static final int QUARTOS_MASSA = 1_000;
+    static final int QUARTOS_DISPUTADOS = 5;
+
+    private final String nome;
+    private final double taxaPadrao;
+    private final int reservasIniciais;
+    private final int quartosCriacao;
+    private final int horizonteDias;
+    private final Map<OperacaoCarga, Integer> misturaPadrao;
+    private final boolean paginacaoContinua;
+
+    CenarioCarga(String nome, double taxaPadrao, int reservasIniciais, int quartosCriacao, int horizonteDias,
+                 Map<OperacaoCarga, Integer> misturaPadrao, boolean paginacaoContinua) {
+        this.nome = nome;
+        this.taxaPadrao = taxaPadrao;
+        this.reservasIniciais = reservasIniciais;
+        this.quartosCriacao = quartosCriacao;
+        this.horizonteDias = horizonteDias;
+        this.misturaPadrao = misturaPadrao;
+        this.paginacaoContinua = paginacaoContinua;
+    }
+
+    /**
+     * @return Parâmetros de uma listagem que não continua a de uma resposta anterior.
+     */
+    abstract String consultaListagem(Random aleatorio, LocalDate hoje);
+
+    String quartoNovo(Random aleatorio) {
+        return "Q" + aleatorio.nextInt(quartosCriacao);
+    }
+
+    /**
+     * @return Entrada e saída de uma estadia de 1 a 4 noites começando nos próximos dias do horizonte.
+     */
+    LocalDate[] periodoNovo(Random aleatorio, LocalDate hoje) {
+        LocalDate entrada = hoje.plusDays(1 + aleatorio.nextInt(horizonteDias));
+        return new LocalDate[] {entrada, entrada.plusDays(1 + aleatorio.nextInt(4))};
+    }
+
+    String nome() {
+        return nome;
+    }
+
+    double taxaPadrao() {
+        return taxaPadrao;
+    }
+
+    int reservasIniciais() {
+        return reservasIniciais;
+    }
+
+    Map<OperacaoCarga, Integer> misturaPadrao() {
+        return misturaPadrao;
+    }
+
+    boolean paginacaoContinua() {
+        return paginacaoContinua;
+    }
+
+    static CenarioCarga deNome(String nome) {
+        for (CenarioCarga cenario : values()) {
+            if (cenario.nome.equals(nome)) {
+                return cenario;
+            }
+        }
+        throw new IllegalArgumentException("Cenário desconhecido: " + nome + ". Use misto, quarto-disputado ou tabela-grande.");
+    }
+
+    private static Map<OperacaoCarga, Integer> mistura(int criar, int ler, int atualizar, int remover, int listar) {
+        Map<OperacaoCarga, Integer> pesos = new EnumMap<>(OperacaoCarga.class);
+        pesos.put(OperacaoCarga.CRIAR, criar);
+        pesos.put(OperacaoCarga.LER, ler);
+        pesos.put(OperacaoCarga.ATUALIZAR, atualizar);
+        pesos.put(OperacaoCarga.REMOVER, remover);
+        pesos.put(OperacaoCarga.LISTAR, listar);
+        return pesos;
+    }
+}
@@ -0,0 +1,212 @@
+package com.trabalho.crud.benchmark.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga em modelo aberto: as requisições saem na taxa de chegada configurada, sem
+ * esperar as anteriores responderem, como usuários independentes. Num modelo fechado (N threads
+ * em laço) o servidor lento segura o gerador e as requisições que deveriam ter saído durante a
+ * lentidão nunca são medidas.
+ * * Uma única thread agenda as chegadas (intervalos exponenciais, um processo de Poisson, ou
+ * constantes) e as envia pelo HttpClient assíncrono; a latência é contada a partir do instante
+ * agendado. Se já há {@code maxPendentes} requisições sem resposta, a chegada é descartada e
+ * contada como erro, para o gerador não acumular conexões sem limite contra um servidor parado.
+ */
+final class GeradorCarga {
+
+    private static final String CAMINHO = "/api/v1/reservas";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient cliente;
+    private final String base;
+    private final CenarioCarga cenario;
+    private final OperacaoCarga[] operacoes;
+    private final int[] pesosAcumulados;
+    private final double taxa;
+    private final boolean chegadasConstantes;
+    private final Duration timeout;
+    private final int maxPendentes;
+    private final ReservasConhecidas reservas;
+    private final Random aleatorio;
+    private final AtomicInteger pendentes = new AtomicInteger();
+    // Cursores devolvidos pelas listagens, continuados pelas listagens seguintes (tabela-grande)
+    private final Queue<String> cursores = new ConcurrentLinkedQueue<>();
+
+    GeradorCarga(HttpClient cliente, URI base, CenarioCarga cenario, Map<OperacaoCarga, Integer> mistura, double taxa,
+                 boolean chegadasConstantes, Duration timeout, int maxPendentes, ReservasConhecidas reservas,
+                 long semente) {
+        if (taxa <= 0) {
+            throw new IllegalArgumentException("A taxa de chegada precisa ser positiva.");
+        }
+        this.cliente = cliente;
+        this.base = base.toString() + CAMINHO;
+        this.cenario = cenario;
+        this.operacoes = mistura.keySet().toArray(new OperacaoCarga[0]);
+        this.pesosAcumulados = new int[operacoes.length];
+        int soma = 0;
+        for (int i = 0; i < operacoes.length; i++) {
+            soma += mistura.get(operacoes[i]);
+            pesosAcumulados[i] = soma;
+        }
+        if (soma <= 0) {
+            throw new IllegalArgumentException("A mistura de operações precisa de algum peso positivo.");
+        }
+        this.taxa = taxa;
+        this.chegadasConstantes = chegadasConstantes;
+        this.timeout = timeout;
+        this.maxPendentes = maxPendentes;
+        this.reservas = reservas;
+        this.aleatorio = new Random(semente);
+    }
+
+    /**
+     * Gera chegadas durante {@code duracao} e espera as respostas pendentes (no máximo o timeout).
+     */
+    void executar(Duration duracao, RegistroCarga registro) throws InterruptedException {
+        long inicio = System.nanoTime();
+        long fim = inicio + duracao.toNanos();
+        double planejado = inicio;
+        while (planejado < fim) {
+            long instante = (long) planejado;
+            long espera;
+            while ((espera = instante - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            disparar(sortearOperacao(), instante, registro);
+            planejado += proximoIntervaloNanos();
+        }
+        long limite = System.nanoTime() + timeout.toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (pendentes.get() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void disparar(OperacaoCarga operacao, long planejado, RegistroCarga registro) {
+        if (pendentes.get() >= maxPendentes) {
+            registro.registrarDescarte(operacao);
+            return;
+        }
+        HttpRequest requisicao = montar(operacao);
+        if (requisicao == null) {
+            // Sem reserva conhecida para ler, atualizar ou remover: cria uma
+            operacao = OperacaoCarga.CRIAR;
+            requisicao = montar(operacao);
+        }
+        pendentes.incrementAndGet();
+        OperacaoCarga feita = operacao;
+        long enviado = System.nanoTime();
+        cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.ofString())
+            .whenComplete((resposta, falha) -> {
+                long agora = System.nanoTime();
+                try {
+                    if (falha != null) {
+                        registro.registrarFalha(feita, falha, planejado, agora);
+                    } else {
+                        registro.registrar(feita, resposta.statusCode(), planejado, enviado, agora);
+                        aproveitar(feita, resposta);
+                    }
+                } finally {
+                    pendentes.decrementAndGet();
+                }
+            });
+    }
+
+    private HttpRequest montar(OperacaoCarga operacao) {
+        LocalDate hoje = LocalDate.now();
+        switch (operacao) {
+            case CRIAR: {
+                LocalDate[] periodo = cenario.periodoNovo(aleatorio, hoje);
+                return requisicao(base).POST(corpo(cenario.quartoNovo(aleatorio), periodo)).build();
+            }
+            case LER: {
+                ReservasConhecidas.Reserva reserva = reservas.sortear(aleatorio);
+                return reserva == null ? null : requisicao(base + "/" + reserva.id()).GET().build();
+            }
+            case ATUALIZAR: {
+                // Sem If-Match: última escrita vence, como um cliente que não lê antes de alterar
+                ReservasConhecidas.Reserva reserva = reservas.sortear(aleatorio);
+                return reserva == null ? null : requisicao(base + "/" + reserva.id())
+                    .PUT(corpo(reserva.quarto(), cenario.periodoNovo(aleatorio, hoje))).build();
+            }
+            case REMOVER: {
+                ReservasConhecidas.Reserva reserva = reservas.retirar(aleatorio);
+                return reserva == null ? null : requisicao(base + "/" + reserva.id()).DELETE().build();
+            }
+            case LISTAR: {
+                String cursor = cenario.paginacaoContinua() ? cursores.poll() : null;
+                String consulta = cenario.consultaListagem(aleatorio, hoje);
+                if (cursor != null) {
+                    consulta += "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8);
+                }
+                return requisicao(base + consulta).GET().build();
+            }
+            default:
+                throw new IllegalStateException("Operação sem requisição: " + operacao);
+        }
+    }
+
+    // Guarda o que as próximas operações usam: a reserva criada e o cursor da próxima página
+    private void aproveitar(OperacaoCarga operacao, HttpResponse<String> resposta) {
+        if (resposta.statusCode() / 100 != 2) {
+            return;
+        }
+        try {
+            if (operacao == OperacaoCarga.CRIAR) {
+                JsonNode reserva = JSON.readTree(resposta.body());
+                reservas.adicionar(reserva.path("id").asLong(), reserva.path("numeroDoQuarto").asText());
+            } else if (operacao == OperacaoCarga.LISTAR && cenario.paginacaoContinua()) {
+                JsonNode cursor = JSON.readTree(resposta.body()).path("nextCursor");
+                if (cursor.isTextual()) {
+                    cursores.offer(cursor.asText());
+                }
+            }
+        } catch (Exception e) {
+            // Corpo inesperado numa resposta 2xx: a operação já foi contada, só não é reaproveitada
+        }
+    }
+
+    private HttpRequest.Builder requisicao(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri))
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher corpo(String quarto, LocalDate[] periodo) {
+        return HttpRequest.BodyPublishers.ofString("{\"numeroDoQuarto\":\"" + quarto + "\",\"dataInicioReserva\":\""
+            + periodo[0] + "\",\"dataFinalReserva\":\"" + periodo[1] + "\",\"hospedeId\":"
+            + (1 + aleatorio.nextInt(5_000)) + "}");
+    }
+
+    private OperacaoCarga sortearOperacao() {
+        int sorteio = aleatorio.nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+        for (int i = 0; i < operacoes.length; i++) {
+            if (sorteio < pesosAcumulados[i]) {
+                return operacoes[i];
+            }
+        }
+        return operacoes[operacoes.length - 1];
+    }
+
+    private double proximoIntervaloNanos() {
+        double media = TimeUnit.SECONDS.toNanos(1) / taxa;
+        return chegadasConstantes ? media : -Math.log(1 - aleatorio.nextDouble()) * media;
+    }
+}
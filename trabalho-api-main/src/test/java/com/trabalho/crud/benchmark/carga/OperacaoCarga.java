@@ -0,0 +1,28 @@
+package com.trabalho.crud.benchmark.carga;
+
+import java.util.Locale;
+
+/**
+ * Operações que o teste de carga faz em /api/v1/reservas.
+ */
+enum OperacaoCarga {
+
+    /** POST de uma reserva nova. */
+    CRIAR,
+    /** GET de uma reserva conhecida pelo ID. */
+    LER,
+    /** PUT de uma reserva conhecida, com um período novo. */
+    ATUALIZAR,
+    /** DELETE de uma reserva conhecida. */
+    REMOVER,
+    /** GET de uma página da listagem. */
+    LISTAR;
+
+    String nome() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static OperacaoCarga deNome(String nome) {
+        return valueOf(nome.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,184 @@
+package com.trabalho.crud.benchmark.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências e resultados de uma fase do teste de carga, por operação. Os histogramas (HdrHistogram,
+ * em microssegundos) são gravados de duas formas:
+ * * - corrigida: do instante em que a requisição deveria ter saído, pela taxa de chegada, até a
+ * resposta. É a latência que um cliente vê quando o servidor atrasa: as requisições que
+ * chegaram durante uma pausa esperam a pausa inteira (correção de omissão coordenada);
+ * - bruta: do envio de fato até a resposta, só para comparar. Quando a bruta é muito menor que a
+ * corrigida, o gerador ficou para trás ou as requisições esperaram conexão no cliente.
+ * * Respostas 400, 404, 409 e 412 são recusas (reserva indisponível, versão desatualizada,
+ * reserva já removida por outra operação), esperadas nos cenários de disputa. Erro é qualquer
+ * outro status, falha de conexão, tempo esgotado ou requisição descartada porque já havia
+ * requisições demais em andamento.
+ */
+final class RegistroCarga {
+
+    // Latências acima disso (e o tempo esgotado) entram no histograma como o próprio limite
+    private static final long MAXIMO_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<OperacaoCarga, Medidas> medidas = new EnumMap<>(OperacaoCarga.class);
+
+    RegistroCarga() {
+        for (OperacaoCarga operacao : OperacaoCarga.values()) {
+            medidas.put(operacao, new Medidas());
+        }
+    }
+
+    void registrar(OperacaoCarga operacao, int status, long planejadoNanos, long enviadoNanos, long fimNanos) {
+        Medidas medida = medidas.get(operacao);
+        medida.corrigida.recordValue(micros(fimNanos - planejadoNanos));
+        medida.bruta.recordValue(micros(fimNanos - enviadoNanos));
+        medida.status.computeIfAbsent(String.valueOf(status), chave -> new LongAdder()).increment();
+        if (status >= 200 && status < 300) {
+            medida.sucessos.increment();
+        } else if (status == 400 || status == 404 || status == 409 || status == 412) {
+            medida.recusas.increment();
+        } else {
+            medida.erros.increment();
+        }
+    }
+
+    void registrarFalha(OperacaoCarga operacao, Throwable falha, long planejadoNanos, long fimNanos) {
+        Medidas medida = medidas.get(operacao);
+        medida.corrigida.recordValue(micros(fimNanos - planejadoNanos));
+        Throwable causa = falha instanceof CompletionException && falha.getCause() != null ? falha.getCause() : falha;
+        medida.status.computeIfAbsent(causa.getClass().getSimpleName(), chave -> new LongAdder()).increment();
+        medida.erros.increment();
+    }
+
+    /**
+     * Requisição que não saiu: entra só na contagem de erros, sem latência.
+     */
+    void registrarDescarte(OperacaoCarga operacao) {
+        Medidas medida = medidas.get(operacao);
+        medida.status.computeIfAbsent("descartada", chave -> new LongAdder()).increment();
+        medida.erros.increment();
+    }
+
+    void imprimir(PrintStream saida, double segundos) {
+        saida.printf("%-10s %9s %9s %8s %8s %10s %10s %10s %10s %10s %12s%n", "operação", "total", "req/s",
+            "recusas", "erros", "p50 ms", "p90 ms", "p99 ms", "p99,9 ms", "máx ms", "p99 bruto");
+        Medidas total = new Medidas();
+        for (Map.Entry<OperacaoCarga, Medidas> entrada : medidas.entrySet()) {
+            Medidas medida = entrada.getValue();
+            if (medida.total() == 0) {
+                continue;
+            }
+            imprimirLinha(saida, entrada.getKey().nome(), medida, segundos);
+            total.somar(medida);
+        }
+        imprimirLinha(saida, "total", total, segundos);
+    }
+
+    /**
+     * Grava um .hgrm por operação (distribuição de percentis corrigida, em milissegundos, que
+     * pode ser plotada no HdrHistogram Plotter) e o resumo.json com os números da tabela.
+     */
+    void gravar(Path diretorio, Map<String, Object> parametros, double segundos) throws IOException {
+        Files.createDirectories(diretorio);
+        Map<String, Object> operacoes = new LinkedHashMap<>();
+        for (Map.Entry<OperacaoCarga, Medidas> entrada : medidas.entrySet()) {
+            Medidas medida = entrada.getValue();
+            if (medida.total() == 0) {
+                continue;
+            }
+            try (PrintStream hgrm = new PrintStream(diretorio.resolve(entrada.getKey().nome() + ".hgrm").toFile())) {
+                medida.corrigida.outputPercentileDistribution(hgrm, 1000.0);
+            }
+            operacoes.put(entrada.getKey().nome(), resumo(medida, segundos));
+        }
+        Map<String, Object> saida = new LinkedHashMap<>();
+        saida.put("parametros", parametros);
+        saida.put("segundos", segundos);
+        saida.put("operacoes", operacoes);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(diretorio.resolve("resumo.json").toFile(), saida);
+    }
+
+    private static void imprimirLinha(PrintStream saida, String nome, Medidas medida, double segundos) {
+        Histogram corrigida = medida.corrigida;
+        saida.printf("%-10s %9d %9.1f %7.2f%% %7.2f%% %10.2f %10.2f %10.2f %10.2f %10.2f %12.2f%n", nome,
+            medida.total(), medida.total() / segundos, percentual(medida.recusas.sum(), medida.total()),
+            percentual(medida.erros.sum(), medida.total()), ms(corrigida, 50), ms(corrigida, 90), ms(corrigida, 99),
+            ms(corrigida, 99.9), corrigida.getMaxValue() / 1000.0, ms(medida.bruta, 99));
+    }
+
+    private static Map<String, Object> resumo(Medidas medida, double segundos) {
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("total", medida.total());
+        resumo.put("porSegundo", medida.total() / segundos);
+        resumo.put("sucessos", medida.sucessos.sum());
+        resumo.put("recusas", medida.recusas.sum());
+        resumo.put("erros", medida.erros.sum());
+        Map<String, Long> status = new TreeMap<>();
+        medida.status.forEach((chave, contagem) -> status.put(chave, contagem.sum()));
+        resumo.put("status", status);
+        resumo.put("corrigidaMs", percentis(medida.corrigida));
+        resumo.put("brutaMs", percentis(medida.bruta));
+        return resumo;
+    }
+
+    private static Map<String, Double> percentis(Histogram histograma) {
+        Map<String, Double> percentis = new LinkedHashMap<>();
+        percentis.put("p50", ms(histograma, 50));
+        percentis.put("p90", ms(histograma, 90));
+        percentis.put("p99", ms(histograma, 99));
+        percentis.put("p99.9", ms(histograma, 99.9));
+        percentis.put("max", histograma.getMaxValue() / 1000.0);
+        return percentis;
+    }
+
+    private static double ms(Histogram histograma, double percentil) {
+        return histograma.getValueAtPercentile(percentil) / 1000.0;
+    }
+
+    private static double percentual(long parte, long total) {
+        return total == 0 ? 0 : 100.0 * parte / total;
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), MAXIMO_MICROS);
+    }
+
+    private static final class Medidas {
+
+        final Histogram corrigida = new ConcurrentHistogram(MAXIMO_MICROS, 3);
+        final Histogram bruta = new ConcurrentHistogram(MAXIMO_MICROS, 3);
+        final LongAdder sucessos = new LongAdder();
+        final LongAdder recusas = new LongAdder();
+        final LongAdder erros = new LongAdder();
+        final Map<String, LongAdder> status = new ConcurrentHashMap<>();
+
+        long total() {
+            return sucessos.sum() + recusas.sum() + erros.sum();
+        }
+
+        void somar(Medidas outra) {
+            corrigida.add(outra.corrigida);
+            bruta.add(outra.bruta);
+            sucessos.add(outra.sucessos.sum());
+            recusas.add(outra.recusas.sum());
+            erros.add(outra.erros.sum());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.trabalho.crud.benchmark.carga;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Reservas que existem no banco durante o teste (a massa inicial e as criadas pela carga), de
+ * onde saem os IDs das leituras, atualizações e remoções. Sorteio e retirada custam O(1): a
+ * retirada troca o item sorteado pelo último.
+ */
+final class ReservasConhecidas {
+
+    private long[] ids = new long[1_024];
+    private String[] quartos = new String[1_024];
+    private int tamanho;
+
+    synchronized void adicionar(long id, String quarto) {
+        if (tamanho == ids.length) {
+            ids = Arrays.copyOf(ids, tamanho * 2);
+            quartos = Arrays.copyOf(quartos, tamanho * 2);
+        }
+        ids[tamanho] = id;
+        quartos[tamanho] = quarto;
+        tamanho++;
+    }
+
+    /**
+     * @return Uma reserva qualquer, que continua disponível para sorteio, ou null se não há nenhuma.
+     */
+    synchronized Reserva sortear(Random aleatorio) {
+        if (tamanho == 0) {
+            return null;
+        }
+        int i = aleatorio.nextInt(tamanho);
+        return new Reserva(ids[i], quartos[i]);
+    }
+
+    /**
+     * @return Uma reserva qualquer, que deixa de ser sorteada (vai ser removida), ou null.
+     */
+    synchronized Reserva retirar(Random aleatorio) {
+        if (tamanho == 0) {
+            return null;
+        }
+        int i = aleatorio.nextInt(tamanho);
+        Reserva reserva = new Reserva(ids[i], quartos[i]);
+        tamanho--;
+        ids[i] = ids[tamanho];
+        quartos[i] = quartos[tamanho];
+        quartos[tamanho] = null;
+        return reserva;
+    }
+
+    synchronized int tamanho() {
+        return tamanho;
+    }
+
+    record Reserva(long id, String quarto) {
+    }
+}
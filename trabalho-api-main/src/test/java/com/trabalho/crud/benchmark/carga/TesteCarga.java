@@ -0,0 +1,171 @@
+package com.trabalho.crud.benchmark.carga;
+
+import com.trabalho.crud.CrudApplication;
+import com.trabalho.crud.core.disponibilidade.IndiceDisponibilidade;
+import com.trabalho.crud.core.entity.GeradorIdReserva;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Teste de carga de ponta a ponta (não roda no "mvn test"): sobe a aplicação numa porta livre,
+ * com o banco em memória populado pela massa do cenário, e manda tráfego HTTP em modelo aberto
+ * para /api/v1/reservas (ver {@link GeradorCarga}). Depois do aquecimento, que não entra no
+ * resultado, imprime por operação a vazão, as taxas de recusa e de erro e os percentis de
+ * latência corrigidos pela omissão coordenada, e grava os histogramas em target/carga/cenário.
+ * * Cenários: misto (uso normal), quarto-disputado (criações concentradas em 5 quartos) e
+ * tabela-grande (1 milhão de reservas, listagem percorrida pelo cursor). Para medir uma mudança
+ * de capacidade, rode o mesmo cenário e a mesma taxa antes e depois e compare os resumo.json.
+ * * Uso: mvn test-compile exec:java -Dexec.mainClass=com.trabalho.crud.benchmark.carga.TesteCarga
+ *   -Dexec.classpathScope=test [-Dexec.args="cenario=quarto-disputado taxa=500 duracao=60"]
+ * * Argumentos (chave=valor, todos opcionais):
+ * - cenario: misto, quarto-disputado ou tabela-grande (padrão misto);
+ * - taxa: chegadas por segundo (padrão do cenário);
+ * - duracao e aquecimento: segundos de medição e de aquecimento (padrão 30 e 10);
+ * - mistura: pesos das operações, ex.: criar:20,ler:50,atualizar:10,remover:5,listar:15;
+ * - reservas: tamanho da massa inicial (padrão do cenário);
+ * - chegadas: poisson ou constante (padrão poisson);
+ * - timeout: segundos até a requisição contar como erro (padrão 10);
+ * - max-pendentes: requisições sem resposta antes de descartar chegadas (padrão 2000);
+ * - semente: semente dos sorteios, para repetir a mesma sequência de operações;
+ * - saida: diretório dos histogramas e do resumo (padrão target/carga/cenário).
+ * Argumentos que começam com "--" vão para a aplicação, ex.: --spring.datasource.hikari.maximum-pool-size=20
+ * ou --reservas.indice.habilitado=false. A massa é gravada pela fonte de dados principal, nos modos
+ * de disponibilidade e de armazenamento padrão; com shards, use reservas=0.
+ */
+public class TesteCarga {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opcoes = new LinkedHashMap<>();
+        List<String> argumentosAplicacao = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                argumentosAplicacao.add(arg);
+            } else if (arg.contains("=")) {
+                opcoes.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                throw new IllegalArgumentException("Argumento sem valor: " + arg + " (use chave=valor).");
+            }
+        }
+
+        CenarioCarga cenario = CenarioCarga.deNome(opcoes.getOrDefault("cenario", "misto"));
+        double taxa = Double.parseDouble(opcoes.getOrDefault("taxa", String.valueOf(cenario.taxaPadrao())));
+        Duration duracao = Duration.ofSeconds(Long.parseLong(opcoes.getOrDefault("duracao", "30")));
+        Duration aquecimento = Duration.ofSeconds(Long.parseLong(opcoes.getOrDefault("aquecimento", "10")));
+        Map<OperacaoCarga, Integer> mistura = opcoes.containsKey("mistura")
+            ? mistura(opcoes.get("mistura")) : cenario.misturaPadrao();
+        int quantidade = Integer.parseInt(opcoes.getOrDefault("reservas", String.valueOf(cenario.reservasIniciais())));
+        boolean constante = "constante".equals(opcoes.getOrDefault("chegadas", "poisson"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(opcoes.getOrDefault("timeout", "10")));
+        int maxPendentes = Integer.parseInt(opcoes.getOrDefault("max-pendentes", "2000"));
+        long semente = Long.parseLong(opcoes.getOrDefault("semente", "42"));
+        Path saida = Path.of(opcoes.getOrDefault("saida", "target/carga/" + cenario.nome()));
+
+        try (ConfigurableApplicationContext contexto = iniciar(argumentosAplicacao)) {
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            ReservasConhecidas reservas = new ReservasConhecidas();
+            long inicioMassa = System.nanoTime();
+            popular(contexto, quantidade, reservas);
+            System.out.printf("Cenário %s: %d reservas na massa inicial (%.1f s), %.0f chegadas/s (%s), mistura %s%n",
+                cenario.nome(), quantidade, (System.nanoTime() - inicioMassa) / 1e9, taxa,
+                constante ? "constantes" : "poisson", mistura);
+
+            HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+            GeradorCarga gerador = new GeradorCarga(cliente, URI.create("http://localhost:" + porta), cenario,
+                mistura, taxa, constante, timeout, maxPendentes, reservas, semente);
+
+            if (!aquecimento.isZero()) {
+                System.out.printf("Aquecendo por %d s...%n", aquecimento.toSeconds());
+                gerador.executar(aquecimento, new RegistroCarga());
+            }
+            System.out.printf("Medindo por %d s...%n", duracao.toSeconds());
+            RegistroCarga registro = new RegistroCarga();
+            gerador.executar(duracao, registro);
+
+            double segundos = duracao.toNanos() / 1e9;
+            System.out.println();
+            registro.imprimir(System.out, segundos);
+            Map<String, Object> parametros = new LinkedHashMap<>();
+            parametros.put("cenario", cenario.nome());
+            parametros.put("taxa", taxa);
+            parametros.put("chegadas", constante ? "constante" : "poisson");
+            parametros.put("duracao", duracao.toSeconds());
+            parametros.put("aquecimento", aquecimento.toSeconds());
+            parametros.put("reservas", quantidade);
+            parametros.put("mistura", mistura);
+            parametros.put("timeout", timeout.toSeconds());
+            parametros.put("maxPendentes", maxPendentes);
+            parametros.put("argumentosAplicacao", argumentosAplicacao);
+            registro.gravar(saida, parametros, segundos);
+            System.out.println("\nHistogramas (.hgrm, em ms) e resumo.json gravados em " + saida.toAbsolutePath() + ".");
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciar(List<String> argumentosAplicacao) {
+        SpringApplication aplicacao = new SpringApplication(CrudApplication.class);
+        aplicacao.setAdditionalProfiles("test");
+        List<String> argumentos = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:carga" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+            "--logging.level.root=WARN",
+            "--spring.main.banner-mode=off"));
+        // Os da linha de comando vêm depois e prevalecem
+        argumentos.addAll(argumentosAplicacao);
+        return aplicacao.run(argumentos.toArray(String[]::new));
+    }
+
+    /**
+     * Grava a massa inicial direto no banco: cada quarto recebe uma estadia de 2 noites a cada 3
+     * dias, metade antes e metade depois de hoje. Depois posiciona as sequências depois dos IDs
+     * gravados e reconstrói o índice de disponibilidade, que a aplicação montou vazio ao subir.
+     */
+    private static void popular(ConfigurableApplicationContext contexto, int quantidade, ReservasConhecidas reservas) {
+        if (quantidade <= 0) {
+            return;
+        }
+        JdbcTemplate banco = contexto.getBean(JdbcTemplate.class);
+        int quartos = CenarioCarga.QUARTOS_MASSA;
+        long porQuarto = (quantidade + quartos - 1) / quartos;
+        LocalDate inicio = LocalDate.now().minusDays(porQuarto * 3 / 2);
+        banco.update("insert into \"reserva\" (id, numero_do_quarto, data_inicio_reserva, data_final_reserva,"
+            + " hospede_id, versao, sequencia_alteracao)"
+            + " select x + 1, 'Q' || mod(x, cast(?1 as int)), dateadd(day, (x / ?1) * 3, cast(?2 as date)),"
+            + " dateadd(day, (x / ?1) * 3 + 2, cast(?2 as date)), mod(x, 5000) + 1, 0, x + 1"
+            + " from system_range(0, cast(?3 as int) - 1)",
+            quartos, inicio, quantidade);
+        banco.execute("analyze");
+        banco.execute("ALTER SEQUENCE " + GeradorIdReserva.SEQUENCIA + " RESTART WITH " + (quantidade + 1));
+        banco.execute("ALTER SEQUENCE reserva_alteracao_seq RESTART WITH " + (quantidade + 1));
+        contexto.getBean(IndiceDisponibilidade.class).reconstruir();
+        for (long id = 1; id <= quantidade; id++) {
+            reservas.adicionar(id, "Q" + (id - 1) % quartos);
+        }
+    }
+
+    private static Map<OperacaoCarga, Integer> mistura(String descricao) {
+        Map<OperacaoCarga, Integer> pesos = new EnumMap<>(OperacaoCarga.class);
+        for (String item : descricao.split(",")) {
+            String[] partes = item.split(":");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Mistura inválida: " + descricao + " (use operacao:peso,...).");
+            }
+            pesos.put(OperacaoCarga.deNome(partes[0]), Integer.parseInt(partes[1].trim()));
+        }
+        return pesos;
+    }
+}
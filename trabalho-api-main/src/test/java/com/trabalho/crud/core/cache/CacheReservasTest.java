@@ -0,0 +1,128 @@
+package com.trabalho.crud.core.cache;
+
+import com.trabalho.crud.core.entity.Reserva;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para o CacheReservas.
+ * O "banco" é um mapa, e o carregador conta quantas vezes foi chamado.
+ */
+public class CacheReservasTest {
+
+    private CacheReservas cache;
+    private Map<Long, Reserva> banco;
+    private AtomicInteger consultas;
+    private Function<Long, Optional<Reserva>> carregador;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CacheReservas(true, 100, 60, 5);
+        banco = new HashMap<>();
+        banco.put(1L, new Reserva(1L, "101", LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 3), 10L));
+        consultas = new AtomicInteger();
+        carregador = id -> {
+            consultas.incrementAndGet();
+            return Optional.ofNullable(banco.get(id));
+        };
+    }
+
+    @Test
+    void buscar_DeveIrAoBancoSomenteNaPrimeiraVez() {
+        assertEquals("101", cache.buscar(1L, carregador).orElseThrow().getNumeroDoQuarto());
+        assertEquals("101", cache.buscar(1L, carregador).orElseThrow().getNumeroDoQuarto());
+
+        assertEquals(1, consultas.get());
+        EstatisticaCache estatisticas = cache.estatisticas();
+        assertEquals(1, estatisticas.getAcertos());
+        assertEquals(1, estatisticas.getFaltas());
+    }
+
+    @Test
+    void buscar_DeveGuardarIdsInexistentes() {
+        assertTrue(cache.buscar(2L, carregador).isEmpty());
+        assertTrue(cache.buscar(2L, carregador).isEmpty());
+        assertEquals(1, consultas.get());
+
+        // Criação do ID 2: a invalidação descarta o 404 guardado
+        banco.put(2L, new Reserva(2L, "202", LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 2), 10L));
+        cache.invalidar(2L);
+        assertTrue(cache.buscar(2L, carregador).isPresent());
+    }
+
+    @Test
+    void buscar_DeveDevolverCopiasIndependentes() {
+        Reserva primeira = cache.buscar(1L, carregador).orElseThrow();
+        primeira.setNumeroDoQuarto("999");
+
+        assertEquals("101", cache.buscar(1L, carregador).orElseThrow().getNumeroDoQuarto());
+        assertEquals("101", banco.get(1L).getNumeroDoQuarto());
+    }
+
+    @Test
+    void invalidar_DeveForcarNovaLeitura() {
+        cache.buscar(1L, carregador);
+        banco.get(1L).setNumeroDoQuarto("303");
+
+        cache.invalidar(1L);
+
+        assertEquals("303", cache.buscar(1L, carregador).orElseThrow().getNumeroDoQuarto());
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    void desligado_DeveSempreConsultarOBancoEReiniciarVazio() {
+        cache.buscar(1L, carregador);
+        cache.setHabilitado(false);
+
+        cache.buscar(1L, carregador);
+        cache.buscar(1L, carregador);
+        assertEquals(3, consultas.get());
+        assertFalse(cache.estatisticas().isHabilitado());
+
+        cache.setHabilitado(true);
+        assertEquals(0, cache.estatisticas().getTamanho());
+    }
+
+    @Test
+    void buscar_CargaEmAndamentoNaoDeveTravarInvalidacoesNemOutrosIds() throws Exception {
+        // Carga do ID 1 parada, como uma requisição esperando conexão do pool
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Function<Long, Optional<Reserva>> cargaLenta = id -> {
+            iniciou.countDown();
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return carregador.apply(id);
+        };
+        CompletableFuture<Optional<Reserva>> primeira = CompletableFuture.supplyAsync(() -> cache.buscar(1L, cargaLenta));
+        assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Optional<Reserva>> segunda = CompletableFuture.supplyAsync(() -> cache.buscar(1L, carregador));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            cache.invalidar(1L);
+            cache.invalidar(2L);
+            assertTrue(cache.buscar(2L, carregador).isEmpty());
+        });
+
+        liberar.countDown();
+        assertEquals("101", primeira.get(5, TimeUnit.SECONDS).orElseThrow().getNumeroDoQuarto());
+        assertEquals("101", segunda.get(5, TimeUnit.SECONDS).orElseThrow().getNumeroDoQuarto());
+    }
+}
@@ -0,0 +1,152 @@
+package com.trabalho.crud.core.concorrencia;
+
+import com.trabalho.crud.core.disponibilidade.SugestoesReserva;
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.service.ConflitoConcorrenciaException;
+import com.trabalho.crud.core.service.ReservaIndisponivelException;
+import com.trabalho.crud.core.service.ResultadoItemLote;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a GravacaoEmGrupo (group commit das criações).
+ * O processador simula o ReservaService: conta os "commits" e atribui IDs.
+ */
+public class GravacaoEmGrupoTest {
+
+    private static final LocalDate DATA = LocalDate.of(2030, 1, 1);
+
+    private GravacaoEmGrupo gravacao;
+
+    @AfterEach
+    void tearDown() {
+        if (gravacao != null) {
+            gravacao.parar();
+        }
+    }
+
+    @Test
+    void deveAgruparCriacoesConcorrentesEmPoucosCommits() throws Exception {
+        gravacao = new GravacaoEmGrupo("grupo", 64, 20, 1000, 1000, 5000);
+        AtomicInteger commits = new AtomicInteger();
+        AtomicLong proximoId = new AtomicLong(1);
+        gravacao.iniciar(reservas -> {
+            commits.incrementAndGet();
+            List<ResultadoItemLote> resultados = new ArrayList<>();
+            for (int i = 0; i < reservas.size(); i++) {
+                reservas.get(i).setId(proximoId.getAndIncrement());
+                resultados.add(ResultadoItemLote.criada(i, reservas.get(i)));
+            }
+            return resultados;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<Reserva>> futuros = new ArrayList<>();
+        try {
+            for (int i = 0; i < 256; i++) {
+                futuros.add(executor.submit(() -> gravacao.gravar(new Reserva(null, "101", DATA, DATA.plusDays(1), 1L))));
+            }
+            for (Future<Reserva> futuro : futuros) {
+                assertNotNull(futuro.get().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(commits.get() < 256, "commits: " + commits.get());
+        assertEquals(256.0 / commits.get(), gravacao.mediaPorLote(), 0.001);
+    }
+
+    @Test
+    void deveEntregarARejeicaoDeCadaItemAQuemOEnviou() {
+        gravacao = new GravacaoEmGrupo("grupo", 8, 0, 10, 1000, 5000);
+        gravacao.iniciar(reservas -> List.of(ResultadoItemLote.rejeitada(0, reservas.get(0), "Quarto ocupado")));
+
+        ValidacaoReservaException ex = assertThrows(ValidacaoReservaException.class,
+            () -> gravacao.gravar(new Reserva(null, "101", DATA, DATA.plusDays(1), 1L)));
+        assertEquals("Quarto ocupado", ex.getMessage());
+    }
+
+    @Test
+    void rejeicaoComExcecaoDaRegraDeveChegarComAsSugestoes() {
+        SugestoesReserva sugestoes = new SugestoesReserva(List.of(), List.of("202"));
+        gravacao = new GravacaoEmGrupo("grupo", 8, 0, 10, 1000, 5000);
+        gravacao.iniciar(reservas -> List.of(ResultadoItemLote.rejeitada(0, reservas.get(0),
+            new ReservaIndisponivelException("Quarto ocupado", sugestoes))));
+
+        ReservaIndisponivelException ex = assertThrows(ReservaIndisponivelException.class,
+            () -> gravacao.gravar(new Reserva(null, "101", DATA, DATA.plusDays(1), 1L)));
+        assertEquals("Quarto ocupado", ex.getMessage());
+        assertSame(sugestoes, ex.getSugestoes());
+    }
+
+    @Test
+    void falhaDoLoteDeveChegarATodasAsRequisicoes() {
+        gravacao = new GravacaoEmGrupo("grupo", 8, 0, 10, 1000, 5000);
+        gravacao.iniciar(reservas -> {
+            throw new ConflitoConcorrenciaException("Timeout na trava");
+        });
+
+        assertThrows(ConflitoConcorrenciaException.class,
+            () -> gravacao.gravar(new Reserva(null, "101", DATA, DATA.plusDays(1), 1L)));
+    }
+
+    @Test
+    void modoImediatoNaoDeveIniciarAGravadora() {
+        gravacao = new GravacaoEmGrupo("imediata", 8, 0, 10, 1000, 5000);
+        gravacao.iniciar(reservas -> List.of());
+
+        assertFalse(gravacao.ativa());
+        assertThrows(ConflitoConcorrenciaException.class,
+            () -> gravacao.gravar(new Reserva(null, "101", DATA, DATA.plusDays(1), 1L)));
+    }
+
+    @Test
+    void gravadoraQueMorreDeveRecusarOsPedidosSeguintes() {
+        gravacao = new GravacaoEmGrupo("grupo", 8, 0, 10, 1000, 5000);
+        gravacao.iniciar(reservas -> {
+            throw new StackOverflowError("Simulado");
+        });
+
+        assertThrows(StackOverflowError.class,
+            () -> gravacao.gravar(new Reserva(null, "101", DATA, DATA.plusDays(1), 1L)));
+        // Sem a gravadora, o pedido seguinte é recusado em vez de esperar na fila para sempre
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> assertThrows(ConflitoConcorrenciaException.class,
+            () -> gravacao.gravar(new Reserva(null, "101", DATA, DATA.plusDays(1), 1L))));
+    }
+
+    @Test
+    void commitQueNaoVemATempoDeveResponderConflito() throws Exception {
+        gravacao = new GravacaoEmGrupo("grupo", 8, 0, 10, 1000, 200);
+        CountDownLatch liberar = new CountDownLatch(1);
+        gravacao.iniciar(reservas -> {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(ResultadoItemLote.criada(0, reservas.get(0)));
+        });
+
+        try {
+            ConflitoConcorrenciaException ex = assertThrows(ConflitoConcorrenciaException.class,
+                () -> gravacao.gravar(new Reserva(null, "101", DATA, DATA.plusDays(1), 1L)));
+            assertTrue(ex.getMessage().contains("não foi confirmada a tempo"), ex.getMessage());
+        } finally {
+            liberar.countDown();
+        }
+    }
+}
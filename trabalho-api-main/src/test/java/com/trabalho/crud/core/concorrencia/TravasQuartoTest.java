@@ -0,0 +1,133 @@
+package com.trabalho.crud.core.concorrencia;
+
+import com.trabalho.crud.core.service.ConflitoConcorrenciaException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para as TravasQuarto (lock striping por número de quarto).
+ */
+public class TravasQuartoTest {
+
+    @Test
+    void deveArredondarQuantidadeDeFaixasParaPotenciaDeDois() {
+        assertEquals(64, new TravasQuarto(64, 100).quantidadeDeFaixas());
+        assertEquals(64, new TravasQuarto(50, 100).quantidadeDeFaixas());
+        assertEquals(1, new TravasQuarto(1, 100).quantidadeDeFaixas());
+    }
+
+    @Test
+    void deveSerializarOperacoesNoMesmoQuarto() throws Exception {
+        TravasQuarto travas = new TravasQuarto(64, 5000);
+        AtomicInteger dentro = new AtomicInteger();
+        AtomicInteger maximoSimultaneo = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 200; i++) {
+                executor.submit(() -> travas.executar("101", () -> {
+                    maximoSimultaneo.accumulateAndGet(dentro.incrementAndGet(), Math::max);
+                    Thread.onSpinWait();
+                    return dentro.decrementAndGet();
+                }));
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, maximoSimultaneo.get());
+        int faixa = travas.faixaDo("101");
+        assertEquals(200, travas.estatisticas().get(faixa).getAquisicoes());
+    }
+
+    @Test
+    void devePermitirQuartosDeFaixasDiferentesEmParalelo() throws Exception {
+        TravasQuarto travas = new TravasQuarto(64, 5000);
+        String outroQuarto = "102";
+        assertNotEquals(travas.faixaDo("101"), travas.faixaDo(outroQuarto));
+
+        CountDownLatch dentroDo101 = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> segurando = executor.submit(() -> travas.executar("101", () -> {
+                dentroDo101.countDown();
+                aguardar(liberar);
+                return null;
+            }));
+            assertTrue(dentroDo101.await(5, TimeUnit.SECONDS));
+
+            // Não espera pela trava do 101
+            assertEquals("ok", travas.executar(outroQuarto, () -> "ok"));
+
+            liberar.countDown();
+            segurando.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void deveLancarConflitoERegistrarContencaoQuandoExpiraOTimeout() throws Exception {
+        TravasQuarto travas = new TravasQuarto(64, 50);
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> travas.executar("101", () -> {
+                dentro.countDown();
+                aguardar(liberar);
+                return null;
+            }));
+            assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ConflitoConcorrenciaException.class, () -> travas.executar("101", () -> "nunca"));
+        } finally {
+            liberar.countDown();
+            executor.shutdown();
+        }
+
+        EstatisticaTrava estatistica = travas.estatisticas().get(travas.faixaDo("101"));
+        assertEquals(1, estatistica.getContencoes());
+        assertEquals(1, estatistica.getTimeouts());
+        assertTrue(estatistica.getEsperaMaximaMs() >= 40);
+    }
+
+    @Test
+    void deveAdquirirVariasFaixasSemDeadlockEmOrdensOpostas() throws Exception {
+        TravasQuarto travas = new TravasQuarto(64, 5000);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> tarefas = List.of(
+                executor.submit(() -> repetir(travas, List.of("101", "202"))),
+                executor.submit(() -> repetir(travas, List.of("202", "101"))));
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void repetir(TravasQuarto travas, List<String> quartos) {
+        for (int i = 0; i < 1000; i++) {
+            travas.executar(quartos, () -> null);
+        }
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
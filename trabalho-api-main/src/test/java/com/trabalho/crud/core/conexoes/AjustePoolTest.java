@@ -0,0 +1,138 @@
+package com.trabalho.crud.core.conexoes;
+
+import com.trabalho.crud.core.repository.PoolsConexao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários do ajuste adaptativo do tamanho dos pools.
+ */
+@ExtendWith(MockitoExtension.class)
+class AjustePoolTest {
+
+    @Mock
+    private PoolsConexao pools;
+
+    private final AtomicLong relogio = new AtomicLong(1_000_000_000L);
+    private MonitorConexoes monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new MonitorConexoes(pools, 0, 10, relogio::get);
+    }
+
+    private AjustePool ajuste(int minimo, int maximo) {
+        return new AjustePool(monitor, pools, minimo, maximo, 0.5, 2.0, relogio::get);
+    }
+
+    private void tamanho(int tamanhoMaximo, int pendentes) {
+        when(pools.nomes()).thenReturn(List.of("p"));
+        when(pools.ocupacao("p")).thenReturn(new OcupacaoPool(0, 0, pendentes, tamanhoMaximo));
+    }
+
+    // Empréstimos em sequência, cada um com a espera e o uso indicados
+    private void emprestimos(int quantidade, long esperaMs, long usoMs) {
+        for (int i = 0; i < quantidade; i++) {
+            monitor.conexaoAdquirida("p", TimeUnit.MILLISECONDS.toNanos(esperaMs));
+            relogio.addAndGet(TimeUnit.MILLISECONDS.toNanos(usoMs));
+            monitor.conexaoDevolvida("p");
+        }
+    }
+
+    @Test
+    void ajustar_PrimeiraPassadaDeveAplicarOsLimites() {
+        tamanho(100, 0);
+
+        ajuste(5, 50).ajustar();
+
+        verify(pools).definirMinimo("p", 5);
+        verify(pools).redimensionar("p", 50);
+    }
+
+    @Test
+    void ajustar_EsperaMaiorQueOUsoDeveCrescerOPool() {
+        AjustePool ajuste = ajuste(10, 50);
+        tamanho(10, 3);
+        ajuste.ajustar();
+
+        emprestimos(20, 5, 1);
+        ajuste.ajustar();
+
+        verify(pools).redimensionar("p", 12);
+    }
+
+    @Test
+    void ajustar_TempoEsgotadoDeveCrescerAteOMaximo() {
+        AjustePool ajuste = ajuste(10, 11);
+        tamanho(10, 3);
+        ajuste.ajustar();
+
+        monitor.tempoEsgotado("p");
+        ajuste.ajustar();
+
+        verify(pools).redimensionar("p", 11);
+    }
+
+    @Test
+    void ajustar_BancoSaturadoNaoDeveCrescerOPool() {
+        AjustePool ajuste = ajuste(10, 50);
+        tamanho(10, 3);
+        ajuste.ajustar();
+
+        // Referência: conexões usadas por 1 ms, sem fila
+        emprestimos(20, 0, 1);
+        ajuste.ajustar();
+        // Fila, mas cada conexão agora demora 5 vezes mais no banco
+        emprestimos(20, 10, 5);
+        ajuste.ajustar();
+
+        verify(pools, never()).redimensionar(anyString(), anyInt());
+    }
+
+    @Test
+    void ajustar_SemFilaDeveReduzirAteODobroDasConexoesOcupadas() {
+        AjustePool ajuste = ajuste(1, 50);
+        tamanho(40, 0);
+        ajuste.ajustar();
+
+        // Uma conexão ocupada o tempo todo: precisa de 2
+        emprestimos(30, 0, 100);
+        ajuste.ajustar();
+        verify(pools).redimensionar("p", 30);
+
+        tamanho(3, 0);
+        emprestimos(30, 0, 100);
+        ajuste.ajustar();
+        verify(pools).redimensionar("p", 2);
+    }
+
+    @Test
+    void ajustar_ComThreadsEsperandoNaoDeveReduzir() {
+        AjustePool ajuste = ajuste(1, 50);
+        tamanho(40, 2);
+        ajuste.ajustar();
+
+        emprestimos(30, 0, 100);
+        ajuste.ajustar();
+
+        verify(pools, never()).redimensionar(anyString(), anyInt());
+    }
+
+    @Test
+    void construtor_LimitesInvalidosDevemSerRecusados() {
+        assertThrows(IllegalArgumentException.class, () -> ajuste(10, 5));
+        assertThrows(IllegalArgumentException.class, () -> ajuste(0, 5));
+    }
+}
@@ -0,0 +1,210 @@
+package com.trabalho.crud.core.conexoes;
+
+import com.trabalho.crud.core.repository.PoolsConexao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários das métricas de espera e uso das conexões e da detecção de retenções.
+ */
+@ExtendWith(MockitoExtension.class)
+class MonitorConexoesTest {
+
+    @Mock
+    private PoolsConexao pools;
+
+    private final AtomicLong relogio = new AtomicLong(1_000_000_000L);
+    private MonitorConexoes monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new MonitorConexoes(pools, 100, 2, relogio::get);
+    }
+
+    private void avancar(long ms) {
+        relogio.addAndGet(TimeUnit.MILLISECONDS.toNanos(ms));
+    }
+
+    @Test
+    void estatisticas_DevemSepararEsperaEUsoDaConexao() {
+        when(pools.nomes()).thenReturn(List.of("p"));
+        when(pools.ocupacao("p")).thenReturn(new OcupacaoPool(1, 4, 2, 10));
+
+        monitor.conexaoAdquirida("p", TimeUnit.MICROSECONDS.toNanos(3));
+        avancar(20);
+        monitor.conexaoDevolvida("p");
+        monitor.conexaoAdquirida("p", TimeUnit.MICROSECONDS.toNanos(5));
+        avancar(40);
+        monitor.conexaoDevolvida("p");
+        monitor.tempoEsgotado("p");
+
+        EstatisticaPool estatistica = monitor.estatisticas().get(0);
+        assertEquals("p", estatistica.getPool());
+        assertEquals(1, estatistica.getAtivas());
+        assertEquals(2, estatistica.getPendentes());
+        assertEquals(10, estatistica.getTamanhoMaximo());
+        assertEquals(2, estatistica.getAquisicoes());
+        assertEquals(1, estatistica.getTempoEsgotado());
+        assertEquals(4.0, estatistica.getEsperaMediaUs(), 0.001);
+        assertEquals(Map.of("ate4us", 1L, "ate8us", 1L), estatistica.getHistogramaEspera());
+        assertEquals(30_000.0, estatistica.getUsoMedioUs(), 0.001);
+        assertEquals(40_000.0, estatistica.getUsoMaximoUs(), 0.001);
+        assertEquals(65_536, estatistica.getUsoP99Us());
+    }
+
+    @Test
+    void conexaoDevolvida_EmprestimosAninhadosDevemSerDevolvidosPeloPool() {
+        when(pools.nomes()).thenReturn(List.of("shard-0", "shard-1"));
+        when(pools.ocupacao(anyString())).thenReturn(new OcupacaoPool(0, 0, 0, 10));
+
+        monitor.conexaoAdquirida("shard-0", 0);
+        avancar(10);
+        monitor.conexaoAdquirida("shard-1", 0);
+        avancar(10);
+        // Devolvidas na ordem dos commits, não na inversa
+        monitor.conexaoDevolvida("shard-0");
+        monitor.conexaoDevolvida("shard-1");
+
+        List<EstatisticaPool> estatisticas = monitor.estatisticas();
+        assertEquals(20_000.0, estatisticas.get(0).getUsoMedioUs(), 0.001);
+        assertEquals(10_000.0, estatisticas.get(1).getUsoMedioUs(), 0.001);
+    }
+
+    @Test
+    void conexaoDevolvida_SemAquisicaoNaThreadDeveSerIgnorada() {
+        when(pools.nomes()).thenReturn(List.of("p"));
+        when(pools.ocupacao("p")).thenReturn(new OcupacaoPool(0, 0, 0, 10));
+
+        monitor.conexaoDevolvida("p");
+
+        assertTrue(monitor.estatisticas().get(0).getHistogramaUso().isEmpty());
+    }
+
+    @Test
+    void conexaoDevolvida_AlemDoLimiteDeveRegistrarRetencao() {
+        monitor.conexaoAdquirida("p", 0);
+        avancar(150);
+        monitor.conexaoDevolvida("p");
+        monitor.conexaoAdquirida("p", 0);
+        avancar(50);
+        monitor.conexaoDevolvida("p");
+
+        EstatisticaRetencoes retencoes = monitor.retencoes();
+        assertEquals(100, retencoes.getLimiteMs());
+        assertEquals(1, retencoes.getTotal());
+        RetencaoConexao retencao = retencoes.getRecentes().get(0);
+        assertEquals("p", retencao.getPool());
+        assertEquals(150, retencao.getDuracaoMs());
+        assertFalse(retencao.isAberta());
+        assertEquals(Thread.currentThread().getName(), retencao.getThread());
+        assertEquals(Map.of(retencao.getOperacao(), 1L), retencoes.getPorOperacao());
+    }
+
+    @Test
+    void verificarRetencoes_ConexaoNaoDevolvidaDeveSerRegistradaUmaVez() {
+        monitor.conexaoAdquirida("p", 0);
+        avancar(50);
+        monitor.verificarRetencoes();
+        assertEquals(0, monitor.retencoes().getTotal());
+
+        avancar(100);
+        monitor.verificarRetencoes();
+        monitor.verificarRetencoes();
+        avancar(100);
+        monitor.conexaoDevolvida("p");
+
+        EstatisticaRetencoes retencoes = monitor.retencoes();
+        assertEquals(1, retencoes.getTotal());
+        assertTrue(retencoes.getRecentes().get(0).isAberta());
+        assertEquals(150, retencoes.getRecentes().get(0).getDuracaoMs());
+    }
+
+    @Test
+    void retencoes_DeveGuardarSoAsMaisRecentes() {
+        for (int i = 1; i <= 3; i++) {
+            monitor.conexaoAdquirida("p", 0);
+            avancar(100 + i);
+            monitor.conexaoDevolvida("p");
+        }
+
+        EstatisticaRetencoes retencoes = monitor.retencoes();
+        assertEquals(3, retencoes.getTotal());
+        assertEquals(List.of(103L, 102L),
+            retencoes.getRecentes().stream().map(RetencaoConexao::getDuracaoMs).toList());
+    }
+
+    @Test
+    void retencoes_ComLimiteZeroNaoDeveRegistrar() {
+        monitor = new MonitorConexoes(pools, 0, 2, relogio::get);
+
+        monitor.conexaoAdquirida("p", 0);
+        avancar(10_000);
+        monitor.verificarRetencoes();
+        monitor.conexaoDevolvida("p");
+
+        assertEquals(0, monitor.retencoes().getTotal());
+    }
+
+    @Test
+    void operacao_DevePreferirOMetodoDoServico() {
+        String operacao = MonitorConexoes.operacao(Stream.of(
+            quadro("com.zaxxer.hikari.HikariDataSource", "getConnection"),
+            quadro("com.trabalho.crud.core.conexoes.MonitorConexoes", "conexaoAdquirida"),
+            quadro("com.trabalho.crud.core.replicacao.RoteamentoLeitura", "ler"),
+            quadro("com.trabalho.crud.core.service.ReservaService", "lambda$buscarPorId$4"),
+            quadro("com.trabalho.crud.core.service.ReservaService$$SpringCGLIB$$0", "buscarPorId")));
+
+        assertEquals("ReservaService.buscarPorId", operacao);
+    }
+
+    @Test
+    void operacao_ServicoChamadoPorOutroDeveSerAtribuidoAoPontoDeEntrada() {
+        String operacao = MonitorConexoes.operacao(Stream.of(
+            quadro("org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy", "invoke"),
+            quadro("com.trabalho.crud.core.service.AlteracaoReservaService", "reservar"),
+            quadro("com.trabalho.crud.core.service.ReservaService", "lambda$criar$2"),
+            quadro("com.trabalho.crud.core.concorrencia.TravasQuarto", "executar"),
+            quadro("com.trabalho.crud.core.service.ReservaService", "criar"),
+            quadro("com.trabalho.crud.inbound.controller.ReservaController", "criar")));
+
+        assertEquals("ReservaService.criar", operacao);
+    }
+
+    @Test
+    void operacao_SemServicoDeveUsarOPrimeiroMetodoDoNucleo() {
+        assertEquals("GravacaoEmGrupo.gravar", MonitorConexoes.operacao(Stream.of(
+            quadro("org.springframework.transaction.support.TransactionTemplate", "execute"),
+            quadro("com.trabalho.crud.core.concorrencia.GravacaoEmGrupo", "lambda$gravar$2"),
+            quadro("com.trabalho.crud.core.concorrencia.GravacaoEmGrupo", "executar"))));
+        assertEquals(MonitorConexoes.DESCONHECIDA, MonitorConexoes.operacao(Stream.of(
+            quadro("org.hibernate.internal.SessionImpl", "flush"))));
+    }
+
+    @Test
+    void nome_DeveRetirarProxyEClasseInterna() {
+        assertEquals("ReservaService.criar",
+            MonitorConexoes.nome("com.trabalho.crud.core.service.ReservaService$$SpringCGLIB$$0", "criar"));
+        assertEquals("ReservaService.criar",
+            MonitorConexoes.nome("com.trabalho.crud.core.service.ReservaService", "lambda$criar$12"));
+    }
+
+    private static StackWalker.StackFrame quadro(String classe, String metodo) {
+        StackWalker.StackFrame quadro = mock(StackWalker.StackFrame.class, withSettings().strictness(Strictness.LENIENT));
+        when(quadro.getClassName()).thenReturn(classe);
+        when(quadro.getMethodName()).thenReturn(metodo);
+        return quadro;
+    }
+}
@@ -0,0 +1,106 @@
+package com.trabalho.crud.core.disponibilidade;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.ReservaRepository;
+import com.trabalho.crud.core.shard.RoteadorShards;
+import com.trabalho.crud.core.service.ReservaExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a BuscaAlternativas.
+ * As reservas existentes chegam pelo índice em memória (carregado de uma lista).
+ */
+@ExtendWith(MockitoExtension.class)
+public class BuscaAlternativasTest {
+
+    @Mock
+    private ReservaExportService reservaExportService;
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    private List<Reserva> banco;
+    private LocalDate base;
+    private BuscaAlternativas busca;
+
+    @BeforeEach
+    void setUp() {
+        base = LocalDate.now().plusDays(40);
+        banco = new ArrayList<>();
+        // Quarto 101: ocupado de base-2 a base+3 e de base+5 a base+9 (livre entre base+3 e base+5)
+        banco.add(new Reserva(1L, "101", base.minusDays(2), base.plusDays(3), 10L));
+        banco.add(new Reserva(2L, "101", base.plusDays(5), base.plusDays(9), 10L));
+        banco.add(new Reserva(3L, "202", base, base.plusDays(1), 10L));
+        banco.add(new Reserva(4L, "303", base.plusDays(20), base.plusDays(21), 10L));
+        banco.add(new Reserva(5L, "404", base.plusDays(20), base.plusDays(21), 10L));
+
+        lenient().when(reservaExportService.exportar(any())).thenAnswer(invocation -> {
+            Consumer<Reserva> consumidor = invocation.getArgument(0);
+            banco.forEach(consumidor);
+            return (long) banco.size();
+        });
+        IndiceDisponibilidade indice = new IndiceDisponibilidade(reservaExportService, true, 730);
+        indice.reconstruir();
+        busca = new BuscaAlternativas(indice, reservaRepository,
+            new RoteadorShards(false, new String[0], 128, 1, null), 3, 30);
+    }
+
+    @Test
+    void sugerir_DeveTrazerOsPeriodosLivresMaisProximosNoMesmoQuarto() {
+        Reserva pedido = new Reserva(null, "101", base, base.plusDays(2), 10L);
+
+        SugestoesReserva sugestoes = busca.sugerir(pedido, null);
+
+        // Intervalos livres: [.., base-2) antes, [base+3, base+5) no meio, [base+9, ..) depois
+        assertEquals(List.of(
+            new PeriodoLivre(base.plusDays(3), base.plusDays(5)).toString(),
+            new PeriodoLivre(base.minusDays(4), base.minusDays(2)).toString(),
+            new PeriodoLivre(base.plusDays(9), base.plusDays(11)).toString()),
+            sugestoes.getPeriodos().stream().map(PeriodoLivre::toString).toList());
+        verifyNoInteractions(reservaRepository);
+    }
+
+    @Test
+    void sugerir_NaoDeveSugerirIntervalosMenoresQueAEstadia() {
+        Reserva pedido = new Reserva(null, "101", base, base.plusDays(3), 10L);
+
+        SugestoesReserva sugestoes = busca.sugerir(pedido, null);
+
+        assertTrue(sugestoes.getPeriodos().stream()
+            .noneMatch(p -> p.getDataInicioReserva().equals(base.plusDays(3))));
+        assertEquals(2, sugestoes.getPeriodos().size());
+    }
+
+    @Test
+    void sugerir_DeveListarOutrosQuartosLivresNasMesmasDatas() {
+        Reserva pedido = new Reserva(null, "101", base, base.plusDays(2), 10L);
+
+        SugestoesReserva sugestoes = busca.sugerir(pedido, null);
+
+        assertEquals(List.of("303", "404"), sugestoes.getQuartos());
+    }
+
+    @Test
+    void sugerir_NaAtualizacaoDeveIgnorarAPropriaReserva() {
+        // A reserva 2 quer ir para base+4..base+8: sem ela, o intervalo livre do meio vai de base+3 a base+9
+        Reserva pedido = new Reserva(2L, "101", base.plusDays(2), base.plusDays(6), 10L);
+
+        SugestoesReserva sugestoes = busca.sugerir(pedido, 2L);
+
+        assertEquals(base.plusDays(3), sugestoes.getPeriodos().get(0).getDataInicioReserva());
+        assertEquals(base.plusDays(7), sugestoes.getPeriodos().get(0).getDataFinalReserva());
+    }
+}
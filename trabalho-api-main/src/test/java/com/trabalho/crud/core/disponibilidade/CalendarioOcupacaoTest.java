@@ -0,0 +1,54 @@
+package com.trabalho.crud.core.disponibilidade;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para o CalendarioOcupacao, com foco nas fronteiras entre palavras de 64 bits.
+ */
+public class CalendarioOcupacaoTest {
+
+    private static final int ORIGEM = (int) LocalDate.of(2030, 1, 1).toEpochDay();
+
+    private static CalendarioOcupacao calendarioCom(int inicio, int fim) {
+        IntervalosQuarto intervalos = IntervalosQuarto.VAZIO
+            .comPeriodo(1L, LocalDate.ofEpochDay(ORIGEM + inicio), LocalDate.ofEpochDay(ORIGEM + fim));
+        return CalendarioOcupacao.de(intervalos, ORIGEM, 200);
+    }
+
+    @Test
+    void ocupado_DeveRespeitarIntervalosSemiAbertosNaFronteiraDasPalavras() {
+        // Noites 60..129 (atravessa as palavras 0, 1 e 2)
+        CalendarioOcupacao calendario = calendarioCom(60, 130);
+
+        assertFalse(calendario.ocupado(ORIGEM, ORIGEM + 60));
+        assertTrue(calendario.ocupado(ORIGEM + 59, ORIGEM + 61));
+        assertTrue(calendario.ocupado(ORIGEM + 63, ORIGEM + 64));
+        assertTrue(calendario.ocupado(ORIGEM + 64, ORIGEM + 65));
+        assertTrue(calendario.ocupado(ORIGEM + 129, ORIGEM + 130));
+        assertFalse(calendario.ocupado(ORIGEM + 130, ORIGEM + 200));
+    }
+
+    @Test
+    void ocupado_DeveEnxergarNoitesNoMeioDeUmPeriodoLongo() {
+        CalendarioOcupacao calendario = calendarioCom(100, 101);
+
+        assertTrue(calendario.ocupado(ORIGEM, ORIGEM + 200));
+        assertFalse(calendario.ocupado(ORIGEM, ORIGEM + 100));
+        assertFalse(calendario.ocupado(ORIGEM + 101, ORIGEM + 200));
+    }
+
+    @Test
+    void deveRecortarPeriodosQueSaemDaJanela() {
+        CalendarioOcupacao calendario = calendarioCom(-10, 3);
+
+        assertTrue(calendario.ocupado(ORIGEM + 2, ORIGEM + 3));
+        assertFalse(calendario.ocupado(ORIGEM + 3, ORIGEM + 4));
+        assertTrue(calendario.cobre(ORIGEM, ORIGEM + 200));
+        assertFalse(calendario.cobre(ORIGEM - 1, ORIGEM + 2));
+        assertFalse(calendario.cobre(ORIGEM + 199, ORIGEM + 201));
+    }
+}
@@ -0,0 +1,185 @@
+package com.trabalho.crud.core.disponibilidade;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.service.ReservaExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Testes unitários para o IndiceDisponibilidade.
+ * O "banco" é simulado por uma lista entregue pelo ReservaExportService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class IndiceDisponibilidadeTest {
+
+    @Mock
+    private ReservaExportService reservaExportService;
+
+    private IndiceDisponibilidade indice;
+    private List<Reserva> banco;
+    private LocalDate base;
+
+    @BeforeEach
+    void setUp() {
+        base = LocalDate.of(2030, 3, 1);
+        banco = new ArrayList<>();
+        banco.add(new Reserva(1L, "101", base, base.plusDays(3), 10L));
+        banco.add(new Reserva(2L, "101", base.plusDays(5), base.plusDays(7), 10L));
+        banco.add(new Reserva(3L, "202", base, base.plusDays(30), 10L));
+
+        lenient().when(reservaExportService.exportar(any())).thenAnswer(invocation -> {
+            Consumer<Reserva> consumidor = invocation.getArgument(0);
+            banco.forEach(consumidor);
+            return (long) banco.size();
+        });
+        indice = new IndiceDisponibilidade(reservaExportService, true, 730);
+    }
+
+    @Test
+    void naoDeveEstarProntoAntesDaCarga() {
+        assertFalse(indice.estaPronto());
+    }
+
+    @Test
+    void temConflito_DeveRespeitarIntervalosSemiAbertos() {
+        indice.reconstruir();
+
+        assertTrue(indice.estaPronto());
+        assertTrue(indice.temConflito("101", base.plusDays(2), base.plusDays(4), null));
+        // Check-out no dia 3 e check-in no mesmo dia não conflitam
+        assertFalse(indice.temConflito("101", base.plusDays(3), base.plusDays(5), null));
+        assertTrue(indice.temConflito("101", base.minusDays(10), base.plusDays(20), null));
+        // Período longo de outro quarto não interfere
+        assertFalse(indice.temConflito("303", base, base.plusDays(1), null));
+        assertTrue(indice.temConflito("202", base.plusDays(10), base.plusDays(11), null));
+    }
+
+    @Test
+    void temConflito_DeveIgnorarAPropriaReservaNaAtualizacao() {
+        indice.reconstruir();
+
+        assertFalse(indice.temConflito("101", base.plusDays(1), base.plusDays(4), 1L));
+        assertTrue(indice.temConflito("101", base.plusDays(1), base.plusDays(6), 1L));
+    }
+
+    @Test
+    void escritas_DevemManterOIndiceEmSincronia() {
+        indice.reconstruir();
+
+        indice.registrar(new Reserva(4L, "101", base.plusDays(3), base.plusDays(5), 10L));
+        assertTrue(indice.temConflito("101", base.plusDays(4), base.plusDays(5), null));
+
+        // Reserva 4 muda para o quarto 303
+        indice.mover("101", new Reserva(4L, "303", base, base.plusDays(1), 10L));
+        assertFalse(indice.temConflito("101", base.plusDays(4), base.plusDays(5), null));
+        assertTrue(indice.temConflito("303", base, base.plusDays(1), null));
+
+        indice.remover(3L, "202");
+        assertFalse(indice.temConflito("202", base.plusDays(10), base.plusDays(11), null));
+    }
+
+    @Test
+    void paraCadaPeriodo_DeveEntregarSomenteOsSobrepostosEmOrdem() {
+        indice.reconstruir();
+        List<LocalDate> inicios = new ArrayList<>();
+
+        indice.paraCadaPeriodo("101", base.plusDays(1), base.plusDays(6), (inicio, fim) -> inicios.add(inicio));
+
+        assertEquals(List.of(base, base.plusDays(5)), inicios);
+    }
+
+    @Test
+    void verificarConsistencia_DeveDetectarEReconstruirDivergencias() {
+        indice.reconstruir();
+        assertEquals(0, indice.verificarConsistencia());
+
+        // Alterações feitas direto no banco, sem passar pelo serviço
+        banco.remove(0);
+        banco.add(new Reserva(9L, "404", base, base.plusDays(2), 10L));
+
+        assertEquals(2, indice.verificarConsistencia());
+        assertFalse(indice.temConflito("101", base, base.plusDays(1), null));
+        assertTrue(indice.temConflito("404", base, base.plusDays(1), null));
+        assertEquals(0, indice.verificarConsistencia());
+    }
+
+    @Test
+    void calendario_DeveResponderIgualAosPeriodosDentroDaJanela() {
+        LocalDate hoje = LocalDate.now();
+        Random aleatorio = new Random(42);
+        banco.clear();
+        for (long id = 1; id <= 300; id++) {
+            LocalDate inicio = hoje.plusDays(aleatorio.nextInt(700));
+            banco.add(new Reserva(id, "Q" + aleatorio.nextInt(10), inicio, inicio.plusDays(1 + aleatorio.nextInt(90)), 10L));
+        }
+        IndiceDisponibilidade semCalendario = new IndiceDisponibilidade(reservaExportService, true, 0);
+        semCalendario.reconstruir();
+        indice.reconstruir();
+
+        for (int i = 0; i < 5000; i++) {
+            String quarto = "Q" + aleatorio.nextInt(10);
+            LocalDate inicio = hoje.plusDays(aleatorio.nextInt(800));
+            LocalDate fim = inicio.plusDays(1 + aleatorio.nextInt(130));
+            assertEquals(semCalendario.temConflito(quarto, inicio, fim, null),
+                indice.temConflito(quarto, inicio, fim, null), quarto + " " + inicio + " a " + fim);
+        }
+    }
+
+    @Test
+    void paraCadaQuartoLivre_DeveIgnorarQuartosOcupadosNoPeriodo() {
+        indice.reconstruir();
+        List<String> livres = new ArrayList<>();
+
+        indice.paraCadaQuartoLivre(base.plusDays(3), base.plusDays(5), livres::add);
+
+        assertEquals(List.of("101"), livres);
+    }
+
+    @Test
+    void quartosLivres_DeveVarrerEmParaleloEDevolverEmOrdem() {
+        LocalDate hoje = LocalDate.now();
+        banco.clear();
+        // Quartos pares ocupados no período consultado, ímpares livres
+        for (int q = 0; q < 3000; q++) {
+            LocalDate inicio = q % 2 == 0 ? hoje.plusDays(10) : hoje.plusDays(20);
+            banco.add(new Reserva((long) q + 1, String.format("Q%04d", q), inicio, inicio.plusDays(3), 10L));
+        }
+        indice.reconstruir();
+
+        List<String> livres = indice.quartosLivres(hoje.plusDays(11), hoje.plusDays(12));
+
+        assertEquals(1500, livres.size());
+        assertEquals("Q0001", livres.get(0));
+        assertEquals("Q2999", livres.get(1499));
+        assertTrue(livres.stream().allMatch(q -> Integer.parseInt(q.substring(1)) % 2 == 1));
+    }
+
+    @Test
+    void estatisticasCalendario_DeveInformarMemoriaPorQuarto() {
+        LocalDate hoje = LocalDate.now();
+        banco.add(new Reserva(4L, "303", hoje, hoje.plusDays(2), 10L));
+        indice.reconstruir();
+
+        EstatisticaCalendario estatisticas = indice.estatisticasCalendario();
+
+        assertEquals(3, estatisticas.getQuartos());
+        assertEquals(hoje, estatisticas.getInicioJanela());
+        assertEquals(hoje.plusDays(730), estatisticas.getFimJanela());
+        // 730 noites = 12 palavras de 64 bits
+        assertEquals(40 + 12 * 8, estatisticas.getBytesPorQuarto());
+        assertEquals(3 * estatisticas.getBytesPorQuarto(), estatisticas.getBytesTotais());
+    }
+}
@@ -0,0 +1,167 @@
+package com.trabalho.crud.core.eventos;
+
+import com.trabalho.crud.core.entity.Reserva;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BarramentoEventosTest {
+
+    private static final long SEQUENCIA_INICIAL = 1000;
+
+    // Envio síncrono (na própria thread) para os testes não dependerem de tempo
+    private BarramentoEventos barramento(int historico, int porAssinante, String politica) {
+        return new BarramentoEventos(historico, porAssinante, politica, Runnable::run, SEQUENCIA_INICIAL);
+    }
+
+    @Test
+    void publicar_DeveEntregarEventosEmOrdemComSequenciaCrescente() {
+        BarramentoEventos barramento = barramento(100, 100, "ressincronizar");
+        Destino destino = new Destino();
+        barramento.assinar(Set.of(), null, destino);
+
+        barramento.publicar(TipoEventoReserva.CRIADA, reserva(1L, "101"), null);
+        barramento.publicar(TipoEventoReserva.REMOVIDA, reserva(1L, "101"), null);
+
+        assertEquals(List.of(1001L, 1002L), destino.sequencias());
+        assertEquals(TipoEventoReserva.REMOVIDA, destino.eventos.get(1).getTipo());
+        assertEquals(1, destino.sinaisDeVida); // O primeiro envio da assinatura
+    }
+
+    @Test
+    void assinar_DeveFiltrarPorQuartoInclusiveOQuartoAnterior() {
+        BarramentoEventos barramento = barramento(100, 100, "ressincronizar");
+        Destino destino = new Destino();
+        barramento.assinar(Set.of("101"), null, destino);
+
+        barramento.publicar(TipoEventoReserva.CRIADA, reserva(1L, "202"), null);
+        barramento.publicar(TipoEventoReserva.CRIADA, reserva(2L, "101"), null);
+        // Reserva 2 saiu do quarto 101: quem acompanha o 101 precisa saber
+        barramento.publicar(TipoEventoReserva.ATUALIZADA, reserva(2L, "303"), "101");
+
+        assertEquals(List.of(1002L, 1003L), destino.sequencias());
+        assertEquals("101", destino.eventos.get(1).getQuartoAnterior());
+    }
+
+    @Test
+    void assinar_DeveRetomarAPartirDoUltimoEventoRecebido() {
+        BarramentoEventos barramento = barramento(100, 100, "ressincronizar");
+        for (long id = 1; id <= 5; id++) {
+            barramento.publicar(TipoEventoReserva.CRIADA, reserva(id, "101"), null);
+        }
+
+        Destino destino = new Destino();
+        barramento.assinar(Set.of(), 1003L, destino);
+
+        assertEquals(List.of(1004L, 1005L), destino.sequencias());
+        assertTrue(destino.ressincronizacoes.isEmpty());
+    }
+
+    @Test
+    void assinar_ForaDoHistoricoDeveRessincronizar() {
+        BarramentoEventos barramento = barramento(3, 100, "ressincronizar");
+        for (long id = 1; id <= 5; id++) {
+            barramento.publicar(TipoEventoReserva.CRIADA, reserva(id, "101"), null);
+        }
+
+        Destino antigo = new Destino();
+        barramento.assinar(Set.of(), 1001L, antigo);
+        // ID de antes de um reinício (menor que a primeira sequência desta execução)
+        Destino anteriorAoReinicio = new Destino();
+        barramento.assinar(Set.of(), 42L, anteriorAoReinicio);
+
+        assertEquals(List.of(1005L), antigo.ressincronizacoes);
+        assertTrue(antigo.eventos.isEmpty());
+        assertEquals(List.of(1005L), anteriorAoReinicio.ressincronizacoes);
+    }
+
+    @Test
+    void consumidorLento_DeveSerRessincronizadoQuandoAFilaEnche() {
+        List<Runnable> pendentes = new ArrayList<>();
+        BarramentoEventos barramento = new BarramentoEventos(100, 2, "ressincronizar", pendentes::add, SEQUENCIA_INICIAL);
+        Destino destino = new Destino();
+        barramento.assinar(Set.of(), null, destino);
+
+        // Nada é enviado enquanto o envio não roda: a fila de 2 posições transborda no terceiro
+        for (long id = 1; id <= 4; id++) {
+            barramento.publicar(TipoEventoReserva.CRIADA, reserva(id, "101"), null);
+        }
+        pendentes.forEach(Runnable::run);
+
+        assertEquals(List.of(1003L), destino.ressincronizacoes);
+        assertEquals(List.of(1004L), destino.sequencias());
+        assertEquals(1, barramento.estatisticas().getRessincronizacoes());
+    }
+
+    @Test
+    void consumidorLento_ComPoliticaDescartarDevePerderOsMaisAntigos() {
+        List<Runnable> pendentes = new ArrayList<>();
+        BarramentoEventos barramento = new BarramentoEventos(100, 2, "descartar", pendentes::add, SEQUENCIA_INICIAL);
+        Destino destino = new Destino();
+        barramento.assinar(Set.of(), null, destino);
+
+        for (long id = 1; id <= 4; id++) {
+            barramento.publicar(TipoEventoReserva.CRIADA, reserva(id, "101"), null);
+        }
+        pendentes.forEach(Runnable::run);
+
+        assertEquals(List.of(1003L, 1004L), destino.sequencias());
+        assertTrue(destino.ressincronizacoes.isEmpty());
+        assertEquals(2, barramento.estatisticas().getDescartados());
+    }
+
+    @Test
+    void destinoComErro_DeveEncerrarAAssinatura() {
+        BarramentoEventos barramento = barramento(100, 100, "ressincronizar");
+        Destino destino = new Destino();
+        BarramentoEventos.Assinatura assinatura = barramento.assinar(Set.of(), null, destino);
+
+        destino.falhar = true;
+        barramento.publicar(TipoEventoReserva.CRIADA, reserva(1L, "101"), null);
+
+        assertFalse(assinatura.isAtiva());
+        assertEquals(0, barramento.estatisticas().getAssinaturas());
+    }
+
+    private static Reserva reserva(Long id, String quarto) {
+        Reserva reserva = new Reserva(id, quarto, LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), 10L);
+        reserva.setVersao(0L);
+        return reserva;
+    }
+
+    private static final class Destino implements DestinoEventos {
+
+        private final List<EventoReserva> eventos = new ArrayList<>();
+        private final List<Long> ressincronizacoes = new ArrayList<>();
+        private int sinaisDeVida;
+        private boolean falhar;
+
+        @Override
+        public void enviar(List<EventoReserva> lote) throws IOException {
+            if (falhar) {
+                throw new IOException("conexão encerrada");
+            }
+            eventos.addAll(lote);
+        }
+
+        @Override
+        public void ressincronizar(long sequencia) {
+            ressincronizacoes.add(sequencia);
+        }
+
+        @Override
+        public void manterViva() {
+            sinaisDeVida++;
+        }
+
+        List<Long> sequencias() {
+            return eventos.stream().map(EventoReserva::getSequencia).toList();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.trabalho.crud.core.hospede;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FiltroBloomTest {
+
+    @Test
+    void talvezContem_NaoDeveTerFalsosNegativos() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filtro.adicionar(id);
+        }
+        for (long id = 1; id <= 10_000; id++) {
+            assertTrue(filtro.talvezContem(id), "ID " + id);
+        }
+        assertEquals(10_000, filtro.quantidade());
+    }
+
+    @Test
+    void talvezContem_DeveRespeitarATaxaDeFalsosPositivosNaCapacidade() {
+        FiltroBloom filtro = new FiltroBloom(100_000, 0.01);
+        for (long id = 1; id <= 100_000; id++) {
+            filtro.adicionar(id);
+        }
+        int falsosPositivos = 0;
+        for (long id = 1_000_001; id <= 1_100_000; id++) {
+            if (filtro.talvezContem(id)) {
+                falsosPositivos++;
+            }
+        }
+        // 1% esperado; folga para a variação estatística
+        assertTrue(falsosPositivos < 1_500, "falsos positivos: " + falsosPositivos);
+        assertEquals(0.01, filtro.taxaFalsoPositivoEstimada(), 0.005);
+    }
+
+    @Test
+    void bytes_DeveOcuparCercaDeDezBitsPorIdComUmPorCento() {
+        FiltroBloom filtro = new FiltroBloom(1_000_000, 0.01);
+        assertTrue(filtro.bytes() < 1_300_000, "bytes: " + filtro.bytes());
+    }
+}
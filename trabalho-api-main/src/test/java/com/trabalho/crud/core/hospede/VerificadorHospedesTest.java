@@ -0,0 +1,148 @@
+package com.trabalho.crud.core.hospede;
+
+import com.trabalho.crud.core.repository.DiretorioHospedes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.TreeSet;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VerificadorHospedesTest {
+
+    @Mock
+    private DiretorioHospedes diretorio;
+
+    // Cadastro simulado: IDs pares de 2 a 200
+    private final TreeSet<Long> cadastro = new TreeSet<>();
+    private VerificadorHospedes verificador;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 2; id <= 200; id += 2) {
+            cadastro.add(id);
+        }
+        lenient().when(diretorio.paraCadaId(anyLong(), anyInt(), any())).thenAnswer(chamada -> {
+            long aposId = chamada.getArgument(0);
+            int limite = chamada.getArgument(1);
+            LongConsumer consumidor = chamada.getArgument(2);
+            int lidos = 0;
+            for (Long id : cadastro.tailSet(aposId, false)) {
+                if (lidos == limite) {
+                    break;
+                }
+                consumidor.accept(id);
+                lidos++;
+            }
+            return lidos;
+        });
+        lenient().when(diretorio.existe(anyLong())).thenAnswer(chamada -> cadastro.contains((Long) chamada.getArgument(0)));
+        verificador = new VerificadorHospedes(diretorio, true, 1000, 0.001, 30, 0, 100, 300);
+    }
+
+    @Test
+    void carregar_DeveLerOCadastroEmBlocos() {
+        assertEquals(100, verificador.carregar());
+
+        // 100 IDs em blocos de 30: 4 consultas
+        verify(diretorio, times(4)).paraCadaId(anyLong(), eq(30), any());
+        assertEquals(200, verificador.estatisticas().getUltimoIdCarregado());
+    }
+
+    @Test
+    void existe_DeveRecusarPeloFiltroSemConsultarOCadastro() {
+        verificador.carregar();
+
+        assertFalse(verificador.existe(7));
+
+        verify(diretorio, never()).existe(anyLong());
+        assertEquals(1, verificador.estatisticas().getNegativosPeloFiltro());
+    }
+
+    @Test
+    void existe_DeveGuardarPositivosNoCache() {
+        verificador.carregar();
+
+        assertTrue(verificador.existe(42));
+        assertTrue(verificador.existe(42));
+
+        verify(diretorio, times(1)).existe(42L);
+        assertEquals(1, verificador.estatisticas().getAcertosCache());
+    }
+
+    @Test
+    void existe_DeveConsultarOCadastroParaIdsAcimaDaUltimaCarga() {
+        verificador.carregar();
+        cadastro.add(202L);
+
+        assertTrue(verificador.existe(202));
+        assertFalse(verificador.existe(203));
+
+        verify(diretorio).existe(202L);
+        verify(diretorio).existe(203L);
+    }
+
+    @Test
+    void existe_IdConfirmadoAbaixoDaUltimaCargaDeveSerAceito() {
+        // Janela de 1 minuto: os IDs da carga ainda não valem como recusa
+        VerificadorHospedes comJanela = new VerificadorHospedes(diretorio, true, 1000, 0.001, 30, 60_000, 100, 300);
+        comJanela.carregar();
+        cadastro.add(51L); // Transação mais lenta que a que criou o 200
+
+        assertTrue(comJanela.existe(51));
+        assertFalse(comJanela.existe(53));
+
+        verify(diretorio).existe(53L);
+        assertEquals(0, comJanela.estatisticas().getNegativosPeloFiltro());
+    }
+
+    @Test
+    void atualizar_DepoisDaJanelaDeveRelerOsIdsForaDeOrdemEVoltarARecusarPeloFiltro() throws Exception {
+        VerificadorHospedes comJanela = new VerificadorHospedes(diretorio, true, 1000, 0.001, 30, 1, 100, 300);
+        comJanela.carregar();
+        cadastro.add(51L);
+        Thread.sleep(10);
+
+        comJanela.atualizar();
+
+        // O 51 entrou pela releitura; o 7 volta a ser recusado só pelo filtro
+        assertTrue(comJanela.existe(51));
+        assertFalse(comJanela.existe(7));
+        verify(diretorio, never()).existe(7L);
+        verify(diretorio, atLeastOnce()).paraCadaId(eq(0L), eq(30), any());
+    }
+
+    @Test
+    void atualizar_DeveAcrescentarSoOsHospedesNovos() {
+        verificador.carregar();
+        cadastro.add(300L);
+        cadastro.add(302L);
+
+        assertEquals(2, verificador.atualizar());
+        assertEquals(302, verificador.estatisticas().getUltimoIdCarregado());
+        verify(diretorio).paraCadaId(eq(200L), eq(30), any());
+    }
+
+    @Test
+    void existe_SemFiltroCarregadoDeveResponderPeloCadastro() {
+        assertTrue(verificador.existe(2));
+        assertFalse(verificador.existe(3));
+        assertFalse(verificador.estatisticas().isFiltroCarregado());
+    }
+
+    @Test
+    void carregar_DeveRedimensionarOFiltroQuandoOCadastroPassaDaCapacidade() {
+        VerificadorHospedes pequeno = new VerificadorHospedes(diretorio, true, 10, 0.01, 1000, 0, 100, 300);
+
+        assertEquals(100, pequeno.carregar());
+
+        assertTrue(pequeno.estatisticas().getTaxaFalsoPositivoEstimada() < 0.02);
+    }
+}
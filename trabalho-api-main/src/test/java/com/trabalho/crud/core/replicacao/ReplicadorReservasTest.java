@@ -0,0 +1,101 @@
+package com.trabalho.crud.core.replicacao;
+
+import com.trabalho.crud.core.cache.CacheReservas;
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.AlteracaoReservaRepository;
+import com.trabalho.crud.core.repository.ReplicaReservas;
+import com.trabalho.crud.core.service.AlteracaoReserva;
+import com.trabalho.crud.core.service.AlteracaoReservaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários do replicador local entre o banco principal e a réplica.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReplicadorReservasTest {
+
+    @Mock
+    private AlteracaoReservaRepository alteracaoReservaRepository;
+
+    @Mock
+    private AlteracaoReservaService alteracoes;
+
+    @Mock
+    private ReplicaReservas replica;
+
+    @Mock
+    private RoteamentoLeitura roteamentoLeitura;
+
+    @Mock
+    private CacheReservas cacheReservas;
+
+    private ReplicadorReservas replicador;
+
+    @BeforeEach
+    void setUp() {
+        replicador = new ReplicadorReservas(alteracaoReservaRepository, alteracoes, replica, roteamentoLeitura,
+            cacheReservas, 2);
+    }
+
+    private static AlteracaoReserva alterada(long id, long sequencia) {
+        Reserva reserva = new Reserva(id, "101", LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12), 10L);
+        reserva.setSequenciaAlteracao(sequencia);
+        return AlteracaoReserva.alterada(reserva);
+    }
+
+    @Test
+    void iniciar_DeveRecriarAReplicaECopiarTudoAteOHorizonteEmBlocos() {
+        when(alteracoes.horizonte()).thenReturn(9L);
+        List<AlteracaoReserva> primeiro = List.of(alterada(1, 2), alterada(2, 4));
+        List<AlteracaoReserva> segundo = List.of(AlteracaoReserva.removida(9, 1L, "101"));
+        when(alteracaoReservaRepository.buscarAlteracoes(0L, 9L, 2)).thenReturn(primeiro);
+        when(alteracaoReservaRepository.buscarAlteracoes(4L, 9L, 2)).thenReturn(segundo);
+
+        replicador.iniciar();
+
+        InOrder ordem = inOrder(replica, roteamentoLeitura);
+        ordem.verify(replica).prepararEsquema();
+        ordem.verify(replica).aplicar(primeiro);
+        ordem.verify(replica).aplicar(segundo);
+        ordem.verify(roteamentoLeitura).registrarReplicacao(eq(9L), anyLong(), eq(3));
+        verify(cacheReservas, times(2)).invalidar(1L);
+        verify(cacheReservas).invalidar(2L);
+    }
+
+    @Test
+    void replicar_SemAlteracoesNovasDeveSoRegistrarOCiclo() {
+        when(alteracoes.horizonte()).thenReturn(0L);
+        replicador.iniciar();
+
+        // Sequências desfeitas (rollback) não têm linhas: o ciclo avança até o horizonte mesmo assim
+        when(alteracoes.horizonte()).thenReturn(5L);
+        when(alteracaoReservaRepository.buscarAlteracoes(0L, 5L, 2)).thenReturn(List.of());
+        assertEquals(0, replicador.replicar());
+
+        when(alteracoes.horizonte()).thenReturn(5L);
+        assertEquals(0, replicador.replicar());
+        verify(alteracaoReservaRepository, times(1)).buscarAlteracoes(anyLong(), anyLong(), anyInt());
+        verify(roteamentoLeitura, times(2)).registrarReplicacao(eq(5L), anyLong(), eq(0));
+        verify(replica, never()).aplicar(any());
+    }
+
+    @Test
+    void replicar_AntesDePrepararAReplicaNaoDeveFazerNada() {
+        assertEquals(0, replicador.replicar());
+        verifyNoInteractions(alteracoes, alteracaoReservaRepository, replica, roteamentoLeitura);
+    }
+}
@@ -0,0 +1,115 @@
+package com.trabalho.crud.core.replicacao;
+
+import com.trabalho.crud.core.service.AlteracaoReservaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários da escolha entre réplica e banco principal para as leituras.
+ */
+@ExtendWith(MockitoExtension.class)
+class RoteamentoLeituraTest {
+
+    @Mock
+    private PlatformTransactionManager gerenciadorTransacoes;
+
+    @Mock
+    private AlteracaoReservaService alteracoes;
+
+    private final AtomicLong relogio = new AtomicLong(1_000_000_000L);
+    private RoteamentoLeitura roteamento;
+
+    @BeforeEach
+    void setUp() {
+        roteamento = new RoteamentoLeitura(true, 5000, 2000, gerenciadorTransacoes, alteracoes, relogio::get);
+    }
+
+    @AfterEach
+    void limparCliente() {
+        ClienteAtual.limpar();
+    }
+
+    private void avancar(long ms) {
+        relogio.addAndGet(TimeUnit.MILLISECONDS.toNanos(ms));
+    }
+
+    @Test
+    void ler_SemReplicaSincronizadaDeveIrAoPrincipal() {
+        assertFalse(roteamento.ler(RoteamentoLeitura::replicaSelecionada));
+
+        assertEquals(-1, roteamento.estatisticas().getAtrasoMs());
+        assertEquals(1, roteamento.estatisticas().getLeiturasPrimarioAtraso());
+        verifyNoInteractions(gerenciadorTransacoes);
+    }
+
+    @Test
+    void ler_ComReplicaEmDiaDeveUsarTransacaoSomenteLeituraNaReplica() {
+        when(alteracoes.ultimaEmitida()).thenReturn(10L);
+        roteamento.registrarReplicacao(10L, relogio.get(), 10);
+
+        assertTrue(roteamento.ler(RoteamentoLeitura::replicaSelecionada));
+        assertFalse(RoteamentoLeitura.replicaSelecionada());
+
+        verify(gerenciadorTransacoes).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        assertEquals(1, roteamento.estatisticas().getLeiturasReplica());
+    }
+
+    @Test
+    void ler_DepoisDeEscreverOClienteDeveLerDoPrincipalAteAJanelaExpirar() {
+        when(alteracoes.ultimaEmitida()).thenReturn(10L);
+        roteamento.registrarReplicacao(10L, relogio.get(), 10);
+
+        ClienteAtual.definir("cliente-a");
+        roteamento.registrarEscrita();
+        assertFalse(roteamento.ler(RoteamentoLeitura::replicaSelecionada));
+
+        // Outro cliente não é afetado pela escrita
+        ClienteAtual.definir("cliente-b");
+        assertTrue(roteamento.ler(RoteamentoLeitura::replicaSelecionada));
+
+        ClienteAtual.definir("cliente-a");
+        avancar(5001);
+        assertTrue(roteamento.ler(RoteamentoLeitura::replicaSelecionada));
+        assertEquals(1, roteamento.estatisticas().getLeiturasPrimarioJanela());
+    }
+
+    @Test
+    void ler_ComReplicaAtrasadaDemaisDeveIrAoPrincipal() {
+        long referencia = relogio.get();
+        roteamento.registrarReplicacao(10L, referencia, 10);
+        when(alteracoes.ultimaEmitida()).thenReturn(12L);
+
+        avancar(1500);
+        assertEquals(1500, roteamento.atrasoMs());
+        assertTrue(roteamento.ler(RoteamentoLeitura::replicaSelecionada));
+
+        avancar(1000);
+        assertFalse(roteamento.ler(RoteamentoLeitura::replicaSelecionada));
+        assertEquals(2500, roteamento.estatisticas().getAtrasoMaximoObservadoMs());
+    }
+
+    @Test
+    void ler_DesligadoDeveSempreIrAoPrincipal() {
+        RoteamentoLeitura desligado = new RoteamentoLeitura(false, 5000, 2000, null, null);
+        ClienteAtual.definir("cliente-a");
+        desligado.registrarEscrita();
+
+        assertFalse(desligado.ler(RoteamentoLeitura::replicaSelecionada));
+        assertFalse(desligado.leituraPropriaPendente());
+        verify(gerenciadorTransacoes, never()).getTransaction(any());
+    }
+}
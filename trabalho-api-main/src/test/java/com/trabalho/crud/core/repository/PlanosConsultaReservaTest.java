@@ -0,0 +1,277 @@
+package com.trabalho.crud.core.repository;
+
+import com.trabalho.crud.core.entity.Reserva;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regressão de plano de execução das consultas do {@link ReservaRepository}.
+ * * Cada consulta é executada pelo próprio repositório (o SQL é o que o Hibernate gera de fato);
+ * o comando e os parâmetros são capturados na conexão e repetidos com EXPLAIN ANALYZE no H2,
+ * sobre uma massa de {@link #LINHAS} reservas. Um cenário falha se o plano varrer a tabela ou um
+ * índice inteiro, ou se as linhas lidas (scanCount) passarem do orçamento. Consultas que leem tudo
+ * por natureza (exportação, por exemplo) são declaradas como varredura e só respeitam o orçamento.
+ * * Toda consulta declarada no repositório precisa de um cenário aqui. A massa pode ser reduzida
+ * localmente com -Dplanos.linhas=100000 (os orçamentos são proporcionais a ela).
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:planos",
+    "logging.level.root=WARN"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PlanosConsultaReservaTest {
+
+    static final int LINHAS = Integer.getInteger("planos.linhas", 1_000_000);
+    static final int QUARTOS = 1_000;
+    static final int RESERVAS_POR_QUARTO = LINHAS / QUARTOS;
+    static final LocalDate INICIO_MASSA = LocalDate.of(2020, 1, 1);
+    // As reservas mais recentes de cada quarto terminam por aqui; as consultas olham os dias seguintes
+    static final LocalDate HOJE = INICIO_MASSA.plusDays(RESERVAS_POR_QUARTO * 3L - 10);
+
+    private static final Pattern LINHAS_LIDAS = Pattern.compile("scanCount: (\\d+)");
+    private static final Pattern INDICE_INTEIRO = Pattern.compile("/\\* [A-Z_]+\\.\"?[A-Za-z0-9_]+\"? \\*/");
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    @Autowired
+    private CapturaSql captura;
+
+    @BeforeAll
+    void popular() {
+        // Cada quarto recebe RESERVAS_POR_QUARTO estadias de 2 noites, uma a cada 3 dias a partir de
+        // INICIO_MASSA; os IDs crescem com as datas, como num sistema em uso
+        jdbcTemplate.update("insert into \"reserva\" (id, numero_do_quarto, data_inicio_reserva, data_final_reserva,"
+            + " hospede_id, versao, sequencia_alteracao)"
+            + " select x + 1, 'Q' || mod(x, cast(?1 as int)), dateadd(day, (x / ?1) * 3, cast(?2 as date)),"
+            + " dateadd(day, (x / ?1) * 3 + 2, cast(?2 as date)), mod(x, 5000) + 1, 0, x + 1"
+            + " from system_range(0, cast(?3 as int) - 1)",
+            QUARTOS, INICIO_MASSA, LINHAS);
+        // Estatísticas de seletividade para o otimizador escolher os índices como em produção
+        jdbcTemplate.execute("analyze");
+    }
+
+    /**
+     * Um cenário por uso real de cada consulta, com o orçamento de linhas lidas.
+     */
+    Stream<Cenario> cenarios() {
+        return Stream.of(
+            new Cenario("findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore",
+                "conflito de um quarto nos próximos dias", 20, false,
+                () -> reservaRepository.findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(
+                    "Q7", HOJE, HOJE.plusDays(5))),
+            new Cenario("findByNumeroDoQuartoInAndDataFinalReservaAfterAndDataInicioReservaBefore",
+                "conflito de um grupo de 3 quartos (lê o histórico dos 3)", 3L * (RESERVAS_POR_QUARTO + 1), false,
+                () -> reservaRepository.findByNumeroDoQuartoInAndDataFinalReservaAfterAndDataInicioReservaBefore(
+                    List.of("Q7", "Q8", "Q9"), HOJE, HOJE.plusDays(5))),
+            new Cenario("buscarPagina", "página sem filtros", 51 + 1, false,
+                () -> reservaRepository.buscarPagina(0L, null, null, null, Limit.of(51))),
+            new Cenario("buscarPagina",
+                "página por janela de datas, sem quarto (percorre a chave primária até completar a página)",
+                LINHAS + 1, true,
+                () -> reservaRepository.buscarPagina(0L, null, HOJE, HOJE.plusDays(5), Limit.of(51))),
+            new Cenario("buscarPaginaDoQuarto", "página de um quarto", RESERVAS_POR_QUARTO + 1, false,
+                () -> reservaRepository.buscarPaginaDoQuarto(0L, "Q7", null, null, Limit.of(51))),
+            new Cenario("buscarQuartosLivres",
+                "quartos livres sem o índice em memória (percorre o índice do quarto duas vezes)",
+                2L * (LINHAS + 1), true,
+                () -> reservaRepository.buscarQuartosLivres(HOJE, HOJE.plusDays(5))),
+            new Cenario("streamTodas", "exportação (lê todas as reservas pela chave primária)", LINHAS + 1, true,
+                () -> transacao.executeWithoutResult(status -> {
+                    try (Stream<Reserva> reservas = reservaRepository.streamTodas()) {
+                        reservas.findFirst();
+                    }
+                }))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("cenarios")
+    void consulta_DeveUsarIndiceEFicarDentroDoOrcamento(Cenario cenario) {
+        Comando comando = captura.capturar(cenario.consulta());
+        String plano = captura.explicar(comando);
+        String detalhe = cenario + "\n" + comando.sql() + "\n" + plano;
+
+        assertFalse(plano.contains("tableScan"), "Varredura da tabela: " + detalhe);
+        if (!cenario.varredura()) {
+            assertFalse(INDICE_INTEIRO.matcher(plano).find(), "Varredura de índice inteiro: " + detalhe);
+        }
+        long lidas = linhasLidas(plano);
+        assertTrue(lidas <= cenario.orcamento(),
+            "Leu " + lidas + " linhas, orçamento de " + cenario.orcamento() + ": " + detalhe);
+    }
+
+    @Test
+    void repositorio_TodaConsultaDeveTerCenario() {
+        Set<String> cobertas = cenarios().map(Cenario::metodo).collect(Collectors.toSet());
+        Set<String> declaradas = Arrays.stream(ReservaRepository.class.getDeclaredMethods())
+            .filter(metodo -> !metodo.isDefault() && !Modifier.isStatic(metodo.getModifiers()))
+            .map(Method::getName)
+            .collect(Collectors.toSet());
+
+        assertEquals(declaradas, cobertas);
+    }
+
+    static long linhasLidas(String plano) {
+        long total = 0;
+        Matcher encontradas = LINHAS_LIDAS.matcher(plano);
+        while (encontradas.find()) {
+            total += Long.parseLong(encontradas.group(1));
+        }
+        return total;
+    }
+
+    record Cenario(String metodo, String descricao, long orcamento, boolean varredura, Runnable consulta) {
+
+        @Override
+        public String toString() {
+            return metodo + " - " + descricao;
+        }
+    }
+
+    record Comando(String sql, List<Object[]> parametros) {
+    }
+
+    @TestConfiguration
+    static class Configuracao {
+
+        @Bean
+        static CapturaSql capturaSql() {
+            return new CapturaSql();
+        }
+    }
+
+    /**
+     * Envolve o DataSource da aplicação e guarda os comandos preparados (com os parâmetros
+     * passados a cada set*) enquanto uma captura estiver ativa na thread.
+     */
+    static class CapturaSql implements BeanPostProcessor {
+
+        private final ThreadLocal<List<Comando>> comandos = new ThreadLocal<>();
+        private DataSource dataSource;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String nome) {
+            if (bean instanceof DataSource original && "dataSource".equals(nome)) {
+                dataSource = new DelegatingDataSource(original) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        return conexao(super.getConnection());
+                    }
+                };
+                return dataSource;
+            }
+            return bean;
+        }
+
+        Comando capturar(Runnable consulta) {
+            comandos.set(new ArrayList<>());
+            try {
+                consulta.run();
+                List<Comando> capturados = comandos.get().stream()
+                    .filter(c -> c.sql().trim().toLowerCase().startsWith("select"))
+                    .toList();
+                assertEquals(1, capturados.size(), "Esperava um único SELECT: " + capturados);
+                return capturados.get(0);
+            } finally {
+                comandos.remove();
+            }
+        }
+
+        String explicar(Comando comando) {
+            try (Connection conexao = ((DelegatingDataSource) dataSource).getTargetDataSource().getConnection();
+                 PreparedStatement explain = conexao.prepareStatement("explain analyze " + comando.sql())) {
+                for (Object[] parametro : comando.parametros()) {
+                    Method metodo = (Method) parametro[0];
+                    metodo.invoke(explain, (Object[]) parametro[1]);
+                }
+                StringBuilder plano = new StringBuilder();
+                try (ResultSet resultado = explain.executeQuery()) {
+                    while (resultado.next()) {
+                        plano.append(resultado.getString(1));
+                    }
+                }
+                return plano.toString();
+            } catch (SQLException | IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Falha no EXPLAIN de " + comando.sql(), e);
+            }
+        }
+
+        private Connection conexao(Connection real) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, metodo, args) -> {
+                    Object resultado = invocar(real, metodo, args);
+                    List<Comando> ativos = comandos.get();
+                    if (ativos != null && "prepareStatement".equals(metodo.getName())) {
+                        Comando comando = new Comando((String) args[0], new ArrayList<>());
+                        ativos.add(comando);
+                        return comando((PreparedStatement) resultado, comando);
+                    }
+                    return resultado;
+                });
+        }
+
+        private PreparedStatement comando(PreparedStatement real, Comando comando) {
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {PreparedStatement.class},
+                (proxy, metodo, args) -> {
+                    if (metodo.getName().startsWith("set") && args != null && args.length >= 2
+                            && metodo.getParameterTypes()[0] == int.class) {
+                        comando.parametros().add(new Object[] {metodo, args});
+                    }
+                    return invocar(real, metodo, args);
+                });
+        }
+
+        private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+            try {
+                return metodo.invoke(alvo, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
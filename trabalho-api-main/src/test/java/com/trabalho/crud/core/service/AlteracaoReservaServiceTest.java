@@ -0,0 +1,128 @@
+package com.trabalho.crud.core.service;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.repository.AlteracaoReservaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários da sincronização incremental: token, paginação e horizonte de visibilidade.
+ */
+@ExtendWith(MockitoExtension.class)
+class AlteracaoReservaServiceTest {
+
+    @Mock
+    private AlteracaoReservaRepository repositorio;
+
+    private AlteracaoReservaService servico;
+
+    @BeforeEach
+    void setUp() {
+        servico = new AlteracaoReservaService(repositorio);
+    }
+
+    @AfterEach
+    void limparTransacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Reserva reserva(long id, long sequencia) {
+        Reserva reserva = new Reserva(id, "101", LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12), 10L);
+        reserva.setSequenciaAlteracao(sequencia);
+        return reserva;
+    }
+
+    @Test
+    void buscarAlteracoes_DevePaginarEDevolverTokenDaUltimaEntregue() {
+        when(repositorio.maiorSequencia()).thenReturn(50L);
+        servico.prepararNaInicializacao();
+        when(repositorio.buscarAlteracoes(10L, 50L, 4)).thenReturn(List.of(
+            AlteracaoReserva.alterada(reserva(1, 11)),
+            AlteracaoReserva.removida(12, 2L, "202"),
+            AlteracaoReserva.alterada(reserva(3, 15)),
+            AlteracaoReserva.alterada(reserva(4, 20))));
+
+        PaginaAlteracoes pagina = servico.buscarAlteracoes(TokenAlteracoes.codificar(10), 3);
+
+        assertEquals(3, pagina.getAlteracoes().size());
+        assertEquals(AlteracaoReserva.Tipo.REMOVIDA, pagina.getAlteracoes().get(1).getTipo());
+        assertNull(pagina.getAlteracoes().get(1).getReserva());
+        assertTrue(pagina.isTemMais());
+        assertEquals(15L, TokenAlteracoes.decodificar(pagina.getProximoToken()));
+    }
+
+    @Test
+    void buscarAlteracoes_SemNovidadesDeveManterOToken() {
+        when(repositorio.maiorSequencia()).thenReturn(50L);
+        servico.prepararNaInicializacao();
+        String token = TokenAlteracoes.codificar(50);
+
+        PaginaAlteracoes pagina = servico.buscarAlteracoes(token, null);
+
+        assertTrue(pagina.getAlteracoes().isEmpty());
+        assertFalse(pagina.isTemMais());
+        assertEquals(token, pagina.getProximoToken());
+        assertEquals(AlteracaoReservaService.LIMITE_PADRAO, pagina.getLimite());
+        verify(repositorio, never()).buscarAlteracoes(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void horizonte_DevePararAntesDaMenorTransacaoEmAndamento() {
+        when(repositorio.maiorSequencia()).thenReturn(100L);
+        servico.prepararNaInicializacao();
+        when(repositorio.proximasSequencias(1)).thenReturn(new long[] {101}, new long[] {102});
+
+        // Duas escritas em andamento: a 102 termina primeiro, mas a 101 ainda pode aparecer
+        TransactionSynchronizationManager.initSynchronization();
+        servico.marcar(reserva(1, 0));
+        List<TransactionSynchronization> primeira = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        servico.marcar(reserva(2, 0));
+        List<TransactionSynchronization> segunda = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(100L, servico.horizonte());
+
+        segunda.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(100L, servico.horizonte());
+
+        primeira.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(102L, servico.horizonte());
+    }
+
+    @Test
+    void marcar_DeveReservarASequenciaDoLoteDeUmaVez() {
+        when(repositorio.proximasSequencias(3)).thenReturn(new long[] {7, 8, 9});
+        List<Reserva> lote = List.of(reserva(1, 0), reserva(2, 0), reserva(3, 0));
+
+        servico.marcar(lote);
+
+        assertEquals(List.of(7L, 8L, 9L), lote.stream().map(Reserva::getSequenciaAlteracao).toList());
+        assertEquals(9L, servico.horizonte());
+    }
+
+    @Test
+    void buscarAlteracoes_DeveRecusarTokenELimiteInvalidos() {
+        assertThrows(ValidacaoReservaException.class, () -> servico.buscarAlteracoes("xyz", null));
+        assertThrows(ValidacaoReservaException.class,
+            () -> servico.buscarAlteracoes(CursorPaginacao.codificar(10L), null));
+        assertThrows(ValidacaoReservaException.class,
+            () -> servico.buscarAlteracoes(null, AlteracaoReservaService.LIMITE_MAXIMO + 1));
+    }
+}
@@ -0,0 +1,64 @@
+package com.trabalho.crud.core.service;
+
+import com.trabalho.crud.core.disponibilidade.IndiceDisponibilidade;
+import com.trabalho.crud.core.repository.ReservaRepository;
+import com.trabalho.crud.core.shard.RoteadorShards;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para o QuartoService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class QuartoServiceTest {
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private IndiceDisponibilidade indiceDisponibilidade;
+
+    @Spy
+    private RoteadorShards roteadorShards = new RoteadorShards(false, new String[0], 128, 1, null);
+
+    @InjectMocks
+    private QuartoService quartoService;
+
+    private final LocalDate inicio = LocalDate.of(2030, 5, 1);
+    private final LocalDate fim = LocalDate.of(2030, 5, 4);
+
+    @Test
+    void buscarDisponiveis_DeveResponderPeloIndiceQuandoPronto() {
+        when(indiceDisponibilidade.estaPronto()).thenReturn(true);
+        when(indiceDisponibilidade.quartosLivres(inicio, fim)).thenReturn(List.of("101", "202"));
+
+        assertEquals(List.of("101", "202"), quartoService.buscarDisponiveis(inicio, fim));
+        verifyNoInteractions(reservaRepository);
+    }
+
+    @Test
+    void buscarDisponiveis_DeveConsultarOBancoSemIndice() {
+        when(indiceDisponibilidade.estaPronto()).thenReturn(false);
+        when(reservaRepository.buscarQuartosLivres(inicio, fim)).thenReturn(List.of("303"));
+
+        assertEquals(List.of("303"), quartoService.buscarDisponiveis(inicio, fim));
+    }
+
+    @Test
+    void buscarDisponiveis_DeveLancarValidacaoExceptionComPeriodoInvalido() {
+        assertThrows(ValidacaoReservaException.class, () -> quartoService.buscarDisponiveis(fim, inicio));
+        assertThrows(ValidacaoReservaException.class, () -> quartoService.buscarDisponiveis(inicio, inicio));
+        assertThrows(ValidacaoReservaException.class, () -> quartoService.buscarDisponiveis(null, fim));
+        verifyNoInteractions(indiceDisponibilidade, reservaRepository);
+    }
+}
@@ -1,18 +1,43 @@
 package com.trabalho.crud.core.service;
 
+import com.trabalho.crud.core.concorrencia.GravacaoEmGrupo;
+import com.trabalho.crud.core.concorrencia.TravasQuarto;
+import com.trabalho.crud.core.cache.CacheReservas;
+import com.trabalho.crud.core.disponibilidade.BuscaAlternativas;
+import com.trabalho.crud.core.disponibilidade.IndiceDisponibilidade;
+import com.trabalho.crud.core.disponibilidade.SugestoesReserva;
+import com.trabalho.crud.core.disponibilidade.TabelaNoites;
 import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.eventos.BarramentoEventos;
+import com.trabalho.crud.core.eventos.TipoEventoReserva;
+import com.trabalho.crud.core.hospede.VerificadorHospedes;
+import com.trabalho.crud.core.replicacao.RoteamentoLeitura;
+import com.trabalho.crud.core.shard.RoteadorShards;
+import com.trabalho.crud.core.repository.ReservaLoteRepository;
 import com.trabalho.crud.core.repository.ReservaRepository;
+import com.trabalho.crud.core.validacao.RegraCadastroHospede;
+import com.trabalho.crud.core.validacao.RegraCamposObrigatorios;
+import com.trabalho.crud.core.validacao.RegraDatas;
+import com.trabalho.crud.core.validacao.RegraDisponibilidade;
+import com.trabalho.crud.core.validacao.RegraHospede;
+import com.trabalho.crud.core.validacao.ValidadorReserva;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,8 +49,54 @@ public class ReservaServiceTest {
     @Mock
     private ReservaRepository reservaRepository;
 
-    // Injeta a dependência simulada na classe a ser testada
-    @InjectMocks
+    @Mock
+    private ReservaLoteRepository reservaLoteRepository;
+
+    // Por padrão o índice não está pronto, então o serviço consulta o repositório
+    @Mock
+    private IndiceDisponibilidade indiceDisponibilidade;
+
+    // Travas e transações reais (sem banco): o serviço apenas as atravessa nos testes unitários
+    @Spy
+    private TravasQuarto travasQuarto = new TravasQuarto(16, 1000);
+
+    @Spy
+    private TransactionOperations transacao = TransactionOperations.withoutTransaction();
+
+    // Por padrão o modo "noites" está desligado
+    @Mock
+    private TabelaNoites tabelaNoites;
+
+    // Desligado: as buscas vão direto ao repositório mockado
+    @Spy
+    private CacheReservas cacheReservas = new CacheReservas(false, 100, 60, 5);
+
+    // Por padrão o modo de escrita "grupo" está desligado
+    @Mock
+    private GravacaoEmGrupo gravacaoEmGrupo;
+
+    @Mock
+    private BuscaAlternativas buscaAlternativas;
+
+    // Por padrão a verificação de existência do hóspede está desligada
+    @Mock
+    private VerificadorHospedes verificadorHospedes;
+
+    @Mock
+    private BarramentoEventos barramentoEventos;
+
+    @Mock
+    private AlteracaoReservaService alteracoes;
+
+    // Réplica desligada: todas as leituras vão ao repositório mockado
+    @Spy
+    private RoteamentoLeitura roteamentoLeitura = new RoteamentoLeitura(false, 5000, 2000, null, null);
+
+    // Sem particionamento: todas as operações vão ao repositório mockado, sem troca de thread
+    @Spy
+    private RoteadorShards roteadorShards = new RoteadorShards(false, new String[0], 128, 1, null);
+
+    // Montado no setUp: o pipeline de validação usa as regras reais sobre os mocks acima
     private ReservaService reservaService;
 
     // Variáveis de teste
@@ -35,6 +106,14 @@ public class ReservaServiceTest {
 
     @BeforeEach
     void setUp() {
+        ValidadorReserva validador = new ValidadorReserva(List.of(
+            new RegraDisponibilidade(indiceDisponibilidade, reservaRepository, buscaAlternativas),
+            new RegraCamposObrigatorios(), new RegraDatas(), new RegraHospede(),
+            new RegraCadastroHospede(verificadorHospedes)));
+        reservaService = new ReservaService(reservaRepository, reservaLoteRepository, indiceDisponibilidade,
+            travasQuarto, transacao, tabelaNoites, cacheReservas, gravacaoEmGrupo, buscaAlternativas, validador,
+            barramentoEventos, alteracoes, roteamentoLeitura, roteadorShards);
+
         hoje = LocalDate.now();
         amanha = hoje.plusDays(1);
 
@@ -66,6 +145,81 @@ public class ReservaServiceTest {
         verify(reservaRepository, times(1)).save(reservaValida);
     }
 
+    @Test
+    void criar_DeveUsarIndiceEmMemoriaQuandoPronto() {
+        when(indiceDisponibilidade.estaPronto()).thenReturn(true);
+        when(indiceDisponibilidade.temConflito("101", reservaValida.getDataInicioReserva(),
+                reservaValida.getDataFinalReserva(), null)).thenReturn(false);
+        when(reservaRepository.save(reservaValida)).thenReturn(reservaValida);
+
+        reservaService.criar(reservaValida);
+
+        verify(reservaRepository, never())
+                .findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(anyString(), any(LocalDate.class), any(LocalDate.class));
+        verify(indiceDisponibilidade).registrar(reservaValida);
+    }
+
+    @Test
+    void criar_DeveLancarValidacaoExceptionQuandoIndiceApontaConflito() {
+        when(indiceDisponibilidade.estaPronto()).thenReturn(true);
+        when(indiceDisponibilidade.temConflito(anyString(), any(LocalDate.class), any(LocalDate.class), isNull()))
+                .thenReturn(true);
+
+        assertThrows(ValidacaoReservaException.class, () -> reservaService.criar(reservaValida));
+        verify(reservaRepository, never()).save(any(Reserva.class));
+    }
+
+    @Test
+    void criar_ConflitoDeveLevarAsSugestoesDeAlternativas() {
+        SugestoesReserva sugestoes = new SugestoesReserva(List.of(), List.of("202"));
+        when(indiceDisponibilidade.estaPronto()).thenReturn(true);
+        when(indiceDisponibilidade.temConflito(anyString(), any(LocalDate.class), any(LocalDate.class), isNull()))
+                .thenReturn(true);
+        when(buscaAlternativas.sugerir(reservaValida, null)).thenReturn(sugestoes);
+
+        ReservaIndisponivelException ex = assertThrows(ReservaIndisponivelException.class, () -> reservaService.criar(reservaValida));
+        assertSame(sugestoes, ex.getSugestoes());
+    }
+
+    @Test
+    void criar_NoModoNoitesNaoDeveConsultarConflitosNemUsarTravas() {
+        when(tabelaNoites.ativa()).thenReturn(true);
+        when(reservaRepository.save(reservaValida)).thenReturn(reservaValida);
+
+        reservaService.criar(reservaValida);
+
+        verify(tabelaNoites).ocupar(reservaValida);
+        verify(reservaRepository, never())
+                .findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(anyString(), any(LocalDate.class), any(LocalDate.class));
+        verify(indiceDisponibilidade, never()).temConflito(anyString(), any(LocalDate.class), any(LocalDate.class), any());
+        verify(travasQuarto, never()).executar(anyString(), any());
+    }
+
+    @Test
+    void criar_NoModoNoitesDeveConverterViolacaoDeChaveEmValidacaoException() {
+        when(tabelaNoites.ativa()).thenReturn(true);
+        when(reservaRepository.save(reservaValida)).thenReturn(reservaValida);
+        doThrow(new DuplicateKeyException("noite ocupada")).when(tabelaNoites).ocupar(reservaValida);
+
+        ValidacaoReservaException ex = assertThrows(ValidacaoReservaException.class, () -> reservaService.criar(reservaValida));
+        assertTrue(ex.getMessage().startsWith("O quarto 101 já está reservado"));
+    }
+
+    @Test
+    void atualizar_NoModoNoitesDeveTrocarAsNoitesDaReserva() {
+        when(tabelaNoites.ativa()).thenReturn(true);
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reservaValida));
+        when(reservaRepository.save(reservaValida)).thenReturn(reservaValida);
+        Reserva detalhes = new Reserva(null, "101", amanha.plusDays(4), amanha.plusDays(6), 10L);
+
+        reservaService.atualizar(1L, detalhes);
+
+        var ordem = inOrder(tabelaNoites);
+        ordem.verify(tabelaNoites).liberar(1L);
+        ordem.verify(tabelaNoites).ocupar(reservaValida);
+        assertEquals(amanha.plusDays(4), reservaValida.getDataInicioReserva());
+    }
+
     @Test
     void buscarPorId_DeveRetornarReservaExistente() {
         when(reservaRepository.findById(1L)).thenReturn(Optional.of(reservaValida));
@@ -87,6 +241,218 @@ public class ReservaServiceTest {
         assertEquals(2, resultado.size());
     }
 
+    @Test
+    void buscarPagina_DeveRetornarCursorQuandoHaMaisResultados() {
+        Reserva segunda = new Reserva();
+        segunda.setId(2L);
+        Reserva terceira = new Reserva();
+        terceira.setId(3L);
+        // O serviço pede limite + 1 para descobrir se existe próxima página
+        when(reservaRepository.buscarPagina(0L, null, null, null, Limit.of(3)))
+                .thenReturn(List.of(reservaValida, segunda, terceira));
+
+        PaginaReservas pagina = reservaService.buscarPagina(null, 2, null, null, null);
+
+        assertEquals(2, pagina.getReservas().size());
+        assertTrue(pagina.temProximaPagina());
+        assertEquals(2L, CursorPaginacao.decodificar(pagina.getProximoCursor()));
+    }
+
+    @Test
+    void buscarPagina_DeveContinuarAPartirDoCursor() {
+        String cursor = CursorPaginacao.codificar(2L);
+        when(reservaRepository.buscarPaginaDoQuarto(2L, "101", null, null, Limit.of(ReservaService.LIMITE_PADRAO + 1)))
+                .thenReturn(List.of(reservaValida));
+
+        PaginaReservas pagina = reservaService.buscarPagina(cursor, null, "101", null, null);
+
+        assertEquals(1, pagina.getReservas().size());
+        assertFalse(pagina.temProximaPagina());
+        assertNull(pagina.getProximoCursor());
+    }
+
+    @Test
+    void buscarPagina_DeveLancarValidacaoExceptionComCursorOuLimiteInvalido() {
+        assertThrows(ValidacaoReservaException.class,
+                () -> reservaService.buscarPagina("nao-e-um-cursor", null, null, null, null));
+        assertThrows(ValidacaoReservaException.class,
+                () -> reservaService.buscarPagina(null, ReservaService.LIMITE_MAXIMO + 1, null, null, null));
+        assertThrows(ValidacaoReservaException.class,
+                () -> reservaService.buscarPagina(null, null, null, amanha, hoje));
+        verifyNoInteractions(reservaRepository);
+    }
+
+    @Test
+    void criarEmLote_DeveValidarPorQuartoEInserirApenasAsValidas() {
+        LocalDate base = amanha.plusDays(10);
+        Reserva existente = new Reserva(50L, "101", base.plusDays(2), base.plusDays(4), 7L);
+
+        List<Reserva> lote = List.of(
+            new Reserva(null, "101", base, base.plusDays(2), 1L),              // 0: livre
+            new Reserva(null, "101", base.plusDays(3), base.plusDays(5), 1L),  // 1: conflita com o banco
+            new Reserva(null, "101", base.plusDays(1), base.plusDays(2), 1L),  // 2: conflita com o item 0
+            new Reserva(null, "202", base, base.plusDays(2), 0L),              // 3: hóspede inválido
+            new Reserva(null, "202", base, base.plusDays(3), 2L)               // 4: livre
+        );
+        when(reservaRepository.findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore("101", base, base.plusDays(5)))
+                .thenReturn(List.of(existente));
+        when(reservaRepository.findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore("202", base, base.plusDays(3)))
+                .thenReturn(Collections.emptyList());
+        doAnswer(invocation -> {
+            List<Reserva> inseridas = invocation.getArgument(0);
+            long id = 100L;
+            for (Reserva r : inseridas) {
+                r.setId(id++);
+            }
+            return null;
+        }).when(reservaLoteRepository).inserirEmLote(anyList());
+
+        List<ResultadoItemLote> resultados = reservaService.criarEmLote(lote);
+
+        assertEquals(5, resultados.size());
+        assertEquals(ResultadoItemLote.Status.CRIADA, resultados.get(0).getStatus());
+        assertEquals(ResultadoItemLote.Status.REJEITADA, resultados.get(1).getStatus());
+        assertEquals(ResultadoItemLote.Status.REJEITADA, resultados.get(2).getStatus());
+        assertEquals(ResultadoItemLote.Status.REJEITADA, resultados.get(3).getStatus());
+        assertEquals("O ID do Hóspede é obrigatório e deve ser válido.", resultados.get(3).getMotivo());
+        assertEquals(ResultadoItemLote.Status.CRIADA, resultados.get(4).getStatus());
+        assertNotNull(resultados.get(4).getReserva().getId());
+        // Uma única consulta de conflitos por quarto e um único lote de inserção
+        verify(reservaRepository, times(2))
+                .findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(anyString(), any(LocalDate.class), any(LocalDate.class));
+        verify(reservaLoteRepository, times(1)).inserirEmLote(List.of(lote.get(0), lote.get(4)));
+    }
+
+    @Test
+    void criar_NoModoGrupoDeveDelegarParaAFilaDeGravacao() {
+        when(gravacaoEmGrupo.ativa()).thenReturn(true);
+        when(gravacaoEmGrupo.gravar(reservaValida)).thenReturn(reservaValida);
+
+        assertSame(reservaValida, reservaService.criar(reservaValida));
+        verify(reservaRepository, never()).save(any(Reserva.class));
+        verify(travasQuarto, never()).executar(anyString(), any());
+    }
+
+    @Test
+    void gravarGrupo_DeveDetectarConflitosEntreItensDoMesmoLote() {
+        LocalDate base = amanha.plusDays(10);
+        List<Reserva> lote = List.of(
+            new Reserva(null, "101", base, base.plusDays(3), 1L),
+            new Reserva(null, "101", base.plusDays(2), base.plusDays(4), 2L),
+            new Reserva(null, "101", base.plusDays(3), base.plusDays(4), 3L)
+        );
+        when(reservaRepository.findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore("101", base, base.plusDays(4)))
+                .thenReturn(Collections.emptyList());
+
+        List<ResultadoItemLote> resultados = reservaService.gravarGrupo(lote);
+
+        assertEquals(ResultadoItemLote.Status.CRIADA, resultados.get(0).getStatus());
+        assertEquals(ResultadoItemLote.Status.REJEITADA, resultados.get(1).getStatus());
+        assertEquals(ResultadoItemLote.Status.CRIADA, resultados.get(2).getStatus());
+        verify(reservaLoteRepository, times(1)).inserirEmLote(List.of(lote.get(0), lote.get(2)));
+    }
+
+    @Test
+    void criarEmLote_HospedeForaDoCadastroDeveSerRecusadoAntesDasTravas() {
+        LocalDate base = amanha.plusDays(10);
+        List<Reserva> lote = List.of(
+            new Reserva(null, "101", base, base.plusDays(2), 1L),
+            new Reserva(null, "202", base, base.plusDays(2), 99L)
+        );
+        when(verificadorHospedes.isHabilitado()).thenReturn(true);
+        when(verificadorHospedes.existe(1L)).thenReturn(true);
+        when(verificadorHospedes.existe(99L)).thenReturn(false);
+
+        List<ResultadoItemLote> resultados = reservaService.criarEmLote(lote);
+
+        assertEquals(ResultadoItemLote.Status.CRIADA, resultados.get(0).getStatus());
+        assertEquals(ResultadoItemLote.Status.REJEITADA, resultados.get(1).getStatus());
+        assertTrue(resultados.get(1).getMotivo().contains("não encontrado"));
+        verify(travasQuarto).executar(eq(Set.of("101")), any());
+    }
+
+    @Test
+    void criar_NoModoGrupoConflitoDeveLevarAsSugestoesDeAlternativas() {
+        GravacaoEmGrupo grupo = new GravacaoEmGrupo("grupo", 8, 0, 10, 1000, 5000);
+        try {
+            ReservaService servicoEmGrupo = new ReservaService(reservaRepository, reservaLoteRepository,
+                indiceDisponibilidade, travasQuarto, transacao, tabelaNoites, cacheReservas, grupo, buscaAlternativas,
+                new ValidadorReserva(List.of(new RegraCamposObrigatorios(), new RegraDatas())),
+                barramentoEventos, alteracoes, roteamentoLeitura, roteadorShards);
+            SugestoesReserva sugestoes = new SugestoesReserva(List.of(), List.of("202"));
+            when(reservaRepository.findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(
+                    "101", reservaValida.getDataInicioReserva(), reservaValida.getDataFinalReserva()))
+                    .thenReturn(List.of(new Reserva(50L, "101", amanha, reservaValida.getDataFinalReserva(), 7L)));
+            when(buscaAlternativas.sugerir(reservaValida, null)).thenReturn(sugestoes);
+
+            ReservaIndisponivelException ex = assertThrows(ReservaIndisponivelException.class,
+                () -> servicoEmGrupo.criar(reservaValida));
+            assertSame(sugestoes, ex.getSugestoes());
+            verify(reservaLoteRepository, never()).inserirEmLote(anyList());
+        } finally {
+            grupo.parar();
+        }
+    }
+
+    @Test
+    void criarGrupo_DeveChecarTodosOsQuartosComUmaConsultaEInserirTudo() {
+        LocalDate base = amanha.plusDays(10);
+        List<Reserva> grupo = List.of(
+            new Reserva(null, "303", base, base.plusDays(3), 1L),
+            new Reserva(null, "101", base, base.plusDays(3), 1L),
+            new Reserva(null, "202", base.plusDays(1), base.plusDays(4), 1L)
+        );
+        when(reservaRepository.findByNumeroDoQuartoInAndDataFinalReservaAfterAndDataInicioReservaBefore(anyCollection(), eq(base), eq(base.plusDays(4))))
+                .thenReturn(List.of(new Reserva(50L, "202", base.minusDays(3), base.plusDays(1), 7L)));
+
+        List<Reserva> criadas = reservaService.criarGrupo(grupo);
+
+        assertEquals(grupo, criadas);
+        verify(reservaRepository, times(1))
+                .findByNumeroDoQuartoInAndDataFinalReservaAfterAndDataInicioReservaBefore(anyCollection(), any(LocalDate.class), any(LocalDate.class));
+        verify(reservaLoteRepository, times(1)).inserirEmLote(grupo);
+        verify(travasQuarto).executar(eq(Set.of("101", "202", "303")), any());
+    }
+
+    @Test
+    void criarGrupo_ConflitoDeUmItemDeveRecusarOGrupoInteiro() {
+        LocalDate base = amanha.plusDays(10);
+        List<Reserva> grupo = List.of(
+            new Reserva(null, "101", base, base.plusDays(3), 1L),
+            new Reserva(null, "202", base, base.plusDays(3), 1L),
+            new Reserva(null, "101", base.plusDays(2), base.plusDays(5), 1L)   // conflita com o item 0
+        );
+        when(reservaRepository.findByNumeroDoQuartoInAndDataFinalReservaAfterAndDataInicioReservaBefore(anyCollection(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Collections.emptyList());
+
+        GrupoRejeitadoException ex = assertThrows(GrupoRejeitadoException.class, () -> reservaService.criarGrupo(grupo));
+
+        assertEquals(1, ex.getRejeicoes().size());
+        assertEquals(2, ex.getRejeicoes().get(0).getIndice());
+        verify(reservaLoteRepository, never()).inserirEmLote(anyList());
+        verify(indiceDisponibilidade, never()).registrar(any(Reserva.class));
+    }
+
+    @Test
+    void criarGrupo_ItemInvalidoDeveRecusarAntesDeTravarOsQuartos() {
+        List<Reserva> grupo = List.of(
+            new Reserva(null, "101", amanha, amanha.plusDays(2), 1L),
+            new Reserva(null, "202", amanha, amanha.plusDays(2), 0L)
+        );
+
+        GrupoRejeitadoException ex = assertThrows(GrupoRejeitadoException.class, () -> reservaService.criarGrupo(grupo));
+
+        assertEquals(1, ex.getRejeicoes().get(0).getIndice());
+        verify(travasQuarto, never()).executar(anyCollection(), any());
+        verifyNoInteractions(reservaLoteRepository);
+    }
+
+    @Test
+    void criarEmLote_DeveLancarValidacaoExceptionComLoteVazio() {
+        assertThrows(ValidacaoReservaException.class, () -> reservaService.criarEmLote(List.of()));
+        verifyNoInteractions(reservaLoteRepository);
+    }
+
     @Test
     void atualizar_DeveAtualizarReservaComSucesso() {
         Reserva detalhesAtualizados = new Reserva();
@@ -108,10 +474,134 @@ public class ReservaServiceTest {
         Reserva reservaAtualizada = reservaService.atualizar(1L, detalhesAtualizados);
 
         assertEquals("202", reservaAtualizada.getNumeroDoQuarto());
+        verify(indiceDisponibilidade).mover("101", detalhesAtualizados);
+        // Mudança de quarto: as travas do quarto antigo e do novo são adquiridas
+        verify(travasQuarto).executar(eq(List.of("101", "202")), any());
         verify(reservaRepository, times(1)).findById(1L);
         verify(reservaRepository, times(1)).save(any(Reserva.class));
     }
 
+    @Test
+    void atualizar_DeveLancarVersaoDesatualizadaQuandoIfMatchNaoConfere() {
+        reservaValida.setVersao(5L);
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reservaValida));
+
+        assertThrows(VersaoDesatualizadaException.class, () -> reservaService.atualizar(1L, reservaValida, 4L));
+        verify(reservaRepository, never()).save(any(Reserva.class));
+    }
+
+    @Test
+    void atualizar_DeveRepetirQuandoPerdeACorridaDeVersaoSemIfMatch() {
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reservaValida));
+        when(reservaRepository.findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Collections.emptyList());
+        when(reservaRepository.save(any(Reserva.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Reserva.class, 1L))
+                .thenReturn(reservaValida);
+
+        Reserva atualizada = reservaService.atualizar(1L, reservaValida);
+
+        assertSame(reservaValida, atualizada);
+        // Releu a reserva antes de tentar de novo
+        verify(reservaRepository, times(2)).findById(1L);
+        verify(reservaRepository, times(2)).save(any(Reserva.class));
+    }
+
+    @Test
+    void atualizar_DeveLancarConflitoQuandoAsRetentativasSeEsgotam() {
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reservaValida));
+        when(reservaRepository.findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Collections.emptyList());
+        when(reservaRepository.save(any(Reserva.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Reserva.class, 1L));
+
+        assertThrows(ConflitoConcorrenciaException.class, () -> reservaService.atualizar(1L, reservaValida));
+        verify(reservaRepository, times(ReservaService.TENTATIVAS_ATUALIZACAO)).save(any(Reserva.class));
+    }
+
+    @Test
+    void atualizar_ComIfMatchNaoDeveRepetirAposPerderACorrida() {
+        reservaValida.setVersao(5L);
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reservaValida));
+        when(reservaRepository.findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Collections.emptyList());
+        when(reservaRepository.save(any(Reserva.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Reserva.class, 1L));
+
+        assertThrows(VersaoDesatualizadaException.class, () -> reservaService.atualizar(1L, reservaValida, 5L));
+        verify(reservaRepository, times(1)).save(any(Reserva.class));
+    }
+
+    @Test
+    void escritas_DevemInvalidarOCacheDaReserva() {
+        reservaValida.setId(1L);
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reservaValida));
+        when(reservaRepository.findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Collections.emptyList());
+        when(reservaRepository.save(reservaValida)).thenReturn(reservaValida);
+
+        reservaService.atualizar(1L, new Reserva(null, "101", amanha, amanha.plusDays(2), 10L));
+        reservaService.deletar(1L);
+
+        verify(cacheReservas, times(2)).invalidar(1L);
+        verify(cacheReservas, never()).buscar(anyLong(), any());
+    }
+
+    @Test
+    void escritas_DevemPublicarEventosNoFeed() {
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reservaValida));
+        when(reservaRepository.findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Collections.emptyList());
+        when(reservaRepository.save(any(Reserva.class))).thenReturn(reservaValida);
+
+        reservaService.criar(reservaValida);
+        verify(barramentoEventos).publicar(TipoEventoReserva.CRIADA, reservaValida, null);
+
+        reservaService.atualizar(1L, new Reserva(null, "202", amanha, amanha.plusDays(2), 10L));
+        verify(barramentoEventos).publicar(TipoEventoReserva.ATUALIZADA, reservaValida, "101");
+
+        reservaService.deletar(1L);
+        verify(barramentoEventos).publicar(TipoEventoReserva.REMOVIDA, reservaValida, null);
+    }
+
+    @Test
+    void escritas_DevemAvancarASequenciaDeAlteracoes() {
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reservaValida));
+        when(reservaRepository.findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Collections.emptyList());
+        when(reservaRepository.save(any(Reserva.class))).thenReturn(reservaValida);
+        InOrder ordem = inOrder(alteracoes, reservaRepository);
+
+        // A sequência é atribuída antes do save, para ir na mesma escrita
+        reservaService.criar(reservaValida);
+        ordem.verify(alteracoes).marcar(reservaValida);
+        ordem.verify(reservaRepository).save(reservaValida);
+
+        reservaService.atualizar(1L, new Reserva(null, "202", amanha, amanha.plusDays(2), 10L));
+        ordem.verify(alteracoes).marcar(reservaValida);
+        ordem.verify(reservaRepository).save(reservaValida);
+
+        // A remoção deixa um registro para a sincronização incremental
+        reservaService.deletar(1L);
+        ordem.verify(reservaRepository).delete(reservaValida);
+        ordem.verify(alteracoes).registrarRemocao(reservaValida);
+        verify(transacao, times(2)).execute(any());
+        verify(transacao).executeWithoutResult(any());
+    }
+
+    @Test
+    void leituras_DevemPassarPeloRoteamentoEEscritasAbremAJanela() {
+        when(reservaRepository.findAll()).thenReturn(List.of(reservaValida));
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reservaValida));
+
+        reservaService.buscarTodas();
+        reservaService.buscarPorId(1L);
+        verify(roteamentoLeitura, times(2)).ler(any());
+
+        reservaService.deletar(1L);
+        verify(roteamentoLeitura).registrarEscrita();
+    }
+
     @Test
     void deletar_DeveDeletarReservaComSucesso() {
         when(reservaRepository.findById(1L)).thenReturn(Optional.of(reservaValida));
@@ -122,6 +612,7 @@ public class ReservaServiceTest {
         // Verifica se a busca e a deleção foram chamadas
         verify(reservaRepository, times(1)).findById(1L);
         verify(reservaRepository, times(1)).delete(reservaValida);
+        verify(indiceDisponibilidade).remover(1L, "101");
     }
 
 
@@ -181,4 +672,20 @@ public class ReservaServiceTest {
 
         assertThrows(ValidacaoReservaException.class, () -> reservaService.atualizar(1L, detalhesAtualizados));
     }
+
+    @Test
+    void atualizar_HospedeInvalidoDeveSerRecusadoSemConsultarDisponibilidade() {
+        Reserva detalhesAtualizados = new Reserva();
+        detalhesAtualizados.setNumeroDoQuarto("101");
+        detalhesAtualizados.setDataInicioReserva(amanha.plusDays(5));
+        detalhesAtualizados.setDataFinalReserva(amanha.plusDays(7));
+        detalhesAtualizados.setHospedeId(0L);
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reservaValida));
+
+        assertThrows(ValidacaoReservaException.class, () -> reservaService.atualizar(1L, detalhesAtualizados));
+        // A regra do hóspede (em memória) roda antes da regra de disponibilidade (consulta)
+        verify(reservaRepository, never()).findByNumeroDoQuartoAndDataFinalReservaAfterAndDataInicioReservaBefore(
+                anyString(), any(LocalDate.class), any(LocalDate.class));
+        verify(reservaRepository, never()).save(any(Reserva.class));
+    }
 }
@@ -0,0 +1,112 @@
+package com.trabalho.crud.core.shard;
+
+import com.trabalho.crud.core.repository.ShardsReservas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários da movimentação de quartos entre shards.
+ */
+@ExtendWith(MockitoExtension.class)
+class RebalanceadorShardsTest {
+
+    @Mock
+    private ShardsReservas shardsReservas;
+
+    private ExecutorService consultas;
+    private RoteadorShards roteador;
+    private RebalanceadorShards rebalanceador;
+
+    @BeforeEach
+    void setUp() {
+        consultas = Executors.newSingleThreadExecutor();
+        roteador = new RoteadorShards(true, 2, 64, consultas, TransactionOperations.withoutTransaction());
+        rebalanceador = new RebalanceadorShards(roteador, shardsReservas, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consultas.shutdownNow();
+    }
+
+    // Um quarto que o anel coloca no shard informado
+    private String quartoDoShard(int shard) {
+        for (int numero = 100; ; numero++) {
+            if (roteador.shardDoAnel(String.valueOf(numero)) == shard) {
+                return String.valueOf(numero);
+            }
+        }
+    }
+
+    @Test
+    void inicializacao_DevePrepararOEsquemaERegistrarOsQuartosForaDoLugar() {
+        String noLugar = quartoDoShard(0);
+        String foraDoLugar = quartoDoShard(1);
+        when(shardsReservas.quartos(0)).thenReturn(Set.of(noLugar, foraDoLugar));
+        when(shardsReservas.quartos(1)).thenReturn(Set.of());
+
+        rebalanceador.afterSingletonsInstantiated();
+
+        verify(shardsReservas).prepararEsquema();
+        // Até ser movido, o quarto continua sendo atendido pelo shard 0
+        assertEquals(0, roteador.shardDoQuarto(foraDoLugar));
+        assertEquals(0, roteador.shardDoQuarto(noLugar));
+        assertEquals(1, roteador.quartosForaDoLugar().size());
+    }
+
+    @Test
+    void rebalancear_DeveCopiarRotearParaODestinoEDepoisApagarAOrigem() {
+        String quarto = quartoDoShard(1);
+        roteador.definirPosicao(quarto, 0);
+        when(shardsReservas.copiarQuarto(quarto, 0, 1)).thenAnswer(invocacao -> {
+            // Durante a cópia o quarto ainda aponta para a origem
+            assertEquals(0, roteador.shardDoQuarto(quarto));
+            return 3;
+        });
+        doAnswer(invocacao -> {
+            assertEquals(1, roteador.shardDoQuarto(quarto));
+            return null;
+        }).when(shardsReservas).removerQuarto(quarto, 0);
+
+        ResultadoRebalanceamento resultado = rebalanceador.rebalancear();
+
+        InOrder ordem = inOrder(shardsReservas);
+        ordem.verify(shardsReservas).copiarQuarto(quarto, 0, 1);
+        ordem.verify(shardsReservas).removerQuarto(quarto, 0);
+        assertEquals(1, resultado.getQuartosMovidos());
+        assertEquals(3, resultado.getReservasMovidas());
+        assertEquals(0, resultado.getQuartosPendentes());
+        assertEquals(1, roteador.shardDoQuarto(quarto));
+    }
+
+    @Test
+    void rebalancear_DeveRespeitarOLimiteDeQuartosPorExecucao() {
+        RebalanceadorShards limitado = new RebalanceadorShards(roteador, shardsReservas, 1);
+        for (int numero = 100, registrados = 0; registrados < 3; numero++) {
+            String quarto = String.valueOf(numero);
+            if (roteador.shardDoAnel(quarto) == 1) {
+                roteador.definirPosicao(quarto, 0);
+                registrados++;
+            }
+        }
+
+        ResultadoRebalanceamento resultado = limitado.rebalancear();
+
+        assertEquals(1, resultado.getQuartosMovidos());
+        assertEquals(2, resultado.getQuartosPendentes());
+        verify(shardsReservas, times(1)).removerQuarto(anyString(), eq(0));
+    }
+}
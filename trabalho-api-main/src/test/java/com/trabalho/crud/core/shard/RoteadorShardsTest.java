@@ -0,0 +1,159 @@
+package com.trabalho.crud.core.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários do anel de hash consistente e do roteamento entre shards.
+ */
+class RoteadorShardsTest {
+
+    private ExecutorService consultas;
+    private RoteadorShards roteador;
+
+    @BeforeEach
+    void setUp() {
+        consultas = Executors.newFixedThreadPool(3);
+        roteador = new RoteadorShards(true, 3, 128, consultas, TransactionOperations.withoutTransaction());
+    }
+
+    @AfterEach
+    void tearDown() {
+        consultas.shutdownNow();
+    }
+
+    @Test
+    void anel_DeveDistribuirOsQuartosEMoverPoucosAoAcrescentarUmShard() {
+        AnelShards tres = new AnelShards(3, 128);
+        AnelShards quatro = new AnelShards(4, 128);
+
+        int[] porShard = new int[3];
+        int movidos = 0;
+        for (int quarto = 1; quarto <= 10_000; quarto++) {
+            String numero = String.valueOf(quarto);
+            int antes = tres.shardDo(numero);
+            porShard[antes]++;
+            int depois = quatro.shardDo(numero);
+            if (depois != antes) {
+                // Só o shard novo recebe quartos
+                assertEquals(3, depois);
+                movidos++;
+            }
+        }
+
+        for (int total : porShard) {
+            assertTrue(total > 2_500 && total < 4_200, "Distribuição desequilibrada: " + total);
+        }
+        // Cerca de 1/4 dos quartos vai para o shard novo
+        assertTrue(movidos > 1_800 && movidos < 3_200, "Quartos movidos: " + movidos);
+    }
+
+    @Test
+    void noQuarto_DeveMarcarAThreadComOShardDoQuarto() {
+        int esperado = roteador.shardDoAnel("101");
+
+        Integer marcado = roteador.noQuarto("101", ShardAtual::obter);
+
+        assertEquals(esperado, marcado);
+        assertNull(ShardAtual.obter());
+    }
+
+    @Test
+    void definirPosicao_DeveManterOQuartoNoShardOndeEstaAteSerMovido() {
+        int doAnel = roteador.shardDoAnel("101");
+        int outro = (doAnel + 1) % 3;
+
+        roteador.definirPosicao("101", outro);
+        assertEquals(outro, roteador.shardDoQuarto("101"));
+        assertEquals(Map.of("101", outro), roteador.quartosForaDoLugar());
+
+        roteador.definirPosicao("101", doAnel);
+        assertEquals(doAnel, roteador.shardDoQuarto("101"));
+        assertTrue(roteador.quartosForaDoLugar().isEmpty());
+    }
+
+    @Test
+    void reunir_DeveIntercalarOsShardsDescartarRepetidosERespeitarOLimite() {
+        // Shard 0: 1, 4, 7; shard 1: 2, 5, 7 (repetido durante uma movimentação); shard 2: 3, 6
+        List<List<Long>> porShard = List.of(List.of(1L, 4L, 7L), List.of(2L, 5L, 7L), List.of(3L, 6L));
+
+        List<Long> resultado = roteador.reunir(() -> porShard.get(ShardAtual.obter()), Comparator.naturalOrder(), 6);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), resultado);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L),
+            roteador.reunir(() -> porShard.get(ShardAtual.obter()), Comparator.naturalOrder(), 100));
+    }
+
+    @Test
+    void emCadeia_DeveAbrirATransacaoDeCadaShardDentroDaAnterior() {
+        List<String> passos = new ArrayList<>();
+        TransactionOperations registrando = new TransactionOperations() {
+            @Override
+            public <T> T execute(org.springframework.transaction.support.TransactionCallback<T> acao) {
+                int shard = ShardAtual.obter();
+                passos.add("abre " + shard);
+                T resultado = acao.doInTransaction(null);
+                passos.add("confirma " + shard);
+                return resultado;
+            }
+        };
+        RoteadorShards encadeado = new RoteadorShards(true, 3, 128, consultas, registrando);
+
+        encadeado.emCadeia(Map.of(0, List.of("101"), 2, List.of("303")),
+            (shard, quartos) -> passos.add("grava " + quartos + " no " + ShardAtual.obter()));
+
+        assertEquals(List.of("abre 0", "grava [101] no 0", "abre 2", "grava [303] no 2", "confirma 2", "confirma 0"),
+            passos);
+    }
+
+    @Test
+    void comQuartos_DeveAgruparPorShardEEsperarAMovimentacaoDoQuarto() throws Exception {
+        int shard101 = roteador.shardDoQuarto("101");
+        Map<Integer, List<String>> grupos = roteador.comQuartos(List.of("101", "101"), g -> g);
+        assertEquals(Map.of(shard101, List.of("101")), grupos);
+
+        List<String> ordem = new ArrayList<>();
+        Thread escrita = new Thread(() -> roteador.noQuarto("101", () -> {
+            synchronized (ordem) {
+                ordem.add("escrita");
+            }
+            return null;
+        }));
+        roteador.comQuartoBloqueado("101", () -> {
+            escrita.start();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (ordem) {
+                ordem.add("movimentacao");
+            }
+            return null;
+        });
+        escrita.join(1000);
+
+        assertEquals(List.of("movimentacao", "escrita"), ordem);
+    }
+
+    @Test
+    void desligado_DeveExecutarAAcaoDiretoNoShardZero() {
+        RoteadorShards desligado = new RoteadorShards(false, new String[] {"jdbc:h2:mem:ignorado"}, 128, 1, null);
+
+        assertEquals(1, desligado.quantidade());
+        assertEquals(0, desligado.shardDoQuarto("101"));
+        assertNull(desligado.noQuarto("101", ShardAtual::obter));
+        assertEquals(List.of(3L, 1L), desligado.reunir(() -> List.of(3L, 1L), Comparator.naturalOrder(), 1));
+    }
+}
@@ -0,0 +1,161 @@
+package com.trabalho.crud.core.validacao;
+
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.hospede.VerificadorHospedes;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ValidadorReservaTest {
+
+    private final List<String> avaliadas = new ArrayList<>();
+    private final VerificadorHospedes verificadorHospedes = mock(VerificadorHospedes.class);
+    private Reserva reserva;
+
+    @BeforeEach
+    void setUp() {
+        reserva = new Reserva();
+        reserva.setNumeroDoQuarto("101");
+        reserva.setDataInicioReserva(LocalDate.now().plusDays(1));
+        reserva.setDataFinalReserva(LocalDate.now().plusDays(3));
+        reserva.setHospedeId(10L);
+    }
+
+    @Test
+    void validar_DeveAvaliarRegrasEmMemoriaAntesDasConsultas() {
+        // Recebidas fora de ordem: a regra de consulta vem primeiro na lista
+        ValidadorReserva validador = new ValidadorReserva(List.of(
+            regra("consulta", CustoRegra.CONSULTA, false),
+            regra("a", CustoRegra.MEMORIA, false),
+            regra("b", CustoRegra.MEMORIA, false)));
+
+        validador.validar(reserva, null);
+
+        assertEquals(List.of("a", "b", "consulta"), avaliadas);
+        assertEquals(List.of("a", "b", "consulta"),
+            validador.getRegras().stream().map(RegraReserva::nome).toList());
+    }
+
+    @Test
+    void validar_DevePararNaPrimeiraRegraVioladaEContarARejeicao() {
+        ValidadorReserva validador = new ValidadorReserva(List.of(
+            regra("consulta", CustoRegra.CONSULTA, false),
+            regra("hospede", CustoRegra.MEMORIA, true)));
+
+        assertThrows(ValidacaoReservaException.class, () -> validador.validar(reserva, null));
+
+        assertEquals(List.of("hospede"), avaliadas);
+        List<EstatisticaRegra> estatisticas = validador.estatisticas();
+        assertEquals("hospede", estatisticas.get(0).getRegra());
+        assertEquals(1, estatisticas.get(0).getAvaliacoes());
+        assertEquals(1, estatisticas.get(0).getRejeicoes());
+        assertEquals(1, estatisticas.get(0).getHistograma().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(0, estatisticas.get(1).getAvaliacoes());
+    }
+
+    @Test
+    void validarPorCusto_DeveAvaliarApenasAsRegrasDaquelaClasse() {
+        ValidadorReserva validador = new ValidadorReserva(List.of(
+            regra("consulta", CustoRegra.CONSULTA, false),
+            regra("datas", CustoRegra.MEMORIA, false)));
+
+        validador.validar(reserva, null, CustoRegra.MEMORIA);
+        assertEquals(List.of("datas"), avaliadas);
+
+        validador.validar(reserva, null, CustoRegra.CONSULTA);
+        assertEquals(List.of("datas", "consulta"), avaliadas);
+    }
+
+    @Test
+    void validarAntesDaTrava_DeveDeixarParaDepoisSoAsRegrasQueLeemOQuarto() {
+        RegraReserva disponibilidade = new RegraDisponibilidade(null, null, null);
+        ValidadorReserva validador = new ValidadorReserva(List.of(
+            new RegraCadastroHospede(verificadorHospedes),
+            disponibilidade,
+            regra("datas", CustoRegra.MEMORIA, false)));
+        when(verificadorHospedes.isHabilitado()).thenReturn(true);
+        when(verificadorHospedes.existe(10L)).thenReturn(true);
+
+        validador.validarAntesDaTrava(reserva, null);
+
+        assertEquals(List.of("datas"), avaliadas);
+        verify(verificadorHospedes).existe(10L);
+        List<EstatisticaRegra> estatisticas = validador.estatisticas();
+        assertEquals("cadastro-hospede", estatisticas.get(1).getRegra());
+        assertEquals(CustoRegra.CONSULTA, estatisticas.get(1).getCusto());
+        assertEquals(0, estatisticas.get(2).getAvaliacoes());
+        assertTrue(disponibilidade.precisaTravaDoQuarto());
+    }
+
+    @Test
+    void regrasPadrao_DevemRecusarDadosInvalidos() {
+        ValidadorReserva validador = new ValidadorReserva(List.of(
+            new RegraCamposObrigatorios(), new RegraDatas(), new RegraHospede(),
+            new RegraCadastroHospede(verificadorHospedes)));
+
+        validador.validar(reserva, null);
+
+        reserva.setHospedeId(-1L);
+        ValidacaoReservaException hospede = assertThrows(ValidacaoReservaException.class,
+            () -> validador.validar(reserva, null));
+        assertTrue(hospede.getMessage().contains("Hóspede"));
+
+        reserva.setDataFinalReserva(reserva.getDataInicioReserva());
+        ValidacaoReservaException datas = assertThrows(ValidacaoReservaException.class,
+            () -> validador.validar(reserva, null));
+        assertTrue(datas.getMessage().contains("posterior"));
+
+        reserva.setNumeroDoQuarto(" ");
+        assertThrows(ValidacaoReservaException.class, () -> validador.validar(reserva, null));
+    }
+
+    @Test
+    void regraCadastroHospede_DeveRecusarHospedeForaDoCadastroQuandoVerificacaoLigada() {
+        RegraCadastroHospede regra = new RegraCadastroHospede(verificadorHospedes);
+        when(verificadorHospedes.isHabilitado()).thenReturn(true);
+        when(verificadorHospedes.existe(10L)).thenReturn(false);
+
+        ValidacaoReservaException e = assertThrows(ValidacaoReservaException.class, () -> regra.validar(reserva, null));
+        assertTrue(e.getMessage().contains("não encontrado"));
+
+        when(verificadorHospedes.existe(10L)).thenReturn(true);
+        assertDoesNotThrow(() -> regra.validar(reserva, null));
+    }
+
+    @Test
+    void faixaDe_DeveUsarPotenciasDeDoisEmMicrossegundos() {
+        assertEquals(0, ValidadorReserva.faixaDe(500));
+        assertEquals(1, ValidadorReserva.faixaDe(1_500));
+        assertEquals(3, ValidadorReserva.faixaDe(5_000));
+        assertEquals(ValidadorReserva.FAIXAS_HISTOGRAMA - 1, ValidadorReserva.faixaDe(60_000_000_000L));
+    }
+
+    private RegraReserva regra(String nome, CustoRegra custo, boolean recusar) {
+        return new RegraReserva() {
+            @Override
+            public String nome() {
+                return nome;
+            }
+
+            @Override
+            public CustoRegra custo() {
+                return custo;
+            }
+
+            @Override
+            public void validar(Reserva reserva, Long ignorarId) {
+                avaliadas.add(nome);
+                if (recusar) {
+                    throw new ValidacaoReservaException("Regra " + nome + " violada.");
+                }
+            }
+        };
+    }
+}
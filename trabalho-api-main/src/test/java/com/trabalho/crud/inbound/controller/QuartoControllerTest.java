@@ -0,0 +1,55 @@
+package com.trabalho.crud.inbound.controller;
+
+import com.trabalho.crud.core.service.QuartoService;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes de integração para o QuartoController usando MockMvc.
+ */
+@WebMvcTest(QuartoController.class)
+public class QuartoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private QuartoService quartoService;
+
+    @Test
+    void buscarDisponiveis_DeveRetornarListaOrdenadaEStatus200() throws Exception {
+        when(quartoService.buscarDisponiveis(LocalDate.of(2030, 5, 1), LocalDate.of(2030, 5, 4)))
+            .thenReturn(List.of("101", "202"));
+
+        mockMvc.perform(get("/api/v1/quartos/disponiveis")
+                .param("inicio", "2030-05-01")
+                .param("fim", "2030-05-04"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0]").value("101"))
+            .andExpect(jsonPath("$[1]").value("202"));
+    }
+
+    @Test
+    void buscarDisponiveis_DeveRetornarStatus400ComPeriodoInvalido() throws Exception {
+        when(quartoService.buscarDisponiveis(any(), any()))
+            .thenThrow(new ValidacaoReservaException("A data final deve ser posterior à data de início."));
+
+        mockMvc.perform(get("/api/v1/quartos/disponiveis")
+                .param("inicio", "2030-05-04")
+                .param("fim", "2030-05-01"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("A data final deve ser posterior à data de início."));
+    }
+}
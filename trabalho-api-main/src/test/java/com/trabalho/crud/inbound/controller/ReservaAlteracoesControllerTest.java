@@ -0,0 +1,72 @@
+package com.trabalho.crud.inbound.controller;
+
+import com.trabalho.crud.core.dto.ReservaDto;
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.mapper.ReservaMapper;
+import com.trabalho.crud.core.service.AlteracaoReserva;
+import com.trabalho.crud.core.service.AlteracaoReservaService;
+import com.trabalho.crud.core.service.PaginaAlteracoes;
+import com.trabalho.crud.core.service.ValidacaoReservaException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes de integração para o ReservaAlteracoesController usando MockMvc.
+ */
+@WebMvcTest(ReservaAlteracoesController.class)
+public class ReservaAlteracoesControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AlteracaoReservaService alteracaoReservaService;
+
+    @MockBean
+    private ReservaMapper reservaMapper;
+
+    @Test
+    void buscarAlteracoes_DeveRetornarAlteracoesRemocoesEProximoToken() throws Exception {
+        Reserva reserva = new Reserva(1L, "101", LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12), 10L);
+        reserva.setSequenciaAlteracao(41L);
+        ReservaDto dto = new ReservaDto();
+        dto.setId(1L);
+        when(reservaMapper.toDto(reserva)).thenReturn(dto);
+        when(alteracaoReservaService.buscarAlteracoes("abc", 2)).thenReturn(new PaginaAlteracoes(
+            List.of(AlteracaoReserva.alterada(reserva), AlteracaoReserva.removida(42L, 2L, "202")),
+            "proximo", true, 2));
+
+        mockMvc.perform(get("/api/v1/reservas/changes").param("since", "abc").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.alteracoes.length()").value(2))
+            .andExpect(jsonPath("$.alteracoes[0].tipo").value("ALTERADA"))
+            .andExpect(jsonPath("$.alteracoes[0].reserva.id").value(1))
+            .andExpect(jsonPath("$.alteracoes[1].tipo").value("REMOVIDA"))
+            .andExpect(jsonPath("$.alteracoes[1].sequencia").value(42))
+            .andExpect(jsonPath("$.alteracoes[1].reservaId").value(2))
+            .andExpect(jsonPath("$.alteracoes[1].reserva").isEmpty())
+            .andExpect(jsonPath("$.nextToken").value("proximo"))
+            .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void buscarAlteracoes_DeveRetornarStatus400ComTokenInvalido() throws Exception {
+        when(alteracaoReservaService.buscarAlteracoes(any(), any()))
+            .thenThrow(new ValidacaoReservaException("Token de sincronização inválido."));
+
+        mockMvc.perform(get("/api/v1/reservas/changes").param("since", "xyz"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Token de sincronização inválido."));
+    }
+}
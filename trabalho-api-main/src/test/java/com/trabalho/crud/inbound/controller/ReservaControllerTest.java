@@ -1,12 +1,19 @@
 package com.trabalho.crud.inbound.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trabalho.crud.core.disponibilidade.PeriodoLivre;
+import com.trabalho.crud.core.disponibilidade.SugestoesReserva;
 import com.trabalho.crud.core.dto.ReservaDto;
 import com.trabalho.crud.core.entity.Reserva;
 import com.trabalho.crud.core.mapper.ReservaMapper;
+import com.trabalho.crud.core.service.GrupoRejeitadoException;
+import com.trabalho.crud.core.service.PaginaReservas;
+import com.trabalho.crud.core.service.ReservaIndisponivelException;
 import com.trabalho.crud.core.service.ResourceNotFoundException;
+import com.trabalho.crud.core.service.ResultadoItemLote;
 import com.trabalho.crud.core.service.ReservaService;
 import com.trabalho.crud.core.service.ValidacaoReservaException;
+import com.trabalho.crud.core.service.VersaoDesatualizadaException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -103,6 +110,69 @@ public class ReservaControllerTest {
                 .andExpect(jsonPath("$.message").value("Datas inválidas para a reserva."));
     }
 
+    @Test
+    void criarReserva_ConflitoDeveRetornarSugestoesNoCorpo() throws Exception {
+        when(reservaMapper.toEntity(any(ReservaDto.class))).thenReturn(reservaMock);
+        SugestoesReserva sugestoes = new SugestoesReserva(
+                List.of(new PeriodoLivre(LocalDate.of(2030, 1, 12), LocalDate.of(2030, 1, 17))), List.of("202", "303"));
+        when(reservaService.criar(any(Reserva.class)))
+                .thenThrow(new ReservaIndisponivelException("O quarto 101 já está reservado.", sugestoes));
+
+        mockMvc.perform(post(API_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reservaDtoMock)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.sugestoes.periodos[0].dataInicioReserva").value("2030-01-12"))
+                .andExpect(jsonPath("$.sugestoes.periodos[0].dataFinalReserva").value("2030-01-17"))
+                .andExpect(jsonPath("$.sugestoes.quartos[1]").value("303"));
+    }
+
+    @Test
+    void criarGrupo_DeveRetornarReservasCriadasEStatus201() throws Exception {
+        when(reservaMapper.toEntity(any(ReservaDto.class))).thenReturn(reservaMock);
+        when(reservaMapper.toDto(any(Reserva.class))).thenReturn(reservaDtoMock);
+        when(reservaService.criarGrupo(anyList())).thenReturn(List.of(reservaMock, reservaMock));
+
+        mockMvc.perform(post(API_URL + "/grupo")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(reservaDtoMock, reservaDtoMock))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(1L));
+    }
+
+    @Test
+    void criarGrupo_DeveRetornarStatus400ComOsItensRecusados() throws Exception {
+        when(reservaMapper.toEntity(any(ReservaDto.class))).thenReturn(reservaMock);
+        when(reservaService.criarGrupo(anyList())).thenThrow(new GrupoRejeitadoException("O grupo foi recusado.",
+                List.of(ResultadoItemLote.rejeitada(1, reservaMock, "O quarto 101 já está reservado."))));
+
+        mockMvc.perform(post(API_URL + "/grupo")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(reservaDtoMock, reservaDtoMock))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.itens[0].indice").value(1))
+                .andExpect(jsonPath("$.itens[0].motivo").value("O quarto 101 já está reservado."));
+    }
+
+    @Test
+    void criarReservasEmLote_DeveRetornarResultadoPorItem() throws Exception {
+        when(reservaMapper.toEntity(any(ReservaDto.class))).thenReturn(reservaMock);
+        when(reservaMapper.toDto(any(Reserva.class))).thenReturn(reservaDtoMock);
+        when(reservaService.criarEmLote(anyList())).thenReturn(List.of(
+                ResultadoItemLote.criada(0, reservaMock),
+                ResultadoItemLote.rejeitada(1, reservaMock, "O quarto 101 já está reservado.")));
+
+        mockMvc.perform(post(API_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(reservaDtoMock, reservaDtoMock))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CRIADA"))
+                .andExpect(jsonPath("$[0].reserva.id").value(1L))
+                .andExpect(jsonPath("$[1].status").value("REJEITADA"))
+                .andExpect(jsonPath("$[1].motivo").value("O quarto 101 já está reservado."));
+    }
+
     // -------------------------------------------------------------------------
     // TESTES GET - BUSCAR RESERVAS
     // -------------------------------------------------------------------------
@@ -132,14 +202,46 @@ public class ReservaControllerTest {
 
     @Test
     void buscarTodasReservas_DeveRetornarListaVazia() throws Exception {
-        // Comportamento do Mocks: Retorna lista vazia
-        when(reservaService.buscarTodas()).thenReturn(List.of());
+        // Comportamento do Mocks: Retorna página vazia, sem próxima página
+        when(reservaService.buscarPagina(isNull(), isNull(), isNull(), isNull(), isNull()))
+                .thenReturn(new PaginaReservas(List.of(), null, 50));
         when(reservaMapper.toDtoList(anyList())).thenReturn(List.of());
 
         mockMvc.perform(get(API_URL)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isEmpty()); // Verifica se a lista JSON está vazia
+                .andExpect(jsonPath("$.reservas").isEmpty()) // Verifica se a lista JSON está vazia
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void buscarTodasReservas_DeveRepassarCursorEFiltros() throws Exception {
+        LocalDate inicio = LocalDate.of(2026, 1, 10);
+        LocalDate fim = LocalDate.of(2026, 1, 20);
+        when(reservaService.buscarPagina("abc", 1, "101", inicio, fim))
+                .thenReturn(new PaginaReservas(List.of(reservaMock), "proximo", 1));
+        when(reservaMapper.toDtoList(anyList())).thenReturn(List.of(reservaDtoMock));
+
+        mockMvc.perform(get(API_URL)
+                        .param("cursor", "abc")
+                        .param("limit", "1")
+                        .param("quarto", "101")
+                        .param("inicio", "2026-01-10")
+                        .param("fim", "2026-01-20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservas[0].id").value(1L))
+                .andExpect(jsonPath("$.nextCursor").value("proximo"))
+                .andExpect(jsonPath("$.limit").value(1));
+    }
+
+    @Test
+    void buscarTodasReservas_DeveRetornarBadRequest_ComCursorInvalido() throws Exception {
+        when(reservaService.buscarPagina(eq("invalido"), isNull(), isNull(), isNull(), isNull()))
+                .thenThrow(new ValidacaoReservaException("Cursor de paginação inválido."));
+
+        mockMvc.perform(get(API_URL).param("cursor", "invalido"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor de paginação inválido."));
     }
 
     // -------------------------------------------------------------------------
@@ -150,7 +252,7 @@ public class ReservaControllerTest {
     void atualizarReserva_DeveRetornarOk() throws Exception {
         // Comportamento do Mocks
         when(reservaMapper.toEntity(any(ReservaDto.class))).thenReturn(reservaMock);
-        when(reservaService.atualizar(eq(1L), any(Reserva.class))).thenReturn(reservaMock);
+        when(reservaService.atualizar(eq(1L), any(Reserva.class), isNull())).thenReturn(reservaMock);
         when(reservaMapper.toDto(any(Reserva.class))).thenReturn(reservaDtoMock);
 
         mockMvc.perform(put(API_URL + "/{id}", 1L)
@@ -164,7 +266,7 @@ public class ReservaControllerTest {
     void atualizarReserva_DeveRetornarNotFound() throws Exception {
         // Simula o erro: Reserva não encontrada
         when(reservaMapper.toEntity(any(ReservaDto.class))).thenReturn(reservaMock);
-        when(reservaService.atualizar(eq(99L), any(Reserva.class))).thenThrow(new ResourceNotFoundException("Reserva para atualização não encontrada."));
+        when(reservaService.atualizar(eq(99L), any(Reserva.class), isNull())).thenThrow(new ResourceNotFoundException("Reserva para atualização não encontrada."));
 
         mockMvc.perform(put(API_URL + "/{id}", 99L)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -173,6 +275,47 @@ public class ReservaControllerTest {
                 .andExpect(jsonPath("$.message").value("Reserva para atualização não encontrada."));
     }
 
+    @Test
+    void atualizarReserva_DeveRepassarIfMatchERetornarNovoETag() throws Exception {
+        reservaMock.setVersao(4L);
+        when(reservaMapper.toEntity(any(ReservaDto.class))).thenReturn(reservaMock);
+        when(reservaService.atualizar(eq(1L), any(Reserva.class), eq(3L))).thenReturn(reservaMock);
+        when(reservaMapper.toDto(any(Reserva.class))).thenReturn(reservaDtoMock);
+
+        mockMvc.perform(put(API_URL + "/{id}", 1L)
+                        .header("If-Match", "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reservaDtoMock)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    void atualizarReserva_DeveRetornarPreconditionFailed_ComVersaoDesatualizada() throws Exception {
+        when(reservaMapper.toEntity(any(ReservaDto.class))).thenReturn(reservaMock);
+        when(reservaService.atualizar(eq(1L), any(Reserva.class), eq(3L)))
+                .thenThrow(new VersaoDesatualizadaException("A reserva com ID 1 foi alterada por outra requisição."));
+
+        mockMvc.perform(put(API_URL + "/{id}", 1L)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reservaDtoMock)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("A reserva com ID 1 foi alterada por outra requisição."));
+    }
+
+    @Test
+    void atualizarReserva_DeveRetornarBadRequest_ComIfMatchInvalido() throws Exception {
+        when(reservaMapper.toEntity(any(ReservaDto.class))).thenReturn(reservaMock);
+
+        mockMvc.perform(put(API_URL + "/{id}", 1L)
+                        .header("If-Match", "\"abc\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reservaDtoMock)))
+                .andExpect(status().isBadRequest());
+        verify(reservaService, never()).atualizar(anyLong(), any(Reserva.class), any());
+    }
+
     // -------------------------------------------------------------------------
     // TESTES DELETE - DELETAR RESERVA
     // -------------------------------------------------------------------------
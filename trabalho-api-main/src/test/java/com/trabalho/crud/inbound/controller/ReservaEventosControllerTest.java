@@ -0,0 +1,53 @@
+package com.trabalho.crud.inbound.controller;
+
+import com.trabalho.crud.core.eventos.BarramentoEventos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes de integração para o ReservaEventosController usando MockMvc.
+ */
+@WebMvcTest(ReservaEventosController.class)
+public class ReservaEventosControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BarramentoEventos barramentoEventos;
+
+    @Test
+    void assinarEventos_DeveAbrirOFeedComFiltroERetomada() throws Exception {
+        when(barramentoEventos.assinar(any(), any(), any())).thenReturn(mock(BarramentoEventos.Assinatura.class));
+
+        mockMvc.perform(get("/api/v1/reservas/eventos")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .param("quartos", "101", "202")
+                .header("Last-Event-ID", "1005"))
+            .andExpect(status().isOk())
+            .andExpect(request().asyncStarted());
+
+        verify(barramentoEventos).assinar(eq(Set.of("101", "202")), eq(1005L), any());
+    }
+
+    @Test
+    void assinarEventos_DeveRetornarStatus400ComIdDeEventoInvalido() throws Exception {
+        mockMvc.perform(get("/api/v1/reservas/eventos").param("desde", "abc"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("ID de evento inválido: abc."));
+
+        verifyNoInteractions(barramentoEventos);
+    }
+}
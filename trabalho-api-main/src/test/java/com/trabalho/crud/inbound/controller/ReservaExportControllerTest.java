@@ -0,0 +1,95 @@
+package com.trabalho.crud.inbound.controller;
+
+import com.trabalho.crud.core.dto.ReservaDto;
+import com.trabalho.crud.core.entity.Reserva;
+import com.trabalho.crud.core.mapper.ReservaMapper;
+import com.trabalho.crud.core.service.ReservaExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes para o ReservaExportController usando MockMvc.
+ * Verifica o formato das linhas escritas em streaming (NDJSON e CSV).
+ */
+@WebMvcTest(ReservaExportController.class)
+public class ReservaExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReservaExportService reservaExportService;
+
+    @MockBean
+    private ReservaMapper reservaMapper;
+
+    private static final String API_URL = "/api/v1/reservas/export";
+
+    private Reserva reservaMock;
+
+    @BeforeEach
+    void setUp() {
+        reservaMock = new Reserva(1L, "101, Bloco \"A\"", LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 12), 10L);
+        reservaMock.setVersao(2L);
+
+        ReservaDto dto = new ReservaDto();
+        dto.setId(1L);
+        dto.setNumeroDoQuarto("101");
+        dto.setDataInicioReserva(LocalDate.of(2026, 1, 10));
+        dto.setDataFinalReserva(LocalDate.of(2026, 1, 12));
+        dto.setHospedeId(10L);
+        dto.setVersao(2L);
+        when(reservaMapper.toDto(any(Reserva.class))).thenReturn(dto);
+
+        // Simula o serviço entregando duas reservas ao consumidor do controller
+        when(reservaExportService.exportar(any())).thenAnswer(invocation -> {
+            Consumer<Reserva> consumidor = invocation.getArgument(0);
+            consumidor.accept(reservaMock);
+            consumidor.accept(reservaMock);
+            return 2L;
+        });
+    }
+
+    @Test
+    void exportarReservas_DeveEscreverNdjsonPorPadrao() throws Exception {
+        String linha = "{\"id\":1,\"numeroDoQuarto\":\"101\",\"dataInicioReserva\":\"2026-01-10\","
+                + "\"dataFinalReserva\":\"2026-01-12\",\"hospedeId\":10,\"versao\":2}\n";
+
+        mockMvc.perform(get(API_URL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(linha + linha));
+    }
+
+    @Test
+    void exportarReservas_DeveEscreverCsvComEscape() throws Exception {
+        String linha = "1,\"101, Bloco \"\"A\"\"\",2026-01-10,2026-01-12,10,2\n";
+
+        mockMvc.perform(get(API_URL).param("formato", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"reservas.csv\""))
+                .andExpect(content().string(ReservaExportController.CABECALHO_CSV + "\n" + linha + linha));
+        verify(reservaMapper, never()).toDto(any(Reserva.class));
+    }
+
+    @Test
+    void exportarReservas_DeveRetornarBadRequest_ComFormatoDesconhecido() throws Exception {
+        mockMvc.perform(get(API_URL).param("formato", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Formato de exportação não suportado: xml."));
+        verifyNoInteractions(reservaExportService);
+    }
+}
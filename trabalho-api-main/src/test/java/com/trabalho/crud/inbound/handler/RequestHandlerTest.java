@@ -1,7 +1,11 @@
 package com.trabalho.crud.inbound.handler;
 
+import com.trabalho.crud.core.service.ConflitoConcorrenciaException;
 import com.trabalho.crud.core.service.ResourceNotFoundException;
 import com.trabalho.crud.core.service.ValidacaoReservaException;
+import com.trabalho.crud.core.service.ReservaIndisponivelException;
+import com.trabalho.crud.core.disponibilidade.PeriodoLivre;
+import com.trabalho.crud.core.disponibilidade.SugestoesReserva;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -10,10 +14,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.when;
 
 /**
@@ -101,6 +108,53 @@ public class RequestHandlerTest {
         assertEquals(EXPECTED_PATH, body.get("path"));
     }
 
+    // -------------------------------------------------------------------------
+    // TESTE PARA CONFLITOS DE CONCORRÊNCIA (CONFLICT - 409)
+    // Cobre o método handleConflitoConcorrenciaException.
+    // -------------------------------------------------------------------------
+
+    @Test
+    void handleConflitoConcorrenciaException_DeveRetornarConflict() {
+        String mensagemErro = "O quarto está sendo reservado por outra operação. Tente novamente.";
+        ConflitoConcorrenciaException exception = new ConflitoConcorrenciaException(mensagemErro);
+
+        ResponseEntity<Object> response = requestHandler.handleConflitoConcorrenciaException(exception, webRequest);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertNotNull(body);
+
+        assertEquals(HttpStatus.CONFLICT.value(), body.get("status"));
+        assertEquals("Conflict - Conflito de Concorrência", body.get("error"));
+        assertEquals(mensagemErro, body.get("message"));
+        assertEquals(EXPECTED_PATH, body.get("path"));
+    }
+
+    // -------------------------------------------------------------------------
+    // TESTE PARA QUARTO INDISPONÍVEL (BAD_REQUEST - 400 com sugestões)
+    // Cobre o método handleReservaIndisponivelException.
+    // -------------------------------------------------------------------------
+
+    @Test
+    void handleReservaIndisponivelException_DeveRetornarBadRequestComSugestoes() {
+        SugestoesReserva sugestoes = new SugestoesReserva(
+            List.of(new PeriodoLivre(LocalDate.of(2030, 1, 5), LocalDate.of(2030, 1, 7))), List.of("202"));
+        ReservaIndisponivelException exception = new ReservaIndisponivelException("O quarto 101 já está reservado.", sugestoes);
+
+        ResponseEntity<Object> response = requestHandler.handleReservaIndisponivelException(exception, webRequest);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertNotNull(body);
+
+        assertEquals("O quarto 101 já está reservado.", body.get("message"));
+        assertSame(sugestoes, body.get("sugestoes"));
+    }
+
     // -------------------------------------------------------------------------
     // TESTE PARA EXCEÇÕES NÃO MAPEADAS (INTERNAL_SERVER_ERROR - 500)
     // Cobre o método handleAllExceptions.
@@ -0,0 +1,132 @@
+package com.trabalho.crud.outbound.metricas;
+
+import com.trabalho.crud.core.service.ReservaIndisponivelException;
+import com.trabalho.crud.core.service.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários da medição das chamadas por camada.
+ */
+class MedicaoCamadasTest {
+
+    private final SimpleMeterRegistry registro = new SimpleMeterRegistry();
+    private MedicaoCamadas medicao;
+
+    @BeforeEach
+    void setUp() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("registro", registro));
+        medicao = new MedicaoCamadas(beans.getBeanProvider(MeterRegistry.class),
+            Map.of(Servico.class, "servico", Consultas.class, "repositorio"));
+    }
+
+    private Timer timer(String camada, String metodo, String resultado, String excecao) {
+        return registro.find(MedidorChamadas.TIMER)
+            .tags("camada", camada, "metodo", metodo, "resultado", resultado, "excecao", excecao)
+            .timer();
+    }
+
+    @Test
+    void chamada_DeveSerMedidaPorMetodoEResultado() {
+        Servico servico = (Servico) medicao.postProcessAfterInitialization(new Servico(), "servico");
+
+        servico.buscar(1L);
+        servico.buscar(2L);
+        assertThrows(ReservaIndisponivelException.class, () -> servico.buscar(-1L));
+        assertThrows(ResourceNotFoundException.class, () -> servico.buscar(0L));
+        assertThrows(IllegalStateException.class, () -> servico.buscar(99L));
+
+        assertTrue(AopUtils.isCglibProxy(servico));
+        assertEquals(2, timer("servico", "buscar", "sucesso", "nenhuma").count());
+        assertEquals(1, timer("servico", "buscar", "ValidacaoReservaException", "ReservaIndisponivelException").count());
+        assertEquals(1, timer("servico", "buscar", "ResourceNotFoundException", "ResourceNotFoundException").count());
+        assertEquals(1, timer("servico", "buscar", "erro", "IllegalStateException").count());
+    }
+
+    @Test
+    void prometheus_DevePublicarHistogramaDaLatencia() {
+        PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        medicao = new MedicaoCamadas(new StaticListableBeanFactory(Map.of("registro", prometheus))
+            .getBeanProvider(MeterRegistry.class), Map.of(Servico.class, "servico"));
+        Servico servico = (Servico) medicao.postProcessAfterInitialization(new Servico(), "servico");
+
+        servico.buscar(1L);
+
+        String texto = prometheus.scrape();
+        // Percentis ficam para o histogram_quantile sobre os baldes, a partir de 10 µs
+        assertTrue(texto.contains("reservas_chamadas_seconds_bucket{camada=\"servico\",excecao=\"nenhuma\","
+            + "metodo=\"buscar\",resultado=\"sucesso\",le=\"1.0E-5\"}"), texto);
+        assertTrue(texto.contains("reservas_chamadas_seconds_count{camada=\"servico\",excecao=\"nenhuma\","
+            + "metodo=\"buscar\",resultado=\"sucesso\"} 1"), texto);
+    }
+
+    @Test
+    void proxyExistente_DeveReceberAMedicaoAntesDosOutrosInterceptadores() {
+        // Como nos repositórios do Spring Data, a consulta é respondida por um interceptador, sem alvo
+        AtomicInteger consultasFeitas = new AtomicInteger();
+        Object proxy = new ProxyFactory(Consultas.class,
+            (MethodInterceptor) chamada -> List.of(consultasFeitas.incrementAndGet())).getProxy();
+
+        Consultas consultas = (Consultas) medicao.postProcessAfterInitialization(proxy, "consultas");
+        consultas.todas();
+
+        assertSame(proxy, consultas);
+        assertInstanceOf(MedidorChamadas.class, ((Advised) consultas).getAdvisors()[0].getAdvice());
+        assertEquals(1, consultasFeitas.get());
+        assertEquals(1, timer("repositorio", "todas", "sucesso", "nenhuma").count());
+    }
+
+    @Test
+    void beanDeOutroTipo_NaoDeveSerMedido() {
+        Object bean = new Object();
+
+        assertSame(bean, medicao.postProcessAfterInitialization(bean, "outro"));
+    }
+
+    @Test
+    void semRegistro_ChamadasDevemPassarDireto() {
+        medicao = new MedicaoCamadas(new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+            Map.of(Servico.class, "servico"));
+        Servico servico = (Servico) medicao.postProcessAfterInitialization(new Servico(), "servico");
+
+        assertEquals("reserva 1", servico.buscar(1L));
+        assertTrue(registro.getMeters().isEmpty());
+    }
+
+    public static class Servico {
+
+        public String buscar(Long id) {
+            if (id < 0) {
+                throw new ReservaIndisponivelException("Quarto ocupado.", null);
+            }
+            if (id == 0) {
+                throw new ResourceNotFoundException("Reserva não encontrada.");
+            }
+            if (id == 99) {
+                throw new IllegalStateException();
+            }
+            return "reserva " + id;
+        }
+    }
+
+    public interface Consultas {
+
+        List<Integer> todas();
+    }
+}